@@ -51,6 +51,8 @@ module org.opengis.geoapi.example {
     requires java.naming;
     requires tech.uom.seshat;
 
+    exports org.opengis.example.feature;
+    exports org.opengis.example.filter;
     exports org.opengis.example.geometry;
     exports org.opengis.example.metadata;
     exports org.opengis.example.parameter;
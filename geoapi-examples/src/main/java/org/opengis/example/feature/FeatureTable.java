@@ -0,0 +1,749 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.BitSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import org.opengis.feature.Feature;
+import org.opengis.feature.Property;
+import org.opengis.feature.Operation;
+import org.opengis.feature.PropertyType;
+import org.opengis.feature.AttributeType;
+import org.opengis.feature.FeatureAssociationRole;
+import org.opengis.feature.InvalidPropertyValueException;
+import org.opengis.feature.FeatureInstantiationException;
+import org.opengis.example.filter.ColumnBatch;
+
+
+/**
+ * The property values of many features of the same type, stored in one array per property.
+ * The values of attributes of type {@link Double} or {@link Float} are stored in {@code double[]} arrays,
+ * the values of attributes of type {@link Long}, {@link Integer}, {@link Short} or {@link Byte} are stored
+ * in {@code long[]} arrays, and all other values are stored in {@code Object[]} arrays. Consequently, a
+ * table of numbers does not contain any object other than the arrays, regardless the number of rows.
+ *
+ * <p>Features are {@linkplain SimpleFeature views} over a row of this table.
+ * The following restrictions apply:</p>
+ * <ul>
+ *   <li>In floating point columns, a null value is stored as NaN. Consequently, NaN values are read as null.</li>
+ *   <li>Rows cannot be removed.</li>
+ *   <li>This class is not thread-safe.</li>
+ * </ul>
+ *
+ * <p>By default, the values of operations are computed on each access.
+ * Operations can be {@linkplain #memoize(String...) memoized} for caching their values in this table.</p>
+ */
+public class FeatureTable {
+    /**
+     * The values of a property for all rows.
+     */
+    private abstract static class Column {
+        /**
+         * Creates a new column.
+         */
+        Column() {
+        }
+
+        /**
+         * Returns the value at the given row.
+         *
+         * @param  row  index of the row.
+         * @return the value, or {@code null} if none.
+         */
+        abstract Object get(int row);
+
+        /**
+         * Sets the value at the given row. The value has already been verified.
+         *
+         * @param  row    index of the row.
+         * @param  value  the new value, or {@code null} if none.
+         */
+        abstract void set(int row, Object value);
+
+        /**
+         * Returns the value at the given row as a {@code double}.
+         *
+         * @param  row  index of the row.
+         * @return the value, or NaN if none.
+         * @throws ClassCastException if the value is not a number.
+         */
+        double getDouble(int row) {
+            final Object value = get(row);
+            if (value == null) return Double.NaN;
+            if (value instanceof Number) return ((Number) value).doubleValue();
+            throw new ClassCastException("Not a numeric property.");
+        }
+
+        /**
+         * Sets the capacity of this column.
+         *
+         * @param  capacity  the new capacity.
+         */
+        abstract void resize(int capacity);
+
+        /**
+         * Returns the values of this column as an array for {@link ColumnBatch}.
+         *
+         * @param  size  number of rows in the table.
+         * @return a {@code double[]} or {@code Object[]} array, or {@code null} if none.
+         */
+        abstract Object toBatchColumn(int size);
+    }
+
+    /**
+     * A column of floating point values, with NaN for null values.
+     */
+    private static final class DoubleColumn extends Column {
+        /** The values, with NaN for null values. */
+        double[] values;
+
+        /** Whether the values are of class {@link Float} instead of {@link Double}. */
+        private final boolean isFloat;
+
+        /**
+         * Creates a new column.
+         *
+         * @param capacity  the initial capacity.
+         * @param isFloat   whether the values are of class {@link Float} instead of {@link Double}.
+         */
+        DoubleColumn(final int capacity, final boolean isFloat) {
+            values = new double[capacity];
+            this.isFloat = isFloat;
+        }
+
+        @Override Object get(final int row) {
+            final double value = values[row];
+            if (Double.isNaN(value)) return null;
+            return isFloat ? (Object) (float) value : (Object) value;
+        }
+
+        @Override void set(final int row, final Object value) {
+            values[row] = (value != null) ? ((Number) value).doubleValue() : Double.NaN;
+        }
+
+        @Override double getDouble(final int row) {
+            return values[row];
+        }
+
+        @Override void resize(final int capacity) {
+            final int old = values.length;
+            values = Arrays.copyOf(values, capacity);
+            if (capacity > old) Arrays.fill(values, old, capacity, Double.NaN);
+        }
+
+        @Override Object toBatchColumn(final int size) {
+            return values;
+        }
+    }
+
+    /**
+     * A column of integer values, with a bitmask for null values.
+     */
+    private static final class LongColumn extends Column {
+        /** The largest magnitude of {@code long} values which are convertible to {@code double} without rounding error. */
+        private static final long MAX_EXACT_LONG = 1L << 53;
+
+        /** The values. */
+        long[] values;
+
+        /** The rows having a non-null value. */
+        final BitSet present;
+
+        /** The class of values: {@link Long}, {@link Integer}, {@link Short} or {@link Byte}. */
+        private final Class<?> type;
+
+        /**
+         * Creates a new column.
+         *
+         * @param capacity  the initial capacity.
+         * @param type      the class of values.
+         */
+        LongColumn(final int capacity, final Class<?> type) {
+            values  = new long[capacity];
+            present = new BitSet(capacity);
+            this.type = type;
+        }
+
+        @Override Object get(final int row) {
+            if (!present.get(row)) return null;
+            final long value = values[row];
+            if (type == Integer.class) return (int) value;
+            if (type == Short.class)   return (short) value;
+            if (type == Byte.class)    return (byte) value;
+            return value;
+        }
+
+        @Override void set(final int row, final Object value) {
+            if (value != null) {
+                values[row] = ((Number) value).longValue();
+                present.set(row);
+            } else {
+                values[row] = 0;
+                present.clear(row);
+            }
+        }
+
+        @Override double getDouble(final int row) {
+            return present.get(row) ? values[row] : Double.NaN;
+        }
+
+        @Override void resize(final int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override Object toBatchColumn(final int size) {
+            final double[] copy = new double[size];
+            for (int i=0; i<size; i++) {
+                if (present.get(i)) {
+                    final long value = values[i];
+                    if (value > MAX_EXACT_LONG || value < -MAX_EXACT_LONG) {
+                        return null;        // Cannot be converted without rounding error.
+                    }
+                    copy[i] = value;
+                } else {
+                    copy[i] = Double.NaN;
+                }
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * A column of arbitrary objects.
+     */
+    private static final class ObjectColumn extends Column {
+        /** The values. */
+        Object[] values;
+
+        /** Whether this column can be given to {@link ColumnBatch}. */
+        private final boolean isBatchable;
+
+        /**
+         * Creates a new column.
+         *
+         * @param capacity     the initial capacity.
+         * @param isBatchable  whether this column can be given to {@link ColumnBatch}.
+         */
+        ObjectColumn(final int capacity, final boolean isBatchable) {
+            values = new Object[capacity];
+            this.isBatchable = isBatchable;
+        }
+
+        @Override Object get(final int row) {
+            return values[row];
+        }
+
+        @Override void set(final int row, final Object value) {
+            values[row] = value;
+        }
+
+        @Override void resize(final int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override Object toBatchColumn(final int size) {
+            return isBatchable ? values : null;
+        }
+    }
+
+    /**
+     * The cached values of a memoized operation for all rows.
+     */
+    private static final class Memo {
+        /** The cached values. */
+        Object[] values;
+
+        /** The rows for which the cached value is valid. */
+        final BitSet valid;
+
+        /**
+         * Creates an initially empty cache.
+         *
+         * @param capacity  the initial capacity.
+         */
+        Memo(final int capacity) {
+            values = new Object[capacity];
+            valid  = new BitSet(capacity);
+        }
+    }
+
+    /**
+     * The type of all features in this table.
+     */
+    private final SimpleFeatureType type;
+
+    /**
+     * The values of each property, in property index order.
+     * Elements are {@code null} for operations, which have no stored value.
+     */
+    private final Column[] columns;
+
+    /**
+     * The caches of memoized operations, in property index order.
+     * Elements are {@code null} for properties which are not memoized operations.
+     */
+    private final Memo[] memos;
+
+    /**
+     * For each stored property, the indexes of the memoized operations to invalidate
+     * when the property value changes. Elements are {@code null} if there is none.
+     */
+    private int[][] dependents;
+
+    /**
+     * The default value of each property, or {@code null} if none.
+     */
+    private final Object[] defaultValues;
+
+    /**
+     * Number of rows in this table.
+     */
+    private int size;
+
+    /**
+     * Number of rows that the columns can contain.
+     */
+    private int capacity;
+
+    /**
+     * Creates an initially empty table for features of the given type.
+     *
+     * @param  type      the type of all features in this table.
+     * @param  capacity  the initial number of rows that this table can contain without reallocation.
+     * @throws FeatureInstantiationException if the given feature type is abstract.
+     */
+    public FeatureTable(final SimpleFeatureType type, final int capacity) {
+        if (type.isAbstract()) {
+            throw new FeatureInstantiationException("Feature type \"" + type.getName() + "\" is abstract.");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        this.type     = type;
+        this.capacity = capacity;
+        final int n   = type.getPropertyCount();
+        columns       = new Column[n];
+        memos         = new Memo[n];
+        dependents    = new int[n][];
+        defaultValues = new Object[n];
+        for (int i=0; i<n; i++) {
+            final PropertyType property = type.getProperty(i);
+            if (property instanceof AttributeType<?>) {
+                final var attribute = (AttributeType<?>) property;
+                final Class<?> c = attribute.getValueClass();
+                if (attribute.getMaximumOccurs() > 1) {
+                    columns[i] = new ObjectColumn(capacity, false);
+                } else if (c == Double.class || c == Float.class) {
+                    columns[i] = new DoubleColumn(capacity, c == Float.class);
+                } else if (c == Long.class || c == Integer.class || c == Short.class || c == Byte.class) {
+                    columns[i] = new LongColumn(capacity, c);
+                } else {
+                    columns[i] = new ObjectColumn(capacity, true);
+                }
+                defaultValues[i] = attribute.getDefaultValue();
+            } else if (!(property instanceof Operation)) {
+                columns[i] = new ObjectColumn(capacity, false);
+            }
+        }
+    }
+
+    /**
+     * Returns the type of all features in this table.
+     *
+     * @return the type of all features.
+     */
+    public SimpleFeatureType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of rows in this table.
+     *
+     * @return number of features.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Caches the values of the given operations. The value of a memoized operation is computed
+     * on the first access for each feature, then reused until the value of a property used by
+     * the operation is changed through this table or its features.
+     *
+     * <p>The properties used by an operation are known if the operation is a {@link SimpleOperation}.
+     * Other operations are assumed to use all properties. Memoized operations shall not depend on
+     * anything else than the property values of the same feature.</p>
+     *
+     * @param  operations  names of the operations to memoize.
+     * @throws IllegalArgumentException if a name is not the name of an operation.
+     */
+    public void memoize(final String... operations) {
+        for (final String name : operations) {
+            final int index = type.indexOf(name);
+            if (index < 0 || !(type.getProperty(index) instanceof Operation)) {
+                throw new IllegalArgumentException("\"" + name + "\" is not an operation of " + type.getName() + '.');
+            }
+            if (memos[index] == null) {
+                memos[index] = new Memo(capacity);
+            }
+        }
+        final var deps = new BitSet[columns.length];
+        for (int i=0; i<memos.length; i++) {
+            if (memos[i] != null) {
+                final var stored = new BitSet();
+                dependencies(i, stored, new BitSet());
+                for (int p = stored.nextSetBit(0); p >= 0; p = stored.nextSetBit(p+1)) {
+                    if (deps[p] == null) deps[p] = new BitSet();
+                    deps[p].set(i);
+                }
+            }
+        }
+        final int[][] result = new int[columns.length][];
+        for (int i=0; i<deps.length; i++) {
+            if (deps[i] != null) result[i] = deps[i].stream().toArray();
+        }
+        dependents = result;
+    }
+
+    /**
+     * Adds the indexes of the stored properties used, directly or indirectly, by the given operation.
+     *
+     * @param  index    index of the operation.
+     * @param  stored   where to add the indexes of stored properties.
+     * @param  visited  indexes of the operations already visited.
+     */
+    private void dependencies(final int index, final BitSet stored, final BitSet visited) {
+        if (visited.get(index)) return;
+        visited.set(index);
+        final PropertyType property = type.getProperty(index);
+        if (property instanceof SimpleOperation<?>) {
+            for (final String name : ((SimpleOperation<?>) property).getDependencies()) {
+                final int dependency = type.indexOf(name);
+                if (dependency >= 0) {
+                    if (columns[dependency] != null) {
+                        stored.set(dependency);
+                    } else {
+                        dependencies(dependency, stored, visited);
+                    }
+                }
+            }
+        } else {
+            for (int i=0; i<columns.length; i++) {
+                if (columns[i] != null) stored.set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the values of the operation at the given index are memoized.
+     *
+     * @param  index  index of the operation.
+     * @return whether the operation values are cached.
+     */
+    final boolean isMemoized(final int index) {
+        return memos[index] != null;
+    }
+
+    /**
+     * Returns the value of the given operation on the given feature, using the cache if the operation is memoized.
+     *
+     * @param  feature  the feature on which to execute the operation.
+     * @param  index    index of the operation.
+     * @return the operation result.
+     */
+    final Object getOperationValue(final SimpleFeature feature, final int index) {
+        final int row = feature.getRow();
+        final Memo memo = memos[index];
+        if (memo != null && memo.valid.get(row)) {
+            return memo.values[row];
+        }
+        final Operation operation = (Operation) type.getProperty(index);
+        final Object value;
+        if (operation instanceof SimpleOperation<?>) {
+            value = ((SimpleOperation<?>) operation).evaluate(feature);
+        } else {
+            final Property result = operation.apply(feature, null);
+            value = (result != null) ? result.getValue() : null;
+        }
+        if (memo != null) {
+            memo.values[row] = value;
+            memo.valid.set(row);
+        }
+        return value;
+    }
+
+    /**
+     * Discards the cached values of the memoized operations using the given property in the given row.
+     *
+     * @param  row    index of the row.
+     * @param  index  index of the property which has been modified.
+     */
+    private void invalidate(final int row, final int index) {
+        final int[] operations = dependents[index];
+        if (operations != null) {
+            for (final int i : operations) {
+                final Memo memo = memos[i];
+                memo.valid.clear(row);
+                memo.values[row] = null;
+            }
+        }
+    }
+
+    /**
+     * Appends a new row initialized to the default values, and returns a feature for that row.
+     *
+     * @return the feature for the new row.
+     */
+    public SimpleFeature add() {
+        if (size == capacity) {
+            capacity = Math.max(8, capacity + (capacity >> 1));
+            for (final Column column : columns) {
+                if (column != null) column.resize(capacity);
+            }
+            for (final Memo memo : memos) {
+                if (memo != null) memo.values = Arrays.copyOf(memo.values, capacity);
+            }
+        }
+        final int row = size++;
+        for (int i=0; i<columns.length; i++) {
+            final Column column = columns[i];
+            if (column != null) {
+                Object value = defaultValues[i];
+                if (isMultiValued(i)) {
+                    final var values = new ArrayList<Object>(2);
+                    if (value != null) values.add(value);
+                    value = values;
+                }
+                column.set(row, value);
+            }
+        }
+        return new SimpleFeature(this, row);
+    }
+
+    /**
+     * Returns the feature at the given row.
+     *
+     * @param  row  index of the row.
+     * @return a feature for the given row.
+     * @throws IndexOutOfBoundsException if the given row is out of bounds.
+     */
+    public SimpleFeature get(final int row) {
+        return new SimpleFeature(this, checkRow(row));
+    }
+
+    /**
+     * Returns all features in this table as a list. The list is a view:
+     * each call to {@code get(int)} creates a new lightweight feature.
+     *
+     * @return all features in this table.
+     */
+    public List<SimpleFeature> features() {
+        return new Features();
+    }
+
+    /**
+     * The list returned by {@link #features()}.
+     */
+    private final class Features extends AbstractList<SimpleFeature> implements RandomAccess {
+        /**
+         * Creates a new view.
+         */
+        Features() {
+        }
+
+        /** Returns the number of features. */
+        @Override public int size() {
+            return size;
+        }
+
+        /** Returns the feature at the given row. */
+        @Override public SimpleFeature get(final int row) {
+            return FeatureTable.this.get(row);
+        }
+    }
+
+    /**
+     * Returns the columns of this table as a batch for {@link org.opengis.example.filter.BatchEvaluator}.
+     * Numeric attributes and single-valued attributes are provided as columns; other properties
+     * are evaluated on the features. The arrays are not copied, except the integer columns which
+     * are converted to {@code double[]} arrays. Integer columns having values that cannot be represented
+     * exactly as {@code double} are evaluated on the features. The batch shall not be used after rows are added.
+     *
+     * @return a batch with the columns of this table.
+     */
+    public ColumnBatch<Feature> toColumnBatch() {
+        final var batch = new ColumnBatch<Feature>(features());
+        for (int i=0; i<columns.length; i++) {
+            final Column column = columns[i];
+            if (column != null) {
+                final Object values = column.toBatchColumn(size);
+                final String name = type.getProperty(i).getName().toString();
+                if (values instanceof double[]) {
+                    batch.setValues(name, (double[]) values);
+                } else if (values != null) {
+                    batch.setValues(name, (Object[]) values);
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Verifies that the given row is valid.
+     *
+     * @param  row  the row to verify.
+     * @return the given row.
+     * @throws IndexOutOfBoundsException if the given row is out of bounds.
+     */
+    final int checkRow(final int row) {
+        return Objects.checkIndex(row, size);
+    }
+
+    /**
+     * Returns whether the property at the given index is multi-valued.
+     *
+     * @param  index  the property index.
+     * @return whether the property may have more than one value.
+     */
+    final boolean isMultiValued(final int index) {
+        final PropertyType property = type.getProperty(index);
+        if (property instanceof AttributeType<?>) {
+            return ((AttributeType<?>) property).getMaximumOccurs() > 1;
+        }
+        if (property instanceof FeatureAssociationRole) {
+            return ((FeatureAssociationRole) property).getMaximumOccurs() > 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the column of the given property.
+     *
+     * @param  index  the property index.
+     * @return the column of the given property.
+     * @throws IllegalArgumentException if the property is an operation.
+     */
+    private Column column(final int index) {
+        final Column column = columns[index];
+        if (column == null) {
+            throw new IllegalArgumentException("Property \"" + type.getProperty(index).getName() + "\" is an operation.");
+        }
+        return column;
+    }
+
+    /**
+     * Returns the value of the given property in the given row.
+     * For multi-valued properties, the value is an unmodifiable collection.
+     *
+     * @param  row    index of the row.
+     * @param  index  index of the property.
+     * @return the property value, or {@code null} if none.
+     */
+    final Object getValue(final int row, final int index) {
+        final Object value = column(index).get(row);
+        if (value instanceof List<?>) {
+            return Collections.unmodifiableList((List<?>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of the given numeric property in the given row.
+     *
+     * @param  row    index of the row.
+     * @param  index  index of the property.
+     * @return the property value, or NaN if none.
+     * @throws ClassCastException if the property is not numeric.
+     */
+    final double getDouble(final int row, final int index) {
+        return column(index).getDouble(row);
+    }
+
+    /**
+     * Sets the value of the given numeric property in the given row.
+     *
+     * @param  row    index of the row.
+     * @param  index  index of the property.
+     * @param  value  the new value, or NaN for null. Rounded to {@code float} if the property is of type {@link Float}.
+     * @throws ClassCastException if the property is not of type {@link Double}.
+     */
+    final void setDouble(final int row, final int index, final double value) {
+        final Column column = column(index);
+        if (column instanceof DoubleColumn) {
+            final var c = (DoubleColumn) column;
+            c.values[row] = c.isFloat ? (float) value : value;
+            invalidate(row, index);
+        } else {
+            setValue(row, index, Double.isNaN(value) ? null : value);
+        }
+    }
+
+    /**
+     * Sets the value of the given property in the given row.
+     *
+     * @param  row    index of the row.
+     * @param  index  index of the property.
+     * @param  value  the new value, or {@code null} if none.
+     * @throws ClassCastException if the value is not of the expected class.
+     * @throws InvalidPropertyValueException if the value is invalid for another reason.
+     */
+    final void setValue(final int row, final int index, Object value) {
+        final Column column = column(index);
+        final PropertyType property = type.getProperty(index);
+        if (isMultiValued(index)) {
+            final var values = new ArrayList<Object>();
+            if (value instanceof Collection<?>) {
+                for (final Object element : (Collection<?>) value) {
+                    values.add(verify(property, element));
+                }
+            } else if (value != null) {
+                values.add(verify(property, value));
+            }
+            value = values;
+        } else {
+            value = verify(property, value);
+        }
+        column.set(row, value);
+        invalidate(row, index);
+    }
+
+    /**
+     * Verifies that the given value is valid for the given property.
+     *
+     * @param  property  the property for which to verify the value.
+     * @param  value     the value to verify.
+     * @return the value to store.
+     * @throws ClassCastException if the value is not of the expected class.
+     * @throws InvalidPropertyValueException if the value is invalid for another reason.
+     */
+    private static Object verify(final PropertyType property, final Object value) {
+        if (value != null) {
+            if (property instanceof AttributeType<?>) {
+                final Class<?> c = ((AttributeType<?>) property).getValueClass();
+                if (!c.isInstance(value)) {
+                    throw new ClassCastException("Value of \"" + property.getName() + "\" shall be an instance of "
+                            + c.getSimpleName() + " but got " + value.getClass().getSimpleName() + '.');
+                }
+            } else if (property instanceof FeatureAssociationRole) {
+                if (!(value instanceof Feature)) {
+                    throw new ClassCastException("Value of \"" + property.getName() + "\" shall be a feature.");
+                }
+                if (!((FeatureAssociationRole) property).getValueType().isAssignableFrom(((Feature) value).getType())) {
+                    throw new InvalidPropertyValueException("Feature of type \"" + ((Feature) value).getType().getName()
+                            + "\" cannot be assigned to \"" + property.getName() + "\".");
+                }
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import org.opengis.util.GenericName;
+import org.opengis.util.InternationalString;
+import org.opengis.feature.Feature;
+import org.opengis.feature.Operation;
+import org.opengis.feature.FeatureType;
+import org.opengis.feature.PropertyType;
+import org.opengis.feature.FeatureAssociationRole;
+import org.opengis.feature.PropertyNotFoundException;
+import org.opengis.feature.FeatureInstantiationException;
+
+
+/**
+ * A view over an arbitrary feature type with the inheritance tree flattened once at construction time.
+ * The {@link FeatureType} methods of this class answer the following questions without walking
+ * through the super-types:
+ *
+ * <ul>
+ *   <li>{@link #getProperty(String)} and {@link #indexOf(String)}: the property of a given name,
+ *       including inherited attributes, associations and operations.</li>
+ *   <li>{@link #getProperties(boolean)}: all properties in a stable index order.</li>
+ *   <li>{@link #isAssignableFrom(FeatureType)}: whether a type is this type or a sub-type.</li>
+ * </ul>
+ *
+ * Properties are ordered and overridden with the same rules as {@link SimpleFeatureType}.
+ * Consequently, when the wrapped type is a {@code SimpleFeatureType}, the property indexes are the same.
+ * In addition to the full property names, properties can be found by the {@linkplain GenericName#tip() tip}
+ * of their name (e.g. {@code "name"} for {@code "gml:name"}) when there is no ambiguity.
+ *
+ * <p>The wrapped feature type shall be immutable. Instances of this class are thread-safe.</p>
+ */
+public final class ResolvedFeatureType implements FeatureType {
+    /**
+     * The wrapped feature type.
+     */
+    private final FeatureType type;
+
+    /**
+     * All properties, including inherited properties. The index in this list is the property index.
+     */
+    private final List<PropertyType> properties;
+
+    /**
+     * The property indexes by full name and by unambiguous tip name.
+     */
+    private final Map<String,Integer> indexes;
+
+    /**
+     * The wrapped type and all its direct and indirect super-types, compared by identity.
+     */
+    private final Set<FeatureType> ancestors;
+
+    /**
+     * The association roles, including inherited ones.
+     */
+    private final List<FeatureAssociationRole> associations;
+
+    /**
+     * The operations, including inherited ones.
+     */
+    private final List<Operation> operations;
+
+    /**
+     * Creates a resolved view over the given feature type.
+     *
+     * @param type  the feature type to resolve.
+     */
+    public ResolvedFeatureType(final FeatureType type) {
+        this.type = type;
+        final var flattened = new IdentityHashMap<FeatureType, List<PropertyType>>();
+        properties = List.copyOf(flatten(type, flattened));
+        final Set<FeatureType> types = Collections.newSetFromMap(new IdentityHashMap<>());
+        types.addAll(flattened.keySet());
+        ancestors  = Collections.unmodifiableSet(types);
+        indexes    = new HashMap<>();
+        final var ambiguous = new HashSet<String>();
+        final var tips = new HashMap<String,Integer>();
+        final var roles = new ArrayList<FeatureAssociationRole>();
+        final var ops   = new ArrayList<Operation>();
+        for (int i=0; i < properties.size(); i++) {
+            final PropertyType property = properties.get(i);
+            final GenericName name = property.getName();
+            indexes.put(name.toString(), i);
+            final String tip = name.tip().toString();
+            if (tips.putIfAbsent(tip, i) != null) {
+                ambiguous.add(tip);
+            }
+            if (property instanceof FeatureAssociationRole) roles.add((FeatureAssociationRole) property);
+            if (property instanceof Operation) ops.add((Operation) property);
+        }
+        tips.keySet().removeAll(ambiguous);
+        tips.forEach(indexes::putIfAbsent);
+        associations = List.copyOf(roles);
+        operations   = List.copyOf(ops);
+    }
+
+    /**
+     * Returns the flattened properties of the given type, with the properties of the super-types first.
+     * Types which have already been flattened are taken from the given map, which is used as a cache
+     * in case of diamond inheritance. After this method returns, the keys of the given map are all
+     * ancestors of the given type.
+     *
+     * @param  type       the type to flatten.
+     * @param  flattened  the types already flattened.
+     * @return all properties of the given type.
+     */
+    private static List<PropertyType> flatten(final FeatureType type, final Map<FeatureType, List<PropertyType>> flattened) {
+        List<PropertyType> all = flattened.get(type);
+        if (all == null) {
+            all = new ArrayList<>();
+            final var byName = new HashMap<String,Integer>();
+            for (final FeatureType parent : type.getSuperTypes()) {
+                for (final PropertyType property : flatten(parent, flattened)) {
+                    add(all, byName, property);
+                }
+            }
+            for (final PropertyType property : type.getProperties(false)) {
+                add(all, byName, property);
+            }
+            flattened.put(type, all);
+        }
+        return all;
+    }
+
+    /**
+     * Adds the given property in the given list, or replaces the property of the same name.
+     *
+     * @param  all       the list of all properties.
+     * @param  byName    the indexes of the properties in the list.
+     * @param  property  the property to add.
+     */
+    private static void add(final List<PropertyType> all, final Map<String,Integer> byName, final PropertyType property) {
+        final Integer index = byName.putIfAbsent(property.getName().toString(), all.size());
+        if (index == null) {
+            all.add(property);
+        } else {
+            all.set(index, property);
+        }
+    }
+
+    /**
+     * Returns the wrapped feature type.
+     *
+     * @return the wrapped feature type.
+     */
+    public FeatureType getSource() {
+        return type;
+    }
+
+    /**
+     * Returns the name of the wrapped feature type.
+     */
+    @Override
+    public GenericName getName() {
+        return type.getName();
+    }
+
+    /**
+     * Returns the definition of the wrapped feature type.
+     */
+    @Override
+    public InternationalString getDefinition() {
+        return type.getDefinition();
+    }
+
+    /**
+     * Returns the designation of the wrapped feature type.
+     */
+    @Override
+    public InternationalString getDesignation() {
+        return type.getDesignation();
+    }
+
+    /**
+     * Returns the description of the wrapped feature type.
+     */
+    @Override
+    public InternationalString getDescription() {
+        return type.getDescription();
+    }
+
+    /**
+     * Returns whether the wrapped feature type is abstract.
+     */
+    @Override
+    public boolean isAbstract() {
+        return type.isAbstract();
+    }
+
+    /**
+     * Returns whether the wrapped feature type is simple.
+     */
+    @Override
+    public boolean isSimple() {
+        return type.isSimple();
+    }
+
+    /**
+     * Returns the number of properties, including inherited properties.
+     *
+     * @return the number of properties.
+     */
+    public int getPropertyCount() {
+        return properties.size();
+    }
+
+    /**
+     * Returns the index of the property of the given name.
+     * The name can be the full name or, if not ambiguous, the tip of the name.
+     *
+     * @param  name  the property name.
+     * @return index of the property of the given name, or -1 if none.
+     */
+    public int indexOf(final String name) {
+        final Integer index = indexes.get(name);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Returns whether the property of the given name is known to have at most one value.
+     * The name can be the full name or, if not ambiguous, the tip of the name.
+     *
+     * @param  name  the property name.
+     * @return whether the property of the given name is single-valued, or {@code false} if none.
+     *
+     * @see SimpleFeatureType#isSingleValued(String)
+     */
+    public boolean isSingleValued(final String name) {
+        final Integer index = indexes.get(name);
+        return (index != null) && SimpleFeatureType.isSingleValued(properties.get(index));
+    }
+
+    /**
+     * Returns the property at the given index.
+     *
+     * @param  index  the property index.
+     * @return the property at the given index.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public PropertyType getProperty(final int index) {
+        return properties.get(index);
+    }
+
+    /**
+     * Returns the property of the given name, including inherited properties.
+     * The name can be the full name or, if not ambiguous, the tip of the name.
+     *
+     * @param  name  the property name.
+     * @return the property of the given name.
+     * @throws PropertyNotFoundException if the type has no property of the given name.
+     */
+    @Override
+    public PropertyType getProperty(final String name) throws PropertyNotFoundException {
+        final Integer index = indexes.get(name);
+        if (index == null) {
+            throw new PropertyNotFoundException("No property named \"" + name + "\" in feature type \"" + getName() + "\".");
+        }
+        return properties.get(index);
+    }
+
+    /**
+     * Returns the properties of the wrapped type, optionally with the inherited properties.
+     * If inherited properties are included, the index of each property in the returned list
+     * is the property index.
+     *
+     * @param  includeSuperTypes  whether to include the inherited properties.
+     * @return the properties, in index order if inherited properties are included.
+     */
+    @Override
+    public List<PropertyType> getProperties(final boolean includeSuperTypes) {
+        return includeSuperTypes ? properties : List.copyOf(type.getProperties(false));
+    }
+
+    /**
+     * Returns the association roles, including inherited ones, in property index order.
+     *
+     * @return all association roles.
+     */
+    public List<FeatureAssociationRole> getAssociationRoles() {
+        return associations;
+    }
+
+    /**
+     * Returns the operations, including inherited ones, in property index order.
+     *
+     * @return all operations.
+     */
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the direct parents of the wrapped feature type.
+     */
+    @Override
+    public Set<? extends FeatureType> getSuperTypes() {
+        return type.getSuperTypes();
+    }
+
+    /**
+     * Returns the wrapped type and all its direct and indirect super-types.
+     *
+     * @return all ancestors, compared by identity.
+     */
+    final Set<FeatureType> ancestors() {
+        return ancestors;
+    }
+
+    /**
+     * Returns whether the wrapped type is the given type or one of its sub-types.
+     * This check is a hash lookup.
+     *
+     * @param  parent  the type to test.
+     * @return whether instances of the wrapped type can be used as instances of the given type.
+     */
+    public boolean isSubtypeOf(final FeatureType parent) {
+        return ancestors.contains(parent instanceof ResolvedFeatureType ? ((ResolvedFeatureType) parent).type : parent);
+    }
+
+    /**
+     * Returns whether the wrapped type is the given type or a parent of the given type.
+     * If the given type is resolved or is a {@link SimpleFeatureType}, this check is a hash lookup.
+     * Otherwise, the super-types of the given type are walked recursively.
+     *
+     * @param  other  the type to test.
+     * @return whether instances of the given type can be used as instances of the wrapped type.
+     */
+    @Override
+    public boolean isAssignableFrom(final FeatureType other) {
+        if (other == type) {
+            return true;
+        }
+        if (other instanceof ResolvedFeatureType) {
+            return ((ResolvedFeatureType) other).ancestors.contains(type);
+        }
+        if (other instanceof SimpleFeatureType) {
+            return ((SimpleFeatureType) other).ancestors().contains(type);
+        }
+        for (final FeatureType parent : other.getSuperTypes()) {
+            if (isAssignableFrom(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new instance of the wrapped type.
+     *
+     * @return a new feature instance.
+     * @throws FeatureInstantiationException if the wrapped type is abstract.
+     */
+    @Override
+    public Feature newInstance() throws FeatureInstantiationException {
+        return type.newInstance();
+    }
+
+    /**
+     * Returns a string representation of this resolved type.
+     */
+    @Override
+    public String toString() {
+        return "Resolved[" + type.getName() + ", " + properties.size() + " properties]";
+    }
+}
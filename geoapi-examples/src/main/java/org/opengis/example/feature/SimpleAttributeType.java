@@ -0,0 +1,142 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.Objects;
+import org.opengis.util.GenericName;
+import org.opengis.util.InternationalString;
+import org.opengis.feature.Attribute;
+import org.opengis.feature.AttributeType;
+import org.opengis.example.util.SimpleNameFactory;
+
+
+/**
+ * The type of an attribute, without characteristics. The attribute values are stored in a
+ * {@link FeatureTable}; attributes cannot be instantiated independently of a feature.
+ *
+ * @param  <V>  the type of attribute values.
+ */
+public class SimpleAttributeType<V> implements AttributeType<V> {
+    /**
+     * The name of this attribute type.
+     */
+    private final GenericName name;
+
+    /**
+     * The type of attribute values.
+     */
+    private final Class<V> valueClass;
+
+    /**
+     * The minimum and maximum number of occurrences of the attribute.
+     */
+    private final int minimumOccurs, maximumOccurs;
+
+    /**
+     * The value to assign to new attributes, or {@code null} if none.
+     */
+    private final V defaultValue;
+
+    /**
+     * Creates a new attribute type with the given name, value class, multiplicity and default value.
+     *
+     * @param  name           the name of this attribute type.
+     * @param  valueClass     the type of attribute values.
+     * @param  minimumOccurs  the minimum number of occurrences of the attribute.
+     * @param  maximumOccurs  the maximum number of occurrences of the attribute.
+     * @param  defaultValue   the value to assign to new attributes, or {@code null} if none.
+     * @throws IllegalArgumentException if the multiplicity is invalid.
+     */
+    public SimpleAttributeType(final GenericName name, final Class<V> valueClass,
+            final int minimumOccurs, final int maximumOccurs, final V defaultValue)
+    {
+        if (minimumOccurs < 0 || maximumOccurs < minimumOccurs || maximumOccurs == 0) {
+            throw new IllegalArgumentException("Invalid multiplicity: [" + minimumOccurs + " … " + maximumOccurs + "].");
+        }
+        this.name          = Objects.requireNonNull(name);
+        this.valueClass    = Objects.requireNonNull(valueClass);
+        this.minimumOccurs = minimumOccurs;
+        this.maximumOccurs = maximumOccurs;
+        this.defaultValue  = (defaultValue != null) ? valueClass.cast(defaultValue) : null;
+    }
+
+    /**
+     * Creates a new mandatory and single-valued attribute type without default value.
+     *
+     * @param  name        the name of this attribute type.
+     * @param  valueClass  the type of attribute values.
+     */
+    public SimpleAttributeType(final String name, final Class<V> valueClass) {
+        this(SimpleNameFactory.DEFAULT.createLocalName(null, name), valueClass, 1, 1, null);
+    }
+
+    /**
+     * Returns the name of this attribute type.
+     */
+    @Override
+    public GenericName getName() {
+        return name;
+    }
+
+    /**
+     * Returns a concise definition of the element.
+     * This simple implementation returns the name.
+     */
+    @Override
+    public InternationalString getDefinition() {
+        return name.toInternationalString();
+    }
+
+    /**
+     * Returns the type of attribute values.
+     */
+    @Override
+    public Class<V> getValueClass() {
+        return valueClass;
+    }
+
+    /**
+     * Returns the minimum number of occurrences of the attribute.
+     */
+    @Override
+    public int getMinimumOccurs() {
+        return minimumOccurs;
+    }
+
+    /**
+     * Returns the maximum number of occurrences of the attribute.
+     */
+    @Override
+    public int getMaximumOccurs() {
+        return maximumOccurs;
+    }
+
+    /**
+     * Returns the value to assign to new attributes, or {@code null} if none.
+     */
+    @Override
+    public V getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Unsupported operation, since attributes exist only as properties of a feature.
+     *
+     * @throws UnsupportedOperationException always thrown.
+     */
+    @Override
+    public Attribute<V> newInstance() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Attributes can be created only by SimpleFeatureType.newInstance().");
+    }
+
+    /**
+     * Returns a string representation of this attribute type.
+     */
+    @Override
+    public String toString() {
+        return name + " : " + valueClass.getSimpleName() + " [" + minimumOccurs + " … " + maximumOccurs + ']';
+    }
+}
@@ -0,0 +1,474 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Collection;
+import org.opengis.util.GenericName;
+import org.opengis.feature.Feature;
+import org.opengis.feature.Property;
+import org.opengis.feature.Attribute;
+import org.opengis.feature.Operation;
+import org.opengis.feature.PropertyType;
+import org.opengis.feature.AttributeType;
+import org.opengis.feature.FeatureAssociation;
+import org.opengis.feature.FeatureAssociationRole;
+import org.opengis.feature.MultiValuedPropertyException;
+import org.opengis.feature.PropertyNotFoundException;
+
+
+/**
+ * A feature which is a view over a row of a {@link FeatureTable}. Instances of this class are
+ * lightweight: they contain only a reference to the table and the row index. The same instance
+ * can be {@linkplain #moveTo(int) moved} to another row for iterating over a table without
+ * creating new objects.
+ *
+ * <p>In addition to the name-based methods of the {@link Feature} interface, this class provides
+ * methods fetching values by {@linkplain SimpleFeatureType#indexOf(String) property index}, which
+ * avoid the name lookup. The values of {@linkplain Operation operations} are computed by invoking
+ * the operations without parameters, or taken from the cache if the operation is
+ * {@linkplain FeatureTable#memoize(String...) memoized}.</p>
+ */
+public class SimpleFeature implements Feature {
+    /**
+     * The table where the property values are stored.
+     */
+    private final FeatureTable table;
+
+    /**
+     * Index of the row of this feature in the table.
+     */
+    private int row;
+
+    /**
+     * Creates a new view over the given row of the given table.
+     *
+     * @param table  the table where the property values are stored.
+     * @param row    index of the row of this feature in the table.
+     */
+    SimpleFeature(final FeatureTable table, final int row) {
+        this.table = table;
+        this.row   = row;
+    }
+
+    /**
+     * Returns the type of this feature.
+     */
+    @Override
+    public SimpleFeatureType getType() {
+        return table.getType();
+    }
+
+    /**
+     * Returns the table where the property values are stored.
+     *
+     * @return the table of this feature.
+     */
+    public FeatureTable getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the index of the row of this feature in the table.
+     *
+     * @return the row of this feature.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Moves this view to another row of the same table.
+     *
+     * @param  row  index of the new row.
+     * @throws IndexOutOfBoundsException if the given row is out of bounds.
+     */
+    public void moveTo(final int row) {
+        this.row = table.checkRow(row);
+    }
+
+    /**
+     * Returns the index of the property of the given name.
+     *
+     * @param  name  the property name.
+     * @return index of the property.
+     * @throws PropertyNotFoundException if the given name is not a property name of this feature.
+     */
+    private int indexOf(final String name) {
+        final int index = getType().indexOf(name);
+        if (index < 0) {
+            throw new PropertyNotFoundException("No property named \"" + name + "\" in feature type \""
+                                                + getType().getName() + "\".");
+        }
+        return index;
+    }
+
+    /**
+     * Returns the value of the property at the given index.
+     * If the property is multi-valued, the value is an unmodifiable list.
+     *
+     * @param  index  the property index.
+     * @return value of the property, or {@code null} if none.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public Object getPropertyValue(final int index) {
+        if (getType().getProperty(index) instanceof Operation) {
+            return table.getOperationValue(this, index);
+        }
+        return table.getValue(row, index);
+    }
+
+    /**
+     * Returns the value of the numeric property at the given index.
+     * This method avoids the creation of a {@link Number} instance when the values are stored as primitive types.
+     *
+     * @param  index  the property index.
+     * @return value of the property, or NaN if none.
+     * @throws ClassCastException if the property value is not a number.
+     */
+    public double getDouble(final int index) {
+        if (getType().getProperty(index) instanceof Operation) {
+            final Object value = getPropertyValue(index);
+            return (value != null) ? ((Number) value).doubleValue() : Double.NaN;
+        }
+        return table.getDouble(row, index);
+    }
+
+    /**
+     * Sets the value of the property at the given index.
+     *
+     * @param  index  the property index.
+     * @param  value  the new value, or {@code null} if none. May be a collection if the property is multi-valued.
+     * @throws ClassCastException if the value is not of the expected class.
+     * @throws IllegalArgumentException if the property is an operation or if the value is invalid.
+     */
+    public void setPropertyValue(final int index, final Object value) {
+        table.setValue(row, index, value);
+    }
+
+    /**
+     * Sets the value of the numeric property at the given index.
+     * This method avoids the creation of a {@link Number} instance when the values are stored as primitive types.
+     *
+     * @param  index  the property index.
+     * @param  value  the new value, or NaN if none.
+     * @throws ClassCastException if the property does not accept {@link Double} values.
+     */
+    public void setDouble(final int index, final double value) {
+        table.setDouble(row, index, value);
+    }
+
+    /**
+     * Returns the value of the property of the given name.
+     *
+     * @param  name  the property name.
+     * @return value of the property, or {@code null} if none.
+     * @throws PropertyNotFoundException if the given name is not a property name of this feature.
+     */
+    @Override
+    public Object getPropertyValue(final String name) throws PropertyNotFoundException {
+        return getPropertyValue(indexOf(name));
+    }
+
+    /**
+     * Returns the value of the property of the given name, or the given fallback if there is no such property.
+     *
+     * @param  name  the property name.
+     * @param  missingPropertyFallback  the value to return if there is no property of the given name.
+     * @return value of the property, or {@code missingPropertyFallback} if there is no such property.
+     */
+    @Override
+    public Object getValueOrFallback(final String name, final Object missingPropertyFallback) {
+        final int index = getType().indexOf(name);
+        return (index >= 0) ? getPropertyValue(index) : missingPropertyFallback;
+    }
+
+    /**
+     * Sets the value of the property of the given name.
+     *
+     * @param  name   the property name.
+     * @param  value  the new value, or {@code null} if none. May be a collection if the property is multi-valued.
+     * @throws PropertyNotFoundException if the given name is not a property name of this feature.
+     * @throws ClassCastException if the value is not of the expected class.
+     * @throws IllegalArgumentException if the property is an operation or if the value is invalid.
+     */
+    @Override
+    public void setPropertyValue(final String name, final Object value) throws IllegalArgumentException {
+        setPropertyValue(indexOf(name), value);
+    }
+
+    /**
+     * Returns the property of the given name. For attributes and associations, the returned property
+     * is a view over the value stored in the table: changes in the property are reflected in this
+     * feature and conversely. For operations, the returned property is the operation result,
+     * taken from the cache if the operation is {@linkplain FeatureTable#memoize memoized}.
+     *
+     * @param  name  the property name.
+     * @return the property of the given name.
+     * @throws PropertyNotFoundException if the given name is not a property name of this feature.
+     */
+    @Override
+    public Property getProperty(final String name) throws PropertyNotFoundException {
+        final int index = indexOf(name);
+        final PropertyType property = getType().getProperty(index);
+        if (property instanceof AttributeType<?>) {
+            return new AttributeView<>(index, (AttributeType<?>) property);
+        }
+        if (property instanceof FeatureAssociationRole) {
+            return new AssociationView(index, (FeatureAssociationRole) property);
+        }
+        final Operation operation = (Operation) property;
+        if (operation.getResult() instanceof AttributeType<?>
+                && (operation instanceof SimpleOperation<?> || table.isMemoized(index)))
+        {
+            return result((AttributeType<?>) operation.getResult(), table.getOperationValue(this, index));
+        }
+        return operation.apply(this, null);
+    }
+
+    /**
+     * Wraps the given operation value in a read-only attribute.
+     *
+     * @param  <V>    the type of attribute values.
+     * @param  type   the type of the operation result.
+     * @param  value  the operation value.
+     * @return a read-only attribute containing the given value.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> Attribute<V> result(final AttributeType<V> type, final Object value) {
+        return new SimpleOperation.Result<>(type, (V) value);
+    }
+
+    /**
+     * Sets the value of an attribute or association from the given property.
+     * The property type shall be the same instance as the type declared in the feature type.
+     *
+     * @param  property  the property from which to copy the value.
+     * @throws PropertyNotFoundException if the property name is not a property name of this feature.
+     * @throws IllegalArgumentException if the property type is not the expected one or the value is invalid.
+     */
+    @Override
+    public void setProperty(final Property property) throws IllegalArgumentException {
+        final int index = indexOf(property.getName().toString());
+        final PropertyType expected = getType().getProperty(index);
+        final Object type;
+        final Object value;
+        if (property instanceof Attribute<?>) {
+            final var attribute = (Attribute<?>) property;
+            type  = attribute.getType();
+            value = attribute.getValues();
+        } else if (property instanceof FeatureAssociation) {
+            final var association = (FeatureAssociation) property;
+            type  = association.getRole();
+            value = association.getValues();
+        } else {
+            throw new IllegalArgumentException("Unsupported property: " + property.getName());
+        }
+        if (type != expected) {
+            throw new IllegalArgumentException("Property \"" + property.getName() + "\" is not of the expected type.");
+        }
+        setPropertyValue(index, table.isMultiValued(index) ? value : ((Collection<?>) value).stream().findFirst().orElse(null));
+    }
+
+    /**
+     * Returns the value of the property at the given index as a collection.
+     *
+     * @param  index  the property index.
+     * @return the values, as an unmodifiable collection.
+     */
+    private Collection<?> getValues(final int index) {
+        final Object value = table.getValue(row, index);
+        if (value instanceof Collection<?>) {
+            return (Collection<?>) value;
+        }
+        return (value != null) ? List.of(value) : List.of();
+    }
+
+    /**
+     * Returns the value of the single-valued property at the given index.
+     *
+     * @param  index  the property index.
+     * @return the value, or {@code null} if none.
+     * @throws MultiValuedPropertyException if the property has more than one value.
+     */
+    private Object getSingleValue(final int index) {
+        final Object value = table.getValue(row, index);
+        if (value instanceof Collection<?>) {
+            final var values = (Collection<?>) value;
+            switch (values.size()) {
+                case 0:  return null;
+                case 1:  return values.iterator().next();
+                default: throw new MultiValuedPropertyException("Property \"" + getType().getProperty(index).getName()
+                                                                + "\" has more than one value.");
+            }
+        }
+        return value;
+    }
+
+    /**
+     * An attribute which is a view over a value stored in the table.
+     *
+     * @param  <V>  the type of attribute values.
+     */
+    private final class AttributeView<V> implements Attribute<V> {
+        /** Index of the property. */
+        private final int index;
+
+        /** The attribute type. */
+        private final AttributeType<V> type;
+
+        /**
+         * Creates a new view.
+         *
+         * @param index  index of the property.
+         * @param type   the attribute type.
+         */
+        AttributeView(final int index, final AttributeType<V> type) {
+            this.index = index;
+            this.type  = type;
+        }
+
+        /** Returns the attribute name. */
+        @Override public GenericName getName() {
+            return type.getName();
+        }
+
+        /** Returns the attribute type. */
+        @Override public AttributeType<V> getType() {
+            return type;
+        }
+
+        /** Returns the attribute value. */
+        @Override public V getValue() {
+            return type.getValueClass().cast(getSingleValue(index));
+        }
+
+        /** Returns all attribute values. */
+        @Override @SuppressWarnings("unchecked")
+        public Collection<V> getValues() {
+            return (Collection<V>) SimpleFeature.this.getValues(index);     // Types verified on assignment.
+        }
+
+        /** Sets the attribute value. */
+        @Override public void setValue(final V value) {
+            setPropertyValue(index, value);
+        }
+
+        /** Sets all attribute values. */
+        @Override public void setValues(final Collection<? extends V> values) {
+            if (table.isMultiValued(index)) {
+                setPropertyValue(index, values);
+            } else {
+                setPropertyValue(index, values.stream().findFirst().orElse(null));
+            }
+        }
+
+        /** Returns an empty map since this implementation does not support characteristics. */
+        @Override public Map<String,Attribute<?>> characteristics() {
+            return Map.of();
+        }
+    }
+
+    /**
+     * An association which is a view over a value stored in the table.
+     */
+    private final class AssociationView implements FeatureAssociation {
+        /** Index of the property. */
+        private final int index;
+
+        /** The association role. */
+        private final FeatureAssociationRole role;
+
+        /**
+         * Creates a new view.
+         *
+         * @param index  index of the property.
+         * @param role   the association role.
+         */
+        AssociationView(final int index, final FeatureAssociationRole role) {
+            this.index = index;
+            this.role  = role;
+        }
+
+        /** Returns the association name. */
+        @Override public GenericName getName() {
+            return role.getName();
+        }
+
+        /** Returns the association role. */
+        @Override public FeatureAssociationRole getRole() {
+            return role;
+        }
+
+        /** Returns the associated feature. */
+        @Override public Feature getValue() {
+            return (Feature) getSingleValue(index);
+        }
+
+        /** Returns all associated features. */
+        @Override @SuppressWarnings("unchecked")
+        public Collection<Feature> getValues() {
+            return (Collection<Feature>) SimpleFeature.this.getValues(index);     // Types verified on assignment.
+        }
+
+        /** Sets the associated feature. */
+        @Override public void setValue(final Feature value) {
+            setPropertyValue(index, value);
+        }
+
+        /** Sets all associated features. */
+        @Override public void setValues(final Collection<? extends Feature> values) {
+            if (table.isMultiValued(index)) {
+                setPropertyValue(index, values);
+            } else {
+                setPropertyValue(index, values.stream().findFirst().orElse(null));
+            }
+        }
+    }
+
+    /**
+     * Compares this feature with the given object for equality.
+     * Two features are equal if they are views over the same row of the same table.
+     *
+     * @param  object  the object to compare with this feature.
+     * @return whether the given object is a view over the same row.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof SimpleFeature) {
+            final var other = (SimpleFeature) object;
+            return table == other.table && row == other.row;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this feature.
+     */
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(table) + 31 * row;
+    }
+
+    /**
+     * Returns a string representation of this feature.
+     */
+    @Override
+    public String toString() {
+        final SimpleFeatureType type = getType();
+        final var buffer = new StringBuilder(type.getName().toString()).append(" {");
+        String separator = "";
+        for (int i=0; i < type.getPropertyCount(); i++) {
+            final PropertyType property = type.getProperty(i);
+            if (!(property instanceof Operation)) {
+                buffer.append(separator).append(property.getName()).append('=').append(table.getValue(row, i));
+                separator = ", ";
+            }
+        }
+        return buffer.append('}').toString();
+    }
+}
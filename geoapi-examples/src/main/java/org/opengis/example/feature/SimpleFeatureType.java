@@ -0,0 +1,383 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.IdentityHashMap;
+import java.util.function.Function;
+import org.opengis.util.GenericName;
+import org.opengis.util.InternationalString;
+import org.opengis.feature.Feature;
+import org.opengis.feature.FeatureType;
+import org.opengis.feature.PropertyType;
+import org.opengis.feature.AttributeType;
+import org.opengis.feature.FeatureAssociationRole;
+import org.opengis.feature.PropertyNotFoundException;
+import org.opengis.feature.FeatureInstantiationException;
+import org.opengis.example.util.SimpleNameFactory;
+
+
+/**
+ * A feature type which assigns a dense index to each property, including inherited properties.
+ * The properties of the super-types come first, in the order in which super-types were given at construction,
+ * followed by the properties declared in this type. A property declared in this type
+ * with the same name as an inherited property overrides the inherited property at the same index.
+ *
+ * <p>Property indexes can be used with {@link SimpleFeature#getPropertyValue(int)} and related
+ * methods for fetching values without name lookup. Instances of this class are immutable.</p>
+ */
+public class SimpleFeatureType implements FeatureType {
+    /**
+     * The name of this feature type.
+     */
+    private final GenericName name;
+
+    /**
+     * Whether this feature type is abstract.
+     */
+    private final boolean isAbstract;
+
+    /**
+     * The direct parents of this feature type.
+     */
+    private final Set<FeatureType> superTypes;
+
+    /**
+     * All direct and indirect super-types, compared by identity.
+     */
+    private final Set<FeatureType> ancestors;
+
+    /**
+     * The properties declared in this type, excluding inherited properties.
+     */
+    private final List<PropertyType> declared;
+
+    /**
+     * All properties, including inherited properties. The index in this list is the property index.
+     */
+    private final List<PropertyType> properties;
+
+    /**
+     * The property indexes by name.
+     */
+    private final Map<String,Integer> indexes;
+
+    /**
+     * Creates a new feature type with the given name, super-types and properties.
+     *
+     * @param  name        the name of this feature type.
+     * @param  isAbstract  whether this feature type is abstract.
+     * @param  superTypes  the direct parents of this feature type, in the order of their properties.
+     * @param  properties  the properties declared in this type, excluding inherited properties.
+     * @throws IllegalArgumentException if two properties declared in this type have the same name.
+     */
+    public SimpleFeatureType(final GenericName name, final boolean isAbstract,
+            final Collection<? extends FeatureType> superTypes, final List<? extends PropertyType> properties)
+    {
+        this.name       = Objects.requireNonNull(name);
+        this.isAbstract = isAbstract;
+        this.superTypes = Collections.unmodifiableSet(new LinkedHashSet<>(superTypes));
+        this.declared   = List.copyOf(properties);
+        final var all   = new ArrayList<PropertyType>();
+        indexes = new HashMap<>();
+        for (final FeatureType parent : this.superTypes) {
+            for (final PropertyType property : parent.getProperties(true)) {
+                add(all, property, true);
+            }
+        }
+        for (final PropertyType property : declared) {
+            if (!add(all, property, false)) {
+                throw new IllegalArgumentException("Duplicated property: " + property.getName());
+            }
+        }
+        this.properties = List.copyOf(all);
+        final Set<FeatureType> types = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final FeatureType parent : this.superTypes) {
+            if (parent instanceof SimpleFeatureType) {
+                types.add(parent);
+                types.addAll(((SimpleFeatureType) parent).ancestors);
+            } else {
+                types.addAll(new ResolvedFeatureType(parent).ancestors());
+            }
+        }
+        ancestors = Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Creates a new concrete feature type with the given properties and no super-type.
+     *
+     * @param  name        the name of this feature type.
+     * @param  properties  the properties of this type.
+     * @throws IllegalArgumentException if two properties have the same name.
+     */
+    public SimpleFeatureType(final String name, final PropertyType... properties) {
+        this(SimpleNameFactory.DEFAULT.createLocalName(null, name), false, Set.of(), List.of(properties));
+    }
+
+    /**
+     * Adds the given property in the given list, or replaces the property of the same name.
+     *
+     * @param  all        the list of all properties.
+     * @param  property   the property to add.
+     * @param  inherited  whether the property is inherited from a super-type.
+     * @return {@code false} if a property of the same name was declared in this type.
+     */
+    private boolean add(final List<PropertyType> all, final PropertyType property, final boolean inherited) {
+        final String key = property.getName().toString();
+        final Integer index = indexes.putIfAbsent(key, all.size());
+        if (index == null) {
+            all.add(property);
+            return true;
+        }
+        if (!inherited && declared.contains(all.get(index))) {
+            return false;
+        }
+        all.set(index, property);
+        return true;
+    }
+
+    /**
+     * Returns the name of this feature type.
+     */
+    @Override
+    public GenericName getName() {
+        return name;
+    }
+
+    /**
+     * Returns a concise definition of the element.
+     * This simple implementation returns the name.
+     */
+    @Override
+    public InternationalString getDefinition() {
+        return name.toInternationalString();
+    }
+
+    /**
+     * Returns whether this feature type is abstract.
+     */
+    @Override
+    public boolean isAbstract() {
+        return isAbstract;
+    }
+
+    /**
+     * Returns whether this feature type contains only attributes with [1 … 1] multiplicity,
+     * or operations.
+     */
+    @Override
+    public boolean isSimple() {
+        for (final PropertyType property : properties) {
+            if (property instanceof AttributeType<?>) {
+                final var type = (AttributeType<?>) property;
+                if (type.getMinimumOccurs() != 1 || type.getMaximumOccurs() != 1) {
+                    return false;
+                }
+            } else if (!(property instanceof org.opengis.feature.Operation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of properties, including inherited properties.
+     * Valid property indexes are from 0 inclusive to this value exclusive.
+     *
+     * @return the number of properties.
+     */
+    public int getPropertyCount() {
+        return properties.size();
+    }
+
+    /**
+     * Returns the index of the property of the given name.
+     *
+     * @param  name  the property name.
+     * @return index of the property of the given name, or -1 if none.
+     */
+    public int indexOf(final String name) {
+        final Integer index = indexes.get(name);
+        return (index != null) ? index : -1;
+    }
+
+    /**
+     * Returns whether the property of the given name is known to have at most one value.
+     * This is the case of attributes and associations with a maximum number of occurrences of 1.
+     * This method can be used for telling {@link org.opengis.example.filter.FilterOptimizer}
+     * which properties are single-valued.
+     *
+     * @param  name  the property name.
+     * @return whether the property of the given name is single-valued, or {@code false} if none.
+     */
+    public boolean isSingleValued(final String name) {
+        final int index = indexOf(name);
+        return (index >= 0) && isSingleValued(properties.get(index));
+    }
+
+    /**
+     * Returns whether the given property is an attribute or an association with at most one value.
+     *
+     * @param  property  the property to test.
+     * @return whether the given property is single-valued.
+     */
+    static boolean isSingleValued(final PropertyType property) {
+        if (property instanceof AttributeType<?>) {
+            return ((AttributeType<?>) property).getMaximumOccurs() == 1;
+        }
+        if (property instanceof FeatureAssociationRole) {
+            return ((FeatureAssociationRole) property).getMaximumOccurs() == 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the property at the given index.
+     *
+     * @param  index  the property index.
+     * @return the property at the given index.
+     * @throws IndexOutOfBoundsException if the given index is out of bounds.
+     */
+    public PropertyType getProperty(final int index) {
+        return properties.get(index);
+    }
+
+    /**
+     * Returns the property of the given name, including inherited properties.
+     *
+     * @param  name  the property name.
+     * @return the property of the given name.
+     * @throws PropertyNotFoundException if this type has no property of the given name.
+     */
+    @Override
+    public PropertyType getProperty(final String name) throws PropertyNotFoundException {
+        final Integer index = indexes.get(name);
+        if (index == null) {
+            throw new PropertyNotFoundException("No property named \"" + name + "\" in feature type \"" + this.name + "\".");
+        }
+        return properties.get(index);
+    }
+
+    /**
+     * Returns the properties of this type, optionally with the inherited properties.
+     * If inherited properties are included, the index of each property in the returned list
+     * is the property index.
+     *
+     * @param  includeSuperTypes  whether to include the inherited properties.
+     * @return the properties, in index order if inherited properties are included.
+     */
+    @Override
+    public List<PropertyType> getProperties(final boolean includeSuperTypes) {
+        return includeSuperTypes ? properties : declared;
+    }
+
+    /**
+     * Returns the direct parents of this feature type.
+     */
+    @Override
+    public Set<FeatureType> getSuperTypes() {
+        return superTypes;
+    }
+
+    /**
+     * Returns all direct and indirect super-types, excluding this type.
+     *
+     * @return all ancestors, compared by identity.
+     */
+    final Set<FeatureType> ancestors() {
+        return ancestors;
+    }
+
+    /**
+     * Returns whether this type is the given type or a parent of the given type.
+     * If the given type is a {@code SimpleFeatureType} or a {@link ResolvedFeatureType},
+     * this check is a hash lookup. Otherwise, the super-types are walked recursively.
+     *
+     * @param  type  the type to test.
+     * @return whether instances of the given type can be used as instances of this type.
+     */
+    @Override
+    public boolean isAssignableFrom(final FeatureType type) {
+        if (type == this) {
+            return true;
+        }
+        if (type instanceof SimpleFeatureType) {
+            return ((SimpleFeatureType) type).ancestors.contains(this);
+        }
+        if (type instanceof ResolvedFeatureType) {
+            return ((ResolvedFeatureType) type).isSubtypeOf(this);
+        }
+        for (final FeatureType parent : type.getSuperTypes()) {
+            if (isAssignableFrom(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new feature stored in a new table of one row.
+     * For creating many features, {@link FeatureTable#add()} is more efficient.
+     *
+     * @return a new feature of this type.
+     * @throws FeatureInstantiationException if this feature type is abstract.
+     */
+    @Override
+    public Feature newInstance() throws FeatureInstantiationException {
+        if (isAbstract) {
+            throw new FeatureInstantiationException("Feature type \"" + name + "\" is abstract.");
+        }
+        return new FeatureTable(this, 1).add();
+    }
+
+    /**
+     * Returns a function fetching the value of the property of the given name.
+     * If the feature is an instance of this type stored in a {@link FeatureTable},
+     * the function fetches the value by index without name lookup. Otherwise,
+     * it delegates to {@link Feature#getValueOrFallback(String, Object)}.
+     * This function can be used as a resolver for {@link org.opengis.example.filter.FilterCompiler}.
+     *
+     * @param  name  the property name.
+     * @return a function fetching the value of the given property, or {@code null} for features without that property.
+     */
+    public Function<Feature,Object> accessor(final String name) {
+        final int index = indexOf(name);
+        if (index < 0) {
+            return (feature) -> feature.getValueOrFallback(name, null);
+        }
+        return (feature) -> {
+            if (feature instanceof SimpleFeature) {
+                final var f = (SimpleFeature) feature;
+                if (f.getType() == this) {
+                    return f.getPropertyValue(index);
+                }
+            }
+            return feature.getValueOrFallback(name, null);
+        };
+    }
+
+    /**
+     * Returns a string representation of this feature type.
+     */
+    @Override
+    public String toString() {
+        final var buffer = new StringBuilder(name.toString()).append(" {");
+        String separator = "";
+        for (final PropertyType property : properties) {
+            buffer.append(separator).append(property.getName());
+            separator = ", ";
+        }
+        return buffer.append('}').toString();
+    }
+}
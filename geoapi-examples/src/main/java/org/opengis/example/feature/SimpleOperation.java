@@ -0,0 +1,203 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.Objects;
+import java.util.Collection;
+import java.util.function.Function;
+import org.opengis.util.GenericName;
+import org.opengis.util.InternationalString;
+import org.opengis.feature.Feature;
+import org.opengis.feature.Attribute;
+import org.opengis.feature.Operation;
+import org.opengis.feature.AttributeType;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.example.parameter.SimpleParameterGroup;
+import org.opengis.example.util.SimpleNameFactory;
+
+
+/**
+ * A parameterless operation computing an attribute value from other properties of the same feature.
+ * The names of the properties used by the computation are declared at construction time.
+ * Those dependencies allow {@link FeatureTable#memoize(String...)} to cache the results
+ * and to recompute them only after a change in the value of a dependency.
+ *
+ * @param  <V>  the type of values computed by this operation.
+ */
+public class SimpleOperation<V> implements Operation {
+    /**
+     * The name of this operation.
+     */
+    private final GenericName name;
+
+    /**
+     * The type of the attribute computed by this operation.
+     */
+    private final AttributeType<V> result;
+
+    /**
+     * Names of the properties used by the computation.
+     */
+    private final Set<String> dependencies;
+
+    /**
+     * The function computing the value from the feature.
+     */
+    private final Function<? super Feature, ? extends V> function;
+
+    /**
+     * Creates a new operation.
+     *
+     * @param  name          the name of this operation.
+     * @param  result        the type of the attribute computed by this operation.
+     * @param  dependencies  names of the properties used by the computation.
+     * @param  function      the function computing the value from the feature.
+     */
+    public SimpleOperation(final String name, final AttributeType<V> result, final Set<String> dependencies,
+                           final Function<? super Feature, ? extends V> function)
+    {
+        this.name         = SimpleNameFactory.DEFAULT.createLocalName(null, name);
+        this.result       = Objects.requireNonNull(result);
+        this.dependencies = Set.copyOf(dependencies);
+        this.function     = Objects.requireNonNull(function);
+    }
+
+    /**
+     * Returns the name of this operation.
+     */
+    @Override
+    public GenericName getName() {
+        return name;
+    }
+
+    /**
+     * Returns a concise definition of the element.
+     * This simple implementation returns the name.
+     */
+    @Override
+    public InternationalString getDefinition() {
+        return name.toInternationalString();
+    }
+
+    /**
+     * Returns an empty group, since this operation has no parameter.
+     */
+    @Override
+    public ParameterDescriptorGroup getParameters() {
+        return new SimpleParameterGroup(null, name.toString());
+    }
+
+    /**
+     * Returns the type of the attribute computed by this operation.
+     */
+    @Override
+    public AttributeType<V> getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the names of the properties used by the computation.
+     *
+     * @return names of the properties used by this operation.
+     */
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Computes the value of this operation on the given feature.
+     *
+     * @param  feature  the feature on which to compute the value.
+     * @return the computed value.
+     */
+    final V evaluate(final Feature feature) {
+        return function.apply(feature);
+    }
+
+    /**
+     * Computes the value of this operation on the given feature.
+     *
+     * @param  feature     the feature on which to execute the operation.
+     * @param  parameters  ignored, since this operation has no parameter.
+     * @return an attribute with the computed value.
+     */
+    @Override
+    public Attribute<V> apply(final Feature feature, final ParameterValueGroup parameters) {
+        return new Result<>(result, evaluate(feature));
+    }
+
+    /**
+     * The read-only attribute returned by {@link #apply(Feature, ParameterValueGroup)}.
+     * This class is also used by {@link SimpleFeature} for wrapping memoized operation values.
+     *
+     * @param  <V>  the type of attribute values.
+     */
+    static final class Result<V> implements Attribute<V> {
+        /** The attribute type. */
+        private final AttributeType<V> type;
+
+        /** The computed value. */
+        private final V value;
+
+        /**
+         * Creates a new result.
+         *
+         * @param type   the attribute type.
+         * @param value  the computed value.
+         */
+        Result(final AttributeType<V> type, final V value) {
+            this.type  = type;
+            this.value = value;
+        }
+
+        /** Returns the attribute name. */
+        @Override public GenericName getName() {
+            return type.getName();
+        }
+
+        /** Returns the attribute type. */
+        @Override public AttributeType<V> getType() {
+            return type;
+        }
+
+        /** Returns the computed value. */
+        @Override public V getValue() {
+            return value;
+        }
+
+        /** Returns the computed value as a collection. */
+        @Override public Collection<V> getValues() {
+            return (value != null) ? List.of(value) : List.of();
+        }
+
+        /** Unsupported since the result of an operation is read-only. */
+        @Override public void setValue(final V value) {
+            throw new UnsupportedOperationException("The result of an operation is read-only.");
+        }
+
+        /** Unsupported since the result of an operation is read-only. */
+        @Override public void setValues(final Collection<? extends V> values) {
+            throw new UnsupportedOperationException("The result of an operation is read-only.");
+        }
+
+        /** Returns an empty map since this implementation does not support characteristics. */
+        @Override public Map<String,Attribute<?>> characteristics() {
+            return Map.of();
+        }
+    }
+
+    /**
+     * Returns a string representation of this operation.
+     */
+    @Override
+    public String toString() {
+        return name + " = f" + dependencies;
+    }
+}
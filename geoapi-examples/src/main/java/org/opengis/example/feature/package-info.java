@@ -0,0 +1,17 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+
+/**
+ * Implementation of some interfaces from the {@link org.opengis.feature} package.
+ * {@link org.opengis.example.feature.SimpleFeatureType} assigns a dense index to each property,
+ * and {@link org.opengis.example.feature.FeatureTable} stores the property values of many features
+ * of the same type in one array per property. Features are lightweight views over a row of a table,
+ * which avoid the cost of one map of property values per feature.
+ *
+ * <p>Every classes in this package are hereby placed into the Public Domain.
+ * This means anyone is free to do whatever they wish with those files.</p>
+ */
+package org.opengis.example.feature;
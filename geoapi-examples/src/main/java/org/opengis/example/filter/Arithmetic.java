@@ -0,0 +1,163 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import org.opengis.util.ScopedName;
+import org.opengis.filter.Expression;
+import org.opengis.example.util.SimpleNameFactory;
+
+
+/**
+ * An arithmetic operation between two numbers. The result is always a {@link Double},
+ * or {@code null} if an operand is null.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class Arithmetic<R> implements Expression<R,Number> {
+    /**
+     * The arithmetic operators.
+     */
+    enum Operator {
+        /** Addition.       */ ADD     ("Add",      (a, b) -> a + b),
+        /** Subtraction.    */ SUBTRACT("Subtract", (a, b) -> a - b),
+        /** Multiplication. */ MULTIPLY("Multiply", (a, b) -> a * b),
+        /** Division.       */ DIVIDE  ("Divide",   (a, b) -> a / b);
+
+        /** The function name. */
+        final ScopedName name;
+
+        /** The operation to apply on the operands. */
+        final DoubleBinaryOperator operation;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param name       the function name.
+         * @param operation  the operation to apply on the operands.
+         */
+        private Operator(final String name, final DoubleBinaryOperator operation) {
+            this.name = (ScopedName) SimpleNameFactory.DEFAULT.createGenericName(null, "fes", name);
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * The operator to apply.
+     */
+    final Operator operator;
+
+    /**
+     * The two operands.
+     */
+    private final Expression<R, ? extends Number> operand1, operand2;
+
+    /**
+     * Creates a new arithmetic operation.
+     *
+     * @param operator  the operator to apply.
+     * @param operand1  the first operand.
+     * @param operand2  the second operand.
+     */
+    Arithmetic(final Operator operator, final Expression<R, ? extends Number> operand1,
+                                        final Expression<R, ? extends Number> operand2)
+    {
+        this.operator = operator;
+        this.operand1 = operand1;
+        this.operand2 = operand2;
+    }
+
+    /**
+     * Returns the name of this function.
+     */
+    @Override
+    public ScopedName getFunctionName() {
+        return operator.name;
+    }
+
+    /**
+     * Returns the type of resources handled by the first operand.
+     */
+    @Override
+    public Class<? super R> getResourceClass() {
+        return operand1.getResourceClass();
+    }
+
+    /**
+     * Returns the two operands.
+     */
+    @Override
+    public List<Expression<R,?>> getParameters() {
+        return List.of(operand1, operand2);
+    }
+
+    /**
+     * Computes the arithmetic operation on the values of the operands.
+     *
+     * @param  resource  the resource from which to fetch the operand values.
+     * @return the result of the operation, or {@code null} if an operand is null.
+     */
+    @Override
+    public Number apply(final R resource) {
+        final Number a = operand1.apply(resource);
+        if (a != null) {
+            final Number b = operand2.apply(resource);
+            if (b != null) {
+                return operator.operation.applyAsDouble(a.doubleValue(), b.doubleValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns this expression if the given type can hold {@link Double} values.
+     *
+     * @param  <N>     compile-time value of {@code target}.
+     * @param  target  the desired type of values.
+     * @return this expression.
+     * @throws ClassCastException if the given type cannot hold {@code Double} values.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <N> Expression<R,N> toValueType(final Class<N> target) {
+        if (target.isAssignableFrom(Double.class)) {
+            return (Expression<R,N>) this;
+        }
+        throw new ClassCastException("Cannot convert numbers to " + target.getSimpleName() + '.');
+    }
+
+    /**
+     * Compares this expression with the given object for equality.
+     *
+     * @param  object  the object to compare with this expression.
+     * @return whether the given object is the same operation on equal operands.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof Arithmetic<?>) {
+            final var other = (Arithmetic<?>) object;
+            return operator == other.operator && operand1.equals(other.operand1) && operand2.equals(other.operand2);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this expression.
+     */
+    @Override
+    public int hashCode() {
+        return operator.hashCode() + 31 * (operand1.hashCode() + 31 * operand2.hashCode());
+    }
+
+    /**
+     * Returns a string representation of this expression.
+     */
+    @Override
+    public String toString() {
+        return operator.name.tip() + "[" + operand1 + ", " + operand2 + ']';
+    }
+}
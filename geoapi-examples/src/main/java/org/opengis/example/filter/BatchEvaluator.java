@@ -0,0 +1,664 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Predicate;
+import java.util.function.IntPredicate;
+import org.opengis.geometry.Envelope;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.Expression;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.LikeOperator;
+import org.opengis.filter.NullOperator;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.SpatialOperatorName;
+import org.opengis.filter.BinarySpatialOperator;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.filter.BinaryComparisonOperator;
+
+
+/**
+ * Evaluates a filter on blocks of resources and returns the matches as a bitset.
+ * The filter can be evaluated on a list of resources, or on a {@link ColumnBatch}
+ * where property values are stored in one array per property.
+ *
+ * <p>When evaluated on a column batch, the following filters are executed by loops over primitive arrays,
+ * which test up to 64 resources for each {@code long} word of the bitset:</p>
+ * <ul>
+ *   <li>Comparisons and ranges between a property stored in a {@code double[]} column and numeric literals.</li>
+ *   <li>{@code BBOX} operators on a property stored as envelope bounds.</li>
+ *   <li>Tests for null values.</li>
+ * </ul>
+ *
+ * {@code AND}, {@code OR} and {@code NOT} operators are evaluated as bitwise operations. The operands of
+ * {@code AND} and {@code OR} operators are evaluated only on the resources for which the result is not
+ * yet known, and the evaluation stops when the result is known for all resources. Groups of 64 resources
+ * that do not need to be tested are skipped.
+ *
+ * <p>Other filters, and filters on properties without column, are evaluated on the resources
+ * of the batch (see {@link ColumnBatch#ColumnBatch(List)}). Values in columns are compared as-is,
+ * without the type conversion that may be applied by the {@link ValueReference}.</p>
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to filter.
+ */
+public class BatchEvaluator<R> {
+    /**
+     * Evaluates a filter on a batch for the resources identified by a mask.
+     *
+     * @param  <R>  the type of resources in the batch.
+     */
+    @FunctionalInterface
+    private interface Node<R> {
+        /**
+         * Evaluates the filter on the given batch. For each word of the bitsets, the output shall be
+         * the result of the filter for the resources identified by the mask, and 0 for other resources.
+         *
+         * @param batch  the batch on which to evaluate the filter.
+         * @param mask   bits of the resources to test.
+         * @param out    where to store the bits of the resources that pass the filter.
+         */
+        void evaluate(ColumnBatch<R> batch, long[] mask, long[] out);
+    }
+
+    /**
+     * The filter compiled for a row-by-row evaluation.
+     */
+    private final Predicate<R> predicate;
+
+    /**
+     * The filter compiled for an evaluation on columns.
+     */
+    private final Node<R> root;
+
+    /**
+     * The compiler to use for filters that cannot be evaluated on columns.
+     */
+    private final FilterCompiler<R> compiler;
+
+    /**
+     * Creates a new evaluator for the given filter.
+     *
+     * @param filter  the filter to evaluate.
+     */
+    public BatchEvaluator(final Filter<R> filter) {
+        compiler  = new FilterCompiler<>();
+        predicate = compiler.compile(filter);
+        root      = node(filter);
+    }
+
+    /**
+     * Evaluates the filter on each resource of the given list.
+     *
+     * @param  resources  the resources to test.
+     * @return the indices in the list of the resources that pass the filter.
+     */
+    public BitSet test(final List<? extends R> resources) {
+        final int size = resources.size();
+        final long[] bits = new long[numWords(size)];
+        int i = 0;
+        for (final R resource : resources) {
+            if (predicate.test(resource)) {
+                bits[i >>> 6] |= 1L << i;
+            }
+            i++;
+        }
+        return BitSet.valueOf(bits);
+    }
+
+    /**
+     * Evaluates the filter on all resources of the given batch.
+     *
+     * @param  batch  the resources to test.
+     * @return the indices in the batch of the resources that pass the filter.
+     * @throws IllegalStateException if the filter needs the resources but the batch does not contain them.
+     */
+    public BitSet test(final ColumnBatch<R> batch) {
+        final int size = batch.size();
+        final long[] mask = new long[numWords(size)];
+        if (mask.length != 0) {
+            Arrays.fill(mask, -1L);
+            mask[mask.length - 1] = -1L >>> -size;
+        }
+        final long[] out = new long[mask.length];
+        root.evaluate(batch, mask, out);
+        return BitSet.valueOf(out);
+    }
+
+    /**
+     * Returns the number of {@code long} words needed for the given number of bits.
+     *
+     * @param  size  number of bits.
+     * @return number of words.
+     */
+    private static int numWords(final int size) {
+        return (size + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Returns whether all bits are zero.
+     *
+     * @param  bits  the bits to test.
+     * @return whether all bits are zero.
+     */
+    private static boolean isZero(final long[] bits) {
+        for (final long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compiles the given filter into a node evaluated on columns.
+     *
+     * @param  filter  the filter to compile.
+     * @return the node evaluating the filter.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<R> node(final Filter<R> filter) {
+        if (filter == Filter.include()) {
+            return (batch, mask, out) -> System.arraycopy(mask, 0, out, 0, out.length);
+        }
+        if (filter == Filter.exclude()) {
+            return (batch, mask, out) -> Arrays.fill(out, 0);
+        }
+        if (filter instanceof LogicalOperator<?>) {
+            final var logical = (LogicalOperator<R>) filter;
+            final LogicalOperatorName type = logical.getOperatorType();
+            final List<Filter<R>> operands = logical.getOperands();
+            @SuppressWarnings("rawtypes")
+            final Node<R>[] nodes = new Node[operands.size()];
+            for (int i=0; i<nodes.length; i++) {
+                nodes[i] = node(operands.get(i));
+            }
+            if (type == LogicalOperatorName.AND) return and(nodes);
+            if (type == LogicalOperatorName.OR)  return or (nodes);
+            if (type == LogicalOperatorName.NOT && nodes.length == 1) {
+                final Node<R> operand = nodes[0];
+                return (batch, mask, out) -> {
+                    operand.evaluate(batch, mask, out);
+                    for (int i=0; i<out.length; i++) {
+                        out[i] = mask[i] & ~out[i];
+                    }
+                };
+            }
+        } else {
+            final Node<R> node = leaf(filter);
+            if (node != null) {
+                return node;
+            }
+        }
+        return fallback(filter);
+    }
+
+    /**
+     * Creates a node evaluating a {@code AND} operator. Each operand is evaluated
+     * only on the resources that passed all previous operands.
+     *
+     * @param  <R>       the type of resources in the batch.
+     * @param  operands  the operands.
+     * @return the node evaluating the operator.
+     */
+    private static <R> Node<R> and(final Node<R>[] operands) {
+        return (batch, mask, out) -> {
+            System.arraycopy(mask, 0, out, 0, out.length);
+            final long[] tmp = new long[out.length];
+            for (final Node<R> operand : operands) {
+                if (isZero(out)) break;
+                operand.evaluate(batch, out, tmp);
+                System.arraycopy(tmp, 0, out, 0, out.length);
+            }
+        };
+    }
+
+    /**
+     * Creates a node evaluating a {@code OR} operator. Each operand is evaluated
+     * only on the resources that did not pass any previous operand.
+     *
+     * @param  <R>       the type of resources in the batch.
+     * @param  operands  the operands.
+     * @return the node evaluating the operator.
+     */
+    private static <R> Node<R> or(final Node<R>[] operands) {
+        return (batch, mask, out) -> {
+            Arrays.fill(out, 0);
+            final long[] remaining = mask.clone();
+            final long[] tmp = new long[out.length];
+            for (final Node<R> operand : operands) {
+                if (isZero(remaining)) break;
+                operand.evaluate(batch, remaining, tmp);
+                for (int i=0; i<out.length; i++) {
+                    out[i] |= tmp[i];
+                    remaining[i] &= ~tmp[i];
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a node evaluating the given filter on the resources of the batch.
+     *
+     * @param  filter  the filter to evaluate.
+     * @return the node evaluating the filter.
+     */
+    private Node<R> fallback(final Filter<R> filter) {
+        final Predicate<R> p = compiler.compile(filter);
+        return (batch, mask, out) -> {
+            final List<? extends R> resources = batch.resources();
+            rows(batch.size(), mask, out, (i) -> p.test(resources.get(i)));
+        };
+    }
+
+    /**
+     * Evaluates the given test on all resources identified by the mask.
+     *
+     * @param size  number of resources in the batch.
+     * @param mask  bits of the resources to test.
+     * @param out   where to store the bits of the resources that pass the test.
+     * @param test  the test to apply on the index of each resource.
+     */
+    private static void rows(final int size, final long[] mask, final long[] out, final IntPredicate test) {
+        for (int w=0; w<out.length; w++) {
+            long m = mask[w];
+            long bits = 0;
+            while (m != 0) {
+                final int j = Long.numberOfTrailingZeros(m);
+                if (test.test((w << 6) + j)) {
+                    bits |= 1L << j;
+                }
+                m &= m - 1;
+            }
+            out[w] = bits;
+        }
+    }
+
+    /**
+     * Returns the name of the property referenced by the given expression, or {@code null} if none.
+     *
+     * @param  expression  the expression.
+     * @return the property name, or {@code null}.
+     */
+    private static String property(final Expression<?,?> expression) {
+        return (expression instanceof ValueReference<?,?>) ? ((ValueReference<?,?>) expression).getXPath() : null;
+    }
+
+    /**
+     * Returns the value of the given expression if it is a literal, or {@code null} otherwise.
+     *
+     * @param  expression  the expression.
+     * @return the literal value, or {@code null}.
+     */
+    private static Object literal(final Expression<?,?> expression) {
+        return (expression instanceof Literal<?,?>) ? ((Literal<?,?>) expression).getValue() : null;
+    }
+
+    /**
+     * Creates a node for a filter on a single property, or returns {@code null} if the filter is not supported.
+     * The node uses the column of the property if it exists and has a supported type, or evaluates the filter
+     * on the resources of the batch otherwise.
+     *
+     * @param  filter  the filter to evaluate.
+     * @return the node evaluating the filter, or {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<R> leaf(final Filter<R> filter) {
+        final Column c;
+        final String name;
+        if (filter instanceof BinaryComparisonOperator<?>) {
+            final var comparison = (BinaryComparisonOperator<R>) filter;
+            Comparisons.Operator op = Comparisons.Operator.valueOf(comparison.getOperatorType());
+            if (op == null) return null;
+            Expression<R,?> e1 = comparison.getOperand1();
+            Expression<R,?> e2 = comparison.getOperand2();
+            if (e1 instanceof Literal<?,?>) {
+                final Expression<R,?> t = e1; e1 = e2; e2 = t;
+                op = op.swap();
+            }
+            name = property(e1);
+            if (name == null || !(e2 instanceof Literal<?,?>)) return null;
+            c = new Comparison(op, literal(e2), comparison.isMatchingCase(), comparison.getMatchAction());
+        } else if (filter instanceof BetweenComparisonOperator<?>) {
+            final var between = (BetweenComparisonOperator<R>) filter;
+            name = property(between.getExpression());
+            final Object lower = literal(between.getLowerBoundary());
+            final Object upper = literal(between.getUpperBoundary());
+            if (name == null || !(lower instanceof Number && upper instanceof Number)) return null;
+            c = new Between(((Number) lower).doubleValue(), ((Number) upper).doubleValue());
+        } else if (filter instanceof NullOperator<?>) {
+            name = property(filter.getExpressions().get(0));
+            if (name == null) return null;
+            c = new IsNull();
+        } else if (filter instanceof LikeOperator<?>) {
+            name = property(filter.getExpressions().get(0));
+            if (name == null || !(filter.getExpressions().get(1) instanceof Literal<?,?>)) return null;
+            c = new Like(LikeMatcher.compile((LikeOperator<R>) filter));
+        } else if (filter instanceof BinarySpatialOperator<?>
+                && ((BinarySpatialOperator<R>) filter).getOperatorType() == SpatialOperatorName.BBOX)
+        {
+            final var spatial = (BinarySpatialOperator<R>) filter;
+            name = property(spatial.getOperand1());
+            final Object bounds = literal(spatial.getOperand2());
+            if (name == null || !(bounds instanceof Envelope)) return null;
+            c = new Bbox((Envelope) bounds);
+        } else {
+            return null;
+        }
+        final Node<R> fallback = fallback(filter);
+        return (batch, mask, out) -> {
+            final Object column = batch.column(name);
+            if (column == null || !c.evaluate(column, batch.size(), mask, out)) {
+                fallback.evaluate(batch, mask, out);
+            }
+        };
+    }
+
+    /**
+     * A filter on the values of a single column.
+     */
+    private abstract static class Column {
+        /**
+         * For subclasses constructors.
+         */
+        Column() {
+        }
+
+        /**
+         * Evaluates the filter on the given column for the resources identified by the mask.
+         *
+         * @param  column  the {@code double[]}, {@code Object[]} or {@link ColumnBatch.Bounds} column.
+         * @param  size    number of resources in the batch.
+         * @param  mask    bits of the resources to test.
+         * @param  out     where to store the bits of the resources that pass the filter.
+         * @return {@code false} if the column type is not supported, in which case nothing has been done.
+         */
+        abstract boolean evaluate(Object column, int size, long[] mask, long[] out);
+    }
+
+    /**
+     * A comparison between the property values and a literal.
+     */
+    private static final class Comparison extends Column {
+        /** The comparison operator. */
+        private final Comparisons.Operator op;
+
+        /** The literal value. */
+        private final Object literal;
+
+        /** The literal value as a {@code double}, or NaN if not a number. */
+        private final double bound;
+
+        /** Whether character strings comparisons are case-sensitive. */
+        private final boolean matchCase;
+
+        /** How to apply the operator on multi-valued properties. */
+        private final MatchAction action;
+
+        /**
+         * Creates a new comparison.
+         *
+         * @param op         the comparison operator.
+         * @param literal    the literal value.
+         * @param matchCase  whether character strings comparisons are case-sensitive.
+         * @param action     how to apply the operator on multi-valued properties.
+         */
+        Comparison(final Comparisons.Operator op, final Object literal, final boolean matchCase, final MatchAction action) {
+            this.op        = op;
+            this.literal   = literal;
+            this.bound     = (literal instanceof Number) ? ((Number) literal).doubleValue() : Double.NaN;
+            this.matchCase = matchCase;
+            this.action    = action;
+        }
+
+        /**
+         * Compares the values of a numeric column or of an arbitrary column.
+         */
+        @Override
+        boolean evaluate(final Object column, final int size, final long[] mask, final long[] out) {
+            if (column instanceof double[]) {
+                if (literal instanceof Number) {
+                    compare((double[]) column, size, mask, out);
+                } else {
+                    final double[] values = (double[]) column;
+                    rows(size, mask, out, (i) -> {
+                        final double v = values[i];
+                        return !Double.isNaN(v) && Comparisons.test(op, v, literal, matchCase, action);
+                    });
+                }
+                return true;
+            }
+            if (column instanceof Object[]) {
+                final Object[] values = (Object[]) column;
+                rows(size, mask, out, (i) -> Comparisons.test(op, values[i], literal, matchCase, action));
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Compares all values of the given column with the numeric literal.
+         * The operator is selected once for each group of 64 values, and the loop
+         * on the values of a group computes the bits without branches.
+         *
+         * @param values  the column values.
+         * @param size    number of resources in the batch.
+         * @param mask    bits of the resources to test.
+         * @param out     where to store the bits of the resources that pass the filter.
+         */
+        private void compare(final double[] values, final int size, final long[] mask, final long[] out) {
+            final double b = bound;
+            for (int w=0; w<out.length; w++) {
+                final long m = mask[w];
+                if (m == 0) {
+                    out[w] = 0;
+                    continue;
+                }
+                final int base = w << 6;
+                final int end  = Math.min(Long.SIZE, size - base);
+                long bits = 0;
+                switch (op) {
+                    case EQUAL:            for (int j=0; j<end; j++) bits |= (values[base+j] == b ? 1L : 0L) << j; break;
+                    case LESS:             for (int j=0; j<end; j++) bits |= (values[base+j] <  b ? 1L : 0L) << j; break;
+                    case GREATER:          for (int j=0; j<end; j++) bits |= (values[base+j] >  b ? 1L : 0L) << j; break;
+                    case LESS_OR_EQUAL:    for (int j=0; j<end; j++) bits |= (values[base+j] <= b ? 1L : 0L) << j; break;
+                    case GREATER_OR_EQUAL: for (int j=0; j<end; j++) bits |= (values[base+j] >= b ? 1L : 0L) << j; break;
+                    case NOT_EQUAL: {
+                        for (int j=0; j<end; j++) {
+                            final double v = values[base+j];
+                            bits |= (v != b && v == v ? 1L : 0L) << j;      // Missing (NaN) values are excluded.
+                        }
+                        break;
+                    }
+                }
+                out[w] = bits & m;
+            }
+        }
+    }
+
+    /**
+     * A test for property values between two inclusive numeric bounds.
+     */
+    private static final class Between extends Column {
+        /** The inclusive bounds. */
+        private final double lower, upper;
+
+        /**
+         * Creates a new range test.
+         *
+         * @param lower  the lower bound, inclusive.
+         * @param upper  the upper bound, inclusive.
+         */
+        Between(final double lower, final double upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /**
+         * Tests the values of a numeric column or of an arbitrary column.
+         */
+        @Override
+        boolean evaluate(final Object column, final int size, final long[] mask, final long[] out) {
+            if (column instanceof double[]) {
+                final double[] values = (double[]) column;
+                final double lo = lower, hi = upper;
+                for (int w=0; w<out.length; w++) {
+                    final long m = mask[w];
+                    final int base = w << 6;
+                    final int end  = (m == 0) ? 0 : Math.min(Long.SIZE, size - base);
+                    long bits = 0;
+                    for (int j=0; j<end; j++) {
+                        final double v = values[base+j];
+                        bits |= (v >= lo & v <= hi ? 1L : 0L) << j;
+                    }
+                    out[w] = bits & m;
+                }
+                return true;
+            }
+            if (column instanceof Object[]) {
+                final Object[] values = (Object[]) column;
+                rows(size, mask, out, (i) -> {
+                    final Object value = values[i];
+                    if (value == null) return false;
+                    final double v = Comparisons.toDouble(value);
+                    return v >= lower && v <= upper;
+                });
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A test for null property values.
+     */
+    private static final class IsNull extends Column {
+        /**
+         * Creates a new null test.
+         */
+        IsNull() {
+        }
+
+        /**
+         * Tests the values of any column.
+         */
+        @Override
+        boolean evaluate(final Object column, final int size, final long[] mask, final long[] out) {
+            final double[] values;
+            if (column instanceof double[]) {
+                values = (double[]) column;
+            } else if (column instanceof ColumnBatch.Bounds) {
+                values = ((ColumnBatch.Bounds) column).xmin;
+            } else if (column instanceof Object[]) {
+                final Object[] objects = (Object[]) column;
+                rows(size, mask, out, (i) -> objects[i] == null);
+                return true;
+            } else {
+                return false;
+            }
+            for (int w=0; w<out.length; w++) {
+                final long m = mask[w];
+                final int base = w << 6;
+                final int end  = (m == 0) ? 0 : Math.min(Long.SIZE, size - base);
+                long bits = 0;
+                for (int j=0; j<end; j++) {
+                    final double v = values[base+j];
+                    bits |= (v != v ? 1L : 0L) << j;
+                }
+                out[w] = bits & m;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A pattern matching on character strings.
+     */
+    private static final class Like extends Column {
+        /** The compiled pattern. */
+        private final LikeMatcher matcher;
+
+        /**
+         * Creates a new pattern matching.
+         *
+         * @param matcher  the compiled pattern.
+         */
+        Like(final LikeMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        /**
+         * Tests the values of an arbitrary column. Numeric columns are not supported
+         * because the string representations of their values may differ from the original values.
+         */
+        @Override
+        boolean evaluate(final Object column, final int size, final long[] mask, final long[] out) {
+            if (column instanceof Object[]) {
+                final Object[] values = (Object[]) column;
+                rows(size, mask, out, (i) -> matcher.matches(values[i]));
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A test for envelopes interacting with a bounding box.
+     */
+    private static final class Bbox extends Column {
+        /** The bounding box. */
+        private final Envelope bounds;
+
+        /**
+         * Creates a new bounding box test.
+         *
+         * @param bounds  the bounding box.
+         */
+        Bbox(final Envelope bounds) {
+            this.bounds = bounds;
+        }
+
+        /**
+         * Tests the values of an envelope column or of an arbitrary column.
+         */
+        @Override
+        boolean evaluate(final Object column, final int size, final long[] mask, final long[] out) {
+            if (column instanceof ColumnBatch.Bounds) {
+                final var c = (ColumnBatch.Bounds) column;
+                final boolean is2D = bounds.getDimension() >= 2;
+                final double bxmin = bounds.getMinimum(0);
+                final double bxmax = bounds.getMaximum(0);
+                final double bymin = is2D ? bounds.getMinimum(1) : Double.NEGATIVE_INFINITY;
+                final double bymax = is2D ? bounds.getMaximum(1) : Double.POSITIVE_INFINITY;
+                final double[] xmin = c.xmin, ymin = c.ymin, xmax = c.xmax, ymax = c.ymax;
+                for (int w=0; w<out.length; w++) {
+                    final long m = mask[w];
+                    final int base = w << 6;
+                    final int end  = (m == 0) ? 0 : Math.min(Long.SIZE, size - base);
+                    long bits = 0;
+                    for (int j=0; j<end; j++) {
+                        final int i = base + j;
+                        bits |= (xmin[i] <= bxmax & xmax[i] >= bxmin & ymin[i] <= bymax & ymax[i] >= bymin ? 1L : 0L) << j;
+                    }
+                    out[w] = bits & m;
+                }
+                return true;
+            }
+            if (column instanceof Object[]) {
+                final Object[] values = (Object[]) column;
+                rows(size, mask, out, (i) -> {
+                    final Envelope e = SpatialFilter.envelope(values[i]);
+                    return (e != null) && SpatialFilter.intersects(e, bounds);
+                });
+                return true;
+            }
+            return false;
+        }
+    }
+}
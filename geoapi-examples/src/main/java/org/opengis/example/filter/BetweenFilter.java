@@ -0,0 +1,42 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import org.opengis.filter.Expression;
+import org.opengis.filter.BetweenComparisonOperator;
+
+
+/**
+ * A filter checking if a value is between two inclusive bounds.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class BetweenFilter<R> extends SimpleFilter<R> implements BetweenComparisonOperator<R> {
+    /**
+     * Creates a new filter.
+     *
+     * @param expression     the expression to be compared by this comparator.
+     * @param lowerBoundary  the lower bound (inclusive).
+     * @param upperBoundary  the upper bound (inclusive).
+     */
+    BetweenFilter(final Expression<R,?> expression, final Expression<R,?> lowerBoundary, final Expression<R,?> upperBoundary) {
+        super(List.of(expression, lowerBoundary, upperBoundary));
+    }
+
+    /**
+     * Checks if the value is between the two bounds.
+     *
+     * @param  resource  the resource from which to fetch the values to compare.
+     * @return whether the value is between the two bounds, inclusive.
+     */
+    @Override
+    public boolean test(final R resource) {
+        final Object value = expressions.get(0).apply(resource);
+        return Comparisons.Operator.GREATER_OR_EQUAL.test(Comparisons.compare(value, expressions.get(1).apply(resource), true))
+            && Comparisons.Operator.LESS_OR_EQUAL   .test(Comparisons.compare(value, expressions.get(2).apply(resource), true));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Objects;
+
+
+/**
+ * A block of resources stored as one array of values per property. Values of numeric properties
+ * are stored in {@code double[]} arrays, with NaN for missing values. Values of other properties
+ * are stored in {@code Object[]} arrays, with {@code null} for missing values. The envelopes of
+ * geometric properties are stored in four {@code double[]} arrays for the bounds in the two first
+ * dimensions. Arrays are not copied; the caller can reuse them for the next batch.
+ *
+ * <p>A batch can optionally contain the resources from which the columns were extracted.
+ * Those resources are used by {@link BatchEvaluator} for evaluating the filters that
+ * cannot be evaluated on columns.</p>
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) in the batch.
+ */
+public class ColumnBatch<R> {
+    /**
+     * The envelopes of a geometric property in the two first dimensions.
+     */
+    static final class Bounds {
+        /** The minimal and maximal coordinate values of the envelopes. */
+        final double[] xmin, ymin, xmax, ymax;
+
+        /**
+         * Creates a new set of envelopes.
+         *
+         * @param xmin  minimal coordinate values in the first dimension.
+         * @param ymin  minimal coordinate values in the second dimension.
+         * @param xmax  maximal coordinate values in the first dimension.
+         * @param ymax  maximal coordinate values in the second dimension.
+         */
+        Bounds(final double[] xmin, final double[] ymin, final double[] xmax, final double[] ymax) {
+            this.xmin = xmin;
+            this.ymin = ymin;
+            this.xmax = xmax;
+            this.ymax = ymax;
+        }
+    }
+
+    /**
+     * Number of resources in this batch.
+     */
+    private final int size;
+
+    /**
+     * The resources from which the columns were extracted, or {@code null} if unknown.
+     */
+    private final List<? extends R> resources;
+
+    /**
+     * The columns by property name. Values are {@code double[]}, {@code Object[]} or {@link Bounds}.
+     */
+    private final Map<String,Object> columns;
+
+    /**
+     * Creates an initially empty batch for the given number of resources.
+     *
+     * @param size  number of resources in the batch.
+     */
+    public ColumnBatch(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative batch size: " + size);
+        }
+        this.size      = size;
+        this.resources = null;
+        this.columns   = new HashMap<>();
+    }
+
+    /**
+     * Creates an initially empty batch for the given resources.
+     * The filters that cannot be evaluated on columns will be evaluated on those resources.
+     *
+     * @param resources  the resources in the batch. This list is not copied.
+     */
+    public ColumnBatch(final List<? extends R> resources) {
+        this.size      = resources.size();
+        this.resources = resources;
+        this.columns   = new HashMap<>();
+    }
+
+    /**
+     * Returns the number of resources in this batch.
+     *
+     * @return number of resources.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ensures that the given array is large enough for the number of resources in this batch.
+     *
+     * @param  name    the property name, used in error message.
+     * @param  length  length of the array.
+     */
+    private void ensureValidLength(final String name, final int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Column \"" + name + "\" has " + length
+                    + " values but the batch has " + size + " resources.");
+        }
+    }
+
+    /**
+     * Sets the values of a numeric property. NaN values are considered missing.
+     *
+     * @param  name    name of the property.
+     * @param  values  the property values, in the order of resources in this batch.
+     */
+    public void setValues(final String name, final double[] values) {
+        ensureValidLength(name, values.length);
+        columns.put(Objects.requireNonNull(name), values);
+    }
+
+    /**
+     * Sets the values of an arbitrary property. Null values are considered missing.
+     *
+     * @param  name    name of the property.
+     * @param  values  the property values, in the order of resources in this batch.
+     */
+    public void setValues(final String name, final Object[] values) {
+        ensureValidLength(name, values.length);
+        columns.put(Objects.requireNonNull(name), values);
+    }
+
+    /**
+     * Sets the envelopes of a geometric property. Envelopes with NaN values are considered missing.
+     *
+     * @param  name  name of the property.
+     * @param  xmin  minimal coordinate values in the first dimension.
+     * @param  ymin  minimal coordinate values in the second dimension.
+     * @param  xmax  maximal coordinate values in the first dimension.
+     * @param  ymax  maximal coordinate values in the second dimension.
+     */
+    public void setBounds(final String name, final double[] xmin, final double[] ymin, final double[] xmax, final double[] ymax) {
+        ensureValidLength(name, Math.min(Math.min(xmin.length, ymin.length), Math.min(xmax.length, ymax.length)));
+        columns.put(Objects.requireNonNull(name), new Bounds(xmin, ymin, xmax, ymax));
+    }
+
+    /**
+     * Returns the column for the given property.
+     *
+     * @param  name  name of the property.
+     * @return the {@code double[]}, {@code Object[]} or {@link Bounds} column, or {@code null} if none.
+     */
+    final Object column(final String name) {
+        return columns.get(name);
+    }
+
+    /**
+     * Returns the resources from which the columns were extracted.
+     *
+     * @return the resources in this batch.
+     * @throws IllegalStateException if this batch has been created without resources.
+     */
+    final List<? extends R> resources() {
+        if (resources == null) {
+            throw new IllegalStateException("This batch does not contain the resources needed for evaluating the filter.");
+        }
+        return resources;
+    }
+}
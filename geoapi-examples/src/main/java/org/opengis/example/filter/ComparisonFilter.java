@@ -0,0 +1,111 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Objects;
+import org.opengis.filter.Expression;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.ComparisonOperatorName;
+import org.opengis.filter.BinaryComparisonOperator;
+
+
+/**
+ * A comparison between the values of two expressions.
+ * Values are compared according the rules documented in {@link Comparisons}.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class ComparisonFilter<R> extends SimpleFilter<R> implements BinaryComparisonOperator<R> {
+    /**
+     * The comparison operator.
+     */
+    final Comparisons.Operator operator;
+
+    /**
+     * Whether character strings comparisons are case-sensitive.
+     */
+    private final boolean matchCase;
+
+    /**
+     * How to apply the operator on multi-valued properties.
+     */
+    private final MatchAction matchAction;
+
+    /**
+     * Creates a new comparison.
+     *
+     * @param operator     the comparison operator.
+     * @param expression1  the first operand.
+     * @param expression2  the second operand.
+     * @param matchCase    whether character strings comparisons are case-sensitive.
+     * @param matchAction  how to apply the operator on multi-valued properties.
+     */
+    ComparisonFilter(final Comparisons.Operator operator, final Expression<R,?> expression1,
+            final Expression<R,?> expression2, final boolean matchCase, final MatchAction matchAction)
+    {
+        super(List.of(expression1, expression2));
+        this.operator    = operator;
+        this.matchCase   = matchCase;
+        this.matchAction = Objects.requireNonNull(matchAction);
+    }
+
+    /**
+     * Returns the nature of the comparison.
+     */
+    @Override
+    public ComparisonOperatorName getOperatorType() {
+        return operator.name;
+    }
+
+    /**
+     * Returns whether character strings comparisons are case-sensitive.
+     */
+    @Override
+    public boolean isMatchingCase() {
+        return matchCase;
+    }
+
+    /**
+     * Returns how to apply the operator on multi-valued properties.
+     */
+    @Override
+    public MatchAction getMatchAction() {
+        return matchAction;
+    }
+
+    /**
+     * Compares the values of the two expressions.
+     *
+     * @param  resource  the resource from which to fetch the values to compare.
+     * @return whether the values satisfy the comparison operator.
+     */
+    @Override
+    public boolean test(final R resource) {
+        return Comparisons.test(operator, expressions.get(0).apply(resource), expressions.get(1).apply(resource),
+                                matchCase, matchAction);
+    }
+
+    /**
+     * Compares this filter with the given object for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            final var other = (ComparisonFilter<?>) object;
+            return matchCase == other.matchCase && matchAction == other.matchAction;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this filter.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + Boolean.hashCode(matchCase) + 7 * matchAction.hashCode();
+    }
+}
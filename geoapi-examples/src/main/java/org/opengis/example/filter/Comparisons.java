@@ -0,0 +1,274 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Collection;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.ComparisonOperatorName;
+
+
+/**
+ * Comparison rules shared by the filters of this package and by the {@link FilterCompiler}.
+ * Numbers are compared by their {@code double} values, and a character string is compared to a number
+ * if it can be parsed as a number. Other character strings are compared in lexicographic order.
+ * Other objects are compared with their {@link Comparable} interface if they are of the same class.
+ */
+final class Comparisons {
+    /**
+     * Result of {@link #compare(Object, Object, boolean)} when at least one value is null.
+     */
+    static final int NULL = Integer.MIN_VALUE;
+
+    /**
+     * Result of {@link #compare(Object, Object, boolean)} when the values are non-null but cannot be ordered.
+     */
+    static final int INCOMPARABLE = Integer.MAX_VALUE;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private Comparisons() {
+    }
+
+    /**
+     * The binary comparison operators, with the test to apply on the result of {@link #compare compare(…)}.
+     */
+    enum Operator {
+        /** Equality. */
+        EQUAL(ComparisonOperatorName.PROPERTY_IS_EQUAL_TO) {
+            @Override boolean test(int c) {return c == 0;}
+            @Override boolean test(double a, double b) {return a == b;}
+        },
+
+        /** Inequality. Null values are neither equal nor not equal. */
+        NOT_EQUAL(ComparisonOperatorName.PROPERTY_IS_NOT_EQUAL_TO) {
+            @Override boolean test(int c) {return c != 0 && c != NULL;}
+            @Override boolean test(double a, double b) {return a != b;}
+        },
+
+        /** Strict inequality. */
+        LESS(ComparisonOperatorName.PROPERTY_IS_LESS_THAN) {
+            @Override boolean test(int c) {return c == -1;}
+            @Override boolean test(double a, double b) {return a < b;}
+        },
+
+        /** Strict inequality. */
+        GREATER(ComparisonOperatorName.PROPERTY_IS_GREATER_THAN) {
+            @Override boolean test(int c) {return c == +1;}
+            @Override boolean test(double a, double b) {return a > b;}
+        },
+
+        /** Inequality. */
+        LESS_OR_EQUAL(ComparisonOperatorName.PROPERTY_IS_LESS_THAN_OR_EQUAL_TO) {
+            @Override boolean test(int c) {return c == -1 || c == 0;}
+            @Override boolean test(double a, double b) {return a <= b;}
+        },
+
+        /** Inequality. */
+        GREATER_OR_EQUAL(ComparisonOperatorName.PROPERTY_IS_GREATER_THAN_OR_EQUAL_TO) {
+            @Override boolean test(int c) {return c == +1 || c == 0;}
+            @Override boolean test(double a, double b) {return a >= b;}
+        };
+
+        /**
+         * The GeoAPI name of this operator.
+         */
+        final ComparisonOperatorName name;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param  name  the GeoAPI name of this operator.
+         */
+        private Operator(final ComparisonOperatorName name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns whether the result of {@link Comparisons#compare(Object, Object, boolean)} satisfies this operator.
+         *
+         * @param  c  the comparison result.
+         * @return whether the comparison result satisfies this operator.
+         */
+        abstract boolean test(int c);
+
+        /**
+         * Returns whether the given numbers satisfy this operator. This method gives the same result as
+         * {@code test(compare(a, b, …))} for all non-null numbers, including NaN, but is faster.
+         *
+         * @param  a  the first operand.
+         * @param  b  the second operand.
+         * @return whether the numbers satisfy this operator.
+         */
+        abstract boolean test(double a, double b);
+
+        /**
+         * Returns the operator to use when the operands are swapped.
+         *
+         * @return the operator for swapped operands.
+         */
+        final Operator swap() {
+            switch (this) {
+                case LESS:             return GREATER;
+                case GREATER:          return LESS;
+                case LESS_OR_EQUAL:    return GREATER_OR_EQUAL;
+                case GREATER_OR_EQUAL: return LESS_OR_EQUAL;
+                default:               return this;
+            }
+        }
+
+        /**
+         * Returns the operator for the given GeoAPI name.
+         *
+         * @param  name  the GeoAPI name of the operator.
+         * @return the operator, or {@code null} if the given name is not for a binary comparison.
+         */
+        static Operator valueOf(final ComparisonOperatorName name) {
+            for (final Operator op : values()) {
+                if (op.name == name) return op;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the given value as a {@code double}, or NaN if the value is not a number.
+     * Character strings are parsed.
+     *
+     * @param  value  the value to convert.
+     * @return the value as a {@code double}, or NaN.
+     */
+    static double toDouble(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof CharSequence) try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            // Not a number. Fallback on NaN.
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Compares the given values.
+     *
+     * @param  v1         the first value, or {@code null}.
+     * @param  v2         the second value, or {@code null}.
+     * @param  matchCase  whether character strings comparisons are case-sensitive.
+     * @return -1, 0 or +1 if the first value is less, equal or greater than the second value,
+     *         or {@link #NULL} or {@link #INCOMPARABLE}.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static int compare(final Object v1, final Object v2, final boolean matchCase) {
+        if (v1 == null || v2 == null) {
+            return NULL;
+        }
+        if (v1 instanceof Number || v2 instanceof Number) {
+            final double d1 = toDouble(v1);
+            final double d2 = toDouble(v2);
+            if (d1 < d2) return -1;
+            if (d1 > d2) return +1;
+            if (d1 == d2) return 0;
+            return INCOMPARABLE;                            // At least one value is NaN.
+        }
+        if (v1 instanceof CharSequence && v2 instanceof CharSequence) {
+            final String s1 = v1.toString();
+            final String s2 = v2.toString();
+            return Integer.signum(matchCase ? s1.compareTo(s2) : s1.compareToIgnoreCase(s2));
+        }
+        if (v1 instanceof Comparable && v1.getClass().isInstance(v2)) {
+            return Integer.signum(((Comparable) v1).compareTo(v2));
+        }
+        return v1.equals(v2) ? 0 : INCOMPARABLE;
+    }
+
+    /**
+     * Tests the given values with the given operator, applying the match action if a value is a collection.
+     *
+     * @param  op         the comparison operator.
+     * @param  v1         the first value, or {@code null}.
+     * @param  v2         the second value, or {@code null}.
+     * @param  matchCase  whether character strings comparisons are case-sensitive.
+     * @param  action     how to apply the operator on collections.
+     * @return whether the values satisfy the operator.
+     */
+    static boolean test(final Operator op, final Object v1, final Object v2, final boolean matchCase, final MatchAction action) {
+        if (v1 instanceof Collection<?>) {
+            int count = 0;
+            for (final Object e : (Collection<?>) v1) {
+                if (test(op, e, v2, matchCase, action)) count++;
+                else if (action == MatchAction.ALL) return false;
+            }
+            return count != 0 && (action != MatchAction.ONE || count == 1);
+        }
+        if (v2 instanceof Collection<?>) {
+            return test(op.swap(), v2, v1, matchCase, action);
+        }
+        return op.test(compare(v1, v2, matchCase));
+    }
+
+    /**
+     * Returns whether the given value is an integer which can be compared exactly as a {@code long}.
+     *
+     * @param  value  the value to test.
+     * @return whether the value is a {@link Long}, {@link Integer}, {@link Short} or {@link Byte}.
+     */
+    static boolean isInteger(final Object value) {
+        return (value instanceof Long) || (value instanceof Integer) || (value instanceof Short) || (value instanceof Byte);
+    }
+
+    /**
+     * Compares the given values for sorting purpose. Null values are last.
+     * Values that cannot be compared are ordered by their string representations.
+     * Integers that are equal as {@code double} values are compared again as {@code long} values,
+     * because integers greater than 2<sup>53</sup> may have the same {@code double} approximation.
+     *
+     * @param  v1  the first value, or {@code null}.
+     * @param  v2  the second value, or {@code null}.
+     * @return negative, zero or positive if the first value is less, equal or greater than the second value.
+     */
+    static int order(final Object v1, final Object v2) {
+        if (v1 == null) return (v2 == null) ? 0 : +1;
+        if (v2 == null) return -1;
+        final int c = compare(v1, v2, true);
+        if (c == INCOMPARABLE) {
+            return v1.toString().compareTo(v2.toString());
+        }
+        if (c == 0 && isInteger(v1) && isInteger(v2)) {
+            return Long.compare(((Number) v1).longValue(), ((Number) v2).longValue());
+        }
+        return c;
+    }
+
+    /**
+     * Converts the given value to the given type.
+     *
+     * @param  <V>    the target type.
+     * @param  value  the value to convert, or {@code null}.
+     * @param  type   the target type.
+     * @return the converted value, or {@code null} if the given value was null.
+     * @throws ClassCastException if the value cannot be converted.
+     */
+    static <V> V convert(final Object value, final Class<V> type) {
+        if (value == null || type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (type == String.class) {
+            return type.cast(value.toString());
+        }
+        final double d = toDouble(value);
+        if (!Double.isNaN(d) || (value instanceof Number)) {
+            if (type == Double.class || type == Number.class) return type.cast(d);
+            if (type == Float.class)   return type.cast((float) d);
+            if (type == Long.class)    return type.cast((long) d);
+            if (type == Integer.class) return type.cast((int) d);
+            if (type == Short.class)   return type.cast((short) d);
+            if (type == Byte.class)    return type.cast((byte) d);
+        }
+        throw new ClassCastException("Cannot convert " + value.getClass().getSimpleName() + " to " + type.getSimpleName() + '.');
+    }
+}
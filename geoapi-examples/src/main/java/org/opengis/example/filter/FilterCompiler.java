@@ -0,0 +1,271 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.DoubleBinaryOperator;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.Expression;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.LikeOperator;
+import org.opengis.filter.NullOperator;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.filter.BinaryComparisonOperator;
+
+
+/**
+ * Converts a tree of {@link Filter} and {@link Expression} objects into a predicate specialized
+ * for the operand types. The compilation is done once, then the predicate can be evaluated on
+ * many resources. Compared to calling {@link Filter#test(Object)} on the original tree, the
+ * compiled predicate avoids the following costs:
+ *
+ * <ul>
+ *   <li>Logical operators are compiled to loops over arrays of predicates, without iterators.</li>
+ *   <li>Comparisons between a value and a numeric literal are done on {@code double} primitive values,
+ *       without boxing the literal again or determining the type of the literal for each resource.</li>
+ *   <li>Arithmetic operations are compiled to chains of functions on primitive values.</li>
+ *   <li>Property values can be fetched by a function resolved once for the value reference
+ *       (for example using a property index instead of a property name).
+ *       This is specified by the <i>resolver</i> given at construction time.</li>
+ * </ul>
+ *
+ * Filters or expressions that are not recognized by this compiler are evaluated by their own
+ * {@code test(…)} or {@code apply(…)} methods. Consequently, filters created by any factory
+ * can be compiled. The compiled predicate gives the same results as the original filter
+ * if the values are compared according the rules documented in {@link SimpleFilterFactory}.
+ *
+ * <h2>Example</h2>
+ * {@snippet lang="java" :
+ * Filter<Feature> filter = ...;
+ * Predicate<Feature> predicate = new FilterCompiler<Feature>().compile(filter);
+ * features.stream().filter(predicate).forEach(...);
+ * }
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to filter.
+ */
+public class FilterCompiler<R> {
+    /**
+     * The function providing the accessor to use for fetching the values of a property.
+     */
+    private final Function<? super ValueReference<R,?>, ? extends Function<? super R, ?>> resolver;
+
+    /**
+     * Creates a new compiler which fetches property values with the {@link ValueReference#apply(Object)} method.
+     */
+    public FilterCompiler() {
+        resolver = (reference) -> reference;
+    }
+
+    /**
+     * Creates a new compiler which fetches property values with the functions provided by the given resolver.
+     * The resolver is invoked once for each value reference at compilation time. The function returned by the
+     * resolver shall give the same results as {@link ValueReference#apply(Object)}, but may be more efficient.
+     * For example, it may use a property index in a table instead of a property name.
+     *
+     * @param resolver  the function providing the accessor to use for fetching the values of a property.
+     */
+    public FilterCompiler(final Function<? super ValueReference<R,?>, ? extends Function<? super R, ?>> resolver) {
+        this.resolver = Objects.requireNonNull(resolver);
+    }
+
+    /**
+     * Compiles the given filter into a predicate.
+     *
+     * @param  filter  the filter to compile.
+     * @return a predicate giving the same results as the given filter.
+     */
+    @SuppressWarnings("unchecked")
+    public Predicate<R> compile(final Filter<R> filter) {
+        if (filter == Filter.include()) return (r) -> true;
+        if (filter == Filter.exclude()) return (r) -> false;
+        if (filter instanceof LogicalOperator<?>) {
+            return compileLogical((LogicalOperator<R>) filter);
+        }
+        if (filter instanceof BinaryComparisonOperator<?>) {
+            final var c = (BinaryComparisonOperator<R>) filter;
+            final Comparisons.Operator op = Comparisons.Operator.valueOf(c.getOperatorType());
+            if (op != null) {
+                return compileComparison(op, c);
+            }
+        } else if (filter instanceof BetweenComparisonOperator<?>) {
+            return compileBetween((BetweenComparisonOperator<R>) filter);
+        } else if (filter instanceof NullOperator<?>) {
+            final Function<? super R, ?> value = compile(filter.getExpressions().get(0));
+            return (r) -> value.apply(r) == null;
+        } else if (filter instanceof LikeOperator<?>) {
+            final List<Expression<R,?>> expressions = filter.getExpressions();
+            final Expression<R,?> pattern = expressions.get(1);
+            if (pattern instanceof Literal<?,?>) {
+                final LikeMatcher matcher = LikeMatcher.compile((LikeOperator<R>) filter);
+                final Function<? super R, ?> value = compile(expressions.get(0));
+                return (r) -> matcher.matches(value.apply(r));
+            }
+        }
+        return filter::test;
+    }
+
+    /**
+     * Compiles a {@code AND}, {@code OR} or {@code NOT} operator.
+     *
+     * @param  filter  the logical operator to compile.
+     * @return a predicate giving the same results as the given filter.
+     */
+    private Predicate<R> compileLogical(final LogicalOperator<R> filter) {
+        final List<Filter<R>> operands = filter.getOperands();
+        final LogicalOperatorName type = filter.getOperatorType();
+        if (type == LogicalOperatorName.NOT && operands.size() == 1) {
+            return compile(operands.get(0)).negate();
+        }
+        final boolean isOr;
+        if (type == LogicalOperatorName.AND) isOr = false;
+        else if (type == LogicalOperatorName.OR) isOr = true;
+        else return filter::test;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Predicate<R>[] predicates = new Predicate[operands.size()];
+        for (int i=0; i<predicates.length; i++) {
+            predicates[i] = compile(operands.get(i));
+        }
+        switch (predicates.length) {
+            case 0: return (r) -> !isOr;
+            case 1: return predicates[0];
+            case 2: {
+                final Predicate<R> p1 = predicates[0];
+                final Predicate<R> p2 = predicates[1];
+                return isOr ? p1.or(p2) : p1.and(p2);
+            }
+        }
+        return (r) -> {
+            for (final Predicate<R> p : predicates) {
+                if (p.test(r) == isOr) {
+                    return isOr;
+                }
+            }
+            return !isOr;
+        };
+    }
+
+    /**
+     * Compiles a binary comparison. If one operand is a numeric literal, the comparison is done
+     * on {@code double} values, except for collections which need the match action to be applied.
+     *
+     * @param  op      the comparison operator.
+     * @param  filter  the comparison to compile.
+     * @return a predicate giving the same results as the given filter.
+     */
+    private Predicate<R> compileComparison(Comparisons.Operator op, final BinaryComparisonOperator<R> filter) {
+        final boolean matchCase = filter.isMatchingCase();
+        final MatchAction action = filter.getMatchAction();
+        Expression<R,?> e1 = filter.getOperand1();
+        Expression<R,?> e2 = filter.getOperand2();
+        if (e1 instanceof Literal<?,?> && !(e2 instanceof Literal<?,?>)) {
+            final Expression<R,?> t = e1; e1 = e2; e2 = t;
+            op = op.swap();
+        }
+        final Function<? super R, ?> value = compile(e1);
+        final Comparisons.Operator operator = op;
+        if (e2 instanceof Literal<?,?>) {
+            final Object literal = ((Literal<R,?>) e2).getValue();
+            if (literal instanceof Number) {
+                final double bound = ((Number) literal).doubleValue();
+                return (r) -> {
+                    final Object v = value.apply(r);
+                    if (v instanceof Number) {
+                        return operator.test(((Number) v).doubleValue(), bound);
+                    }
+                    if (v == null) {
+                        return false;
+                    }
+                    if (v instanceof Collection<?>) {
+                        return Comparisons.test(operator, v, literal, matchCase, action);
+                    }
+                    return operator.test(Comparisons.toDouble(v), bound);
+                };
+            }
+            return (r) -> Comparisons.test(operator, value.apply(r), literal, matchCase, action);
+        }
+        final Function<? super R, ?> other = compile(e2);
+        return (r) -> Comparisons.test(operator, value.apply(r), other.apply(r), matchCase, action);
+    }
+
+    /**
+     * Compiles a test for a value between two bounds.
+     * If both bounds are numeric literals, the comparison is done on {@code double} values.
+     *
+     * @param  filter  the comparison to compile.
+     * @return a predicate giving the same results as the given filter.
+     */
+    private Predicate<R> compileBetween(final BetweenComparisonOperator<R> filter) {
+        final Function<? super R, ?> value = compile(filter.getExpression());
+        final Expression<R,?> lower = filter.getLowerBoundary();
+        final Expression<R,?> upper = filter.getUpperBoundary();
+        if (lower instanceof Literal<?,?> && upper instanceof Literal<?,?>) {
+            final Object min = ((Literal<R,?>) lower).getValue();
+            final Object max = ((Literal<R,?>) upper).getValue();
+            if (min instanceof Number && max instanceof Number) {
+                final double lo = ((Number) min).doubleValue();
+                final double hi = ((Number) max).doubleValue();
+                return (r) -> {
+                    final Object v = value.apply(r);
+                    if (v == null) return false;
+                    final double d = Comparisons.toDouble(v);
+                    return d >= lo && d <= hi;
+                };
+            }
+        }
+        final Function<? super R, ?> min = compile(lower);
+        final Function<? super R, ?> max = compile(upper);
+        return (r) -> {
+            final Object v = value.apply(r);
+            return Comparisons.Operator.GREATER_OR_EQUAL.test(Comparisons.compare(v, min.apply(r), true))
+                && Comparisons.Operator.LESS_OR_EQUAL   .test(Comparisons.compare(v, max.apply(r), true));
+        };
+    }
+
+    /**
+     * Compiles the given expression into a function. Value references are resolved by the function given
+     * at construction time, literals are replaced by constants, and arithmetic operations created by
+     * {@link SimpleFilterFactory} are compiled to operations on {@code double} values.
+     *
+     * @param  expression  the expression to compile.
+     * @return a function giving the same results as the given expression.
+     */
+    @SuppressWarnings("unchecked")
+    public Function<? super R, ?> compile(final Expression<R,?> expression) {
+        if (expression instanceof ValueReference<?,?>) {
+            return Objects.requireNonNull(resolver.apply((ValueReference<R,?>) expression));
+        }
+        if (expression instanceof Literal<?,?>) {
+            final Object value = ((Literal<R,?>) expression).getValue();
+            return (r) -> value;
+        }
+        if (expression instanceof Arithmetic<?>) {
+            final var arithmetic = (Arithmetic<R>) expression;
+            final List<Expression<R,?>> operands = arithmetic.getParameters();
+            final Function<? super R, ?> operand1 = compile(operands.get(0));
+            final Function<? super R, ?> operand2 = compile(operands.get(1));
+            final DoubleBinaryOperator operation = arithmetic.operator.operation;
+            return (r) -> {
+                final Object a = operand1.apply(r);
+                if (a != null) {
+                    final Object b = operand2.apply(r);
+                    if (b != null) {
+                        return operation.applyAsDouble(((Number) a).doubleValue(), ((Number) b).doubleValue());
+                    }
+                }
+                return null;
+            };
+        }
+        return expression;
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.time.Instant;
+import java.time.DateTimeException;
+import java.time.temporal.TemporalAccessor;
+import javax.measure.Unit;
+import javax.measure.Quantity;
+import javax.measure.IncommensurableException;
+import javax.measure.UnconvertibleException;
+import javax.measure.quantity.Length;
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.Geometry;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.Expression;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.DistanceOperator;
+import org.opengis.filter.DistanceOperatorName;
+import org.opengis.filter.TemporalOperator;
+import org.opengis.filter.TemporalOperatorName;
+import org.opengis.filter.SpatialOperatorName;
+import org.opengis.filter.BinarySpatialOperator;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.example.geometry.SimpleEnvelope;
+import org.opengis.example.geometry.SimpleDirectPosition;
+
+
+/**
+ * The spatial and temporal extent that a filter restricts resources to.
+ * This extent is conservative: all resources accepted by the filter have a geometry intersecting
+ * the envelope and a time intersecting the time range, but the converse is not necessarily true.
+ * A data store can use this extent for skipping the pages of a spatial or temporal index that
+ * cannot contain any result, before to evaluate the exact filter on the remaining resources.
+ *
+ * <p>The extent is derived from the following operators when one operand is a {@link ValueReference}
+ * to the analyzed property and the other operand is a {@link Literal}:</p>
+ * <ul>
+ *   <li>All {@linkplain BinarySpatialOperator binary spatial operators} except {@code DISJOINT}:
+ *       the envelope of the literal geometry.</li>
+ *   <li>The {@code DWITHIN} distance operator: the envelope of the literal geometry expanded by the distance.
+ *       This is possible only if the coordinate system axes have units convertible to the distance unit.</li>
+ *   <li>All temporal operators: the range from the beginning to the end of the literal time,
+ *       or after the end for {@code AFTER}, or before the beginning for {@code BEFORE}.</li>
+ * </ul>
+ *
+ * The extents of the operands of {@code AND} operators are intersected, and the extents of the operands
+ * of {@code OR} operators are combined by union. Other filters, including {@code NOT} operators,
+ * do not restrict the extent. Envelopes of all filters are assumed in the same coordinate reference
+ * system; the analysis does not transform coordinates.
+ */
+public final class FilterExtent {
+    /**
+     * The extent of filters that put no spatial or temporal restriction.
+     */
+    private static final FilterExtent UNBOUNDED = new FilterExtent(null, null, null, false);
+
+    /**
+     * The extent of filters that never accept any resource.
+     */
+    private static final FilterExtent EMPTY = new FilterExtent(null, null, null, true);
+
+    /**
+     * The envelope that the geometries of the accepted resources intersect, or {@code null} if unbounded.
+     */
+    private final Envelope envelope;
+
+    /**
+     * The time range (inclusive) that the times of the accepted resources intersect.
+     * A {@code null} value means unbounded.
+     */
+    private final Instant startTime, endTime;
+
+    /**
+     * Whether the filter can never accept any resource.
+     */
+    private final boolean isEmpty;
+
+    /**
+     * Creates a new extent.
+     *
+     * @param envelope   the envelope, or {@code null} if unbounded.
+     * @param startTime  the start time (inclusive), or {@code null} if unbounded.
+     * @param endTime    the end time (inclusive), or {@code null} if unbounded.
+     * @param isEmpty    whether the filter can never accept any resource.
+     */
+    private FilterExtent(final Envelope envelope, final Instant startTime, final Instant endTime, final boolean isEmpty) {
+        this.envelope  = envelope;
+        this.startTime = startTime;
+        this.endTime   = endTime;
+        this.isEmpty   = isEmpty;
+    }
+
+    /**
+     * Returns the spatial and temporal extent that the given filter restricts resources to.
+     * If a property name is {@code null}, then the spatial or temporal operators on any
+     * property are considered. This is suitable for resources having only one geometry
+     * and one temporal property.
+     *
+     * @param  filter            the filter to analyze.
+     * @param  spatialProperty   name (XPath) of the geometric property to analyze, or {@code null} for any.
+     * @param  temporalProperty  name (XPath) of the temporal property to analyze, or {@code null} for any.
+     * @return the extent of the resources accepted by the filter.
+     */
+    public static FilterExtent analyze(final Filter<?> filter, final String spatialProperty, final String temporalProperty) {
+        if (filter == Filter.include()) return UNBOUNDED;
+        if (filter == Filter.exclude()) return EMPTY;
+        if (filter instanceof LogicalOperator<?>) {
+            final var logical = (LogicalOperator<?>) filter;
+            final LogicalOperatorName type = logical.getOperatorType();
+            final boolean isOr;
+            if (type == LogicalOperatorName.AND) isOr = false;
+            else if (type == LogicalOperatorName.OR) isOr = true;
+            else return UNBOUNDED;
+            FilterExtent extent = isOr ? EMPTY : UNBOUNDED;
+            for (final Filter<?> operand : logical.getOperands()) {
+                final FilterExtent e = analyze(operand, spatialProperty, temporalProperty);
+                extent = isOr ? extent.union(e) : extent.intersect(e);
+            }
+            return extent;
+        }
+        if (filter instanceof BinarySpatialOperator<?>) {
+            final var spatial = (BinarySpatialOperator<?>) filter;
+            if (spatial.getOperatorType() != SpatialOperatorName.DISJOINT) {
+                final Object value = literal(filter.getExpressions(), spatialProperty);
+                final Envelope e = SpatialFilter.envelope(value);
+                if (e != null) {
+                    return new FilterExtent(e, null, null, false);
+                }
+            }
+        } else if (filter instanceof DistanceOperator<?>) {
+            final var distance = (DistanceOperator<?>) filter;
+            if (distance.getOperatorType() == DistanceOperatorName.WITHIN) {
+                Object value = literal(filter.getExpressions(), spatialProperty);
+                if (value == null && reference(filter.getExpressions(), spatialProperty) != null) {
+                    value = distance.getGeometry();
+                }
+                final Envelope e = SpatialFilter.envelope(value);
+                if (e != null) {
+                    final Envelope expanded = expand(e, distance.getDistance());
+                    if (expanded != null) {
+                        return new FilterExtent(expanded, null, null, false);
+                    }
+                }
+            }
+        } else if (filter instanceof TemporalOperator<?>) {
+            final List<? extends Expression<?,?>> expressions = filter.getExpressions();
+            final Object value = literal(expressions, temporalProperty);
+            final Instant[] range = timeRange(value);
+            if (range != null) {
+                TemporalOperatorName type = ((TemporalOperator<?>) filter).getOperatorType();
+                if (expressions.get(0) instanceof Literal<?,?>) {
+                    if (type == TemporalOperatorName.AFTER) type = TemporalOperatorName.BEFORE;
+                    else if (type == TemporalOperatorName.BEFORE) type = TemporalOperatorName.AFTER;
+                }
+                if (type == TemporalOperatorName.AFTER)  return new FilterExtent(null, range[1], null, false);
+                if (type == TemporalOperatorName.BEFORE) return new FilterExtent(null, null, range[0], false);
+                return new FilterExtent(null, range[0], range[1], false);
+            }
+        }
+        return UNBOUNDED;
+    }
+
+    /**
+     * Returns the value reference to the given property in a list of two operands.
+     *
+     * @param  expressions  the operands of a spatial or temporal operator.
+     * @param  property     name of the property to search, or {@code null} for any.
+     * @return index of the value reference, or {@code null} if none.
+     */
+    private static Integer reference(final List<? extends Expression<?,?>> expressions, final String property) {
+        for (int i = Math.min(expressions.size(), 2); --i >= 0;) {
+            final Expression<?,?> e = expressions.get(i);
+            if (e instanceof ValueReference<?,?>
+                    && (property == null || property.equals(((ValueReference<?,?>) e).getXPath())))
+            {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the literal compared to the given property in a list of two operands.
+     *
+     * @param  expressions  the operands of a spatial or temporal operator.
+     * @param  property     name of the property compared to the literal, or {@code null} for any.
+     * @return the literal value, or {@code null} if none.
+     */
+    private static Object literal(final List<? extends Expression<?,?>> expressions, final String property) {
+        final Integer i = reference(expressions, property);
+        if (i != null) {
+            final Expression<?,?> other = expressions.get(1 - i);
+            if (other instanceof Literal<?,?>) {
+                return ((Literal<?,?>) other).getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the given envelope expanded by the given distance on all sides.
+     *
+     * @param  envelope  the envelope to expand.
+     * @param  distance  the distance to add on all sides.
+     * @return the expanded envelope, or {@code null} if the distance unit is not convertible to the axis units.
+     */
+    private static Envelope expand(final Envelope envelope, final Quantity<Length> distance) {
+        final CoordinateReferenceSystem crs = envelope.getCoordinateReferenceSystem();
+        if (crs == null || distance == null) {
+            return null;
+        }
+        final CoordinateSystem cs = crs.getCoordinateSystem();
+        final int dimension = envelope.getDimension();
+        if (cs.getDimension() != dimension) {
+            return null;
+        }
+        final double[] lower = new double[dimension];
+        final double[] upper = new double[dimension];
+        for (int i=0; i<dimension; i++) {
+            final Unit<?> unit = cs.getAxis(i).getUnit();
+            final double d;
+            try {
+                d = Math.abs(distance.getUnit().getConverterToAny(unit).convert(distance.getValue().doubleValue()));
+            } catch (IncommensurableException | UnconvertibleException e) {
+                return null;
+            }
+            lower[i] = envelope.getMinimum(i) - d;
+            upper[i] = envelope.getMaximum(i) + d;
+        }
+        return create(crs, lower, upper);
+    }
+
+    /**
+     * Returns the time range of the given temporal value.
+     *
+     * @param  value  the temporal value, or {@code null}.
+     * @return the start and end time, or {@code null} if the given value is not recognized.
+     */
+    private static Instant[] timeRange(final Object value) {
+        if (value instanceof org.opengis.temporal.Period) {
+            final var period = (org.opengis.temporal.Period) value;
+            final Instant start = instant(period.getBeginning());
+            final Instant end   = instant(period.getEnding());
+            return (start != null && end != null) ? new Instant[] {start, end} : null;
+        }
+        final Instant t = instant(value);
+        return (t != null) ? new Instant[] {t, t} : null;
+    }
+
+    /**
+     * Returns the given temporal value as an instant.
+     *
+     * @param  value  the temporal value, or {@code null}.
+     * @return the instant, or {@code null} if the given value is not recognized.
+     */
+    private static Instant instant(final Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        }
+        if (value instanceof org.opengis.temporal.Instant) {
+            return instant(((org.opengis.temporal.Instant) value).getDate());
+        }
+        if (value instanceof TemporalAccessor) try {
+            return Instant.from((TemporalAccessor) value);
+        } catch (DateTimeException e) {
+            // Not an absolute time (e.g. a local date). Ignore.
+        }
+        return null;
+    }
+
+    /**
+     * Creates an envelope from the given bounds.
+     *
+     * @param  crs    the coordinate reference system, or {@code null}.
+     * @param  lower  the minimal coordinate values.
+     * @param  upper  the maximal coordinate values.
+     * @return the envelope.
+     */
+    private static Envelope create(final CoordinateReferenceSystem crs, final double[] lower, final double[] upper) {
+        return new SimpleEnvelope(new SimpleDirectPosition(crs, lower), new SimpleDirectPosition(crs, upper));
+    }
+
+    /**
+     * Returns whether the two envelopes can be combined.
+     *
+     * @param  e1  the first envelope.
+     * @param  e2  the second envelope.
+     * @return whether the envelopes have the same dimension and compatible CRS.
+     */
+    private static boolean isCompatible(final Envelope e1, final Envelope e2) {
+        final CoordinateReferenceSystem c1 = e1.getCoordinateReferenceSystem();
+        final CoordinateReferenceSystem c2 = e2.getCoordinateReferenceSystem();
+        return e1.getDimension() == e2.getDimension() && (c1 == null || c2 == null || c1.equals(c2));
+    }
+
+    /**
+     * Returns the extent of resources accepted by both filters.
+     *
+     * @param  other  the extent of the other filter.
+     * @return the intersection of the two extents.
+     */
+    private FilterExtent intersect(final FilterExtent other) {
+        if (isEmpty || other.isEmpty) {
+            return EMPTY;
+        }
+        Envelope env = envelope;
+        if (env == null) {
+            env = other.envelope;
+        } else if (other.envelope != null && isCompatible(env, other.envelope)) {
+            final int dimension = env.getDimension();
+            final double[] lower = new double[dimension];
+            final double[] upper = new double[dimension];
+            for (int i=0; i<dimension; i++) {
+                lower[i] = Math.max(env.getMinimum(i), other.envelope.getMinimum(i));
+                upper[i] = Math.min(env.getMaximum(i), other.envelope.getMaximum(i));
+                if (lower[i] > upper[i]) {
+                    return EMPTY;
+                }
+            }
+            CoordinateReferenceSystem crs = env.getCoordinateReferenceSystem();
+            if (crs == null) crs = other.envelope.getCoordinateReferenceSystem();
+            env = create(crs, lower, upper);
+        }
+        final Instant start = (startTime == null) ? other.startTime
+                : (other.startTime == null || startTime.isAfter(other.startTime)) ? startTime : other.startTime;
+        final Instant end = (endTime == null) ? other.endTime
+                : (other.endTime == null || endTime.isBefore(other.endTime)) ? endTime : other.endTime;
+        if (start != null && end != null && start.isAfter(end)) {
+            return EMPTY;
+        }
+        return new FilterExtent(env, start, end, false);
+    }
+
+    /**
+     * Returns the extent of resources accepted by at least one of the filters.
+     *
+     * @param  other  the extent of the other filter.
+     * @return the union of the two extents.
+     */
+    private FilterExtent union(final FilterExtent other) {
+        if (isEmpty) return other;
+        if (other.isEmpty) return this;
+        Envelope env = null;
+        if (envelope != null && other.envelope != null && isCompatible(envelope, other.envelope)) {
+            final int dimension = envelope.getDimension();
+            final double[] lower = new double[dimension];
+            final double[] upper = new double[dimension];
+            for (int i=0; i<dimension; i++) {
+                lower[i] = Math.min(envelope.getMinimum(i), other.envelope.getMinimum(i));
+                upper[i] = Math.max(envelope.getMaximum(i), other.envelope.getMaximum(i));
+            }
+            CoordinateReferenceSystem crs = envelope.getCoordinateReferenceSystem();
+            if (crs == null) crs = other.envelope.getCoordinateReferenceSystem();
+            env = create(crs, lower, upper);
+        }
+        final Instant start = (startTime == null || other.startTime == null) ? null
+                : startTime.isBefore(other.startTime) ? startTime : other.startTime;
+        final Instant end = (endTime == null || other.endTime == null) ? null
+                : endTime.isAfter(other.endTime) ? endTime : other.endTime;
+        return new FilterExtent(env, start, end, false);
+    }
+
+    /**
+     * Returns whether the filter can never accept any resource.
+     * In such case, the envelope and time range are meaningless.
+     *
+     * @return whether the filter never accept any resource.
+     */
+    public boolean isEmpty() {
+        return isEmpty;
+    }
+
+    /**
+     * Returns the envelope that the geometries of all accepted resources intersect.
+     *
+     * @return the envelope, or an empty value if the filter puts no spatial restriction.
+     */
+    public Optional<Envelope> getEnvelope() {
+        return Optional.ofNullable(envelope);
+    }
+
+    /**
+     * Returns the time (inclusive) before which no accepted resource ends.
+     *
+     * @return the start time, or an empty value if the time range is unbounded on that side.
+     */
+    public Optional<Instant> getStartTime() {
+        return Optional.ofNullable(startTime);
+    }
+
+    /**
+     * Returns the time (inclusive) after which no accepted resource begins.
+     *
+     * @return the end time, or an empty value if the time range is unbounded on that side.
+     */
+    public Optional<Instant> getEndTime() {
+        return Optional.ofNullable(endTime);
+    }
+
+    /**
+     * Compares this extent with the given object for equality.
+     *
+     * @param  object  the object to compare with this extent.
+     * @return whether the given object is an equal extent.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof FilterExtent) {
+            final var other = (FilterExtent) object;
+            return isEmpty == other.isEmpty
+                    && Objects.equals(envelope,  other.envelope)
+                    && Objects.equals(startTime, other.startTime)
+                    && Objects.equals(endTime,   other.endTime);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this extent.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(envelope, startTime, endTime) + Boolean.hashCode(isEmpty);
+    }
+
+    /**
+     * Returns a string representation of this extent.
+     */
+    @Override
+    public String toString() {
+        if (isEmpty) {
+            return "FilterExtent[empty]";
+        }
+        return "FilterExtent[" + envelope + ", " + startTime + " … " + endTime + ']';
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Comparator;
+import java.util.function.Predicate;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.Expression;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.NilOperator;
+import org.opengis.filter.NullOperator;
+import org.opengis.filter.LikeOperator;
+import org.opengis.filter.ResourceId;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.SpatialOperator;
+import org.opengis.filter.TemporalOperator;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.filter.BinaryComparisonOperator;
+
+
+/**
+ * Rewrites a tree of filters into a simpler but equivalent tree. The following rules are applied:
+ *
+ * <ul>
+ *   <li>Nested {@code AND} operators are flattened in a single {@code AND}, and likewise for {@code OR}.</li>
+ *   <li>{@link Filter#include()} and {@link Filter#exclude()} operands are removed from {@code AND} and
+ *       {@code OR} operators, or replace the whole operator if they determine the result.</li>
+ *   <li>Double negations are removed, and duplicated operands are removed.</li>
+ *   <li>In an {@code AND} operator, the comparisons of the same {@link ValueReference} with numeric literals
+ *       are merged. For example {@code x ≥ 2 AND x ≤ 8 AND x ≥ 4} become {@code x ≥ 4 AND x ≤ 8}, and
+ *       {@code x BETWEEN 2 AND 8 AND x ≥ 4} become {@code x BETWEEN 4 AND 8}.
+ *       If the range is empty, the whole operator is replaced by {@code Filter.exclude()}.</li>
+ *   <li>Operands of {@code AND} and {@code OR} operators are sorted with cheapest operands first,
+ *       for example comparisons before pattern matching, and pattern matching before spatial operators.
+ *       Since the evaluation of those operators stops as soon as the result is known,
+ *       expensive operands are evaluated less often.</li>
+ * </ul>
+ *
+ * By default, only the comparisons using {@link MatchAction#ALL} are merged, since the merge is not valid for
+ * the other match actions on multi-valued properties: with {@link MatchAction#ANY}, {@code x ≥ 4 AND x ≤ 2}
+ * is true for the collection {1, 5}. A merge produces a {@link BetweenComparisonOperator} only if at least one
+ * merged operand was already a {@code BETWEEN}, because that operator does not apply {@link MatchAction} on
+ * multi-valued properties and is therefore false for them. Those restrictions are lifted for the properties
+ * declared single-valued at construction time: the comparisons of those properties are merged regardless of
+ * their match action, and a closed range becomes a {@code BETWEEN}.
+ * New filters are created by the factory given at construction time. Filters which are not modified by
+ * the optimization are returned as-is.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to filter.
+ */
+public class FilterOptimizer<R> {
+    /**
+     * Cost assigned to filters of unknown type.
+     */
+    private static final int UNKNOWN_COST = 8;
+
+    /**
+     * Cost assigned to spatial and temporal operators.
+     */
+    private static final int SPATIAL_COST = 16;
+
+    /**
+     * The factory to use for creating the optimized filters.
+     */
+    private final SimpleFilterFactory<R> factory;
+
+    /**
+     * Tests whether a property is known to have at most one value.
+     */
+    private final Predicate<? super ValueReference<R,?>> singleValued;
+
+    /**
+     * Creates a new optimizer which assumes that all properties may be multi-valued.
+     *
+     * @param factory  the factory to use for creating the optimized filters.
+     */
+    public FilterOptimizer(final SimpleFilterFactory<R> factory) {
+        this(factory, (property) -> false);
+    }
+
+    /**
+     * Creates a new optimizer with knowledge of which properties are single-valued.
+     * The predicate can be derived from the feature type, for example with
+     * {@code (property) -> type.isSingleValued(property.getXPath())} where {@code type} is a
+     * {@link org.opengis.example.feature.SimpleFeatureType} or
+     * {@link org.opengis.example.feature.ResolvedFeatureType}.
+     *
+     * @param factory       the factory to use for creating the optimized filters.
+     * @param singleValued  tests whether a property is known to have at most one value.
+     */
+    public FilterOptimizer(final SimpleFilterFactory<R> factory, final Predicate<? super ValueReference<R,?>> singleValued) {
+        this.factory = Objects.requireNonNull(factory);
+        this.singleValued = Objects.requireNonNull(singleValued);
+    }
+
+    /**
+     * Returns whether the given expression is a property known to have at most one value.
+     *
+     * @param  property  the expression to test.
+     * @return whether the given expression is a single-valued property.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean isSingleValued(final Expression<R,?> property) {
+        return (property instanceof ValueReference<?,?>) && singleValued.test((ValueReference<R,?>) property);
+    }
+
+    /**
+     * Returns a simplified filter equivalent to the given filter.
+     *
+     * @param  filter  the filter to optimize.
+     * @return the optimized filter, or {@code filter} if no optimization has been applied.
+     */
+    @SuppressWarnings("unchecked")
+    public Filter<R> optimize(final Filter<R> filter) {
+        if (filter instanceof LogicalOperator<?>) {
+            final var logical = (LogicalOperator<R>) filter;
+            final LogicalOperatorName type = logical.getOperatorType();
+            if (type == LogicalOperatorName.AND) return optimize(logical, false);
+            if (type == LogicalOperatorName.OR)  return optimize(logical, true);
+            if (type == LogicalOperatorName.NOT) return optimizeNot(logical);
+        }
+        return filter;
+    }
+
+    /**
+     * Optimizes a {@code NOT} operator.
+     *
+     * @param  filter  the operator to optimize.
+     * @return the optimized filter.
+     */
+    @SuppressWarnings("unchecked")
+    private Filter<R> optimizeNot(final LogicalOperator<R> filter) {
+        final List<Filter<R>> operands = filter.getOperands();
+        if (operands.size() != 1) {
+            return filter;
+        }
+        final Filter<R> operand = operands.get(0);
+        final Filter<R> optimized = optimize(operand);
+        if (optimized == Filter.include()) return Filter.exclude();
+        if (optimized == Filter.exclude()) return Filter.include();
+        if (optimized instanceof LogicalOperator<?>) {
+            final var logical = (LogicalOperator<R>) optimized;
+            if (logical.getOperatorType() == LogicalOperatorName.NOT && logical.getOperands().size() == 1) {
+                return logical.getOperands().get(0);
+            }
+        }
+        return (optimized == operand) ? filter : factory.not(optimized);
+    }
+
+    /**
+     * Optimizes a {@code AND} or {@code OR} operator.
+     *
+     * @param  filter  the operator to optimize.
+     * @param  isOr    {@code false} for a {@code AND} operator, or {@code true} for a {@code OR} operator.
+     * @return the optimized filter.
+     */
+    private Filter<R> optimize(final LogicalOperator<R> filter, final boolean isOr) {
+        final Filter<R> neutral   = isOr ? Filter.exclude() : Filter.include();
+        final Filter<R> absorbing = isOr ? Filter.include() : Filter.exclude();
+        final var collected = new LinkedHashSet<Filter<R>>();
+        if (flatten(filter, filter.getOperatorType(), collected, absorbing)) {
+            return absorbing;
+        }
+        collected.remove(neutral);
+        List<Filter<R>> operands = new ArrayList<>(collected);
+        if (!isOr) {
+            operands = mergeRanges(operands);
+            if (operands == null) {
+                return absorbing;
+            }
+        }
+        operands.sort(Comparator.comparingInt(FilterOptimizer::cost));
+        switch (operands.size()) {
+            case 0:  return neutral;
+            case 1:  return operands.get(0);
+        }
+        if (sameElements(operands, filter.getOperands())) {
+            return filter;
+        }
+        return isOr ? factory.or(operands) : factory.and(operands);
+    }
+
+    /**
+     * Adds the optimized operands of the given filter in the given set. Operands which are themselves
+     * operators of the same type are replaced by their own operands.
+     *
+     * @param  filter     the {@code AND} or {@code OR} operator for which to collect the operands.
+     * @param  type       the type of the root operator.
+     * @param  addTo      where to add the operands.
+     * @param  absorbing  the filter which determine the result of the operator.
+     * @return whether the absorbing filter has been found, in which case the collection has been interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean flatten(final LogicalOperator<R> filter, final LogicalOperatorName type,
+                            final LinkedHashSet<Filter<R>> addTo, final Filter<R> absorbing)
+    {
+        for (final Filter<R> operand : filter.getOperands()) {
+            final Filter<R> optimized = optimize(operand);
+            if (optimized == absorbing) {
+                return true;
+            }
+            if (optimized instanceof LogicalOperator<?> && ((LogicalOperator<R>) optimized).getOperatorType() == type) {
+                addTo.addAll(((LogicalOperator<R>) optimized).getOperands());
+            } else {
+                addTo.add(optimized);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the two given lists contain the same instances in the same order.
+     *
+     * @param  l1  the first list.
+     * @param  l2  the second list.
+     * @return whether the lists contain the same instances.
+     */
+    private static boolean sameElements(final List<?> l1, final List<?> l2) {
+        if (l1.size() != l2.size()) {
+            return false;
+        }
+        for (int i = l1.size(); --i >= 0;) {
+            if (l1.get(i) != l2.get(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * The lower and upper bounds of the values of a property, collected from the operands of a {@code AND}.
+     */
+    private static final class Range {
+        /** Index in the list of operands where to write the merged filter. */
+        final int position;
+
+        /** Number of operands merged in this range. */
+        int count;
+
+        /** The bound values, or {@code null} if unbounded. */
+        Literal<?,?> lower, upper;
+
+        /** Whether the bounds are inclusive. Meaningless if the corresponding bound is null. */
+        boolean lowerInclusive, upperInclusive;
+
+        /** The last merged {@code BETWEEN} operand, or {@code null} if none. */
+        Filter<?> between;
+
+        /**
+         * Creates an unbounded range.
+         *
+         * @param position  index in the list of operands where to write the merged filter.
+         */
+        Range(final int position) {
+            this.position = position;
+        }
+
+        /**
+         * Restricts this range to values greater than the given bound.
+         *
+         * @param bound      the lower bound.
+         * @param inclusive  whether the bound is inclusive.
+         */
+        void lower(final Literal<?,?> bound, final boolean inclusive) {
+            final int c = (lower == null) ? 1 : Double.compare(value(bound), value(lower));
+            if (c > 0 || (c == 0 && !inclusive)) {
+                lower = bound;
+                lowerInclusive = inclusive;
+            }
+        }
+
+        /**
+         * Restricts this range to values less than the given bound.
+         *
+         * @param bound      the upper bound.
+         * @param inclusive  whether the bound is inclusive.
+         */
+        void upper(final Literal<?,?> bound, final boolean inclusive) {
+            final int c = (upper == null) ? -1 : Double.compare(value(bound), value(upper));
+            if (c < 0 || (c == 0 && !inclusive)) {
+                upper = bound;
+                upperInclusive = inclusive;
+            }
+        }
+
+        /**
+         * Returns whether this range contains no value.
+         *
+         * @return whether this range is empty.
+         */
+        boolean isEmpty() {
+            if (lower == null || upper == null) {
+                return false;
+            }
+            final double lo = value(lower);
+            final double hi = value(upper);
+            return lo > hi || (lo == hi && !(lowerInclusive && upperInclusive));
+        }
+    }
+
+    /**
+     * Returns the numeric value of the given literal.
+     *
+     * @param  literal  a literal with a numeric value.
+     * @return the value as a {@code double}.
+     */
+    private static double value(final Literal<?,?> literal) {
+        return ((Number) literal.getValue()).doubleValue();
+    }
+
+    /**
+     * Returns the given expression as a literal if its value is a number other than NaN.
+     *
+     * @param  expression  the expression to test.
+     * @return the expression as a numeric literal, or {@code null}.
+     */
+    private static Literal<?,?> numeric(final Expression<?,?> expression) {
+        if (expression instanceof Literal<?,?>) {
+            final var literal = (Literal<?,?>) expression;
+            if (literal.getValue() instanceof Number && !Double.isNaN(value(literal))) {
+                return literal;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Merges the comparisons of the same property with numeric literals.
+     *
+     * @param  operands  the operands of a {@code AND} operator.
+     * @return the operands with comparisons merged, or {@code null} if the result is always {@code false}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Filter<R>> mergeRanges(final List<Filter<R>> operands) {
+        final var ranges = new LinkedHashMap<Expression<R,?>, Range>();
+        final var merged = new Filter[operands.size()];
+        for (int i=0; i<merged.length; i++) {
+            final Filter<R> operand = operands.get(i);
+            if (operand instanceof BetweenComparisonOperator<?>) {
+                final var between = (BetweenComparisonOperator<R>) operand;
+                final Expression<R,?> property = between.getExpression();
+                final Literal<?,?> lower = numeric(between.getLowerBoundary());
+                final Literal<?,?> upper = numeric(between.getUpperBoundary());
+                if (property instanceof ValueReference<?,?> && lower != null && upper != null) {
+                    final int position = i;
+                    final Range range = ranges.computeIfAbsent(property, (k) -> new Range(position));
+                    range.lower(lower, true);
+                    range.upper(upper, true);
+                    range.between = between;
+                    range.count++;
+                    continue;
+                }
+            } else if (operand instanceof BinaryComparisonOperator<?>) {
+                final var comparison = (BinaryComparisonOperator<R>) operand;
+                Comparisons.Operator op = Comparisons.Operator.valueOf(comparison.getOperatorType());
+                if (op != null && op != Comparisons.Operator.EQUAL && op != Comparisons.Operator.NOT_EQUAL) {
+                    Expression<R,?> property = comparison.getOperand1();
+                    Literal<?,?> bound = numeric(comparison.getOperand2());
+                    if (bound == null) {
+                        bound = numeric(property);
+                        property = comparison.getOperand2();
+                        op = op.swap();
+                    }
+                    if (property instanceof ValueReference<?,?> && bound != null
+                            && (comparison.getMatchAction() == MatchAction.ALL || isSingleValued(property)))
+                    {
+                        final int position = i;
+                        final Range range = ranges.computeIfAbsent(property, (k) -> new Range(position));
+                        switch (op) {
+                            case GREATER:          range.lower(bound, false); break;
+                            case GREATER_OR_EQUAL: range.lower(bound, true);  break;
+                            case LESS:             range.upper(bound, false); break;
+                            case LESS_OR_EQUAL:    range.upper(bound, true);  break;
+                        }
+                        range.count++;
+                        continue;
+                    }
+                }
+            }
+            merged[i] = operand;
+        }
+        for (final Map.Entry<Expression<R,?>, Range> entry : ranges.entrySet()) {
+            final Range range = entry.getValue();
+            if (range.isEmpty()) {
+                return null;
+            }
+            if (range.count == 1) {
+                merged[range.position] = operands.get(range.position);
+                continue;
+            }
+            final Expression<R,?> property = entry.getKey();
+            final var lower = (Literal<R,?>) range.lower;
+            final var upper = (Literal<R,?>) range.upper;
+            final Filter<R> lowerFilter = (lower == null) ? null : range.lowerInclusive
+                    ? factory.greaterOrEqual(property, lower, true, MatchAction.ALL)
+                    : factory.greater       (property, lower, true, MatchAction.ALL);
+            final Filter<R> upperFilter = (upper == null) ? null : range.upperInclusive
+                    ? factory.lessOrEqual(property, upper, true, MatchAction.ALL)
+                    : factory.less       (property, upper, true, MatchAction.ALL);
+            if (isSingleValued(property)) {
+                /*
+                 * MatchAction and BETWEEN behave the same way on single values.
+                 * The original BETWEEN, if any, is redundant since the merged range is tighter.
+                 */
+                if (lowerFilter != null && upperFilter != null) {
+                    merged[range.position] = (range.lowerInclusive && range.upperInclusive)
+                            ? factory.between(property, lower, upper)
+                            : factory.and(lowerFilter, upperFilter);
+                } else {
+                    merged[range.position] = (lowerFilter != null) ? lowerFilter : upperFilter;
+                }
+            } else if (range.between != null) {
+                /*
+                 * A BETWEEN operand is false for multi-valued properties, so the whole AND is false for them.
+                 * If the merged range cannot be a single BETWEEN, keep the original one for preserving that
+                 * behavior. It is redundant for single-valued properties since the merged range is tighter.
+                 */
+                merged[range.position] = (range.lowerInclusive && range.upperInclusive)
+                        ? factory.between(property, lower, upper)
+                        : factory.and(List.of(lowerFilter, upperFilter, (Filter<R>) range.between));
+            } else if (lowerFilter != null && upperFilter != null) {
+                merged[range.position] = factory.and(lowerFilter, upperFilter);
+            } else {
+                merged[range.position] = (lowerFilter != null) ? lowerFilter : upperFilter;
+            }
+        }
+        final var result = new ArrayList<Filter<R>>(merged.length);
+        for (final Filter<R> operand : merged) {
+            if (operand == null) continue;
+            if (operand instanceof LogicalOperator<?> && ((LogicalOperator<R>) operand).getOperatorType() == LogicalOperatorName.AND) {
+                result.addAll(((LogicalOperator<R>) operand).getOperands());
+            } else {
+                result.add(operand);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an estimation of the relative cost of evaluating the given filter.
+     * Only the order of magnitude matters.
+     *
+     * @param  filter  the filter for which to estimate the evaluation cost.
+     * @return an estimation of the cost of evaluating the given filter.
+     */
+    static int cost(final Filter<?> filter) {
+        if (filter == Filter.include() || filter == Filter.exclude()) {
+            return 0;
+        }
+        if (filter instanceof LogicalOperator<?>) {
+            int cost = 0;
+            for (final Filter<?> operand : ((LogicalOperator<?>) filter).getOperands()) {
+                cost += cost(operand);
+            }
+            return cost;
+        }
+        if (filter instanceof SpatialOperator<?> || filter instanceof TemporalOperator<?>) {
+            return SPATIAL_COST;
+        }
+        int cost;
+        if (filter instanceof NullOperator<?> || filter instanceof NilOperator<?> || filter instanceof ResourceId<?>) {
+            cost = 0;
+        } else if (filter instanceof BinaryComparisonOperator<?> || filter instanceof BetweenComparisonOperator<?>) {
+            cost = 1;
+        } else if (filter instanceof LikeOperator<?>) {
+            cost = 4;
+        } else {
+            return UNKNOWN_COST;
+        }
+        for (final Expression<?,?> expression : filter.getExpressions()) {
+            if (expression instanceof ValueReference<?,?>) {
+                cost++;
+            } else if (!(expression instanceof Literal<?,?>)) {
+                cost += 2;
+            }
+        }
+        return cost;
+    }
+}
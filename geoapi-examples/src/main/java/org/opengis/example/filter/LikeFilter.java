@@ -0,0 +1,129 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import org.opengis.filter.Expression;
+import org.opengis.filter.LikeOperator;
+
+
+/**
+ * A character string comparison with pattern matching.
+ * The pattern is compiled at construction time.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class LikeFilter<R> extends SimpleFilter<R> implements LikeOperator<R> {
+    /**
+     * The characters for matching any sequence of characters, exactly one character, or for escaping.
+     */
+    private final char wildcard, singleChar, escape;
+
+    /**
+     * Whether comparisons are case-sensitive.
+     */
+    private final boolean matchCase;
+
+    /**
+     * The compiled pattern.
+     */
+    private final LikeMatcher matcher;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param expression  source of values to compare against the pattern.
+     * @param pattern     pattern to match against expression values.
+     * @param wildcard    pattern character for matching any sequence of characters.
+     * @param singleChar  pattern character for matching exactly one character.
+     * @param escape      pattern character for indicating that the next character should be matched literally.
+     * @param matchCase   specifies how a filter expression processor should perform string comparisons.
+     */
+    LikeFilter(final Expression<R,?> expression, final String pattern,
+               final char wildcard, final char singleChar, final char escape, final boolean matchCase)
+    {
+        super(List.of(expression, new LiteralValue<>(pattern)));
+        this.wildcard   = wildcard;
+        this.singleChar = singleChar;
+        this.escape     = escape;
+        this.matchCase  = matchCase;
+        this.matcher    = LikeMatcher.compile(pattern, wildcard, singleChar, escape, matchCase);
+    }
+
+    /**
+     * Returns the character for matching any sequence of characters.
+     */
+    @Override
+    public char getWildCard() {
+        return wildcard;
+    }
+
+    /**
+     * Returns the character for matching exactly one character.
+     */
+    @Override
+    public char getSingleChar() {
+        return singleChar;
+    }
+
+    /**
+     * Returns the character for escaping a wildcard character.
+     */
+    @Override
+    public char getEscapeChar() {
+        return escape;
+    }
+
+    /**
+     * Returns whether comparisons are case-sensitive.
+     */
+    @Override
+    public boolean isMatchingCase() {
+        return matchCase;
+    }
+
+    /**
+     * Returns the compiled pattern.
+     *
+     * @return the compiled pattern.
+     */
+    final LikeMatcher matcher() {
+        return matcher;
+    }
+
+    /**
+     * Checks if the value of the expression matches the pattern.
+     *
+     * @param  resource  the resource from which to fetch the value to compare.
+     * @return whether the value matches the pattern.
+     */
+    @Override
+    public boolean test(final R resource) {
+        final Object value = expressions.get(0).apply(resource);
+        return matcher.matches(value);
+    }
+
+    /**
+     * Compares this filter with the given object for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            final var other = (LikeFilter<?>) object;
+            return wildcard == other.wildcard && singleChar == other.singleChar
+                    && escape == other.escape && matchCase == other.matchCase;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this filter.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + wildcard + 31 * (singleChar + 31 * escape) + Boolean.hashCode(matchCase);
+    }
+}
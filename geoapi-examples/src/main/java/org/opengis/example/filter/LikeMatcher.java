@@ -0,0 +1,459 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Objects;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.regex.Pattern;
+import org.opengis.filter.Literal;
+import org.opengis.filter.Expression;
+import org.opengis.filter.LikeOperator;
+
+
+/**
+ * A compiled pattern of a {@link LikeOperator}. Patterns made of a single literal string optionally
+ * preceded and/or followed by the wildcard (for example {@code "Par%"}, {@code "%ville"} or
+ * {@code "%saint%"}) are matched with {@link String} methods. Other patterns are translated to a
+ * regular expression. Matchers are immutable and thread-safe.
+ *
+ * <p>The most recently used matchers are cached. Consequently, filters created many times with
+ * the same pattern, for example by parsing the same query repeatedly, share the same matcher.</p>
+ */
+public abstract class LikeMatcher {
+    /**
+     * Maximal number of matchers to keep in the cache.
+     */
+    private static final int CACHE_SIZE = 100;
+
+    /**
+     * The most recently used matchers, in access order.
+     * All accesses to this map shall be synchronized on the map.
+     */
+    private static final Map<Key,LikeMatcher> CACHE = new Cache();
+
+    /**
+     * A map of matchers which discards the least recently used entries.
+     */
+    @SuppressWarnings("serial")
+    private static final class Cache extends LinkedHashMap<Key,LikeMatcher> {
+        /**
+         * Creates an initially empty cache.
+         */
+        Cache() {
+            super(CACHE_SIZE, 0.75f, true);
+        }
+
+        /**
+         * Returns whether the cache exceeds its capacity.
+         */
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key,LikeMatcher> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+
+    /**
+     * The key of a matcher in the cache.
+     */
+    private static final class Key {
+        /** The pattern to match. */
+        final String pattern;
+
+        /** The characters for matching any sequence of characters, exactly one character, or for escaping. */
+        final char wildcard, singleChar, escape;
+
+        /** Whether comparisons are case-sensitive. */
+        final boolean matchCase;
+
+        /**
+         * Creates a new key.
+         *
+         * @param pattern     the pattern to match.
+         * @param wildcard    pattern character for matching any sequence of characters.
+         * @param singleChar  pattern character for matching exactly one character.
+         * @param escape      pattern character for indicating that the next character should be matched literally.
+         * @param matchCase   whether comparisons are case-sensitive.
+         */
+        Key(final String pattern, final char wildcard, final char singleChar, final char escape, final boolean matchCase) {
+            this.pattern    = pattern;
+            this.wildcard   = wildcard;
+            this.singleChar = singleChar;
+            this.escape     = escape;
+            this.matchCase  = matchCase;
+        }
+
+        /**
+         * Compares this key with the given object for equality.
+         */
+        @Override
+        public boolean equals(final Object object) {
+            if (object instanceof Key) {
+                final var other = (Key) object;
+                return pattern.equals(other.pattern) && wildcard == other.wildcard && singleChar == other.singleChar
+                        && escape == other.escape && matchCase == other.matchCase;
+            }
+            return false;
+        }
+
+        /**
+         * Returns a hash code value for this key.
+         */
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() + 31 * (wildcard + 31 * (singleChar + 31 * escape)) + Boolean.hashCode(matchCase);
+        }
+    }
+
+    /**
+     * The pattern specified at construction time, for information purpose.
+     */
+    private final String pattern;
+
+    /**
+     * Creates a new matcher.
+     *
+     * @param pattern  the pattern specified at construction time.
+     */
+    LikeMatcher(final String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns a matcher for the given pattern. This method returns a cached instance if possible.
+     *
+     * @param  pattern     pattern to match against character strings.
+     * @param  wildcard    pattern character for matching any sequence of characters.
+     * @param  singleChar  pattern character for matching exactly one character.
+     * @param  escape      pattern character for indicating that the next character should be matched literally.
+     * @param  matchCase   whether comparisons are case-sensitive.
+     * @return a matcher for the given pattern.
+     */
+    public static LikeMatcher compile(final String pattern, final char wildcard, final char singleChar,
+                                      final char escape, final boolean matchCase)
+    {
+        final var key = new Key(Objects.requireNonNull(pattern), wildcard, singleChar, escape, matchCase);
+        LikeMatcher matcher;
+        synchronized (CACHE) {
+            matcher = CACHE.get(key);
+        }
+        if (matcher == null) {
+            matcher = create(key);
+            synchronized (CACHE) {
+                final LikeMatcher existing = CACHE.putIfAbsent(key, matcher);
+                if (existing != null) matcher = existing;
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns a matcher for the pattern of the given operator.
+     * This method returns a cached instance if possible.
+     *
+     * @param  filter  the operator for which to get a matcher.
+     * @return a matcher for the pattern of the given operator.
+     * @throws IllegalArgumentException if the pattern is not a literal.
+     */
+    public static LikeMatcher compile(final LikeOperator<?> filter) {
+        if (filter instanceof LikeFilter<?>) {
+            return ((LikeFilter<?>) filter).matcher();
+        }
+        final Expression<?,?> pattern = filter.getExpressions().get(1);
+        if (!(pattern instanceof Literal<?,?>)) {
+            throw new IllegalArgumentException("The pattern is not a literal.");
+        }
+        return compile(String.valueOf(((Literal<?,?>) pattern).getValue()), filter.getWildCard(),
+                       filter.getSingleChar(), filter.getEscapeChar(), filter.isMatchingCase());
+    }
+
+    /**
+     * Creates a new matcher for the given pattern.
+     * The pattern is split in literal strings separated by wildcards.
+     * The single character wildcard is represented by a {@code null} element.
+     *
+     * @param  key  the pattern and its flags.
+     * @return a matcher for the given pattern.
+     */
+    private static LikeMatcher create(final Key key) {
+        final String pattern = key.pattern;
+        final var tokens  = new ArrayList<String>();
+        final var literal = new StringBuilder();
+        boolean hasSingleChar = false;
+        for (int i=0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == key.escape && i+1 < pattern.length()) {
+                literal.append(pattern.charAt(++i));
+                continue;
+            }
+            if (c == key.wildcard || c == key.singleChar) {
+                if (literal.length() != 0) {
+                    tokens.add(literal.toString());
+                    literal.setLength(0);
+                }
+                if (c == key.wildcard) {
+                    if (tokens.isEmpty() || !"".equals(tokens.get(tokens.size() - 1))) {
+                        tokens.add("");         // Consecutive wildcards are equivalent to a single one.
+                    }
+                } else {
+                    tokens.add(null);
+                    hasSingleChar = true;
+                }
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() != 0) {
+            tokens.add(literal.toString());
+        }
+        if (!hasSingleChar) {
+            final boolean ignoreCase = !key.matchCase;
+            final int n = tokens.size();
+            switch (n) {
+                case 0: return new Exact(pattern, "", ignoreCase);
+                case 1: {
+                    final String text = tokens.get(0);
+                    return text.isEmpty() ? new Any(pattern) : new Exact(pattern, text, ignoreCase);
+                }
+                case 2: {
+                    final String first = tokens.get(0);
+                    final String last  = tokens.get(1);
+                    if (last.isEmpty())  return new Prefix(pattern, first, ignoreCase);
+                    if (first.isEmpty()) return new Suffix(pattern, last,  ignoreCase);
+                    break;
+                }
+                case 3: {
+                    if (tokens.get(0).isEmpty() && tokens.get(2).isEmpty()) {
+                        return new Contains(pattern, tokens.get(1), ignoreCase);
+                    }
+                    break;
+                }
+            }
+        }
+        return new Regex(pattern, toRegex(tokens, key.matchCase));
+    }
+
+    /**
+     * Translates the given tokens to a regular expression.
+     *
+     * @param  tokens     the literal strings, with empty strings for wildcards and {@code null} for single characters.
+     * @param  matchCase  whether comparisons are case-sensitive.
+     * @return the regular expression.
+     */
+    private static Pattern toRegex(final List<String> tokens, final boolean matchCase) {
+        final var buffer = new StringBuilder();
+        for (final String token : tokens) {
+            if (token == null) {
+                buffer.append('.');
+            } else if (token.isEmpty()) {
+                buffer.append(".*");
+            } else {
+                buffer.append(Pattern.quote(token));
+            }
+        }
+        int flags = Pattern.DOTALL;
+        if (!matchCase) flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        return Pattern.compile(buffer.toString(), flags);
+    }
+
+    /**
+     * Returns whether the given text matches the pattern.
+     *
+     * @param  text  the text to test.
+     * @return whether the given text matches the pattern.
+     */
+    public abstract boolean matches(String text);
+
+    /**
+     * Returns whether the string representation of the given value matches the pattern.
+     * Null values never match.
+     *
+     * @param  value  the value to test, or {@code null}.
+     * @return whether the given value is non-null and matches the pattern.
+     */
+    public final boolean matches(final Object value) {
+        return (value != null) && matches(value.toString());
+    }
+
+    /**
+     * Returns a string representation of this matcher for debugging purpose.
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[\"" + pattern + "\"]";
+    }
+
+    /**
+     * A pattern made only of wildcards, which matches all texts.
+     */
+    private static final class Any extends LikeMatcher {
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern  the pattern specified at construction time.
+         */
+        Any(final String pattern) {
+            super(pattern);
+        }
+
+        /** Returns {@code true} since all texts match. */
+        @Override public boolean matches(final String text) {
+            return true;
+        }
+    }
+
+    /**
+     * A pattern without wildcard.
+     */
+    private static final class Exact extends LikeMatcher {
+        /** The text to compare. */
+        private final String expected;
+
+        /** Whether comparisons are case-insensitive. */
+        private final boolean ignoreCase;
+
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern     the pattern specified at construction time.
+         * @param expected    the text to compare.
+         * @param ignoreCase  whether comparisons are case-insensitive.
+         */
+        Exact(final String pattern, final String expected, final boolean ignoreCase) {
+            super(pattern);
+            this.expected   = expected;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /** Returns whether the given text is equal to the expected one. */
+        @Override public boolean matches(final String text) {
+            return ignoreCase ? expected.equalsIgnoreCase(text) : expected.equals(text);
+        }
+    }
+
+    /**
+     * A pattern of the form {@code "text%"}.
+     */
+    private static final class Prefix extends LikeMatcher {
+        /** The expected prefix. */
+        private final String prefix;
+
+        /** Whether comparisons are case-insensitive. */
+        private final boolean ignoreCase;
+
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern     the pattern specified at construction time.
+         * @param prefix      the expected prefix.
+         * @param ignoreCase  whether comparisons are case-insensitive.
+         */
+        Prefix(final String pattern, final String prefix, final boolean ignoreCase) {
+            super(pattern);
+            this.prefix     = prefix;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /** Returns whether the given text starts with the expected prefix. */
+        @Override public boolean matches(final String text) {
+            return text.regionMatches(ignoreCase, 0, prefix, 0, prefix.length());
+        }
+    }
+
+    /**
+     * A pattern of the form {@code "%text"}.
+     */
+    private static final class Suffix extends LikeMatcher {
+        /** The expected suffix. */
+        private final String suffix;
+
+        /** Whether comparisons are case-insensitive. */
+        private final boolean ignoreCase;
+
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern     the pattern specified at construction time.
+         * @param suffix      the expected suffix.
+         * @param ignoreCase  whether comparisons are case-insensitive.
+         */
+        Suffix(final String pattern, final String suffix, final boolean ignoreCase) {
+            super(pattern);
+            this.suffix     = suffix;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /** Returns whether the given text ends with the expected suffix. */
+        @Override public boolean matches(final String text) {
+            final int start = text.length() - suffix.length();
+            return start >= 0 && text.regionMatches(ignoreCase, start, suffix, 0, suffix.length());
+        }
+    }
+
+    /**
+     * A pattern of the form {@code "%text%"}.
+     */
+    private static final class Contains extends LikeMatcher {
+        /** The text to search. */
+        private final String part;
+
+        /** Whether comparisons are case-insensitive. */
+        private final boolean ignoreCase;
+
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern     the pattern specified at construction time.
+         * @param part        the text to search.
+         * @param ignoreCase  whether comparisons are case-insensitive.
+         */
+        Contains(final String pattern, final String part, final boolean ignoreCase) {
+            super(pattern);
+            this.part       = part;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /** Returns whether the given text contains the searched text. */
+        @Override public boolean matches(final String text) {
+            if (!ignoreCase) {
+                return text.contains(part);
+            }
+            final int length = part.length();
+            for (int i = text.length() - length; i >= 0; i--) {
+                if (text.regionMatches(true, i, part, 0, length)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A pattern which has been translated to a regular expression.
+     */
+    private static final class Regex extends LikeMatcher {
+        /** The pattern translated to a regular expression. */
+        private final Pattern regex;
+
+        /**
+         * Creates a new matcher.
+         *
+         * @param pattern  the pattern specified at construction time.
+         * @param regex    the pattern translated to a regular expression.
+         */
+        Regex(final String pattern, final Pattern regex) {
+            super(pattern);
+            this.regex = regex;
+        }
+
+        /** Returns whether the given text matches the regular expression. */
+        @Override public boolean matches(final String text) {
+            return regex.matcher(text).matches();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Objects;
+import org.opengis.filter.Literal;
+
+
+/**
+ * An expression returning a constant value.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ * @param  <V>  the type of the literal value.
+ */
+final class LiteralValue<R,V> implements Literal<R,V> {
+    /**
+     * The constant value, or {@code null}.
+     */
+    private final V value;
+
+    /**
+     * Creates a new literal.
+     *
+     * @param value  the constant value, or {@code null}.
+     */
+    LiteralValue(final V value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the constant value.
+     */
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * Returns a literal with the value converted to the given type.
+     *
+     * @param  <N>     compile-time value of {@code target}.
+     * @param  target  the desired type of value.
+     * @return a literal with a value of the given type.
+     * @throws ClassCastException if the value cannot be converted.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <N> Literal<R,N> toValueType(final Class<N> target) {
+        if (value == null || target.isInstance(value)) {
+            return (Literal<R,N>) this;
+        }
+        return new LiteralValue<>(Comparisons.convert(value, target));
+    }
+
+    /**
+     * Compares this literal with the given object for equality.
+     *
+     * @param  object  the object to compare with this literal.
+     * @return whether the given object is a literal with an equal value.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        return (object instanceof LiteralValue<?,?>) && Objects.equals(value, ((LiteralValue<?,?>) object).value);
+    }
+
+    /**
+     * Returns a hash code value for this literal.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(value) ^ 0x2F1B7C3D;
+    }
+
+    /**
+     * Returns a string representation of this literal.
+     */
+    @Override
+    public String toString() {
+        return "Literal[" + value + ']';
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Collection;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Expression;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+
+
+/**
+ * A logical combination of other filters.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class LogicalFilter<R> implements LogicalOperator<R> {
+    /**
+     * The {@code AND}, {@code OR} or {@code NOT} operator.
+     */
+    private final LogicalOperatorName operator;
+
+    /**
+     * The filters to combine.
+     */
+    private final List<Filter<R>> operands;
+
+    /**
+     * Creates a new logical operator.
+     *
+     * @param operator  the {@code AND}, {@code OR} or {@code NOT} operator.
+     * @param operands  the filters to combine.
+     * @throws IllegalArgumentException if the number of operands is invalid for the operator.
+     */
+    LogicalFilter(final LogicalOperatorName operator, final Collection<? extends Filter<R>> operands) {
+        this.operator = operator;
+        this.operands = List.copyOf(operands);
+        if (operator == LogicalOperatorName.NOT ? this.operands.size() != 1 : this.operands.isEmpty()) {
+            throw new IllegalArgumentException("Illegal number of operands for the " + operator.identifier() + " operator.");
+        }
+    }
+
+    /**
+     * Returns the {@code AND}, {@code OR} or {@code NOT} operator.
+     */
+    @Override
+    public LogicalOperatorName getOperatorType() {
+        return operator;
+    }
+
+    /**
+     * Returns the type of resources handled by the first operand.
+     */
+    @Override
+    public Class<? super R> getResourceClass() {
+        return operands.get(0).getResourceClass();
+    }
+
+    /**
+     * Returns the filters combined by this operator.
+     */
+    @Override
+    public List<Filter<R>> getOperands() {
+        return operands;
+    }
+
+    /**
+     * Returns an empty list, since this operator has no expression.
+     */
+    @Override
+    public List<Expression<R,?>> getExpressions() {
+        return List.of();
+    }
+
+    /**
+     * Evaluates the operands and combines the results with the logical operator.
+     * The evaluation stops as soon as the result is known.
+     *
+     * @param  resource  the resource to test.
+     * @return the result of the logical operation.
+     */
+    @Override
+    public boolean test(final R resource) {
+        if (operator == LogicalOperatorName.NOT) {
+            return !operands.get(0).test(resource);
+        }
+        final boolean isOr = (operator == LogicalOperatorName.OR);
+        for (final Filter<R> operand : operands) {
+            if (operand.test(resource) == isOr) {
+                return isOr;
+            }
+        }
+        return !isOr;
+    }
+
+    /**
+     * Compares this filter with the given object for equality.
+     *
+     * @param  object  the object to compare with this filter.
+     * @return whether the given object is the same operator on equal operands.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof LogicalFilter<?>) {
+            final var other = (LogicalFilter<?>) object;
+            return operator == other.operator && operands.equals(other.operands);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this filter.
+     */
+    @Override
+    public int hashCode() {
+        return operator.hashCode() + 31 * operands.hashCode();
+    }
+
+    /**
+     * Returns a string representation of this filter.
+     */
+    @Override
+    public String toString() {
+        return operator.identifier() + operands;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.opengis.filter.Expression;
+import org.opengis.filter.NilOperator;
+
+
+/**
+ * A filter checking if the value of an expression is nil. Since this simple implementation has
+ * no representation of nil values other than {@code null}, the nil reason is not verified.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class NilFilter<R> extends SimpleFilter<R> implements NilOperator<R> {
+    /**
+     * The nil reason, or {@code null} if none.
+     */
+    private final String nilReason;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param expression  the expression to test.
+     * @param nilReason   the nil reason, or {@code null} if none.
+     */
+    NilFilter(final Expression<R,?> expression, final String nilReason) {
+        super(List.of(expression));
+        this.nilReason = nilReason;
+    }
+
+    /**
+     * Returns the nil reason, if any.
+     */
+    @Override
+    public Optional<String> getNilReason() {
+        return Optional.ofNullable(nilReason);
+    }
+
+    /**
+     * Checks if the value of the expression is nil.
+     *
+     * @param  resource  the resource from which to fetch the value.
+     * @return whether the value is nil.
+     */
+    @Override
+    public boolean test(final R resource) {
+        return expressions.get(0).apply(resource) == null;
+    }
+
+    /**
+     * Compares this filter with the given object for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        return super.equals(object) && Objects.equals(nilReason, ((NilFilter<?>) object).nilReason);
+    }
+
+    /**
+     * Returns a hash code value for this filter.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + Objects.hashCode(nilReason);
+    }
+}
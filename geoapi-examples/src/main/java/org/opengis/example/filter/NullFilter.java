@@ -0,0 +1,38 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import org.opengis.filter.Expression;
+import org.opengis.filter.NullOperator;
+
+
+/**
+ * A filter checking if the value of an expression is null.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class NullFilter<R> extends SimpleFilter<R> implements NullOperator<R> {
+    /**
+     * Creates a new filter.
+     *
+     * @param expression  the expression to test.
+     */
+    NullFilter(final Expression<R,?> expression) {
+        super(List.of(expression));
+    }
+
+    /**
+     * Checks if the value of the expression is null.
+     *
+     * @param  resource  the resource from which to fetch the value.
+     * @return whether the value is null.
+     */
+    @Override
+    public boolean test(final R resource) {
+        return expressions.get(0).apply(resource) == null;
+    }
+}
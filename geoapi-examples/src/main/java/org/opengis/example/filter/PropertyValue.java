@@ -0,0 +1,132 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import org.opengis.filter.ValueReference;
+
+
+/**
+ * An expression fetching the value of a property in the resources.
+ * The value is fetched by a function given by the {@link SimpleFilterFactory}.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ * @param  <V>  the type of values fetched by this expression.
+ */
+final class PropertyValue<R,V> implements ValueReference<R,V> {
+    /**
+     * The type of resources handled by this expression.
+     */
+    private final Class<? super R> resourceClass;
+
+    /**
+     * The function fetching a property value from a resource, given the property name.
+     */
+    private final BiFunction<? super R, String, ?> accessor;
+
+    /**
+     * Name of the property to fetch.
+     */
+    private final String xpath;
+
+    /**
+     * The type of values fetched by this expression.
+     */
+    private final Class<V> type;
+
+    /**
+     * Creates a new expression fetching the given property.
+     *
+     * @param resourceClass  the type of resources handled by this expression.
+     * @param accessor       the function fetching a property value from a resource.
+     * @param xpath          name of the property to fetch.
+     * @param type           the type of values fetched by this expression.
+     */
+    PropertyValue(final Class<? super R> resourceClass, final BiFunction<? super R, String, ?> accessor,
+                  final String xpath, final Class<V> type)
+    {
+        this.resourceClass = resourceClass;
+        this.accessor      = accessor;
+        this.xpath         = Objects.requireNonNull(xpath);
+        this.type          = Objects.requireNonNull(type);
+    }
+
+    /**
+     * Returns the type of resources handled by this expression.
+     */
+    @Override
+    public Class<? super R> getResourceClass() {
+        return resourceClass;
+    }
+
+    /**
+     * Returns the name of the property to fetch.
+     */
+    @Override
+    public String getXPath() {
+        return xpath;
+    }
+
+    /**
+     * Fetches the property value in the given resource, converted to the type of this expression.
+     *
+     * @param  resource  the resource from which to fetch the property value.
+     * @return the property value, or {@code null} if none.
+     * @throws ClassCastException if the value cannot be converted to the type of this expression.
+     */
+    @Override
+    public V apply(final R resource) {
+        return Comparisons.convert(accessor.apply(resource, xpath), type);
+    }
+
+    /**
+     * Returns an expression fetching the same property but converting the values to the given type.
+     *
+     * @param  <N>     compile-time value of {@code target}.
+     * @param  target  the desired type of values.
+     * @return an expression fetching values of the given type.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <N> ValueReference<R,N> toValueType(final Class<N> target) {
+        if (target.equals(type)) {
+            return (ValueReference<R,N>) this;
+        }
+        return new PropertyValue<>(resourceClass, accessor, xpath, target);
+    }
+
+    /**
+     * Compares this expression with the given object for equality.
+     *
+     * @param  object  the object to compare with this expression.
+     * @return whether the given object fetches the same property as this expression.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof PropertyValue<?,?>) {
+            final var other = (PropertyValue<?,?>) object;
+            return xpath.equals(other.xpath) && type.equals(other.type) && accessor.equals(other.accessor);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this expression.
+     */
+    @Override
+    public int hashCode() {
+        return xpath.hashCode() + 31 * type.hashCode();
+    }
+
+    /**
+     * Returns a string representation of this expression.
+     */
+    @Override
+    public String toString() {
+        return "ValueReference[" + xpath + ']';
+    }
+}
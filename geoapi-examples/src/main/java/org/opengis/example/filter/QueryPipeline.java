@@ -0,0 +1,316 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.opengis.filter.Filter;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.Expression;
+import org.opengis.filter.SortProperty;
+import org.opengis.filter.ValueReference;
+
+
+/**
+ * Executes a query over a stream of resources in the following order: filter, project, sort, skip and limit.
+ * The execution is pull-based: resources are read from the source only when the consumer of the result
+ * requests more rows. Consequently, if the query has no sort criteria, a limit stops the reading of the
+ * source as soon as enough rows have been produced. If the query has sort criteria, the whole source
+ * is read when the first row is requested, with the following strategies:
+ *
+ * <ul>
+ *   <li>If the number of rows to return (offset + limit) is not greater than the {@linkplain #setMemoryBudget
+ *       memory budget}, only the best rows are kept in a bounded heap. The other rows are discarded as they come.</li>
+ *   <li>Otherwise, rows are accumulated in memory until the sort memory is full. Then the rows are sorted
+ *       and written in a temporary file. At the end, the sorted files are merged.</li>
+ * </ul>
+ *
+ * The sort is delegated to {@link SortEngine}, which defines how values are compared.
+ * In all cases, the sort is stable: rows having the same sort keys are returned in source order.
+ * Each row is an array containing the values of the projected expressions, in the order given to
+ * {@link #setProjection(List)}. The sort keys are evaluated once per row at projection time,
+ * so they are not recomputed for each comparison.
+ *
+ * <p>The temporary files are deleted when the result stream has been fully consumed or when it is closed.
+ * Callers should close the stream when they do not consume all rows, for example in a {@code try} block.
+ * When the sort uses temporary files, the projected values and the sort keys shall be {@link java.io.Serializable}.
+ * If there is no projection, the rows contain the resources themselves, which shall be serializable too unless
+ * a serializable {@linkplain #setExternalForm external form} is specified.</p>
+ *
+ * <h2>Example</h2>
+ * {@snippet lang="java" :
+ * var query = new QueryPipeline<Feature>((reference) -> type.accessor(reference.getXPath()));
+ * query.setFilter(filter);
+ * query.setProjection(List.of(factory.property("name"), factory.property("population")));
+ * query.setSortBy(List.of(factory.sort(factory.property("population"), SortOrder.DESCENDING)));
+ * query.setLimit(10);
+ * try (Stream<Object[]> rows = query.execute(features.stream())) {
+ *     rows.forEach(...);
+ * }
+ * }
+ *
+ * Instances of this class are not thread-safe, but the streams returned by {@link #execute(Stream)}
+ * are independent of this object and of each other.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to query.
+ */
+public class QueryPipeline<R> {
+    /**
+     * The compiler to use for the filter, the projected expressions and the sort keys.
+     */
+    private final FilterCompiler<R> compiler;
+
+    /**
+     * The filter to apply on the resources.
+     */
+    private Filter<R> filter;
+
+    /**
+     * The expressions to evaluate for each resource, or {@code null} for the resources themselves.
+     */
+    private List<Expression<R,?>> projection;
+
+    /**
+     * The sort criteria, or an empty list if the rows are not sorted.
+     */
+    private List<SortProperty<R>> sortBy;
+
+    /**
+     * Number of rows to skip.
+     */
+    private long offset;
+
+    /**
+     * Maximum number of rows to return.
+     */
+    private long limit;
+
+    /**
+     * Maximum number of bytes to use in memory for sorting the rows.
+     */
+    private long memoryBudget;
+
+    /**
+     * The function converting a resource to the object to write in temporary files, or {@code null} if none.
+     */
+    private Function<? super R, ?> encoder;
+
+    /**
+     * The function converting an object read from temporary files to a resource, or {@code null} if none.
+     */
+    private Function<Object, ? extends R> decoder;
+
+    /**
+     * Creates a new query which fetches property values with the {@link ValueReference#apply(Object)} method.
+     */
+    public QueryPipeline() {
+        this(new FilterCompiler<>());
+    }
+
+    /**
+     * Creates a new query which fetches property values with the functions provided by the given resolver.
+     * See {@link FilterCompiler#FilterCompiler(Function)} for a description of the resolver.
+     *
+     * @param resolver  the function providing the accessor to use for fetching the values of a property.
+     */
+    public QueryPipeline(final Function<? super ValueReference<R,?>, ? extends Function<? super R, ?>> resolver) {
+        this(new FilterCompiler<>(resolver));
+    }
+
+    /**
+     * Creates a new query using the given compiler.
+     *
+     * @param compiler  the compiler to use for the filter, the projected expressions and the sort keys.
+     */
+    private QueryPipeline(final FilterCompiler<R> compiler) {
+        this.compiler = compiler;
+        filter     = Filter.include();
+        sortBy     = List.of();
+        limit      = Long.MAX_VALUE;
+        memoryBudget = 64L * 1024 * 1024;
+    }
+
+    /**
+     * Sets the filter to apply on the resources. The default value is {@link Filter#include()}.
+     *
+     * @param filter  the filter to apply on the resources.
+     */
+    public void setFilter(final Filter<R> filter) {
+        this.filter = Objects.requireNonNull(filter);
+    }
+
+    /**
+     * Sets the expressions to evaluate for each resource. If {@code null} (the default value),
+     * each row contains only the resource itself.
+     *
+     * @param projection  the expressions to evaluate, or {@code null} for the resources themselves.
+     */
+    public void setProjection(final List<? extends Expression<R,?>> projection) {
+        this.projection = (projection != null) ? List.copyOf(projection) : null;
+    }
+
+    /**
+     * Sets the sort criteria. The first criterion has precedence.
+     * The criteria are typically the {@linkplain org.opengis.filter.SortBy#getSortProperties() properties of a sort}.
+     * If empty (the default value), rows are returned in source order.
+     *
+     * @param sortBy  the sort criteria.
+     */
+    public void setSortBy(final List<? extends SortProperty<R>> sortBy) {
+        this.sortBy = List.copyOf(sortBy);
+    }
+
+    /**
+     * Sets the number of rows to skip. The default value is 0.
+     *
+     * @param offset  the number of rows to skip.
+     * @throws IllegalArgumentException if the given value is negative.
+     */
+    public void setOffset(final long offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset: " + offset);
+        }
+        this.offset = offset;
+    }
+
+    /**
+     * Sets the maximum number of rows to return. The default value is {@link Long#MAX_VALUE}.
+     *
+     * @param limit  the maximum number of rows to return.
+     * @throws IllegalArgumentException if the given value is negative.
+     */
+    public void setLimit(final long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative limit: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * Sets the maximum number of bytes to use in memory for sorting the rows.
+     * Above that amount, sorted rows are written in temporary files which are merged at the end.
+     * This also determines the largest offset + limit for which the best rows are kept in a bounded heap.
+     * The memory used by a row is estimated from the number of projected values and from the length
+     * of character strings. See {@link SortEngine#setMemoryBudget(long)} for more details.
+     * The default value is 64 MiB.
+     *
+     * @param bytes  the maximum number of bytes to use in memory.
+     * @throws IllegalArgumentException if the given value is not strictly positive.
+     */
+    public void setMemoryBudget(final long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+        }
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Sets the functions converting resources to the objects to write in temporary files, and conversely.
+     * Those functions are used only when there is no {@linkplain #setProjection projection}, in which case
+     * the rows contain the resources themselves. See {@link SortEngine#setExternalForm(Function, Function)}
+     * for more details.
+     *
+     * @param encoder  the function converting a resource to a serializable object, or {@code null} for none.
+     * @param decoder  the function converting the object created by the encoder back to a resource,
+     *                 or {@code null} for none.
+     * @throws IllegalArgumentException if only one of the given functions is null.
+     */
+    public void setExternalForm(final Function<? super R, ?> encoder, final Function<Object, ? extends R> decoder) {
+        if ((encoder == null) != (decoder == null)) {
+            throw new IllegalArgumentException("The encoder and the decoder shall be both null or both non-null.");
+        }
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Executes the query on the given resources. The source is consumed lazily when rows are requested,
+     * and is closed when the returned stream is closed.
+     *
+     * @param  source  the resources to query.
+     * @return the rows of projected values.
+     */
+    @SuppressWarnings("unchecked")      // Safe because the stream is read-only.
+    public Stream<Object[]> execute(final Stream<? extends R> source) {
+        final Predicate<R> predicate = compiler.compile(filter);
+        final var columns = new ArrayList<Function<? super R, ?>>();
+        if (projection != null) {
+            for (final Expression<R,?> expression : projection) {
+                columns.add(compiler.compile(expression));
+            }
+        } else {
+            columns.add(Function.identity());
+        }
+        final int width = columns.size();
+        final var descending = new boolean[sortBy.size()];
+        for (int i=0; i<descending.length; i++) {
+            final SortProperty<R> criterion = sortBy.get(i);
+            columns.add(compiler.compile(criterion.getValueReference()));
+            descending[i] = (criterion.getSortOrder() == SortOrder.DESCENDING);
+        }
+        final Function<? super R, ?>[] accessors = columns.toArray(Function[]::new);
+        Stream<Object[]> rows = ((Stream<R>) source).filter(predicate).map((resource) -> {
+            final var row = new Object[accessors.length];
+            for (int i=0; i<row.length; i++) {
+                row[i] = accessors[i].apply(resource);
+            }
+            return row;
+        });
+        if (descending.length != 0) {
+            @SuppressWarnings({"rawtypes", "unchecked"})
+            final Function<Object[], ?>[] keys = new Function[descending.length];
+            for (int i=0; i<keys.length; i++) {
+                final int column = width + i;
+                keys[i] = (row) -> row[column];
+            }
+            final var engine = new SortEngine<Object[]>(keys, descending);
+            engine.setMemoryBudget(memoryBudget);
+            engine.setRowSize(QueryPipeline::rowSize);
+            if (projection == null && encoder != null) {
+                final Function<? super R, ?> encoder = this.encoder;
+                final Function<Object, ? extends R> decoder = this.decoder;
+                engine.setExternalForm((row) -> {
+                    final Object[] form = row.clone();
+                    form[0] = encoder.apply((R) row[0]);
+                    return form;
+                }, (form) -> {
+                    final Object[] row = (Object[]) form;
+                    row[0] = decoder.apply(row[0]);
+                    return row;
+                });
+            }
+            final long count = (limit > Long.MAX_VALUE - offset) ? Long.MAX_VALUE : offset + limit;
+            rows = engine.sort(rows, count).map((row) -> Arrays.copyOf(row, width));
+        }
+        return rows.skip(offset).limit(limit);
+    }
+
+    /**
+     * Estimates the number of bytes used in memory by the given row. This estimation assumes a 64 bits JVM
+     * with compressed references. Values other than numbers and character strings are assumed to use 64 bytes.
+     *
+     * @param  row  the row for which to estimate the memory usage.
+     * @return an estimation of the number of bytes used by the row.
+     */
+    private static long rowSize(final Object[] row) {
+        long size = 16 + 4L * row.length;
+        for (final Object value : row) {
+            if (value instanceof Number || value instanceof Boolean) {
+                size += 24;
+            } else if (value instanceof CharSequence) {
+                size += 40 + 2L * ((CharSequence) value).length();
+            } else if (value != null) {
+                size += 64;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import org.opengis.util.CodeList;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Expression;
+
+
+/**
+ * Base class of filters applying an operator on a list of expressions.
+ * Subclasses shall override {@link #equals(Object)} and {@link #hashCode()}
+ * if they have other properties than the operator type and the expressions.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+abstract class SimpleFilter<R> implements Filter<R> {
+    /**
+     * The expressions evaluated by this filter.
+     *
+     * @see #getExpressions()
+     */
+    final List<Expression<R,?>> expressions;
+
+    /**
+     * Creates a new filter.
+     *
+     * @param expressions  the expressions evaluated by this filter. This list is not copied.
+     */
+    SimpleFilter(final List<Expression<R,?>> expressions) {
+        this.expressions = expressions;
+    }
+
+    /**
+     * Returns the type of resources handled by the first expression.
+     */
+    @Override
+    public Class<? super R> getResourceClass() {
+        return expressions.get(0).getResourceClass();
+    }
+
+    /**
+     * Returns the expressions evaluated by this filter.
+     */
+    @Override
+    public List<Expression<R,?>> getExpressions() {
+        return expressions;
+    }
+
+    /**
+     * Compares this filter with the given object for equality.
+     *
+     * @param  object  the object to compare with this filter.
+     * @return whether the given object is the same operator on equal expressions.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object != null && object.getClass() == getClass()) {
+            final var other = (SimpleFilter<?>) object;
+            return getOperatorType() == other.getOperatorType() && expressions.equals(other.expressions);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this filter.
+     */
+    @Override
+    public int hashCode() {
+        return getOperatorType().hashCode() + 31 * expressions.hashCode();
+    }
+
+    /**
+     * Returns a string representation of this filter.
+     * The operator name is the UML identifier if available, or the programmatic name otherwise.
+     */
+    @Override
+    public String toString() {
+        final CodeList<?> type = getOperatorType();
+        String name = type.identifier();
+        if (name == null) name = type.name();
+        return name + expressions;
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Collection;
+import java.util.function.BiFunction;
+import org.opengis.feature.Feature;
+import org.opengis.geometry.Envelope;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Expression;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.Literal;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.opengis.filter.LikeOperator;
+import org.opengis.filter.NullOperator;
+import org.opengis.filter.NilOperator;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.filter.BinaryComparisonOperator;
+import org.opengis.filter.BinarySpatialOperator;
+
+
+/**
+ * A factory of filters and expressions evaluated on arbitrary resources.
+ * Property values are fetched by a function given at construction time,
+ * which receives the resource and the property name (the XPath) in argument.
+ * Values are compared according the following rules:
+ *
+ * <ul>
+ *   <li>Numbers are compared by their {@code double} values. A character string is compared
+ *       to a number if it can be parsed as a number.</li>
+ *   <li>Other character strings are compared in lexicographic order.</li>
+ *   <li>Other objects are compared with their {@link Comparable} interface if they are of the same class.</li>
+ *   <li>A null value is neither equal nor not equal to any other value.</li>
+ * </ul>
+ *
+ * This factory provides the subset of {@link org.opengis.filter.FilterFactory} methods that it can
+ * implement with the above rules, with the same signatures:
+ *
+ * <ul>
+ *   <li>property values and literals;</li>
+ *   <li>comparison operators: {@code equal}, {@code notEqual}, {@code less}, {@code greater},
+ *       {@code lessOrEqual}, {@code greaterOrEqual}, {@code between}, {@code like},
+ *       {@code isNull} and {@code isNil};</li>
+ *   <li>logical operators: {@code and}, {@code or} and {@code not};</li>
+ *   <li>the {@code bbox} spatial operator, evaluated on envelopes;</li>
+ *   <li>arithmetic functions: {@code add}, {@code subtract}, {@code multiply} and {@code divide};</li>
+ *   <li>sort criteria.</li>
+ * </ul>
+ *
+ * Other spatial operators, temporal operators, resource identifiers and named functions are not provided.
+ * Consequently, this class does not implement the {@code FilterFactory} interface.
+ * For evaluating filters on large amount of resources, see {@link FilterCompiler}.
+ *
+ * <h2>Example</h2>
+ * {@snippet lang="java" :
+ * var factory = new SimpleFilterFactory<Map<String,Object>>(Map.class, Map::get);
+ * Filter<Map<String,Object>> filter = factory.less(factory.property("population"), factory.literal(10000));
+ * }
+ *
+ * @param  <R>  the type of resources (e.g. {@link Feature}) to filter.
+ */
+public class SimpleFilterFactory<R> {
+    /**
+     * The type of resources handled by the filters created by this factory.
+     */
+    private final Class<? super R> resourceClass;
+
+    /**
+     * The function fetching a property value from a resource, given the property name.
+     */
+    private final BiFunction<? super R, String, ?> accessor;
+
+    /**
+     * Creates a new factory for resources of the given type.
+     *
+     * @param resourceClass  the type of resources handled by the filters created by this factory.
+     * @param accessor       the function fetching a property value from a resource, given the property name.
+     */
+    public SimpleFilterFactory(final Class<? super R> resourceClass, final BiFunction<? super R, String, ?> accessor) {
+        this.resourceClass = Objects.requireNonNull(resourceClass);
+        this.accessor      = Objects.requireNonNull(accessor);
+    }
+
+    /**
+     * Returns a factory for filters evaluated on features. Property values are fetched by
+     * {@link Feature#getValueOrFallback(String, Object)}, with a null value for missing properties.
+     *
+     * @return a factory for filters evaluated on features.
+     */
+    public static SimpleFilterFactory<Feature> forFeatures() {
+        return new SimpleFilterFactory<>(Feature.class, (feature, name) -> feature.getValueOrFallback(name, null));
+    }
+
+    /**
+     * Creates an expression fetching the values of the property of the given name.
+     *
+     * @param  xpath  name of the property to fetch.
+     * @return an expression fetching the property values.
+     */
+    public ValueReference<R,?> property(final String xpath) {
+        return property(xpath, Object.class);
+    }
+
+    /**
+     * Creates an expression fetching the values of the property of the given name.
+     *
+     * @param  <V>    the type of the values to be fetched (compile-time value of {@code type}).
+     * @param  xpath  name of the property to fetch.
+     * @param  type   the type of the values to be fetched.
+     * @return an expression fetching the property values.
+     */
+    public <V> ValueReference<R,V> property(final String xpath, final Class<V> type) {
+        return new PropertyValue<>(resourceClass, accessor, xpath, type);
+    }
+
+    /**
+     * Creates an expression returning the given constant value.
+     *
+     * @param  <V>    the type of the value of the literal.
+     * @param  value  the literal value. May be {@code null}.
+     * @return a literal for the given value.
+     */
+    public <V> Literal<R,V> literal(final V value) {
+        return new LiteralValue<>(value);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} = {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> equal(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return equal(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} = {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> equal(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.EQUAL, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} ≠ {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> notEqual(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return notEqual(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} ≠ {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> notEqual(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.NOT_EQUAL, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} &lt; {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> less(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return less(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} &lt; {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> less(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.LESS, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} &gt; {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> greater(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return greater(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} &gt; {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> greater(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.GREATER, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} ≤ {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> lessOrEqual(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return lessOrEqual(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} ≤ {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> lessOrEqual(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.LESS_OR_EQUAL, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a case-sensitive filter evaluating {@code expression1} ≥ {@code expression2}.
+     * For a collection of values, the filter is true if any value matches.
+     *
+     * @param  expression1  the first of the two expressions to be used by this comparator.
+     * @param  expression2  the second of the two expressions to be used by this comparator.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> greaterOrEqual(final Expression<R,?> expression1, final Expression<R,?> expression2) {
+        return greaterOrEqual(expression1, expression2, true, MatchAction.ANY);
+    }
+
+    /**
+     * Creates a filter evaluating {@code expression1} ≥ {@code expression2}.
+     *
+     * @param  expression1     the first of the two expressions to be used by this comparator.
+     * @param  expression2     the second of the two expressions to be used by this comparator.
+     * @param  isMatchingCase  specifies whether comparisons are case sensitive.
+     * @param  matchAction     specifies how the comparisons shall be evaluated for a collection of values.
+     * @return the filter.
+     */
+    public BinaryComparisonOperator<R> greaterOrEqual(final Expression<R,?> expression1, final Expression<R,?> expression2,
+            final boolean isMatchingCase, final MatchAction matchAction)
+    {
+        return new ComparisonFilter<>(Comparisons.Operator.GREATER_OR_EQUAL, expression1, expression2, isMatchingCase, matchAction);
+    }
+
+    /**
+     * Creates a filter checking if a value is between two inclusive bounds.
+     *
+     * @param  expression     the expression to be compared by this comparator.
+     * @param  lowerBoundary  the lower bound (inclusive) as an expression.
+     * @param  upperBoundary  the upper bound (inclusive) as an expression.
+     * @return the filter.
+     */
+    public BetweenComparisonOperator<R> between(final Expression<R,?> expression,
+            final Expression<R,?> lowerBoundary, final Expression<R,?> upperBoundary)
+    {
+        return new BetweenFilter<>(expression, lowerBoundary, upperBoundary);
+    }
+
+    /**
+     * Creates a case-sensitive character string comparison operator with pattern matching.
+     * The wildcards are {@code '%'} for any sequence of characters, {@code '_'} for a single character
+     * and {@code '\\'} for escaping the next character.
+     *
+     * @param  expression  source of values to compare against the pattern.
+     * @param  pattern     pattern to match against expression values.
+     * @return the filter.
+     */
+    public LikeOperator<R> like(final Expression<R,?> expression, final String pattern) {
+        return like(expression, pattern, '%', '_', '\\', true);
+    }
+
+    /**
+     * Creates a character string comparison operator with pattern matching.
+     *
+     * @param  expression      source of values to compare against the pattern.
+     * @param  pattern         pattern to match against expression values.
+     * @param  wildcard        pattern character for matching any sequence of characters.
+     * @param  singleChar      pattern character for matching exactly one character.
+     * @param  escape          pattern character for indicating that the next character should be matched literally.
+     * @param  isMatchingCase  specifies how a filter expression processor should perform string comparisons.
+     * @return the filter.
+     */
+    public LikeOperator<R> like(final Expression<R,?> expression, final String pattern,
+            final char wildcard, final char singleChar, final char escape, final boolean isMatchingCase)
+    {
+        return new LikeFilter<>(expression, pattern, wildcard, singleChar, escape, isMatchingCase);
+    }
+
+    /**
+     * Creates a filter checking if the value of an expression is null.
+     *
+     * @param  expression  source of values to compare against null.
+     * @return the filter.
+     */
+    public NullOperator<R> isNull(final Expression<R,?> expression) {
+        return new NullFilter<>(expression);
+    }
+
+    /**
+     * Creates a filter checking if the value of an expression is nil.
+     * Since this factory has no representation of nil values, this is equivalent to a test for null.
+     *
+     * @param  expression  source of values to compare against nil.
+     * @param  nilReason   the reason why the value is nil, or {@code null} for accepting any reason.
+     * @return the filter.
+     */
+    public NilOperator<R> isNil(final Expression<R,?> expression, final String nilReason) {
+        return new NilFilter<>(expression, nilReason);
+    }
+
+    /**
+     * Creates a {@code AND} filter between the two given filters.
+     *
+     * @param  operand1  the first filter to combine.
+     * @param  operand2  the second filter to combine.
+     * @return the filter.
+     */
+    public LogicalOperator<R> and(final Filter<R> operand1, final Filter<R> operand2) {
+        return and(List.of(operand1, operand2));
+    }
+
+    /**
+     * Creates a {@code AND} filter between the given filters.
+     *
+     * @param  operands  the filters to combine.
+     * @return the filter.
+     */
+    public LogicalOperator<R> and(final Collection<? extends Filter<R>> operands) {
+        return new LogicalFilter<>(LogicalOperatorName.AND, operands);
+    }
+
+    /**
+     * Creates a {@code OR} filter between the two given filters.
+     *
+     * @param  operand1  the first filter to combine.
+     * @param  operand2  the second filter to combine.
+     * @return the filter.
+     */
+    public LogicalOperator<R> or(final Filter<R> operand1, final Filter<R> operand2) {
+        return or(List.of(operand1, operand2));
+    }
+
+    /**
+     * Creates a {@code OR} filter between the given filters.
+     *
+     * @param  operands  the filters to combine.
+     * @return the filter.
+     */
+    public LogicalOperator<R> or(final Collection<? extends Filter<R>> operands) {
+        return new LogicalFilter<>(LogicalOperatorName.OR, operands);
+    }
+
+    /**
+     * Creates a {@code NOT} filter for the given filter.
+     *
+     * @param  operand  the filter to reverse.
+     * @return the filter.
+     */
+    public LogicalOperator<R> not(final Filter<R> operand) {
+        return new LogicalFilter<>(LogicalOperatorName.NOT, List.of(operand));
+    }
+
+    /**
+     * Creates an operator that checks if the bounding box of the resource geometry interacts with the given bounds.
+     * Geometry values can be {@link Envelope}, {@link org.opengis.geometry.DirectPosition}
+     * or {@link org.opengis.geometry.Geometry} instances.
+     * Other values are considered as null. Envelopes are assumed in the same coordinate reference system.
+     *
+     * @param  geometry  expression fetching the geometry to check for interaction with bounds.
+     * @param  bounds    the bounds to check geometry against.
+     * @return a filter checking for any interactions between the bounding boxes.
+     */
+    public BinarySpatialOperator<R> bbox(final Expression<R,?> geometry, final Envelope bounds) {
+        return new SpatialFilter<>(geometry, Objects.requireNonNull(bounds));
+    }
+
+    /**
+     * Creates a function computing the numeric sum of two operands.
+     * The result is a {@link Double}, or {@code null} if an operand is null.
+     *
+     * @param  operand1  expression providing the first operand.
+     * @param  operand2  expression providing the second operand.
+     * @return an expression computing the sum.
+     */
+    public Expression<R,Number> add(final Expression<R, ? extends Number> operand1,
+                                   final Expression<R, ? extends Number> operand2)
+    {
+        return new Arithmetic<>(Arithmetic.Operator.ADD, operand1, operand2);
+    }
+
+    /**
+     * Creates a function computing the numeric difference of two operands.
+     * The result is a {@link Double}, or {@code null} if an operand is null.
+     *
+     * @param  operand1  expression providing the first operand.
+     * @param  operand2  expression providing the second operand.
+     * @return an expression computing the difference.
+     */
+    public Expression<R,Number> subtract(final Expression<R, ? extends Number> operand1,
+                                   final Expression<R, ? extends Number> operand2)
+    {
+        return new Arithmetic<>(Arithmetic.Operator.SUBTRACT, operand1, operand2);
+    }
+
+    /**
+     * Creates a function computing the numeric product of two operands.
+     * The result is a {@link Double}, or {@code null} if an operand is null.
+     *
+     * @param  operand1  expression providing the first operand.
+     * @param  operand2  expression providing the second operand.
+     * @return an expression computing the product.
+     */
+    public Expression<R,Number> multiply(final Expression<R, ? extends Number> operand1,
+                                   final Expression<R, ? extends Number> operand2)
+    {
+        return new Arithmetic<>(Arithmetic.Operator.MULTIPLY, operand1, operand2);
+    }
+
+    /**
+     * Creates a function computing the numeric quotient of two operands.
+     * The result is a {@link Double}, or {@code null} if an operand is null.
+     *
+     * @param  operand1  expression providing the first operand.
+     * @param  operand2  expression providing the second operand.
+     * @return an expression computing the quotient.
+     */
+    public Expression<R,Number> divide(final Expression<R, ? extends Number> operand1,
+                                   final Expression<R, ? extends Number> operand2)
+    {
+        return new Arithmetic<>(Arithmetic.Operator.DIVIDE, operand1, operand2);
+    }
+
+    /**
+     * Creates a sort criterion on the values of the given property.
+     * Null values are sorted last in ascending order.
+     *
+     * @param  property  the property on which to apply sorting.
+     * @param  order     the sorting order, ascending or descending.
+     * @return definition of sort order of a property.
+     */
+    public SortProperty<R> sort(final ValueReference<R,?> property, final SortOrder order) {
+        return new SortCriterion<>(property, order);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Objects;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.opengis.filter.ValueReference;
+
+
+/**
+ * A sort criterion on the values of a property. Null values are sorted last in ascending order.
+ * Values are compared according the rules documented in {@link Comparisons}.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to sort.
+ */
+final class SortCriterion<R> implements SortProperty<R> {
+    /**
+     * The property on which to apply sorting.
+     */
+    private final ValueReference<R,?> property;
+
+    /**
+     * Whether the sort order is descending.
+     */
+    private final boolean descending;
+
+    /**
+     * Creates a new sort criterion.
+     *
+     * @param property  the property on which to apply sorting.
+     * @param order     the sorting order.
+     */
+    SortCriterion(final ValueReference<R,?> property, final SortOrder order) {
+        this.property   = Objects.requireNonNull(property);
+        this.descending = (order == SortOrder.DESCENDING);
+    }
+
+    /**
+     * Returns the property on which to apply sorting.
+     */
+    @Override
+    public ValueReference<R,?> getValueReference() {
+        return property;
+    }
+
+    /**
+     * Returns the sorting order.
+     */
+    @Override
+    public SortOrder getSortOrder() {
+        return descending ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+    }
+
+    /**
+     * Compares the property values of the given resources.
+     *
+     * @param  r1  the first resource to compare.
+     * @param  r2  the second resource to compare.
+     * @return negative, zero or positive if the first resource is before, equal or after the second one.
+     */
+    @Override
+    public int compare(final R r1, final R r2) {
+        final int c = Comparisons.order(property.apply(r1), property.apply(r2));
+        return descending ? -c : c;
+    }
+
+    /**
+     * Compares this criterion with the given object for equality.
+     *
+     * @param  object  the object to compare with this criterion.
+     * @return whether the given object sorts on the same property in the same order.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof SortCriterion<?>) {
+            final var other = (SortCriterion<?>) object;
+            return descending == other.descending && property.equals(other.property);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this criterion.
+     */
+    @Override
+    public int hashCode() {
+        return property.hashCode() + Boolean.hashCode(descending);
+    }
+
+    /**
+     * Returns a string representation of this criterion.
+     */
+    @Override
+    public String toString() {
+        return "SortProperty[" + property.getXPath() + ' ' + getSortOrder().toSQL() + ']';
+    }
+}
@@ -0,0 +1,984 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.NotSerializableException;
+import java.io.BufferedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.opengis.filter.ValueReference;
+
+
+/**
+ * Sorts streams of resources according a list of {@link SortProperty}. Contrarily to the use of
+ * {@code SortProperty} as a {@link java.util.Comparator}, this engine evaluates the sort keys only
+ * once per resource, then compares the stored keys. The keys are stored in columns, and numeric keys
+ * are stored as {@code double} primitive values which are compared without unboxing. Integers having
+ * the same {@code double} approximation (possible above 2<sup>53</sup>) are compared again as {@code long}
+ * values, so that large identifiers are sorted exactly.
+ * The {@linkplain SortProperty#getSortOrder() sort order} of each criterion is resolved once
+ * at construction time. Values are compared with the same rules as the {@link SortProperty}
+ * instances created by {@link SimpleFilterFactory}, and the sort is stable.
+ *
+ * <p>The sort is done in memory as long as the estimated memory usage is below a {@linkplain #setMemoryBudget
+ * budget}. When the budget is exceeded, the resources sorted so far are written in a temporary file and
+ * removed from memory. At the end, the sorted files are merged. The temporary files are read through
+ * memory-mapped buffers, and are deleted when the result stream has been fully consumed or is closed.
+ * When temporary files are used, the sort keys shall be {@link Serializable}, and so shall the resources
+ * unless a serializable {@linkplain #setExternalForm external form} is specified. For example, the features
+ * of a {@link org.opengis.example.feature.FeatureTable} are not serializable but can be written as row indexes.</p>
+ *
+ * <p>If the number of resources to return is known in advance and fits in the budget, only the
+ * best resources are kept in a bounded heap and no temporary file is used.</p>
+ *
+ * <h2>Example</h2>
+ * {@snippet lang="java" :
+ * var engine = new SortEngine<Feature>(sortBy.getSortProperties());
+ * engine.setMemoryBudget(256 * 1024 * 1024);
+ * engine.setExternalForm((f) -> ((SimpleFeature) f).getRow(), (row) -> table.get((Integer) row));
+ * try (Stream<Feature> sorted = engine.sort(table.features().stream())) {
+ *     sorted.forEach(...);
+ * }
+ * }
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) to sort.
+ */
+public class SortEngine<R> {
+    /**
+     * Size in bytes of the memory-mapped windows used for reading temporary files.
+     */
+    private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Estimated number of bytes used in memory for each sort key of each resource,
+     * not counting the key objects themselves.
+     */
+    private static final int KEY_SIZE = 2 * Long.BYTES;
+
+    /**
+     * The functions computing the sort keys of a resource.
+     */
+    private final Function<? super R, ?>[] keys;
+
+    /**
+     * For each key, +1 for ascending order or -1 for descending order.
+     */
+    private final int[] signs;
+
+    /**
+     * Maximum number of bytes to use in memory before to write sorted resources in temporary files.
+     */
+    private long memoryBudget;
+
+    /**
+     * Estimation of the number of bytes used in memory by a resource.
+     */
+    private ToLongFunction<? super R> rowSize;
+
+    /**
+     * The function converting a resource to the object to write in temporary files,
+     * or {@code null} for writing the resource itself.
+     *
+     * @see #setExternalForm(Function, Function)
+     */
+    private Function<? super R, ?> encoder;
+
+    /**
+     * The function converting an object read from temporary files to a resource,
+     * or {@code null} if the object is the resource itself.
+     *
+     * @see #setExternalForm(Function, Function)
+     */
+    private Function<Object, ? extends R> decoder;
+
+    /**
+     * Creates a new engine which fetches property values with the {@link ValueReference#apply(Object)} method.
+     *
+     * @param sortBy  the sort criteria. The first criterion has precedence.
+     */
+    public SortEngine(final List<? extends SortProperty<R>> sortBy) {
+        this(sortBy, new FilterCompiler<>());
+    }
+
+    /**
+     * Creates a new engine which fetches property values with the functions provided by the given resolver.
+     * See {@link FilterCompiler#FilterCompiler(Function)} for a description of the resolver.
+     *
+     * @param sortBy    the sort criteria. The first criterion has precedence.
+     * @param resolver  the function providing the accessor to use for fetching the values of a property.
+     */
+    public SortEngine(final List<? extends SortProperty<R>> sortBy,
+                      final Function<? super ValueReference<R,?>, ? extends Function<? super R, ?>> resolver)
+    {
+        this(sortBy, new FilterCompiler<>(resolver));
+    }
+
+    /**
+     * Creates a new engine using the given compiler for the sort keys.
+     *
+     * @param sortBy    the sort criteria. The first criterion has precedence.
+     * @param compiler  the compiler to use for the value references.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SortEngine(final List<? extends SortProperty<R>> sortBy, final FilterCompiler<R> compiler) {
+        keys  = new Function[sortBy.size()];
+        signs = new int[keys.length];
+        for (int i=0; i<keys.length; i++) {
+            final SortProperty<R> criterion = sortBy.get(i);
+            keys [i] = compiler.compile(criterion.getValueReference());
+            signs[i] = (criterion.getSortOrder() == SortOrder.DESCENDING) ? -1 : +1;
+        }
+        memoryBudget = 64L * 1024 * 1024;
+        rowSize = (r) -> 64;
+    }
+
+    /**
+     * Creates a new engine using the given functions for computing the sort keys.
+     *
+     * @param keys        the functions computing the sort keys of a resource.
+     * @param descending  for each key, whether the order is descending.
+     */
+    SortEngine(final Function<? super R, ?>[] keys, final boolean[] descending) {
+        this.keys = keys.clone();
+        signs = new int[keys.length];
+        for (int i=0; i<signs.length; i++) {
+            signs[i] = descending[i] ? -1 : +1;
+        }
+        memoryBudget = 64L * 1024 * 1024;
+        rowSize = (r) -> 64;
+    }
+
+    /**
+     * Sets the maximum number of bytes to use in memory before to write sorted resources in temporary files.
+     * The memory used by each resource is estimated by the function given to {@link #setRowSize(ToLongFunction)},
+     * plus a few bytes for each sort key. The default value is 64 MiB.
+     *
+     * @param bytes  the maximum number of bytes to use in memory.
+     * @throws IllegalArgumentException if the given value is not strictly positive.
+     */
+    public void setMemoryBudget(final long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + bytes);
+        }
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Sets the function estimating the number of bytes used in memory by a resource.
+     * The default function returns 64 for all resources.
+     *
+     * @param estimator  the function estimating the number of bytes used by a resource.
+     */
+    public void setRowSize(final ToLongFunction<? super R> estimator) {
+        rowSize = Objects.requireNonNull(estimator);
+    }
+
+    /**
+     * Sets the functions converting resources to the objects to write in temporary files, and conversely.
+     * The objects returned by the encoder shall be {@link Serializable}. They are given to the decoder
+     * when the resources are read back from the temporary files. By default, the resources are written
+     * as-is, in which case they shall be serializable if the sort exceeds the memory budget.
+     *
+     * @param encoder  the function converting a resource to a serializable object, or {@code null} for none.
+     * @param decoder  the function converting the object created by the encoder back to a resource,
+     *                 or {@code null} for none.
+     * @throws IllegalArgumentException if only one of the given functions is null.
+     */
+    public void setExternalForm(final Function<? super R, ?> encoder, final Function<Object, ? extends R> decoder) {
+        if ((encoder == null) != (decoder == null)) {
+            throw new IllegalArgumentException("The encoder and the decoder shall be both null or both non-null.");
+        }
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Sorts the given resources. The source is read when the first resource is requested,
+     * and is closed when the returned stream is closed.
+     *
+     * @param  source  the resources to sort.
+     * @return the resources in sorted order.
+     */
+    public Stream<R> sort(final Stream<? extends R> source) {
+        return sort(source, Long.MAX_VALUE);
+    }
+
+    /**
+     * Sorts the given resources and returns at most the given number of resources.
+     * If the given count is small enough, the best resources are kept in a bounded heap
+     * and the others are discarded as they come.
+     *
+     * @param  source  the resources to sort.
+     * @param  count   maximum number of resources to return.
+     * @return the first resources in sorted order.
+     */
+    public Stream<R> sort(final Stream<? extends R> source, final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Negative count: " + count);
+        }
+        final var sorter = new Sorter(source.spliterator(), count);
+        return StreamSupport.stream(sorter, false).onClose(sorter::close).onClose(source::close).limit(count);
+    }
+
+    /**
+     * Compares the values of the key at the given index. If both values are numbers other than NaN,
+     * they are compared as primitive values. Otherwise, or if the {@code double} values are equal but
+     * too large for ensuring that the original values are equal, they are compared by {@link Comparisons#order}.
+     *
+     * @param  k   index of the key.
+     * @param  d1  the first value as a {@code double}, or NaN if not a number.
+     * @param  v1  the first value.
+     * @param  d2  the second value as a {@code double}, or NaN if not a number.
+     * @param  v2  the second value.
+     * @return negative, zero or positive if the first value is before, equal or after the second one.
+     */
+    final int compare(final int k, final double d1, final Object v1, final double d2, final Object v2) {
+        final int c;
+        if (d1 < d2) c = -1;
+        else if (d1 > d2) c = +1;
+        else if (d1 == d2 && Math.abs(d1) < 0x1p53) return 0;     // Values equal even if they were long integers.
+        else c = Comparisons.order(v1, v2);
+        return c * signs[k];
+    }
+
+    /**
+     * Returns the given key value as a {@code double} if it is a number, or NaN otherwise.
+     *
+     * @param  value  the key value.
+     * @return the value as a primitive, or NaN.
+     */
+    static double toPrimitive(final Object value) {
+        return (value instanceof Number) ? ((Number) value).doubleValue() : Double.NaN;
+    }
+
+    /**
+     * Resources with their sort keys, stored in columns.
+     * Slots are identified by their index in the arrays.
+     */
+    private final class Block {
+        /** The resources. */
+        Object[] rows;
+
+        /** Position of the resources in the source, for keeping the heap stable. */
+        long[] positions;
+
+        /** For each key, the key values as primitive values, or NaN if not numbers. */
+        final double[][] numbers;
+
+        /** For each key, the key values. */
+        final Object[][] values;
+
+        /** Number of slots in use. */
+        int size;
+
+        /**
+         * Creates a new block.
+         *
+         * @param capacity  the initial capacity.
+         */
+        Block(final int capacity) {
+            rows      = new Object[capacity];
+            positions = new long[capacity];
+            numbers   = new double[keys.length][capacity];
+            values    = new Object[keys.length][capacity];
+        }
+
+        /**
+         * Stores the given resource at the given slot and computes its keys.
+         *
+         * @param slot      the slot where to store the resource.
+         * @param row       the resource.
+         * @param position  position of the resource in the source.
+         */
+        void set(final int slot, final R row, final long position) {
+            rows[slot] = row;
+            positions[slot] = position;
+            for (int k=0; k<keys.length; k++) {
+                final Object value = keys[k].apply(row);
+                values [k][slot] = value;
+                numbers[k][slot] = toPrimitive(value);
+            }
+        }
+
+        /**
+         * Adds the given resource at the end of this block, increasing the capacity if needed.
+         *
+         * @param row       the resource.
+         * @param position  position of the resource in the source.
+         */
+        void add(final R row, final long position) {
+            if (size == rows.length) {
+                final int capacity = Math.max(16, size * 2);
+                rows      = Arrays.copyOf(rows, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                for (int k=0; k<keys.length; k++) {
+                    numbers[k] = Arrays.copyOf(numbers[k], capacity);
+                    values [k] = Arrays.copyOf(values [k], capacity);
+                }
+            }
+            set(size++, row, position);
+        }
+
+        /**
+         * Compares the keys of the given slots.
+         *
+         * @param  i  the first slot.
+         * @param  j  the second slot.
+         * @return negative, zero or positive if the first slot is before, equal or after the second one.
+         */
+        int compare(final int i, final int j) {
+            for (int k=0; k<keys.length; k++) {
+                final int c = SortEngine.this.compare(k, numbers[k][i], values[k][i], numbers[k][j], values[k][j]);
+                if (c != 0) return c;
+            }
+            return 0;
+        }
+
+        /**
+         * Compares the keys of the given slots, then their positions in the source.
+         *
+         * @param  i  the first slot.
+         * @param  j  the second slot.
+         * @return negative, zero or positive if the first slot is before, equal or after the second one.
+         */
+        int compareStable(final int i, final int j) {
+            final int c = compare(i, j);
+            return (c != 0) ? c : Long.compare(positions[i], positions[j]);
+        }
+
+        /**
+         * Returns the slots in sorted order. The sort is stable.
+         *
+         * @return indexes of the slots in sorted order.
+         */
+        int[] sortedSlots() {
+            final int[] slots = new int[size];
+            for (int i=0; i<size; i++) slots[i] = i;
+            mergeSort(slots, slots.clone(), 0, size, this::compare);
+            return slots;
+        }
+
+        /**
+         * Discards all resources in this block.
+         */
+        void clear() {
+            Arrays.fill(rows, 0, size, null);
+            for (final Object[] column : values) {
+                Arrays.fill(column, 0, size, null);
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Sorts the given range of slots with a stable merge sort.
+     *
+     * @param  slots  the slots to sort.
+     * @param  work   a copy of the slots, used as a work array.
+     * @param  lower  index of the first slot to sort, inclusive.
+     * @param  upper  index of the last slot to sort, exclusive.
+     * @param  order  the comparator of slots.
+     */
+    private static void mergeSort(final int[] slots, final int[] work, final int lower, final int upper,
+                                  final IntBinaryOperator order)
+    {
+        if (upper - lower <= 8) {
+            for (int i = lower + 1; i < upper; i++) {
+                final int slot = slots[i];
+                int j = i;
+                while (j > lower && order.applyAsInt(slots[j-1], slot) > 0) {
+                    slots[j] = slots[j-1];
+                    j--;
+                }
+                slots[j] = slot;
+            }
+            return;
+        }
+        final int middle = (lower + upper) >>> 1;
+        mergeSort(work, slots, lower, middle, order);           // Sort in the work array.
+        mergeSort(work, slots, middle, upper, order);
+        int i = lower, j = middle, t = lower;
+        while (i < middle && j < upper) {
+            slots[t++] = (order.applyAsInt(work[j], work[i]) < 0) ? work[j++] : work[i++];
+        }
+        while (i < middle) slots[t++] = work[i++];
+        while (j < upper)  slots[t++] = work[j++];
+    }
+
+    /**
+     * A sequence of sorted resources with the keys of the next resource to return.
+     * This is used when merging the sorted runs.
+     */
+    private abstract class Run {
+        /** Index of this run. Runs of lower index contain resources which were first in the source. */
+        final int index;
+
+        /** The next resource to return. */
+        Object head;
+
+        /** The keys of the next resource, as primitive values or NaN. */
+        final double[] numbers;
+
+        /** The keys of the next resource. */
+        final Object[] values;
+
+        /**
+         * Creates a new run.
+         *
+         * @param index  index of this run.
+         */
+        Run(final int index) {
+            this.index = index;
+            numbers = new double[keys.length];
+            values  = new Object[keys.length];
+        }
+
+        /**
+         * Moves to the next resource.
+         *
+         * @return whether there is a next resource.
+         * @throws IOException if an error occurred while reading a temporary file.
+         */
+        abstract boolean next() throws IOException;
+
+        /**
+         * Compares the head of this run with the head of the given run.
+         *
+         * @param  other  the other run.
+         * @return negative, zero or positive if this run is before, equal or after the other run.
+         */
+        final int compareTo(final Run other) {
+            for (int k=0; k<keys.length; k++) {
+                final int c = compare(k, numbers[k], values[k], other.numbers[k], other.values[k]);
+                if (c != 0) return c;
+            }
+            return Integer.compare(index, other.index);
+        }
+    }
+
+    /**
+     * A run of resources stored in a block in memory.
+     */
+    private final class MemoryRun extends Run {
+        /** The block containing the resources. */
+        private final Block block;
+
+        /** The slots in sorted order. */
+        private final int[] slots;
+
+        /** Index of the next slot. */
+        private int next;
+
+        /**
+         * Creates a new run.
+         *
+         * @param index  index of this run.
+         * @param block  the block containing the resources.
+         */
+        MemoryRun(final int index, final Block block) {
+            super(index);
+            this.block = block;
+            this.slots = block.sortedSlots();
+        }
+
+        /** Copies the keys of the next slot. */
+        @Override boolean next() {
+            if (next >= slots.length) {
+                return false;
+            }
+            final int slot = slots[next++];
+            head = block.rows[slot];
+            for (int k=0; k<keys.length; k++) {
+                numbers[k] = block.numbers[k][slot];
+                values [k] = block.values [k][slot];
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The resources retained in a bounded heap, in sorted order.
+     * Since this is the only run, the keys of the head are not needed.
+     */
+    private final class HeapRun extends Run {
+        /** The block containing the resources. */
+        private final Block block;
+
+        /** The slots in sorted order. */
+        private final int[] slots;
+
+        /** Index of the next slot. */
+        private int next;
+
+        /**
+         * Creates a new run.
+         *
+         * @param block  the block containing the resources.
+         * @param slots  the slots in sorted order.
+         */
+        HeapRun(final Block block, final int[] slots) {
+            super(0);
+            this.block = block;
+            this.slots = slots;
+        }
+
+        /** Moves to the next slot. */
+        @Override boolean next() {
+            if (next >= slots.length) {
+                return false;
+            }
+            head = block.rows[slots[next++]];
+            return true;
+        }
+    }
+
+    /**
+     * A run of resources stored in a temporary file. Each record is an array containing
+     * the external form of the resource followed by its keys.
+     */
+    private final class FileRun extends Run {
+        /** The stream from which to read the records. */
+        private final ObjectInputStream in;
+
+        /** The function converting the external form to a resource, or {@code null} if none. */
+        private final Function<Object, ? extends R> decoder;
+
+        /** Number of records not yet read. */
+        private int remaining;
+
+        /**
+         * Creates a new run.
+         *
+         * @param index    index of this run.
+         * @param in       the stream from which to read the records.
+         * @param decoder  the function converting the external form to a resource, or {@code null} if none.
+         * @param count    number of records in the file.
+         */
+        FileRun(final int index, final ObjectInputStream in, final Function<Object, ? extends R> decoder, final int count) {
+            super(index);
+            this.in = in;
+            this.decoder = decoder;
+            remaining = count;
+        }
+
+        /** Reads the next record. */
+        @Override boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            final Object[] record;
+            try {
+                record = (Object[]) in.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            head = (decoder != null) ? decoder.apply(record[0]) : record[0];
+            for (int k=0; k<keys.length; k++) {
+                final Object value = record[k+1];
+                values [k] = value;
+                numbers[k] = toPrimitive(value);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Input stream reading a file through memory-mapped windows.
+     */
+    private static final class MappedInput extends InputStream {
+        /** The channel of the file to read. */
+        private final FileChannel channel;
+
+        /** Position in the file of the end of the current window. */
+        private long position;
+
+        /** The current window, or {@code null} if none. */
+        private MappedByteBuffer buffer;
+
+        /**
+         * Creates a new stream for the given file.
+         *
+         * @param  file  the file to read.
+         * @throws IOException if the file cannot be opened.
+         */
+        MappedInput(final Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        /**
+         * Maps the next window if the current one is exhausted.
+         *
+         * @return whether there is more bytes to read.
+         * @throws IOException if an error occurred while mapping the file.
+         */
+        private boolean fill() throws IOException {
+            if (buffer != null && buffer.hasRemaining()) {
+                return true;
+            }
+            final long remaining = channel.size() - position;
+            if (remaining <= 0) {
+                return false;
+            }
+            final long length = Math.min(remaining, WINDOW_SIZE);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+
+        /** Reads the next byte. */
+        @Override public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        /** Reads up to {@code length} bytes. */
+        @Override public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            final int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+
+        /** Closes the channel. */
+        @Override public void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * Sorts the resources of a source when the first resource is requested.
+     */
+    private final class Sorter implements Spliterator<R> {
+        /** The unsorted resources. */
+        private final Spliterator<? extends R> source;
+
+        /** Maximal number of resources which will be requested. */
+        private final long count;
+
+        /** The temporary files. */
+        private final List<Path> files;
+
+        /** The streams opened on temporary files. */
+        private final List<InputStream> inputs;
+
+        /** The function converting a resource to its external form, or {@code null} if none. */
+        private final Function<? super R, ?> encoder;
+
+        /** The function converting the external form to a resource, or {@code null} if none. */
+        private final Function<Object, ? extends R> decoder;
+
+        /** The runs ordered by their head, or {@code null} if the source has not yet been sorted. */
+        private PriorityQueue<Run> queue;
+
+        /**
+         * Creates a new sorter.
+         *
+         * @param source  the unsorted resources.
+         * @param count   maximal number of resources which will be requested.
+         */
+        Sorter(final Spliterator<? extends R> source, final long count) {
+            this.source = source;
+            this.count  = count;
+            this.files  = new ArrayList<>();
+            this.inputs = new ArrayList<>();
+            this.encoder = SortEngine.this.encoder;
+            this.decoder = SortEngine.this.decoder;
+        }
+
+        /**
+         * Reads all resources from the source and prepares the runs to merge.
+         *
+         * @return the runs ordered by their head.
+         * @throws IOException if an error occurred while writing or reading a temporary file.
+         */
+        private PriorityQueue<Run> sort() throws IOException {
+            final var runs = new ArrayList<Run>();
+            final var block = new Block(16);
+            final long keySize = Integer.BYTES + Long.BYTES + (long) KEY_SIZE * keys.length;
+            long position = 0, memory = 0;
+            final Object[] row = new Object[1];
+            while (source.tryAdvance((r) -> row[0] = r)) {
+                @SuppressWarnings("unchecked")
+                final R r = (R) row[0];
+                if (position == 0) {
+                    final long capacity = memoryBudget / Math.max(1, rowSize.applyAsLong(r) + keySize);
+                    if (count <= capacity && count < Integer.MAX_VALUE - 1) {
+                        return top(r);
+                    }
+                }
+                block.add(r, position++);
+                memory += rowSize.applyAsLong(r) + keySize;
+                if (memory > memoryBudget) {
+                    runs.add(spill(block, runs.size()));
+                    block.clear();
+                    memory = 0;
+                }
+            }
+            if (block.size != 0) {
+                runs.add(new MemoryRun(runs.size(), block));
+            }
+            return queue(runs);
+        }
+
+        /**
+         * Returns the {@link #count} first resources using a bounded heap.
+         * The root of the heap is the last resource retained so far.
+         *
+         * @param  first  the first resource of the source.
+         * @return a queue with a single run of the first resources in sorted order.
+         * @throws IOException never thrown since no temporary file is used.
+         */
+        @SuppressWarnings("unchecked")
+        private PriorityQueue<Run> top(final R first) throws IOException {
+            if (count == 0) {
+                return queue(List.of());
+            }
+            final int capacity = (int) count;               // Safe because verified by the caller.
+            final var block = new Block(capacity + 1);
+            final int[] heap = new int[capacity];
+            final IntBinaryOperator reversed = (i, j) -> block.compareStable(j, i);
+            final Object[] row = new Object[] {first};
+            long position = 0;
+            int size = 0, scratch = capacity;
+            do {
+                final R r = (R) row[0];
+                if (size < capacity) {
+                    block.set(size, r, position);
+                    heap[size] = size;
+                    siftUp(heap, size++, reversed);
+                } else {
+                    block.set(scratch, r, position);
+                    if (block.compareStable(scratch, heap[0]) < 0) {
+                        final int evicted = heap[0];
+                        heap[0] = scratch;
+                        scratch = evicted;
+                        siftDown(heap, size, reversed);
+                    }
+                }
+                position++;
+            } while (source.tryAdvance((r) -> row[0] = r));
+            block.rows[scratch] = null;
+            final int[] slots = Arrays.copyOf(heap, size);
+            mergeSort(slots, slots.clone(), 0, size, block::compareStable);
+            final Run run = new HeapRun(block, slots);
+            return queue(List.of(run));
+        }
+
+        /**
+         * Sorts the resources of the given block and writes them in a temporary file.
+         * Each resource is verified to have a serializable external form before to be written.
+         *
+         * @param  block  the resources to write.
+         * @param  index  index of the run.
+         * @return a run reading the resources from the temporary file.
+         * @throws NotSerializableException if a resource or a key cannot be written in the temporary file.
+         * @throws IOException if an error occurred while writing or reading the temporary file.
+         */
+        @SuppressWarnings("unchecked")
+        private Run spill(final Block block, final int index) throws IOException {
+            final Path file = Files.createTempFile("sort", ".run");
+            files.add(file);
+            try (var out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                final var record = new Object[keys.length + 1];
+                for (final int slot : block.sortedSlots()) {
+                    final Object row = block.rows[slot];
+                    record[0] = serializable((encoder != null) ? encoder.apply((R) row) : row,
+                            " Use SortEngine.setExternalForm(…) for providing a serializable form of the resources.");
+                    for (int k=0; k<keys.length; k++) {
+                        record[k+1] = serializable(block.values[k][slot], "");
+                    }
+                    out.writeObject(record);
+                    out.reset();            // Avoid keeping references to all written objects.
+                }
+            }
+            final var input = new MappedInput(file);
+            inputs.add(input);
+            return new FileRun(index, new ObjectInputStream(input), decoder, block.size);
+        }
+
+        /**
+         * Returns the given value if it can be written in a temporary file.
+         *
+         * @param  value  the value to verify.
+         * @param  hint   a hint to append to the error message, or an empty string.
+         * @return the given value.
+         * @throws NotSerializableException if the given value is not serializable.
+         */
+        private Object serializable(final Object value, final String hint) throws NotSerializableException {
+            if (value == null || value instanceof Serializable) {
+                return value;
+            }
+            throw new NotSerializableException("Cannot write an instance of " + value.getClass().getName()
+                    + " in a temporary file because it is not serializable." + hint);
+        }
+
+        /**
+         * Moves all given runs to their first resource and puts them in a queue.
+         *
+         * @param  runs  the runs to merge.
+         * @return the non-empty runs ordered by their head.
+         * @throws IOException if an error occurred while reading a temporary file.
+         */
+        private PriorityQueue<Run> queue(final List<Run> runs) throws IOException {
+            final var queue = new PriorityQueue<Run>(Math.max(1, runs.size()), Run::compareTo);
+            for (final Run run : runs) {
+                if (run.next()) queue.add(run);
+            }
+            return queue;
+        }
+
+        /**
+         * Sorts the resources if not already done, then gives the next resource to the given action.
+         *
+         * @param  action  the action to execute on the next resource.
+         * @return whether a resource has been given to the action.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(final Consumer<? super R> action) {
+            final Run run;
+            final Object row;
+            try {
+                if (queue == null) {
+                    queue = sort();
+                }
+                run = queue.poll();
+                if (run == null) {
+                    close();
+                    return false;
+                }
+                row = run.head;
+                if (run.next()) {
+                    queue.add(run);
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            action.accept((R) row);
+            return true;
+        }
+
+        /**
+         * Returns {@code null} since this spliterator cannot be split.
+         */
+        @Override
+        public Spliterator<R> trySplit() {
+            return null;
+        }
+
+        /**
+         * Returns an estimation of the number of resources.
+         */
+        @Override
+        public long estimateSize() {
+            return Math.min(count, source.estimateSize());
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+
+        /**
+         * Closes the temporary files and deletes them.
+         */
+        void close() {
+            IOException error = null;
+            for (final InputStream in : inputs) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    if (error == null) error = e;
+                    else error.addSuppressed(e);
+                }
+            }
+            inputs.clear();
+            for (final Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    if (error == null) error = e;
+                    else error.addSuppressed(e);
+                }
+            }
+            files.clear();
+            if (error != null) {
+                throw new UncheckedIOException(error);
+            }
+        }
+    }
+
+    /**
+     * Moves the element at the given index of a heap toward the root until the heap order is restored.
+     *
+     * @param  heap   the heap, as an array of slots.
+     * @param  index  index of the element to move.
+     * @param  order  the comparator of slots. The root is the smallest element.
+     */
+    private static void siftUp(final int[] heap, int index, final IntBinaryOperator order) {
+        final int slot = heap[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (order.applyAsInt(slot, heap[parent]) >= 0) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = slot;
+    }
+
+    /**
+     * Moves the root of a heap toward the leaves until the heap order is restored.
+     *
+     * @param  heap   the heap, as an array of slots.
+     * @param  size   number of elements in the heap.
+     * @param  order  the comparator of slots. The root is the smallest element.
+     */
+    private static void siftDown(final int[] heap, final int size, final IntBinaryOperator order) {
+        final int slot = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2*index + 1) < size) {
+            if (child + 1 < size && order.applyAsInt(heap[child + 1], heap[child]) < 0) child++;
+            if (order.applyAsInt(heap[child], slot) >= 0) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = slot;
+    }
+}
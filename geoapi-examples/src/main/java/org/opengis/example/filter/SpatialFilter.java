@@ -0,0 +1,98 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.List;
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.Geometry;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.filter.Expression;
+import org.opengis.filter.SpatialOperatorName;
+import org.opengis.filter.BinarySpatialOperator;
+import org.opengis.example.geometry.SimpleEnvelope;
+
+
+/**
+ * A spatial operator evaluated on the envelopes of the geometries.
+ * Geometry values can be {@link Envelope}, {@link DirectPosition} or {@link Geometry} instances.
+ * Other values are considered as null, in which case the filter result is {@code false}.
+ * Envelopes are assumed in the same coordinate reference system.
+ *
+ * @param  <R>  the type of resources (e.g. {@link org.opengis.feature.Feature}) used as inputs.
+ */
+final class SpatialFilter<R> extends SimpleFilter<R> implements BinarySpatialOperator<R> {
+    /**
+     * Creates a new filter checking if the envelope of the geometry interacts with the given bounds.
+     *
+     * @param geometry  expression fetching the geometry to check for interaction with bounds.
+     * @param bounds    the bounds to check geometry against.
+     */
+    SpatialFilter(final Expression<R,?> geometry, final Envelope bounds) {
+        super(List.of(geometry, new LiteralValue<>(bounds)));
+    }
+
+    /**
+     * Returns the nature of the spatial operator.
+     */
+    @Override
+    public SpatialOperatorName getOperatorType() {
+        return SpatialOperatorName.BBOX;
+    }
+
+    /**
+     * Returns the envelope of the given geometry value.
+     *
+     * @param  value  the geometry value, or {@code null}.
+     * @return the envelope of the geometry, or {@code null} if none.
+     */
+    static Envelope envelope(final Object value) {
+        if (value instanceof Envelope) {
+            return (Envelope) value;
+        }
+        if (value instanceof DirectPosition) {
+            final var p = (DirectPosition) value;
+            return new SimpleEnvelope(p, p);
+        }
+        if (value instanceof Geometry) {
+            return ((Geometry) value).getEnvelope();
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the two envelopes intersect, including on their borders.
+     * Only the dimensions that are common to both envelopes are compared.
+     *
+     * @param  e1  the first envelope.
+     * @param  e2  the second envelope.
+     * @return whether the envelopes intersect.
+     */
+    static boolean intersects(final Envelope e1, final Envelope e2) {
+        final int dimension = Math.min(e1.getDimension(), e2.getDimension());
+        for (int i=0; i<dimension; i++) {
+            if (!(e1.getMinimum(i) <= e2.getMaximum(i) && e1.getMaximum(i) >= e2.getMinimum(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the envelopes of the two operands interact.
+     *
+     * @param  resource  the resource from which to fetch the geometry values.
+     * @return whether the envelopes intersect.
+     */
+    @Override
+    public boolean test(final R resource) {
+        final Envelope e1 = envelope(expressions.get(0).apply(resource));
+        if (e1 != null) {
+            final Envelope e2 = envelope(expressions.get(1).apply(resource));
+            return (e2 != null) && intersects(e1, e2);
+        }
+        return false;
+    }
+}
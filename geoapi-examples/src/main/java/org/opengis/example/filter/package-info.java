@@ -0,0 +1,19 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+
+/**
+ * Implementation of some interfaces from the {@link org.opengis.filter} package.
+ * {@link org.opengis.example.filter.SimpleFilterFactory} creates filters and expressions
+ * evaluated on arbitrary resources, given a function fetching property values by name.
+ * {@link org.opengis.example.filter.FilterCompiler} converts a tree of filters created
+ * by any factory into a predicate specialized for the operand types.
+ * {@link org.opengis.example.filter.QueryPipeline} executes a filter, projection, sort and limit
+ * on a stream of resources, delegating the sort to {@link org.opengis.example.filter.SortEngine}.
+ *
+ * <p>Every classes in this package are hereby placed into the Public Domain.
+ * This means anyone is free to do whatever they wish with those files.</p>
+ */
+package org.opengis.example.filter;
@@ -0,0 +1,93 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.metadata;
+
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.Collections;
+import org.opengis.annotation.UML;
+
+
+/**
+ * Base class of the metadata implementations generated at runtime by {@link MetadataClassGenerator}.
+ * Subclasses declare one field per {@link UML} property and implement the getter methods by returning
+ * the field values. This base class provides the {@code toString()}, {@code hashCode()} and
+ * {@code equals(Object)} methods, with the same format and contract as {@link MetadataHandler}.
+ */
+abstract class GeneratedMetadata {
+    /**
+     * The GeoAPI interface implemented by this object.
+     */
+    private final Class<?> type;
+
+    /**
+     * A copy of the attribute values given at construction time, used for string representation
+     * and comparisons.
+     */
+    private final Map<String,?> attributes;
+
+    /**
+     * Creates a new metadata for the given interface. This constructor is invoked by the
+     * constructors of generated classes.
+     *
+     * @param  type        the GeoAPI interface implemented by this object.
+     * @param  attributes  the attribute values given by the user.
+     */
+    GeneratedMetadata(final Class<?> type, final Map<String,?> attributes) {
+        this.type = type;
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    /**
+     * Returns the exception to throw when a method other than a getter is invoked.
+     * This method is invoked by the generated code.
+     *
+     * @param  method  the name of the invoked method.
+     * @return the exception to throw.
+     */
+    static RuntimeException unsupported(final String method) {
+        return new UnsupportedOperationException("Unknown method: " + method + "()");
+    }
+
+    /**
+     * Returns a string representation of this metadata. This method formats the
+     * ISO/OGC identifier of the metadata type followed by the string representation
+     * of the attributes map.
+     */
+    @Override
+    public String toString() {
+        String name = null;
+        final UML uml = type.getAnnotation(UML.class);
+        if (uml != null) {
+            name = uml.identifier();
+        }
+        if (name == null || ((name.trim()).isEmpty())) {
+            name = type.getSimpleName();
+        }
+        return name + attributes;
+    }
+
+    /**
+     * Returns a hash code value for this metadata.
+     */
+    @Override
+    public int hashCode() {
+        return attributes.hashCode() + 31*type.hashCode() ^ 676265297;
+    }
+
+    /**
+     * Returns {@code true} if the given object is a generated metadata
+     * implementing the same interface with the same attributes.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof GeneratedMetadata) {
+            final var other = (GeneratedMetadata) object;
+            return (type == other.type) && attributes.equals(other.attributes);
+        }
+        return false;
+    }
+}
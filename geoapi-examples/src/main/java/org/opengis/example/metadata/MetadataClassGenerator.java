@@ -0,0 +1,574 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.metadata;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
+import java.io.DataOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import org.opengis.annotation.UML;
+
+
+/**
+ * Generates at runtime a class implementing a metadata interface with one field per {@link UML} property.
+ * The generated class extends {@link GeneratedMetadata} and has a constructor expecting the interface,
+ * the map of attributes and an array of property values in the order of the fields. Getter methods
+ * return the field values directly, without reflection or map lookup. Abstract methods which are not
+ * getters of UML properties throw {@link UnsupportedOperationException}.
+ *
+ * <p>The class files are written directly in the format defined by the Java Virtual Machine specification,
+ * without external library. Generated methods contain no branch, which avoids the need for stack map frames.
+ * Classes are defined in this package with {@link MethodHandles.Lookup#defineClass(byte[])} and cached
+ * for each metadata interface.</p>
+ */
+final class MetadataClassGenerator extends ClassValue<MetadataClassGenerator.Template> {
+    /**
+     * The unique instance of this generator.
+     */
+    static final MetadataClassGenerator INSTANCE = new MetadataClassGenerator();
+
+    /**
+     * Counter used for creating unique class names.
+     */
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    /**
+     * Internal name of the base class of all generated classes.
+     */
+    private static final String SUPER_CLASS = internalName(GeneratedMetadata.class);
+
+    /**
+     * Descriptor of the constructor of generated classes.
+     */
+    private static final String CONSTRUCTOR = "(Ljava/lang/Class;Ljava/util/Map;[Ljava/lang/Object;)V";
+
+    /**
+     * Creates the unique instance.
+     */
+    private MetadataClassGenerator() {
+    }
+
+    /**
+     * A generated class together with the information needed for creating instances.
+     */
+    static final class Template {
+        /**
+         * UML identifiers of the properties, in the order of the fields.
+         */
+        private final String[] identifiers;
+
+        /**
+         * Values to use for the properties which are absent from the map of attributes.
+         */
+        private final Object[] defaults;
+
+        /**
+         * The constructor of the generated class.
+         */
+        private final MethodHandle constructor;
+
+        /**
+         * Creates a new template.
+         *
+         * @param identifiers  UML identifiers of the properties, in the order of the fields.
+         * @param defaults     values to use for the properties which are absent from the map of attributes.
+         * @param constructor  the constructor of the generated class.
+         */
+        Template(final String[] identifiers, final Object[] defaults, final MethodHandle constructor) {
+            this.identifiers = identifiers;
+            this.defaults    = defaults;
+            this.constructor = constructor;
+        }
+
+        /**
+         * Creates a new instance of the generated class with the given attribute values.
+         *
+         * @param  type        the metadata interface.
+         * @param  attributes  the attribute values.
+         * @return the new metadata instance.
+         * @throws ClassCastException if an attribute value is not of the type expected by the getter.
+         */
+        Object newInstance(final Class<?> type, final Map<String,?> attributes) {
+            final var values = new Object[identifiers.length];
+            for (int i=0; i<values.length; i++) {
+                final Object value = attributes.get(identifiers[i]);
+                values[i] = (value != null) ? value : defaults[i];
+            }
+            try {
+                return constructor.invoke(type, attributes, values);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Generates the class for the given metadata interface.
+     * This method is invoked by {@link ClassValue} the first time that a class is requested.
+     *
+     * @param  type  the metadata interface.
+     * @return the generated class for the given interface.
+     */
+    @Override
+    protected Template computeValue(final Class<?> type) {
+        /*
+         * Group the getter methods by name. A group may contain many methods if a sub-interface
+         * overrides a getter with a more specific return type. All other abstract methods will
+         * throw an exception.
+         */
+        final var getters = new LinkedHashMap<String, List<Method>>();
+        final var others  = new LinkedHashMap<String, Method>();
+        for (final Method method : type.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers())) {
+                if (method.getParameterCount() == 0 && method.getReturnType() != void.class
+                        && method.isAnnotationPresent(UML.class))
+                {
+                    getters.computeIfAbsent(method.getName(), (k) -> new ArrayList<>()).add(method);
+                } else {
+                    others.putIfAbsent(method.getName() + descriptor(method), method);
+                }
+            }
+        }
+        others.values().removeIf((method) -> {
+            final List<Method> group = getters.get(method.getName());
+            if (group != null && method.getParameterCount() == 0) {
+                group.add(method);
+                return true;
+            }
+            return !Modifier.isAbstract(method.getModifiers());
+        });
+        final String name = SUPER_CLASS.substring(0, SUPER_CLASS.lastIndexOf('/') + 1)
+                + type.getSimpleName() + "Impl$" + COUNT.incrementAndGet();
+        final var cf = new ClassFile(name, internalName(type));
+        final var identifiers = new String[getters.size()];
+        final var defaults    = new Object[identifiers.length];
+        final var fieldTypes  = new Class<?>[identifiers.length];
+        int i = 0;
+        for (final List<Method> group : getters.values()) {
+            Method specific = group.get(0);
+            for (final Method method : group) {
+                if (specific.getReturnType().isAssignableFrom(method.getReturnType())) {
+                    specific = method;
+                }
+            }
+            UML uml = specific.getAnnotation(UML.class);
+            for (int j = group.size(); uml == null;) {
+                uml = group.get(--j).getAnnotation(UML.class);
+            }
+            identifiers[i] = uml.identifier();
+            fieldTypes [i] = specific.getReturnType();
+            defaults   [i] = MetadataHandler.defaultValue(fieldTypes[i]);
+            final String field = "f" + i;
+            cf.field(field, descriptor(fieldTypes[i]));
+            final var done = new HashMap<String,Boolean>();
+            for (final Method method : group) {
+                if (done.put(descriptor(method), Boolean.TRUE) == null) {
+                    cf.getter(method, field, fieldTypes[i]);
+                }
+            }
+            i++;
+        }
+        cf.constructor(fieldTypes);
+        for (final Method method : others.values()) {
+            cf.unsupported(method);
+        }
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final Class<?> c = lookup.defineClass(cf.toByteArray());
+            final MethodHandle constructor = lookup.findConstructor(c,
+                    MethodType.methodType(void.class, Class.class, Map.class, Object[].class));
+            return new Template(identifiers, defaults, constructor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot generate an implementation of " + type, e);
+        }
+    }
+
+    /**
+     * Returns the internal name of the given class, as used in class files.
+     *
+     * @param  type  the class for which to get the internal name.
+     * @return the internal name (e.g. {@code "java/lang/String"}).
+     */
+    private static String internalName(final Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    /**
+     * Returns the descriptor of the given type, as used in class files.
+     *
+     * @param  type  the type for which to get the descriptor.
+     * @return the type descriptor (e.g. {@code "Ljava/lang/String;"} or {@code "D"}).
+     */
+    private static String descriptor(final Class<?> type) {
+        if (type.isArray())          return type.getName().replace('.', '/');
+        if (type == boolean.class)   return "Z";
+        if (type == byte.class)      return "B";
+        if (type == char.class)      return "C";
+        if (type == short.class)     return "S";
+        if (type == int.class)       return "I";
+        if (type == long.class)      return "J";
+        if (type == float.class)     return "F";
+        if (type == double.class)    return "D";
+        if (type == void.class)      return "V";
+        return 'L' + internalName(type) + ';';
+    }
+
+    /**
+     * Returns the descriptor of the given method, as used in class files.
+     *
+     * @param  method  the method for which to get the descriptor.
+     * @return the method descriptor (e.g. {@code "()Ljava/lang/String;"}).
+     */
+    private static String descriptor(final Method method) {
+        final var buffer = new StringBuilder().append('(');
+        for (final Class<?> p : method.getParameterTypes()) {
+            buffer.append(descriptor(p));
+        }
+        return buffer.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    /**
+     * Returns the wrapper class of the given primitive type.
+     *
+     * @param  type  a primitive type other than {@code void}.
+     * @return the wrapper class.
+     */
+    private static Class<?> wrapper(final Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Writer of a class file for a single generated class.
+     */
+    private static final class ClassFile {
+        /** Tag of constant pool entries. */
+        private static final int UTF8 = 1, CLASS = 7, STRING = 8, FIELD = 9, METHOD = 10, NAME_AND_TYPE = 12;
+
+        /** Access flags. */
+        private static final int PUBLIC = 0x0001, PRIVATE = 0x0002, FINAL = 0x0010, SUPER = 0x0020;
+
+        /** Opcodes used by the generated code. */
+        private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, ALOAD_3 = 0x2d, ICONST_0 = 0x03,
+                BIPUSH = 0x10, SIPUSH = 0x11, LDC_W = 0x13, AALOAD = 0x32, IRETURN = 0xac, LRETURN = 0xad,
+                FRETURN = 0xae, DRETURN = 0xaf, ARETURN = 0xb0, RETURN = 0xb1, GETFIELD = 0xb4, PUTFIELD = 0xb5,
+                INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, ATHROW = 0xbf, CHECKCAST = 0xc0;
+
+        /** The constant pool entries, without the count. */
+        private final ByteArrayOutputStream pool;
+
+        /** Output stream writing in {@link #pool}. */
+        private final DataOutputStream poolOut;
+
+        /** Indexes of constant pool entries, for sharing identical entries. */
+        private final Map<String,Integer> indexes;
+
+        /** Number of constant pool entries, plus one. */
+        private int poolCount;
+
+        /** The fields, without the count. */
+        private final ByteArrayOutputStream fields;
+
+        /** The methods, without the count. */
+        private final ByteArrayOutputStream methods;
+
+        /** Number of fields. */
+        private int fieldCount;
+
+        /** Number of methods. */
+        private int methodCount;
+
+        /** Internal name of the generated class. */
+        private final String name;
+
+        /** Constant pool index of the generated class. */
+        private final int thisClass;
+
+        /** Constant pool index of the implemented interface. */
+        private final int anInterface;
+
+        /**
+         * Creates a new writer for a class of the given name implementing the given interface.
+         *
+         * @param name         internal name of the generated class.
+         * @param anInterface  internal name of the implemented interface.
+         */
+        ClassFile(final String name, final String anInterface) {
+            this.name        = name;
+            this.pool        = new ByteArrayOutputStream();
+            this.poolOut     = new DataOutputStream(pool);
+            this.indexes     = new HashMap<>();
+            this.poolCount   = 1;
+            this.fields      = new ByteArrayOutputStream();
+            this.methods     = new ByteArrayOutputStream();
+            this.thisClass   = classRef(name);
+            this.anInterface = classRef(anInterface);
+        }
+
+        /**
+         * Adds a constant pool entry if not already present.
+         *
+         * @param  key    a key identifying the entry.
+         * @param  tag    the tag of the entry.
+         * @param  utf8   the UTF-8 value for {@link #UTF8} entries, or {@code null}.
+         * @param  ref1   first reference to another entry.
+         * @param  ref2   second reference to another entry, or 0 if none.
+         * @return index of the entry in the constant pool.
+         */
+        private int entry(final String key, final int tag, final String utf8, final int ref1, final int ref2) {
+            final Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                poolOut.writeByte(tag);
+                if (utf8 != null) {
+                    poolOut.writeUTF(utf8);
+                } else {
+                    poolOut.writeShort(ref1);
+                    if (ref2 != 0) poolOut.writeShort(ref2);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);      // Should never happen with a ByteArrayOutputStream.
+            }
+            indexes.put(key, poolCount);
+            return poolCount++;
+        }
+
+        /**
+         * Returns the constant pool index of the given UTF-8 string.
+         *
+         * @param  value  the string.
+         * @return index of the entry.
+         */
+        private int utf8(final String value) {
+            return entry("U" + value, UTF8, value, 0, 0);
+        }
+
+        /**
+         * Returns the constant pool index of a reference to the given class.
+         *
+         * @param  internalName  internal name of the class.
+         * @return index of the entry.
+         */
+        private int classRef(final String internalName) {
+            return entry("C" + internalName, CLASS, null, utf8(internalName), 0);
+        }
+
+        /**
+         * Returns the constant pool index of the given string constant.
+         *
+         * @param  value  the string.
+         * @return index of the entry.
+         */
+        private int string(final String value) {
+            return entry("S" + value, STRING, null, utf8(value), 0);
+        }
+
+        /**
+         * Returns the constant pool index of a field or method reference.
+         *
+         * @param  tag         {@link #FIELD} or {@link #METHOD}.
+         * @param  owner       internal name of the class declaring the member.
+         * @param  member      name of the member.
+         * @param  descriptor  descriptor of the member.
+         * @return index of the entry.
+         */
+        private int memberRef(final int tag, final String owner, final String member, final String descriptor) {
+            final int nameAndType = entry("N" + member + ' ' + descriptor, NAME_AND_TYPE, null,
+                                          utf8(member), utf8(descriptor));
+            return entry(tag + owner + '.' + member + ' ' + descriptor, tag, null, classRef(owner), nameAndType);
+        }
+
+        /**
+         * Adds a private final field.
+         *
+         * @param field       name of the field.
+         * @param descriptor  descriptor of the field type.
+         */
+        void field(final String field, final String descriptor) {
+            final var out = new DataOutputStream(fields);
+            try {
+                out.writeShort(PRIVATE | FINAL);
+                out.writeShort(utf8(field));
+                out.writeShort(utf8(descriptor));
+                out.writeShort(0);                      // No attribute.
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fieldCount++;
+        }
+
+        /**
+         * Adds a public method with the given code.
+         *
+         * @param method      name of the method.
+         * @param descriptor  descriptor of the method.
+         * @param maxStack    maximal depth of the operand stack.
+         * @param maxLocals   number of local variables, including parameters.
+         * @param code        the byte code.
+         */
+        private void method(final String method, final String descriptor, final int maxStack, final int maxLocals,
+                            final ByteArrayOutputStream code)
+        {
+            final var out = new DataOutputStream(methods);
+            try {
+                out.writeShort(PUBLIC);
+                out.writeShort(utf8(method));
+                out.writeShort(utf8(descriptor));
+                out.writeShort(1);                      // One attribute: Code.
+                out.writeShort(utf8("Code"));
+                out.writeInt(12 + code.size());
+                out.writeShort(maxStack);
+                out.writeShort(maxLocals);
+                out.writeInt(code.size());
+                code.writeTo(out);
+                out.writeShort(0);                      // No exception table.
+                out.writeShort(0);                      // No attribute.
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            methodCount++;
+        }
+
+        /**
+         * Writes an instruction with a 16 bits operand.
+         *
+         * @param code     where to write the instruction.
+         * @param opcode   the instruction.
+         * @param operand  the operand.
+         */
+        private static void write(final ByteArrayOutputStream code, final int opcode, final int operand) {
+            code.write(opcode);
+            code.write(operand >>> 8);
+            code.write(operand);
+        }
+
+        /**
+         * Adds the constructor, which invokes the super-class constructor with the interface and the attributes,
+         * then assigns the fields from the elements of the array of values. Values are cast to the field types,
+         * and unboxed if the field type is primitive.
+         *
+         * @param fieldTypes  types of the fields in the order of the array of values.
+         */
+        void constructor(final Class<?>[] fieldTypes) {
+            final var code = new ByteArrayOutputStream();
+            code.write(ALOAD_0);
+            code.write(ALOAD_1);
+            code.write(ALOAD_2);
+            write(code, INVOKESPECIAL, memberRef(METHOD, SUPER_CLASS, "<init>", "(Ljava/lang/Class;Ljava/util/Map;)V"));
+            for (int i=0; i<fieldTypes.length; i++) {
+                final Class<?> type = fieldTypes[i];
+                code.write(ALOAD_0);
+                code.write(ALOAD_3);
+                if (i <= 5) {
+                    code.write(ICONST_0 + i);
+                } else if (i <= Byte.MAX_VALUE) {
+                    code.write(BIPUSH);
+                    code.write(i);
+                } else {
+                    write(code, SIPUSH, i);
+                }
+                code.write(AALOAD);
+                if (type.isPrimitive()) {
+                    final String box = internalName(wrapper(type));
+                    write(code, CHECKCAST, classRef(box));
+                    write(code, INVOKEVIRTUAL, memberRef(METHOD, box, type.getName() + "Value", "()" + descriptor(type)));
+                } else if (type != Object.class) {
+                    write(code, CHECKCAST, classRef(internalName(type)));
+                }
+                write(code, PUTFIELD, memberRef(FIELD, name, "f" + i, descriptor(type)));
+            }
+            code.write(RETURN);
+            method("<init>", CONSTRUCTOR, 3, 4, code);
+        }
+
+        /**
+         * Adds a getter method returning the value of the given field.
+         *
+         * @param method     the interface method to implement.
+         * @param field      name of the field.
+         * @param fieldType  type of the field.
+         */
+        void getter(final Method method, final String field, final Class<?> fieldType) {
+            final Class<?> type = method.getReturnType();
+            final var code = new ByteArrayOutputStream();
+            code.write(ALOAD_0);
+            write(code, GETFIELD, memberRef(FIELD, name, field, descriptor(fieldType)));
+            if (!type.isPrimitive() && !type.isAssignableFrom(fieldType)) {
+                write(code, CHECKCAST, classRef(internalName(type)));
+            }
+            final int opcode;
+            if (!type.isPrimitive())       opcode = ARETURN;
+            else if (type == long.class)   opcode = LRETURN;
+            else if (type == float.class)  opcode = FRETURN;
+            else if (type == double.class) opcode = DRETURN;
+            else                           opcode = IRETURN;
+            code.write(opcode);
+            method(method.getName(), descriptor(method), 2, 1, code);
+        }
+
+        /**
+         * Adds a method throwing {@link UnsupportedOperationException}.
+         *
+         * @param method  the interface method to implement.
+         */
+        void unsupported(final Method method) {
+            int maxLocals = 1;
+            for (final Class<?> p : method.getParameterTypes()) {
+                maxLocals += (p == long.class || p == double.class) ? 2 : 1;
+            }
+            final var code = new ByteArrayOutputStream();
+            write(code, LDC_W, string(method.getName()));
+            write(code, INVOKESTATIC, memberRef(METHOD, SUPER_CLASS, "unsupported", "(Ljava/lang/String;)Ljava/lang/RuntimeException;"));
+            code.write(ATHROW);
+            method(method.getName(), descriptor(method), 1, maxLocals, code);
+        }
+
+        /**
+         * Returns the class file.
+         *
+         * @return the bytes of the class file.
+         */
+        byte[] toByteArray() {
+            final int superClass = classRef(SUPER_CLASS);
+            final var bytes = new ByteArrayOutputStream();
+            final var out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);                      // Minor version.
+                out.writeShort(55);                     // Major version: Java 11.
+                out.writeShort(poolCount);
+                pool.writeTo(out);
+                out.writeShort(FINAL | SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);                      // Number of interfaces.
+                out.writeShort(anInterface);
+                out.writeShort(fieldCount);
+                fields.writeTo(out);
+                out.writeShort(methodCount);
+                methods.writeTo(out);
+                out.writeShort(0);                      // No attribute.
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
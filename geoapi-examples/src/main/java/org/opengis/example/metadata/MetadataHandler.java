@@ -8,6 +8,7 @@ package org.opengis.example.metadata;
 import java.util.Map;
 import java.util.Set;
 import java.util.List;
+import java.util.HashMap;
 import java.util.Collections;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Method;
@@ -30,6 +31,123 @@ final class MetadataHandler implements InvocationHandler {
      */
     private final Map<String,?> attributes;
 
+    /**
+     * The actions to execute for each method of the {@linkplain #type} interface.
+     * This is the table cached in {@link #DISPATCH} for the interface.
+     */
+    private final Map<Method,Action> actions;
+
+    /**
+     * The tables of actions for each metadata interface, computed when first needed.
+     */
+    private static final DispatchTable DISPATCH = new DispatchTable();
+
+    /**
+     * Kinds of action to execute when a method is invoked.
+     */
+    private enum Kind {
+        /** Returns the value of an attribute, or a default value. */
+        PROPERTY,
+
+        /** Delegates to {@link MetadataHandler#equals(Object)}. */
+        EQUALS,
+
+        /** Delegates to {@link MetadataHandler#hashCode()}. */
+        HASH_CODE,
+
+        /** Delegates to {@link MetadataHandler#toString()}. */
+        TO_STRING,
+
+        /** Throws {@link UnsupportedOperationException}. */
+        UNSUPPORTED
+    }
+
+    /**
+     * The action to execute when a method is invoked, resolved once per method.
+     */
+    private static final class Action {
+        /** The kind of action. */
+        final Kind kind;
+
+        /** The UML identifier for {@link Kind#PROPERTY}, or the exception message for {@link Kind#UNSUPPORTED}. */
+        final String key;
+
+        /** The value to return for {@link Kind#PROPERTY} when the attribute is absent. */
+        final Object defaultValue;
+
+        /**
+         * Resolves the action for the given method.
+         *
+         * @param method  the method for which to resolve the action.
+         */
+        Action(final Method method) {
+            Object value = null;
+            if (method.getParameterCount() != 0) {
+                if (method.getParameterCount() == 1 && method.getName().equals("equals")) {
+                    kind = Kind.EQUALS;
+                    key  = null;
+                } else {
+                    kind = Kind.UNSUPPORTED;
+                    key  = String.valueOf(method);
+                }
+            } else {
+                final UML uml = method.getAnnotation(UML.class);
+                if (uml != null) {
+                    kind  = Kind.PROPERTY;
+                    key   = uml.identifier();
+                    value = defaultValue(method.getReturnType());
+                } else {
+                    final String name = method.getName();
+                    switch (name) {
+                        case "toString": kind = Kind.TO_STRING; key = null; break;
+                        case "hashCode": kind = Kind.HASH_CODE; key = null; break;
+                        default: kind = Kind.UNSUPPORTED; key = "Unknown method: " + name + "()"; break;
+                    }
+                }
+            }
+            defaultValue = value;
+        }
+    }
+
+    /**
+     * Computes, for a metadata interface, the actions to execute for all methods
+     * which can be invoked on a proxy implementing that interface.
+     */
+    private static final class DispatchTable extends ClassValue<Map<Method,Action>> {
+        /**
+         * Creates the unique instance.
+         */
+        DispatchTable() {
+        }
+
+        /**
+         * Computes the actions for all public methods of the given interface,
+         * together with the {@link Object} methods redirected by proxies.
+         *
+         * @param  type  the metadata interface.
+         * @return the actions for all methods of the given interface.
+         */
+        @Override
+        protected Map<Method,Action> computeValue(final Class<?> type) {
+            final var actions = new HashMap<Method,Action>();
+            for (final Method method : type.getMethods()) {
+                actions.put(method, new Action(method));
+            }
+            try {
+                for (final Method method : new Method[] {
+                        Object.class.getMethod("equals", Object.class),
+                        Object.class.getMethod("hashCode"),
+                        Object.class.getMethod("toString")})
+                {
+                    actions.put(method, new Action(method));
+                }
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError(e);        // Should never happen.
+            }
+            return Collections.unmodifiableMap(actions);
+        }
+    }
+
     /**
      * Creates a new handler for the given GeoAPI interface,
      * which will returns the values of the given map.
@@ -40,12 +158,14 @@ final class MetadataHandler implements InvocationHandler {
     MetadataHandler(final Class<?> type, final Map<String,?> attributes) {
         this.type = type;
         this.attributes = attributes;
+        this.actions = DISPATCH.get(type);
     }
 
     /**
      * Invoked when a method from a GeoAPI interface has been invoked. This {@code invoke}
      * method searches for a value in the {@link #attributes} map for the UML identifier of
-     * the invoked method.
+     * the invoked method. The UML identifier and the default value are resolved only once
+     * per method and cached for each metadata interface.
      *
      * <p>The {@code equals(Object)}, {@code hashCode()} and {@code toString()} methods are handled
      * in a special way: they are delegated to the corresponding method of this handler.</p>
@@ -61,44 +181,51 @@ final class MetadataHandler implements InvocationHandler {
     public Object invoke(final Object proxy, final Method method, final Object[] args)
             throws UnsupportedOperationException
     {
-        if (args != null) {
-            if (args.length == 1 && method.getName().equals("equals")) {
-                return equals(args[0]);
+        Action action = actions.get(method);
+        if (action == null) {
+            action = new Action(method);        // Should not happen with proxies of the handled interface.
+        }
+        switch (action.kind) {
+            case PROPERTY: {
+                final Object value = attributes.get(action.key);
+                return (value != null) ? value : action.defaultValue;
             }
-            throw new UnsupportedOperationException(String.valueOf(method));
+            case EQUALS:    return equals(args[0]);
+            case HASH_CODE: return hashCode();
+            case TO_STRING: return toString();
+            default: throw new UnsupportedOperationException(action.key);
         }
-        final UML uml = method.getAnnotation(UML.class);
-        if (uml != null) {
-            Object value = attributes.get(uml.identifier());
-            if (value == null) {
-                final Class<?> rt = method.getReturnType();
-                if (rt.isPrimitive()) {
-                    // We cannot return null value for primitive types, so default to NaN or 0.
-                    // Note: we ignore the name clash between "byte" and "boolean" because the
-                    // current GeoAPI interfaces for ISO 19115 don't have byte return values.
-                    switch (rt.getName().charAt(0)) {
-                        case 'b': value = Boolean.FALSE; break;
-                        case 'd': value = Double .NaN;   break;
-                        case 'f': value = Float  .NaN;   break;
-                        case 'l': value =         0L;    break;
-                        case 'i': value =         0;     break;
-                        case 's': value = (short) 0;     break;
-                        case 'c': value = (char)  0;     break;
-                    }
-                } else {
-                    // While it is technically possible to return null collection,
-                    // the common practice is to return an empty one instead.
-                    if (rt.isAssignableFrom(List.class)) value = Collections.emptyList(); else
-                    if (rt.isAssignableFrom(Set .class)) value = Collections.emptySet();  else
-                    if (rt.isAssignableFrom(Map .class)) value = Collections.emptyMap();
-                }
+    }
+
+    /**
+     * Returns the value to return for a property of the given type when the attribute is absent.
+     * This is NaN or 0 for primitive types, and an empty collection for collection types.
+     *
+     * @param  rt  the return type of the getter method.
+     * @return the default value for the given type, or {@code null} if none.
+     */
+    static Object defaultValue(final Class<?> rt) {
+        if (rt.isPrimitive()) {
+            // We cannot return null value for primitive types, so default to NaN or 0.
+            // Note: we ignore the name clash between "byte" and "boolean" because the
+            // current GeoAPI interfaces for ISO 19115 don't have byte return values.
+            switch (rt.getName().charAt(0)) {
+                case 'b': return Boolean.FALSE;
+                case 'd': return Double .NaN;
+                case 'f': return Float  .NaN;
+                case 'l': return         0L;
+                case 'i': return         0;
+                case 's': return (short) 0;
+                case 'c': return (char)  0;
             }
-            return value;
+        } else {
+            // While it is technically possible to return null collection,
+            // the common practice is to return an empty one instead.
+            if (rt.isAssignableFrom(List.class)) return Collections.emptyList();
+            if (rt.isAssignableFrom(Set .class)) return Collections.emptySet();
+            if (rt.isAssignableFrom(Map .class)) return Collections.emptyMap();
         }
-        final String name = method.getName();
-        if (name.equals("toString")) return toString();
-        if (name.equals("hashCode")) return hashCode();
-        throw new UnsupportedOperationException("Unknown method: " + name + "()");
+        return null;
     }
 
     /**
@@ -56,4 +56,31 @@ public class MetadataProxyFactory {
         return type.cast(Proxy.newProxyInstance(MetadataProxyFactory.class.getClassLoader(),
                 new Class<?>[] {type}, new MetadataHandler(type, attributes)));
     }
+
+    /**
+     * Creates an immutable implementation of the given metadata interface with the values in the given map.
+     * Contrarily to {@link #create(Class, Map)}, the returned object is not a proxy. It is an instance of a
+     * class generated at runtime with one field per {@linkplain UML UML property} of the interface,
+     * and getter methods returning the field values without reflection or map lookup.
+     * The class is generated the first time that an interface is requested, then reused.
+     *
+     * <p>The attribute values are copied at creation time: changes in the given map after this method call
+     * are not reflected in the returned object. Absent attributes are replaced by the same default values
+     * as {@link #create(Class, Map)}, for example empty collections.</p>
+     *
+     * @param  <T>         the compile-time type of the {@code type} argument.
+     * @param  type        the metadata interface for which to get an instance.
+     * @param  attributes  the attribute values to give to the metadata instance.
+     * @return a metadata object with the values of the given map.
+     * @throws IllegalArgumentException if the given type is not an interface
+     *         from the GeoAPI metadata package.
+     * @throws ClassCastException if an attribute value is not assignable to the return type of its getter.
+     */
+    public <T> T createImmutable(final Class<T> type, final Map<String,?> attributes) throws IllegalArgumentException {
+        if (!type.isInterface() || !type.getName().startsWith("org.opengis.metadata.")) {
+            throw new IllegalArgumentException("Illegal type: " + type);
+        }
+        Objects.requireNonNull(attributes);
+        return type.cast(MetadataClassGenerator.INSTANCE.get(type).newInstance(type, attributes));
+    }
 }
@@ -10,7 +10,8 @@
  * package and sub-packages with minimal effort using {@link java.lang.reflect.Proxy}.
  * This implementation stores the metadata values in {@link java.util.Map} objects, but the same
  * strategy can also be applied on a wide variety of storage mechanisms like JDBC connection or a
- * LDAP protocol.
+ * LDAP protocol. For immutable metadata read many times, the factory can also generate at runtime
+ * a class with one field per property, which avoids the reflection cost of proxies.
  *
  * <p>In addition to the proxy classes, this package provides an explicit implementation of the
  * {@link org.opengis.metadata.citation.Citation} interface because it is widely used by the
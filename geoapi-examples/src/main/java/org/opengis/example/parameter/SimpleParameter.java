@@ -6,8 +6,11 @@
 package org.opengis.example.parameter;
 
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.measure.Unit;
+import javax.measure.UnitConverter;
 import javax.measure.IncommensurableException;
 import tech.uom.seshat.Units;
 
@@ -34,7 +37,8 @@ import org.opengis.example.referencing.SimpleIdentifiedObject;
  * units (metres, decimal degrees or dimensionless) and we care only about descriptor properties
  * ({@linkplain #getMinimumValue() minimum}, {@linkplain #getMaximumValue() maximum}, <i>etc.</i>)
  * determined by our own {@link Type} enumeration. The only mutable property in this class is the
- * numerical {@linkplain #value}.</p>
+ * numerical {@linkplain #value}, which is stored as a primitive {@code double}. The {@code double}
+ * and {@code int} getters and setters do not box the value, and unit converters are cached.</p>
  *
  * <p>The most interesting methods in this class are:</p>
  * <ul>
@@ -91,6 +95,12 @@ public class SimpleParameter extends SimpleIdentifiedObject
         /** Value to be returned by {@link SimpleParameter}. */
         final Double minimum, maximum;
 
+        /** Converters from {@link #unit} to other units, created when first needed. */
+        private final Map<Unit<?>, UnitConverter> toUnits;
+
+        /** Converters from other units to {@link #unit}, created when first needed. */
+        private final Map<Unit<?>, UnitConverter> fromUnits;
+
         /**
          * Creates a new enum with the given unit of measurement and range of values.
          *
@@ -102,6 +112,41 @@ public class SimpleParameter extends SimpleIdentifiedObject
             this.unit    = unit;
             this.minimum = minimum;
             this.maximum = maximum;
+            toUnits      = new ConcurrentHashMap<>();
+            fromUnits    = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns the converter from the unit of this type to the given unit.
+         * Converters are cached, since parameter values are often requested many times in the same units.
+         *
+         * @param  target  the unit of the values to return.
+         * @return the converter from {@link #unit} to the given unit.
+         * @throws IncommensurableException if the given unit is not compatible with the unit of this type.
+         */
+        final UnitConverter converterTo(final Unit<?> target) throws IncommensurableException {
+            UnitConverter c = toUnits.get(target);
+            if (c == null) {
+                c = unit.getConverterToAny(target);
+                toUnits.putIfAbsent(target, c);
+            }
+            return c;
+        }
+
+        /**
+         * Returns the converter from the given unit to the unit of this type.
+         *
+         * @param  source  the unit of the values given by the user.
+         * @return the converter from the given unit to {@link #unit}.
+         * @throws IncommensurableException if the given unit is not compatible with the unit of this type.
+         */
+        final UnitConverter converterFrom(final Unit<?> source) throws IncommensurableException {
+            UnitConverter c = fromUnits.get(source);
+            if (c == null) {
+                c = source.getConverterToAny(unit);
+                fromUnits.putIfAbsent(source, c);
+            }
+            return c;
         }
     }
 
@@ -252,7 +297,8 @@ public class SimpleParameter extends SimpleIdentifiedObject
 
     /**
      * Returns the numeric value of the operation parameter in the specified unit of measure.
-     * This convenience method applies unit conversion on the fly as needed.
+     * This convenience method applies unit conversion on the fly as needed,
+     * using a converter cached by the parameter {@linkplain #type}.
      *
      * @param  unit  the unit of measure for the value to be returned.
      * @return the numeric value represented by this parameter after conversion to {@code unit}.
@@ -264,8 +310,11 @@ public class SimpleParameter extends SimpleIdentifiedObject
         if (type == null) {
             throw new IllegalStateException("No unit for parameter " + code + '.');
         }
+        if (unit == type.unit) {
+            return value;
+        }
         try {
-            return type.unit.getConverterToAny(unit).convert(value);
+            return type.converterTo(unit).convert(value);
         } catch (IncommensurableException e) {
             throw new IllegalArgumentException(e);
         }
@@ -415,7 +464,8 @@ public class SimpleParameter extends SimpleIdentifiedObject
     /**
      * Sets the parameter to the given value and its associated unit.
      * The default implementation converts the given value to the {@linkplain #getUnit()
-     * units associated to this parameter}, then delegates to {@link #setValue(double)}.
+     * units associated to this parameter} with a cached converter, then delegates to
+     * {@link #setValue(double)}.
      *
      * @param  value  the parameter value.
      * @param  unit   the unit for the specified value.
@@ -426,8 +476,12 @@ public class SimpleParameter extends SimpleIdentifiedObject
         if (type == null) {
             throw new InvalidParameterValueException("No unit expected for parameter " + code, code, unit);
         }
+        if (unit == type.unit) {
+            setValue(value);
+            return;
+        }
         try {
-            setValue(unit.getConverterToAny(type.unit).convert(value));
+            setValue(type.converterFrom(unit).convert(value));
         } catch (IncommensurableException e) {
             throw new InvalidParameterValueException(e.getLocalizedMessage(), code, unit);
         }
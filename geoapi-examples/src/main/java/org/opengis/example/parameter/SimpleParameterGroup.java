@@ -5,8 +5,12 @@
  */
 package org.opengis.example.parameter;
 
+import java.util.Map;
 import java.util.List;
+import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 import java.util.Arrays;
 import java.util.Collections;
 import java.lang.reflect.Field;
@@ -21,6 +25,7 @@ import org.opengis.parameter.ParameterValue;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.parameter.ParameterNotFoundException;
 import org.opengis.example.referencing.SimpleIdentifiedObject;
+import org.opengis.util.GenericName;
 import org.opengis.util.InternationalString;
 
 
@@ -36,6 +41,11 @@ import org.opengis.util.InternationalString;
  *   <li>{@link #getName()}, for the name of this parameter group</li>
  *   <li>{@link #parameter(String)}, for getting a parameter of the given name.</li>
  * </ul>
+ *
+ * <p>Parameters are searched in a case-insensitive index of their names, aliases and identifiers.
+ * The index is built at construction time and rebuilt when the {@linkplain #parameters} list is modified.
+ * Since the index is immutable and published in a single volatile field, concurrent lookups are safe
+ * as long as the list is not modified at the same time.</p>
  */
 public class SimpleParameterGroup extends SimpleIdentifiedObject
         implements ParameterValueGroup, ParameterDescriptorGroup, Cloneable
@@ -51,6 +61,14 @@ public class SimpleParameterGroup extends SimpleIdentifiedObject
      */
     protected final List<SimpleParameter> parameters;
 
+    /**
+     * The parameters indexed by their names, aliases and identifiers ignoring case.
+     * A new index is assigned after each modification of the {@linkplain #parameters} list.
+     *
+     * @see #index()
+     */
+    private volatile Index index;
+
     /**
      * An unmodifiable view over the {@linkplain #parameters} list. This view is
      * returned by the {@link #descriptors()} and {@link #values()} methods. We
@@ -67,8 +85,157 @@ public class SimpleParameterGroup extends SimpleIdentifiedObject
      */
     public SimpleParameterGroup(final Citation authority, final String name, final SimpleParameter... param) {
         super(authority, name);
-        parameters = new ArrayList<>(Arrays.asList(param));
+        parameters = new Parameters(new ArrayList<>(Arrays.asList(param)));
         unmodifiable = Collections.unmodifiableList(parameters);
+        index();
+    }
+
+    /**
+     * An immutable index of parameters. The two maps are built together and never modified after construction,
+     * so a thread reading the {@link SimpleParameterGroup#index} field always sees consistent maps.
+     */
+    private static final class Index {
+        /** The parameters indexed by their {@linkplain Identifier#getCode() name code} ignoring case. */
+        final Map<String,SimpleParameter> byName;
+
+        /**
+         * The parameters indexed by their aliases and identifiers ignoring case.
+         * This index is consulted only if no parameter was found in the {@link #byName} index.
+         */
+        final Map<String,SimpleParameter> byAlias;
+
+        /**
+         * Builds the index for the given parameters.
+         *
+         * @param  parameters  the parameters to index.
+         */
+        Index(final List<SimpleParameter> parameters) {
+            byName  = new HashMap<>();
+            byAlias = new HashMap<>();
+            for (final SimpleParameter param : parameters) {
+                register(param, byName, byAlias);
+            }
+        }
+    }
+
+    /**
+     * The list of parameters, which updates the index of the enclosing group on modifications.
+     * All modifications performed by {@link AbstractList} methods, including through iterators
+     * and sub-lists, are delegated to the {@code set}, {@code add} and {@code remove} methods.
+     */
+    private final class Parameters extends AbstractList<SimpleParameter> implements RandomAccess {
+        /** The parameters in this list. */
+        private final List<SimpleParameter> elements;
+
+        /**
+         * Creates a new list wrapping the given elements.
+         *
+         * @param  elements  the parameters (<strong>not</strong> cloned).
+         */
+        Parameters(final List<SimpleParameter> elements) {
+            this.elements = elements;
+        }
+
+        /** Returns the number of parameters. */
+        @Override public int size() {
+            return elements.size();
+        }
+
+        /** Returns the parameter at the given index. */
+        @Override public SimpleParameter get(final int index) {
+            return elements.get(index);
+        }
+
+        /** Replaces the parameter at the given index and rebuilds the index. */
+        @Override public SimpleParameter set(final int index, final SimpleParameter element) {
+            final SimpleParameter old = elements.set(index, element);
+            index();
+            return old;
+        }
+
+        /** Adds a parameter at the given index and rebuilds the index. */
+        @Override public void add(final int index, final SimpleParameter element) {
+            elements.add(index, element);
+            modCount++;
+            index();
+        }
+
+        /** Removes the parameter at the given index and rebuilds the index. */
+        @Override public SimpleParameter remove(final int index) {
+            final SimpleParameter old = elements.remove(index);
+            modCount++;
+            index();
+            return old;
+        }
+    }
+
+    /**
+     * Returns the key to use in the index for the given name, alias or identifier. Two names have the same key
+     * if and only if they are {@linkplain String#equalsIgnoreCase(String) equal, ignoring case}. This is achieved
+     * by applying the same case conversions as {@code equalsIgnoreCase(String)} on each character.
+     *
+     * @param  name  the name, alias or identifier.
+     * @return the key to use for the given name.
+     */
+    private static String key(final String name) {
+        final char[] chars = name.toCharArray();
+        for (int i=0; i<chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Adds the name, aliases and identifiers of the given parameter in the given indexes.
+     * If a key is already used by a parameter added before, the previous parameter
+     * has precedence.
+     *
+     * @param  param    the parameter to add in the indexes.
+     * @param  byName   the index of parameters by name.
+     * @param  byAlias  the index of parameters by alias and identifier.
+     */
+    private static void register(final SimpleParameter param,
+            final Map<String,SimpleParameter> byName, final Map<String,SimpleParameter> byAlias)
+    {
+        byName.putIfAbsent(key(param.getName().getCode()), param);
+        for (final GenericName alias : param.getAlias()) {
+            byAlias.putIfAbsent(key(alias.toString()), param);
+            byAlias.putIfAbsent(key(alias.tip().toString()), param);
+        }
+        for (final Identifier id : param.getIdentifiers()) {
+            final String codespace = id.getCodeSpace();
+            byAlias.putIfAbsent(key(id.getCode()), param);
+            if (codespace != null) {
+                byAlias.putIfAbsent(key(codespace + ':' + id.getCode()), param);
+            }
+        }
+    }
+
+    /**
+     * Builds a new index for the current {@linkplain #parameters} and publishes it.
+     */
+    private void index() {
+        index = new Index(parameters);
+    }
+
+    /**
+     * Returns the parameter for the given name, alias or identifier.
+     *
+     * @param  name  the case insensitive name, alias or identifier of the parameter to search for.
+     * @return the parameter for the given name.
+     * @throws ParameterNotFoundException if there is no parameter for the given name.
+     */
+    private SimpleParameter lookup(final String name) throws ParameterNotFoundException {
+        final Index index = this.index;                     // Read the volatile field only once.
+        final String key = key(name);
+        SimpleParameter param = index.byName.get(key);
+        if (param == null) {
+            param = index.byAlias.get(key);
+            if (param == null) {
+                throw new ParameterNotFoundException("No such parameter: " + name, name);
+            }
+        }
+        return param;
     }
 
     /**
@@ -141,19 +308,14 @@ public class SimpleParameterGroup extends SimpleIdentifiedObject
      * {@link #parameter(String)}.
      * However, more sophisticated libraries are likely to return a distinct object.</div>
      *
-     * @param  name  the case insensitive {@linkplain Identifier#getCode() identifier code}
-     *               of the parameter to search for.
+     * @param  name  the case insensitive {@linkplain Identifier#getCode() identifier code},
+     *               alias or identifier of the parameter to search for.
      * @return the parameter for the given identifier code.
      * @throws ParameterNotFoundException if there is no parameter for the given identifier code.
      */
     @Override
     public GeneralParameterDescriptor descriptor(final String name) throws ParameterNotFoundException {
-        for (final SimpleParameter candidate : parameters) {
-            if (name.equalsIgnoreCase(candidate.getName().getCode())) {
-                return candidate;
-            }
-        }
-        throw new ParameterNotFoundException("No such parameter: " + name, name);
+        return lookup(name);
     }
 
     /**
@@ -177,19 +339,14 @@ public class SimpleParameterGroup extends SimpleIdentifiedObject
      * essentially synonymous to {@link #descriptor(String)}. However, more sophisticated libraries
      * are likely to return a distinct object.</div>
      *
-     * @param  name  the case insensitive {@linkplain Identifier#getCode() identifier code}
-     *               of the parameter to search for.
+     * @param  name  the case insensitive {@linkplain Identifier#getCode() identifier code},
+     *               alias or identifier of the parameter to search for.
      * @return the parameter value for the given identifier code.
      * @throws ParameterNotFoundException if there is no parameter value for the given identifier code.
      */
     @Override
     public ParameterValue<?> parameter(final String name) throws ParameterNotFoundException {
-        for (final SimpleParameter candidate : parameters) {
-            if (name.equalsIgnoreCase(candidate.getName().getCode())) {
-                return candidate;
-            }
-        }
-        throw new ParameterNotFoundException("No such parameter: " + name, name);
+        return lookup(name);
     }
 
     /**
@@ -265,10 +422,12 @@ public class SimpleParameterGroup extends SimpleIdentifiedObject
             for (int i=copy.size(); --i>=0;) {
                 copy.set(i, copy.get(i).clone());
             }
+            final Parameters list = clone.new Parameters(copy);
             Field field = SimpleParameterGroup.class.getDeclaredField("parameters");
             field.setAccessible(true);
-            field.set(clone, copy);
-            unmodifiable = Collections.unmodifiableList(copy);
+            field.set(clone, list);
+            clone.unmodifiable = Collections.unmodifiableList(list);
+            clone.index();
         } catch (CloneNotSupportedException | ReflectiveOperationException e) {
             throw new AssertionError(e);                                            // Should never happen.
         }
@@ -0,0 +1,140 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * A {@link ProjectiveTransform} backed by a 4×4 matrix with a last row of [0 0 0 1].
+ * The matrix multiplication is unrolled in the {@code transform} methods expecting array arguments.
+ * This is the three-dimensional counterpart of {@link AffineTransform2D}.
+ *
+ * @see SimpleTransformFactory#createAffineTransform(org.opengis.referencing.operation.Matrix)
+ */
+final class AffineTransform3D extends ProjectiveTransform {
+    /**
+     * The matrix elements, excluding the last row.
+     */
+    private final double m00, m01, m02, m03,
+                         m10, m11, m12, m13,
+                         m20, m21, m22, m23;
+
+    /**
+     * Creates a new operation for the given name, CRS and matrix.
+     * The matrix shape is not verified by this constructor since it was
+     * already verified by {@link SimpleTransformFactory}.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new CRS.
+     * @param sourceCRS  the source CRS to be returned by {@link #getSourceCRS()}, or {@code null}.
+     * @param targetCRS  the target CRS to be returned by {@link #getTargetCRS()}, or {@code null}.
+     * @param matrix     a 4×4 matrix with a last row of [0 0 0 1].
+     */
+    AffineTransform3D(final Citation authority, final String name,
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final SimpleMatrix matrix)
+    {
+        super(authority, name, sourceCRS, targetCRS, matrix);
+        m00 = matrix.getElement(0,0); m01 = matrix.getElement(0,1); m02 = matrix.getElement(0,2); m03 = matrix.getElement(0,3);
+        m10 = matrix.getElement(1,0); m11 = matrix.getElement(1,1); m12 = matrix.getElement(1,2); m13 = matrix.getElement(1,3);
+        m20 = matrix.getElement(2,0); m21 = matrix.getElement(2,1); m22 = matrix.getElement(2,2); m23 = matrix.getElement(2,3);
+    }
+
+    /**
+     * Returns the increment to apply on array indices after each point, which is −3 if the
+     * points need to be processed in reverse order for avoiding to overwrite unread values.
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  numPts  number of coordinate tuples to transform.
+     * @return +3 for processing points in ascending order, or −3 for descending order.
+     */
+    private static int increment(final Object srcPts, final int srcOff, final Object dstPts, final int dstOff, final int numPts) {
+        if (srcPts == dstPts && iterationStrategy(srcOff, 3, dstOff, 3, numPts) == IterationStrategy.DESCENDING) {
+            return -3;
+        }
+        return +3;
+    }
+
+    /**
+     * Transforms a list of coordinate tuples using an unrolled matrix multiplication.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final int inc = increment(srcPts, srcOff, dstPts, dstOff, numPts);
+        if (inc < 0) {
+            srcOff += (numPts - 1) * 3;
+            dstOff += (numPts - 1) * 3;
+        }
+        while (--numPts >= 0) {
+            final double x = srcPts[srcOff  ];
+            final double y = srcPts[srcOff+1];
+            final double z = srcPts[srcOff+2];
+            dstPts[dstOff  ] = m00*x + m01*y + m02*z + m03;
+            dstPts[dstOff+1] = m10*x + m11*y + m12*z + m13;
+            dstPts[dstOff+2] = m20*x + m21*y + m22*z + m23;
+            srcOff += inc;
+            dstOff += inc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples using an unrolled matrix multiplication.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final int inc = increment(srcPts, srcOff, dstPts, dstOff, numPts);
+        if (inc < 0) {
+            srcOff += (numPts - 1) * 3;
+            dstOff += (numPts - 1) * 3;
+        }
+        while (--numPts >= 0) {
+            final double x = srcPts[srcOff  ];
+            final double y = srcPts[srcOff+1];
+            final double z = srcPts[srcOff+2];
+            dstPts[dstOff  ] = (float) (m00*x + m01*y + m02*z + m03);
+            dstPts[dstOff+1] = (float) (m10*x + m11*y + m12*z + m13);
+            dstPts[dstOff+2] = (float) (m20*x + m21*y + m22*z + m23);
+            srcOff += inc;
+            dstOff += inc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples using an unrolled matrix multiplication.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        while (--numPts >= 0) {
+            final double x = srcPts[srcOff++];
+            final double y = srcPts[srcOff++];
+            final double z = srcPts[srcOff++];
+            dstPts[dstOff++] = m00*x + m01*y + m02*z + m03;
+            dstPts[dstOff++] = m10*x + m11*y + m12*z + m13;
+            dstPts[dstOff++] = m20*x + m21*y + m22*z + m23;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples using an unrolled matrix multiplication.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        while (--numPts >= 0) {
+            final double x = srcPts[srcOff++];
+            final double y = srcPts[srcOff++];
+            final double z = srcPts[srcOff++];
+            dstPts[dstOff++] = (float) (m00*x + m01*y + m02*z + m03);
+            dstPts[dstOff++] = (float) (m10*x + m11*y + m12*z + m13);
+            dstPts[dstOff++] = (float) (m20*x + m21*y + m22*z + m23);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Arrays;
+
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * A sequence of {@link MathTransform} steps applied one after the other.
+ * Instances of this class are created by {@link SimpleTransformFactory#createConcatenatedTransform
+ * SimpleTransformFactory.createConcatenatedTransform(…)}, which fuses consecutive linear steps
+ * in a single matrix before to create this object. Consequently, steps are usually non-linear.
+ *
+ * <p>The {@code transform} methods expecting array arguments apply each step on a chunk of coordinate tuples
+ * stored in a temporary buffer, instead of applying all steps on each point. This allows each step to use
+ * its own optimized array-based implementation.</p>
+ */
+final class ConcatenatedTransform extends SimpleTransform {
+    /**
+     * Maximal number of coordinate values in the temporary buffer.
+     * Larger arrays are processed in many chunks of this size.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * The transforms to apply, in order. This array contains at least two elements.
+     */
+    private final MathTransform[] steps;
+
+    /**
+     * Maximal number of dimensions of intermediate results (excluding the source and target).
+     */
+    private final int maxDimension;
+
+    /**
+     * The inverse of this transform, computed when first needed.
+     */
+    private transient ConcatenatedTransform inverse;
+
+    /**
+     * Creates a new concatenated transform. Callers shall ensure that the number of
+     * target dimensions of each step is the number of source dimensions of next step.
+     *
+     * @param steps  the transforms to apply, in order. This array is not cloned.
+     */
+    ConcatenatedTransform(final MathTransform[] steps) {
+        super(SimpleTransformFactory.VENDOR, "Concatenated transform", null, null);
+        this.steps = steps;
+        int max = 0;
+        for (int i=0; i < steps.length - 1; i++) {
+            max = Math.max(max, steps[i].getTargetDimensions());
+        }
+        maxDimension = max;
+    }
+
+    /**
+     * Returns the number of source dimensions, which is the number of source dimensions of the first step.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return steps[0].getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of target dimensions, which is the number of target dimensions of the last step.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return steps[steps.length - 1].getTargetDimensions();
+    }
+
+    /**
+     * Returns the number of points that can be transformed in each chunk.
+     *
+     * @param  numPts  total number of points to transform.
+     * @return number of points in a chunk.
+     */
+    private int chunkSize(final int numPts) {
+        return Math.max(1, Math.min(numPts, BUFFER_LENGTH / Math.max(1, maxDimension)));
+    }
+
+    /**
+     * Returns {@code true} if the source array needs to be copied before to be transformed
+     * in the same array. This is the case if writing a chunk of target coordinates may
+     * overwrite source coordinates of next chunk.
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  numPts  number of coordinate tuples to transform.
+     * @return whether the source coordinates need to be copied.
+     */
+    private boolean needsCopy(final Object srcPts, final int srcOff, final Object dstPts, final int dstOff, final int numPts) {
+        return srcPts == dstPts && ProjectiveTransform.iterationStrategy(srcOff, getSourceDimensions(),
+                dstOff, getTargetDimensions(), numPts) != ProjectiveTransform.IterationStrategy.ASCENDING;
+    }
+
+    /**
+     * Applies the intermediate steps (all steps except the first and last ones) in-place in the given buffer.
+     *
+     * @param  buffer  the buffer containing the output of the first step.
+     * @param  n       number of points in the buffer.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    private void transformIntermediate(final double[] buffer, final int n) throws TransformException {
+        for (int i=1; i < steps.length - 1; i++) {
+            steps[i].transform(buffer, 0, buffer, 0, n);
+        }
+    }
+
+    /**
+     * Transforms the given point by applying each step in sequence.
+     */
+    @Override
+    public DirectPosition transform(DirectPosition ptSrc, final DirectPosition ptDst)
+            throws MismatchedDimensionException, TransformException
+    {
+        final int last = steps.length - 1;
+        for (int i=0; i<last; i++) {
+            ptSrc = steps[i].transform(ptSrc, null);
+        }
+        return steps[last].transform(ptSrc, ptDst);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying each step on chunks of coordinates.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (needsCopy(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+            srcOff = 0;
+        }
+        final MathTransform first = steps[0];
+        final MathTransform last  = steps[steps.length - 1];
+        final double[] buffer = new double[chunkSize(numPts) * maxDimension];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            first.transform(srcPts, srcOff, buffer, 0, n);
+            transformIntermediate(buffer, n);
+            last.transform(buffer, 0, dstPts, dstOff, n);
+            srcOff += n * srcDim;
+            dstOff += n * dstDim;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying each step on chunks of coordinates.
+     * Intermediate results are stored with {@code double} precision.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (needsCopy(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+            srcOff = 0;
+        }
+        final MathTransform first = steps[0];
+        final MathTransform last  = steps[steps.length - 1];
+        final double[] buffer = new double[chunkSize(numPts) * maxDimension];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            first.transform(srcPts, srcOff, buffer, 0, n);
+            transformIntermediate(buffer, n);
+            last.transform(buffer, 0, dstPts, dstOff, n);
+            srcOff += n * srcDim;
+            dstOff += n * dstDim;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying each step on chunks of coordinates.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final MathTransform first = steps[0];
+        final MathTransform last  = steps[steps.length - 1];
+        final double[] buffer = new double[chunkSize(numPts) * maxDimension];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            first.transform(srcPts, srcOff, buffer, 0, n);
+            transformIntermediate(buffer, n);
+            last.transform(buffer, 0, dstPts, dstOff, n);
+            srcOff += n * srcDim;
+            dstOff += n * dstDim;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying each step on chunks of coordinates.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final MathTransform first = steps[0];
+        final MathTransform last  = steps[steps.length - 1];
+        final double[] buffer = new double[chunkSize(numPts) * maxDimension];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            first.transform(srcPts, srcOff, buffer, 0, n);
+            transformIntermediate(buffer, n);
+            last.transform(buffer, 0, dstPts, dstOff, n);
+            srcOff += n * srcDim;
+            dstOff += n * dstDim;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. This is the product of the derivatives
+     * of all steps, each of them evaluated at the position computed by the previous step.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative cannot be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(DirectPosition point) throws TransformException {
+        SimpleMatrix product = null;
+        final int last = steps.length - 1;
+        for (int i=0; i<=last; i++) {
+            final MathTransform step = steps[i];
+            final Matrix d = step.derivative(point);
+            final SimpleMatrix m = (d instanceof SimpleMatrix) ? (SimpleMatrix) d : new SimpleMatrix(d);
+            if (product == null) {
+                product = m;
+            } else {
+                final var p = new SimpleMatrix(m.getNumRow(), product.getNumCol());
+                p.mul(m, product);
+                product = p;
+            }
+            if (i != last) {
+                point = step.transform(point, null);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Returns the concatenation of the inverse of all steps, in reverse order.
+     *
+     * @throws NoninvertibleTransformException if a step cannot be inverted.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            final var inv = new MathTransform[steps.length];
+            for (int i=0; i<inv.length; i++) {
+                inv[inv.length - 1 - i] = steps[i].inverse();
+            }
+            inverse = new ConcatenatedTransform(inv);
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code false} since the factory does not create concatenated transforms for identity operations.
+     */
+    @Override
+    public boolean isIdentity() {
+        return false;
+    }
+
+    /**
+     * Returns a copy of the steps, in order.
+     *
+     * @return the transforms applied by this concatenated transform.
+     */
+    MathTransform[] getSteps() {
+        return steps.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            return Arrays.equals(steps, ((ConcatenatedTransform) object).steps);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + 31 * Arrays.hashCode(steps);
+    }
+}
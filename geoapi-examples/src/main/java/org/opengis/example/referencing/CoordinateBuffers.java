@@ -0,0 +1,230 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Applies {@link MathTransform} on coordinates stored in {@link java.nio} buffers.
+ * The buffers can be wrappers around Java arrays, direct buffers allocated outside the Java heap,
+ * or views over memory-mapped files obtained by {@link java.nio.channels.FileChannel#map FileChannel.map(…)}
+ * followed by {@link java.nio.ByteBuffer#asDoubleBuffer()}.
+ *
+ * <p>Coordinates are interleaved: all coordinate values of a point are consecutive, and the first coordinates of
+ * two consecutive points are separated by a <i>stride</i>. The stride is at least the number of dimensions, but may
+ * be greater if other attributes (for example intensity or color in a point cloud) are stored between the points.
+ * Those other attributes are left unchanged.</p>
+ *
+ * <p>If the buffers are backed by accessible arrays and coordinates are packed (stride equals the number
+ * of dimensions), then the arrays are given directly to the {@code MathTransform}. Otherwise coordinates
+ * are copied by chunks in a small temporary array, which avoid copying the whole buffer content.</p>
+ *
+ * <p>The buffer positions and limits are not modified by the methods in this class.</p>
+ */
+public final class CoordinateBuffers {
+    /**
+     * Maximal number of coordinate values in the temporary array used for direct buffers.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private CoordinateBuffers() {
+    }
+
+    /**
+     * Ensures that the given stride is valid and that the buffer is large enough.
+     *
+     * @param  buffer     the buffer to verify.
+     * @param  stride     number of values between the first coordinates of two consecutive points.
+     * @param  dimension  number of dimensions of the points.
+     * @param  numPts     number of points to read or write.
+     * @param  target     {@code false} if the buffer is the source, or {@code true} if it is the target.
+     */
+    private static void ensureValid(final Buffer buffer, final int stride, final int dimension, final int numPts, final boolean target) {
+        if (stride < dimension) {
+            throw new IllegalArgumentException("Stride " + stride + " is less than the number of dimensions.");
+        }
+        if (numPts > 0 && (numPts - 1) * (long) stride + dimension > buffer.remaining()) {
+            throw target ? new BufferOverflowException() : new BufferUnderflowException();
+        }
+    }
+
+    /**
+     * Returns the number of points that can be read and written in the given buffer.
+     *
+     * @param  buffer     the buffer where coordinates are read and written.
+     * @param  stride     number of values between the first coordinates of two consecutive points.
+     * @param  transform  the transform which will be applied.
+     * @return number of points in the buffer.
+     */
+    private static int numPoints(final Buffer buffer, final int stride, final MathTransform transform) {
+        final int dimension = Math.max(transform.getSourceDimensions(), transform.getTargetDimensions());
+        final int remaining = buffer.remaining();
+        return (remaining >= dimension && stride > 0) ? (remaining - dimension) / stride + 1 : 0;
+    }
+
+    /**
+     * Transforms in-place all coordinates in the given buffer, from the current position to the limit.
+     * The stride shall be at least the maximum of the number of source and target dimensions.
+     *
+     * @param  transform  the transform to apply.
+     * @param  buffer     the buffer containing the coordinates to transform.
+     * @param  stride     number of values between the first coordinates of two consecutive points.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    public static void transform(final MathTransform transform, final DoubleBuffer buffer, final int stride)
+            throws TransformException
+    {
+        transform(transform, buffer, stride, buffer, stride, numPoints(buffer, stride, transform));
+    }
+
+    /**
+     * Transforms in-place all coordinates in the given buffer, from the current position to the limit.
+     * The stride shall be at least the maximum of the number of source and target dimensions.
+     *
+     * @param  transform  the transform to apply.
+     * @param  buffer     the buffer containing the coordinates to transform.
+     * @param  stride     number of values between the first coordinates of two consecutive points.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    public static void transform(final MathTransform transform, final FloatBuffer buffer, final int stride)
+            throws TransformException
+    {
+        transform(transform, buffer, stride, buffer, stride, numPoints(buffer, stride, transform));
+    }
+
+    /**
+     * Transforms coordinates read from the source buffer and writes the result in the target buffer.
+     * Coordinates are read starting at the source position and written starting at the target position.
+     * The two buffers may share the same memory only if they have the same position and stride.
+     *
+     * @param  transform  the transform to apply.
+     * @param  source     the buffer containing the coordinates to transform.
+     * @param  srcStride  number of values between the first coordinates of two consecutive source points.
+     * @param  target     the buffer where to write the transformed coordinates.
+     * @param  dstStride  number of values between the first coordinates of two consecutive target points.
+     * @param  numPts     number of points to transform.
+     * @throws BufferUnderflowException if the source buffer does not contain enough coordinates.
+     * @throws BufferOverflowException if the target buffer does not have enough space.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    public static void transform(final MathTransform transform,
+                                 final DoubleBuffer source, final int srcStride,
+                                 final DoubleBuffer target, final int dstStride,
+                                 int numPts) throws TransformException
+    {
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        ensureValid(source, srcStride, srcDim, numPts, false);
+        ensureValid(target, dstStride, dstDim, numPts, true);
+        if (numPts <= 0) {
+            return;
+        }
+        int srcPos = source.position();
+        int dstPos = target.position();
+        if (srcStride == srcDim && dstStride == dstDim && source.hasArray() && target.hasArray()) {
+            transform.transform(source.array(), source.arrayOffset() + srcPos,
+                                target.array(), target.arrayOffset() + dstPos, numPts);
+            return;
+        }
+        final DoubleBuffer src = source.duplicate();
+        final DoubleBuffer dst = target.duplicate();
+        final int chunk = Math.max(1, Math.min(numPts, BUFFER_LENGTH / Math.max(srcDim, dstDim)));
+        final double[] coordinates = new double[chunk * Math.max(srcDim, dstDim)];
+        while (numPts > 0) {
+            final int n = Math.min(chunk, numPts);
+            if (srcStride == srcDim) {
+                src.position(srcPos);
+                src.get(coordinates, 0, n * srcDim);
+            } else for (int i=0; i<n; i++) {
+                src.position(srcPos + i*srcStride);
+                src.get(coordinates, i*srcDim, srcDim);
+            }
+            transform.transform(coordinates, 0, coordinates, 0, n);
+            if (dstStride == dstDim) {
+                dst.position(dstPos);
+                dst.put(coordinates, 0, n * dstDim);
+            } else for (int i=0; i<n; i++) {
+                dst.position(dstPos + i*dstStride);
+                dst.put(coordinates, i*dstDim, dstDim);
+            }
+            srcPos += n * srcStride;
+            dstPos += n * dstStride;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms coordinates read from the source buffer and writes the result in the target buffer.
+     * Coordinates are read starting at the source position and written starting at the target position.
+     * The two buffers may share the same memory only if they have the same position and stride.
+     *
+     * @param  transform  the transform to apply.
+     * @param  source     the buffer containing the coordinates to transform.
+     * @param  srcStride  number of values between the first coordinates of two consecutive source points.
+     * @param  target     the buffer where to write the transformed coordinates.
+     * @param  dstStride  number of values between the first coordinates of two consecutive target points.
+     * @param  numPts     number of points to transform.
+     * @throws BufferUnderflowException if the source buffer does not contain enough coordinates.
+     * @throws BufferOverflowException if the target buffer does not have enough space.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    public static void transform(final MathTransform transform,
+                                 final FloatBuffer source, final int srcStride,
+                                 final FloatBuffer target, final int dstStride,
+                                 int numPts) throws TransformException
+    {
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        ensureValid(source, srcStride, srcDim, numPts, false);
+        ensureValid(target, dstStride, dstDim, numPts, true);
+        if (numPts <= 0) {
+            return;
+        }
+        int srcPos = source.position();
+        int dstPos = target.position();
+        if (srcStride == srcDim && dstStride == dstDim && source.hasArray() && target.hasArray()) {
+            transform.transform(source.array(), source.arrayOffset() + srcPos,
+                                target.array(), target.arrayOffset() + dstPos, numPts);
+            return;
+        }
+        final FloatBuffer src = source.duplicate();
+        final FloatBuffer dst = target.duplicate();
+        final int chunk = Math.max(1, Math.min(numPts, BUFFER_LENGTH / Math.max(srcDim, dstDim)));
+        final float[] coordinates = new float[chunk * Math.max(srcDim, dstDim)];
+        while (numPts > 0) {
+            final int n = Math.min(chunk, numPts);
+            if (srcStride == srcDim) {
+                src.position(srcPos);
+                src.get(coordinates, 0, n * srcDim);
+            } else for (int i=0; i<n; i++) {
+                src.position(srcPos + i*srcStride);
+                src.get(coordinates, i*srcDim, srcDim);
+            }
+            transform.transform(coordinates, 0, coordinates, 0, n);
+            if (dstStride == dstDim) {
+                dst.position(dstPos);
+                dst.put(coordinates, 0, n * dstDim);
+            } else for (int i=0; i<n; i++) {
+                dst.position(dstPos + i*dstStride);
+                dst.put(coordinates, i*dstDim, dstDim);
+            }
+            srcPos += n * srcStride;
+            dstPos += n * dstStride;
+            numPts -= n;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * A {@link ProjectiveTransform} backed by a square matrix where all non-zero elements are on the diagonal
+ * or in the translation column. This is the case of pure translations, pure scales (e.g. unit conversions)
+ * and combinations of both. Each coordinate is computed by a single multiply-add operation:
+ *
+ * <blockquote>
+ * <var>x′</var><sub>i</sub> = <var>x</var><sub>i</sub> × scale<sub>i</sub> + offset<sub>i</sub>
+ * </blockquote>
+ *
+ * The operation is applied independently on each array element. Consequently, the {@code transform}
+ * methods expecting array arguments can process the coordinates in a single loop without buffering.
+ *
+ * @see SimpleTransformFactory#createAffineTransform(org.opengis.referencing.operation.Matrix)
+ */
+final class DiagonalTransform extends ProjectiveTransform {
+    /**
+     * The scale factors, which are the matrix elements on the diagonal.
+     */
+    private final double[] scale;
+
+    /**
+     * The offsets, which are the matrix elements in the last column.
+     */
+    private final double[] offset;
+
+    /**
+     * Creates a new operation for the given name, CRS and diagonal matrix.
+     * The matrix shape is not verified by this constructor since it was
+     * already verified by {@link SimpleTransformFactory}.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new CRS.
+     * @param sourceCRS  the source CRS to be returned by {@link #getSourceCRS()}, or {@code null}.
+     * @param targetCRS  the target CRS to be returned by {@link #getTargetCRS()}, or {@code null}.
+     * @param matrix     a square affine matrix with non-zero elements only on the diagonal and last column.
+     */
+    DiagonalTransform(final Citation authority, final String name,
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final SimpleMatrix matrix)
+    {
+        super(authority, name, sourceCRS, targetCRS, matrix);
+        final int dimension = matrix.getNumRow() - 1;
+        scale  = new double[dimension];
+        offset = new double[dimension];
+        for (int i=0; i<dimension; i++) {
+            scale [i] = matrix.getElement(i, i);
+            offset[i] = matrix.getElement(i, dimension);
+        }
+    }
+
+    /**
+     * Returns whether the destination region starts inside the source region of the same array.
+     * In such case, the coordinates need to be processed in reverse order for avoiding to overwrite
+     * values that have not yet been read.
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  length  number of coordinate values to transform.
+     * @return whether coordinates shall be processed from last to first.
+     */
+    private static boolean descending(final Object srcPts, final int srcOff,
+            final Object dstPts, final int dstOff, final int length)
+    {
+        return srcPts == dstPts && dstOff > srcOff && dstOff < srcOff + length;
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dimension = scale.length;
+        if (descending(srcPts, srcOff, dstPts, dstOff, numPts * dimension)) {
+            srcOff += numPts * dimension;
+            dstOff += numPts * dimension;
+            while (--numPts >= 0) {
+                for (int i=dimension; --i >= 0;) {
+                    dstPts[--dstOff] = srcPts[--srcOff] * scale[i] + offset[i];
+                }
+            }
+        } else {
+            while (--numPts >= 0) {
+                for (int i=0; i<dimension; i++) {
+                    dstPts[dstOff++] = srcPts[srcOff++] * scale[i] + offset[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dimension = scale.length;
+        if (descending(srcPts, srcOff, dstPts, dstOff, numPts * dimension)) {
+            srcOff += numPts * dimension;
+            dstOff += numPts * dimension;
+            while (--numPts >= 0) {
+                for (int i=dimension; --i >= 0;) {
+                    dstPts[--dstOff] = (float) (srcPts[--srcOff] * scale[i] + offset[i]);
+                }
+            }
+        } else {
+            while (--numPts >= 0) {
+                for (int i=0; i<dimension; i++) {
+                    dstPts[dstOff++] = (float) (srcPts[srcOff++] * scale[i] + offset[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dimension = scale.length;
+        while (--numPts >= 0) {
+            for (int i=0; i<dimension; i++) {
+                dstPts[dstOff++] = srcPts[srcOff++] * scale[i] + offset[i];
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dimension = scale.length;
+        while (--numPts >= 0) {
+            for (int i=0; i<dimension; i++) {
+                dstPts[dstOff++] = (float) (srcPts[srcOff++] * scale[i] + offset[i]);
+            }
+        }
+    }
+}
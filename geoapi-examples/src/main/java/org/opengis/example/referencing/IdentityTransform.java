@@ -0,0 +1,75 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * A {@link ProjectiveTransform} backed by an identity matrix.
+ * The {@code transform} methods expecting array arguments only copy the coordinates.
+ *
+ * @see SimpleTransformFactory#createAffineTransform(org.opengis.referencing.operation.Matrix)
+ */
+final class IdentityTransform extends ProjectiveTransform {
+    /**
+     * Creates a new operation for the given name, CRS and identity matrix.
+     * The matrix shape is not verified by this constructor since it was
+     * already verified by {@link SimpleTransformFactory}.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new CRS.
+     * @param sourceCRS  the source CRS to be returned by {@link #getSourceCRS()}, or {@code null}.
+     * @param targetCRS  the target CRS to be returned by {@link #getTargetCRS()}, or {@code null}.
+     * @param matrix     the identity matrix.
+     */
+    IdentityTransform(final Citation authority, final String name,
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final SimpleMatrix matrix)
+    {
+        super(authority, name, sourceCRS, targetCRS, matrix);
+    }
+
+    /**
+     * Copies the given coordinates. Overlapping regions are handled by {@link System#arraycopy System.arraycopy(…)}.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts) {
+        System.arraycopy(srcPts, srcOff, dstPts, dstOff, numPts * getSourceDimensions());
+    }
+
+    /**
+     * Copies the given coordinates. Overlapping regions are handled by {@link System#arraycopy System.arraycopy(…)}.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, float[] dstPts, int dstOff, int numPts) {
+        System.arraycopy(srcPts, srcOff, dstPts, dstOff, numPts * getSourceDimensions());
+    }
+
+    /**
+     * Copies the given coordinates with a cast from {@code float} to {@code double}.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        int n = numPts * getSourceDimensions();
+        while (--n >= 0) {
+            dstPts[dstOff++] = srcPts[srcOff++];
+        }
+    }
+
+    /**
+     * Copies the given coordinates with a cast from {@code double} to {@code float}.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        int n = numPts * getSourceDimensions();
+        while (--n >= 0) {
+            dstPts[dstOff++] = (float) srcPts[srcOff++];
+        }
+    }
+}
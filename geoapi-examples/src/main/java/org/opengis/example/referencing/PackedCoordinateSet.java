@@ -0,0 +1,456 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.time.temporal.Temporal;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.coordinate.CoordinateSet;
+import org.opengis.coordinate.CoordinateMetadata;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * A set of coordinate tuples stored in a single array of primitive type.
+ * All coordinate values of a point are consecutive in the array, followed by the coordinates of the next point.
+ * This is the layout expected by the {@code transform} methods of {@link MathTransform} expecting array arguments.
+ * Consequently, the {@code coordinates} array of the {@link Double} and {@link Float} subclasses can be given
+ * directly to those methods, without copy.
+ *
+ * <p>For avoiding the creation of one object per point, the {@linkplain #iterator() iterator} and the
+ * {@linkplain #stream() stream} return the same {@link DirectPosition} instance for all points, with
+ * coordinates changed at each iteration step. That position is a view over the array: setting a coordinate
+ * value writes directly in the array. Callers who need to keep the position after an iteration step shall
+ * copy it, for example with {@link org.opengis.example.geometry.SimpleDirectPosition#SimpleDirectPosition(DirectPosition)}.
+ * In a parallel stream, each thread has its own position instance.</p>
+ */
+public abstract class PackedCoordinateSet implements CoordinateSet, CoordinateMetadata {
+    /**
+     * The <abbr>CRS</abbr> of the coordinate tuples.
+     *
+     * @see #getCoordinateReferenceSystem()
+     */
+    private final CoordinateReferenceSystem crs;
+
+    /**
+     * Date at which coordinate tuples are valid, or {@code null} if the CRS is not dynamic.
+     *
+     * @see #getCoordinateEpoch()
+     */
+    private final Temporal epoch;
+
+    /**
+     * Number of dimensions of each coordinate tuple.
+     *
+     * @see #getDimension()
+     */
+    private final int dimension;
+
+    /**
+     * Number of coordinate tuples.
+     *
+     * @see #size()
+     */
+    private final int size;
+
+    /**
+     * Creates a new coordinate set. This constructor is for the subclasses defined in this file only.
+     *
+     * @param  crs     the <abbr>CRS</abbr> of the coordinate tuples.
+     * @param  epoch   date at which coordinate tuples are valid, or {@code null} if the CRS is not dynamic.
+     * @param  length  length of the array of coordinate values.
+     * @throws IllegalArgumentException if the array length is not a multiple of the <abbr>CRS</abbr> dimension.
+     */
+    PackedCoordinateSet(final CoordinateReferenceSystem crs, final Temporal epoch, final int length) {
+        this.crs   = Objects.requireNonNull(crs, "Missing CRS.");
+        this.epoch = epoch;
+        dimension  = crs.getCoordinateSystem().getDimension();
+        if (length % dimension != 0) {
+            throw new IllegalArgumentException("Array length " + length + " is not a multiple of " + dimension + '.');
+        }
+        size = length / dimension;
+    }
+
+    /**
+     * Returns the coordinate metadata to which this coordinate set is referenced.
+     */
+    @Override
+    public CoordinateMetadata getCoordinateMetadata() {
+        return this;
+    }
+
+    /**
+     * Returns the <abbr>CRS</abbr> in which the coordinate tuples are given.
+     */
+    @Override
+    public CoordinateReferenceSystem getCoordinateReferenceSystem() {
+        return crs;
+    }
+
+    /**
+     * Returns the date at which coordinate tuples referenced to a dynamic <abbr>CRS</abbr> are valid.
+     */
+    @Override
+    public Optional<Temporal> getCoordinateEpoch() {
+        return Optional.ofNullable(epoch);
+    }
+
+    /**
+     * Returns the number of dimensions of coordinate tuples.
+     */
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of coordinate tuples in this set.
+     *
+     * @return number of coordinate tuples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the coordinate value at the given index in the array.
+     *
+     * @param  index  index in the array of coordinate values.
+     * @return coordinate value at the given index.
+     */
+    abstract double get(int index);
+
+    /**
+     * Sets the coordinate value at the given index in the array.
+     *
+     * @param  index  index in the array of coordinate values.
+     * @param  value  the new coordinate value.
+     */
+    abstract void set(int index, double value);
+
+    /**
+     * Transforms all coordinate tuples in a single call to a {@code transform} method expecting array arguments.
+     * The result is stored in a new coordinate set backed by an array of the same primitive type than this set.
+     *
+     * @param  operation  the coordinate operation to apply.
+     * @return the transformed coordinates.
+     * @throws TransformException if the coordinates cannot be transformed.
+     */
+    public abstract PackedCoordinateSet transform(CoordinateOperation operation) throws TransformException;
+
+    /**
+     * Returns the math transform of the given operation after verifying that the operation can be applied.
+     *
+     * @param  operation  the coordinate operation to apply.
+     * @return the math transform to apply on the coordinate tuples.
+     * @throws TransformException if the operation cannot be applied on this coordinate set.
+     */
+    final MathTransform getMathTransform(final CoordinateOperation operation) throws TransformException {
+        if (!crs.equals(operation.getSourceCRS())) {
+            throw new TransformException("Unexpected data CRS.");
+        }
+        if (!operation.getSourceEpoch().equals(getCoordinateEpoch())) {
+            throw new TransformException("Missing or unexpected data epoch.");
+        }
+        return operation.getMathTransform();
+    }
+
+    /**
+     * Returns an iterator over the coordinate tuples.
+     * The same {@code DirectPosition} instance is returned at each iteration step.
+     */
+    @Override
+    public Iterator<DirectPosition> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a spliterator over the coordinate tuples.
+     * The same {@code DirectPosition} instance is given to the action at each iteration step.
+     */
+    @Override
+    public Spliterator<DirectPosition> spliterator() {
+        return new Cursor(0, size);
+    }
+
+    /**
+     * Returns a sequential stream of coordinate tuples.
+     * The same {@code DirectPosition} instance is returned at each step in the same thread.
+     */
+    @Override
+    public Stream<DirectPosition> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * A view over the coordinates of one point in the array. The point is selected by {@link #offset}.
+     */
+    private final class Position implements DirectPosition {
+        /**
+         * Index of the first coordinate value of the current point in the array.
+         */
+        int offset;
+
+        /**
+         * Creates a new view positioned on the first point.
+         */
+        Position() {
+        }
+
+        /**
+         * Returns the <abbr>CRS</abbr> of the enclosing coordinate set.
+         */
+        @Override
+        public CoordinateReferenceSystem getCoordinateReferenceSystem() {
+            return crs;
+        }
+
+        /**
+         * Returns the number of dimensions of the enclosing coordinate set.
+         */
+        @Override
+        public int getDimension() {
+            return dimension;
+        }
+
+        /**
+         * Returns the coordinate value in the given dimension of the current point.
+         */
+        @Override
+        public double getCoordinate(final int i) {
+            return get(offset + Objects.checkIndex(i, dimension));
+        }
+
+        /**
+         * Sets the coordinate value in the given dimension of the current point.
+         * This method writes directly in the array of the enclosing coordinate set.
+         */
+        @Override
+        public void setCoordinate(final int i, final double value) {
+            set(offset + Objects.checkIndex(i, dimension), value);
+        }
+
+        /**
+         * Compares this position with the given object as documented in {@link DirectPosition#equals(Object)}.
+         */
+        @Override
+        public boolean equals(final Object object) {
+            if (object instanceof DirectPosition) {
+                final DirectPosition other = (DirectPosition) object;
+                return Arrays.equals(getCoordinates(), other.getCoordinates()) &&
+                       Objects.equals(crs, other.getCoordinateReferenceSystem());
+            }
+            return false;
+        }
+
+        /**
+         * Returns a hash code value as documented in {@link DirectPosition#hashCode()}.
+         */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(getCoordinates()) + Objects.hashCode(crs);
+        }
+
+        /**
+         * Returns a string representation of the current point in <i>Well-Known Text</i> (WKT) format.
+         */
+        @Override
+        public String toString() {
+            final StringBuilder buffer = new StringBuilder("POINT");
+            char separator = '(';
+            for (int i=0; i<dimension; i++) {
+                buffer.append(separator).append(get(offset + i));
+                separator = ' ';
+            }
+            return buffer.append(')').toString();
+        }
+    }
+
+    /**
+     * A spliterator over a range of points, giving the same {@link Position} instance for all points.
+     */
+    private final class Cursor implements Spliterator<DirectPosition> {
+        /**
+         * The position given to the actions.
+         */
+        private final Position position;
+
+        /**
+         * Index of the next point, and index after the last point.
+         */
+        private int index, end;
+
+        /**
+         * Creates a new spliterator over the given range of points.
+         *
+         * @param index  index of the first point.
+         * @param end    index after the last point.
+         */
+        Cursor(final int index, final int end) {
+            this.position = new Position();
+            this.index    = index;
+            this.end      = end;
+        }
+
+        /**
+         * Gives the next point to the given action.
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super DirectPosition> action) {
+            if (index >= end) {
+                return false;
+            }
+            position.offset = index++ * dimension;
+            action.accept(position);
+            return true;
+        }
+
+        /**
+         * Gives all remaining points to the given action.
+         */
+        @Override
+        public void forEachRemaining(final Consumer<? super DirectPosition> action) {
+            while (index < end) {
+                position.offset = index++ * dimension;
+                action.accept(position);
+            }
+        }
+
+        /**
+         * Splits the range of points in two halves.
+         */
+        @Override
+        public Spliterator<DirectPosition> trySplit() {
+            final int mid = (index + end) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            final var prefix = new Cursor(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        /**
+         * Returns the number of remaining points.
+         */
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
+    /**
+     * A set of coordinate tuples stored in an array of {@code double} values.
+     */
+    public static final class Double extends PackedCoordinateSet {
+        /**
+         * The coordinate values of all points. This array is public for allowing
+         * direct use by the {@code transform} methods of {@link MathTransform}.
+         */
+        public final double[] coordinates;
+
+        /**
+         * Creates a new coordinate set backed by the given array.
+         *
+         * @param  crs          the <abbr>CRS</abbr> of the coordinate tuples.
+         * @param  epoch        date at which coordinate tuples are valid, or {@code null} if the CRS is not dynamic.
+         * @param  coordinates  the coordinate values of all points. This array is <strong>not</strong> cloned.
+         * @throws IllegalArgumentException if the array length is not a multiple of the <abbr>CRS</abbr> dimension.
+         */
+        public Double(final CoordinateReferenceSystem crs, final Temporal epoch, final double... coordinates) {
+            super(crs, epoch, coordinates.length);
+            this.coordinates = coordinates;
+        }
+
+        /** Returns the coordinate value at the given index. */
+        @Override double get(final int index) {
+            return coordinates[index];
+        }
+
+        /** Sets the coordinate value at the given index. */
+        @Override void set(final int index, final double value) {
+            coordinates[index] = value;
+        }
+
+        /**
+         * Transforms all coordinate tuples in a single call to
+         * {@link MathTransform#transform(double[], int, double[], int, int)}.
+         */
+        @Override
+        public PackedCoordinateSet.Double transform(final CoordinateOperation operation) throws TransformException {
+            final MathTransform mt = getMathTransform(operation);
+            final double[] target = new double[size() * mt.getTargetDimensions()];
+            mt.transform(coordinates, 0, target, 0, size());
+            return new Double(operation.getTargetCRS(), operation.getTargetEpoch().orElse(null), target);
+        }
+    }
+
+    /**
+     * A set of coordinate tuples stored in an array of {@code float} values.
+     * This representation uses half the memory of {@link Double}, at the cost of precision.
+     */
+    public static final class Float extends PackedCoordinateSet {
+        /**
+         * The coordinate values of all points. This array is public for allowing
+         * direct use by the {@code transform} methods of {@link MathTransform}.
+         */
+        public final float[] coordinates;
+
+        /**
+         * Creates a new coordinate set backed by the given array.
+         *
+         * @param  crs          the <abbr>CRS</abbr> of the coordinate tuples.
+         * @param  epoch        date at which coordinate tuples are valid, or {@code null} if the CRS is not dynamic.
+         * @param  coordinates  the coordinate values of all points. This array is <strong>not</strong> cloned.
+         * @throws IllegalArgumentException if the array length is not a multiple of the <abbr>CRS</abbr> dimension.
+         */
+        public Float(final CoordinateReferenceSystem crs, final Temporal epoch, final float... coordinates) {
+            super(crs, epoch, coordinates.length);
+            this.coordinates = coordinates;
+        }
+
+        /** Returns the coordinate value at the given index. */
+        @Override double get(final int index) {
+            return coordinates[index];
+        }
+
+        /** Sets the coordinate value at the given index. */
+        @Override void set(final int index, final double value) {
+            coordinates[index] = (float) value;
+        }
+
+        /**
+         * Transforms all coordinate tuples in a single call to
+         * {@link MathTransform#transform(float[], int, float[], int, int)}.
+         */
+        @Override
+        public PackedCoordinateSet.Float transform(final CoordinateOperation operation) throws TransformException {
+            final MathTransform mt = getMathTransform(operation);
+            final float[] target = new float[size() * mt.getTargetDimensions()];
+            mt.transform(coordinates, 0, target, 0, size());
+            return new Float(operation.getTargetCRS(), operation.getTargetEpoch().orElse(null), target);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.CompletionException;
+
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * A {@link MathTransform} which delegates to another transform, but splits large arrays of coordinates
+ * in chunks transformed in parallel. Each chunk is transformed by a call to one of the {@code transform}
+ * methods expecting array arguments of the wrapped transform. Consequently, any {@code MathTransform}
+ * implementation can be parallelized by this class, provided that it is thread-safe.
+ *
+ * <p>Chunks are small enough for fitting in the processor cache, but large enough for amortizing
+ * the cost of task scheduling. Arrays of less than one chunk are transformed in the calling thread.</p>
+ *
+ * <h2>Example</h2>
+ * {@snippet lang="java" :
+ * MathTransform mt = ...;
+ * new ParallelTransform(mt).transform(coordinates, 0, coordinates, 0, numPts);
+ * }
+ */
+public class ParallelTransform implements MathTransform {
+    /**
+     * Number of coordinate values in a chunk. The number of points in a chunk is this value
+     * divided by the number of source or target dimensions, whatever is greater.
+     */
+    private static final int CHUNK_LENGTH = 16384;
+
+    /**
+     * The transform to apply on each chunk.
+     */
+    protected final MathTransform transform;
+
+    /**
+     * The pool of threads where to execute the transformations.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The inverse of this transform, computed when first needed.
+     */
+    private transient ParallelTransform inverse;
+
+    /**
+     * Creates a new parallel transform executed in the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param transform  the transform to apply on each chunk. Shall be thread-safe.
+     */
+    public ParallelTransform(final MathTransform transform) {
+        this(transform, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new parallel transform executed in the given pool.
+     *
+     * @param transform  the transform to apply on each chunk. Shall be thread-safe.
+     * @param pool       the pool of threads where to execute the transformations.
+     */
+    public ParallelTransform(final MathTransform transform, final ForkJoinPool pool) {
+        this.transform = Objects.requireNonNull(transform);
+        this.pool      = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * Returns the number of source dimensions of the wrapped transform.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return transform.getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of target dimensions of the wrapped transform.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return transform.getTargetDimensions();
+    }
+
+    /**
+     * Transforms a single point. This method delegates directly to the wrapped transform.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, final DirectPosition ptDst)
+            throws MismatchedDimensionException, TransformException
+    {
+        return transform.transform(ptSrc, ptDst);
+    }
+
+    /**
+     * The action to execute on a chunk of coordinates. The array arguments are fixed;
+     * only the offsets and the number of points vary.
+     */
+    @FunctionalInterface
+    private interface Kernel {
+        /**
+         * Transforms a chunk of coordinates.
+         *
+         * @param  srcOff  index of the first coordinate to read.
+         * @param  dstOff  index of the first coordinate to write.
+         * @param  numPts  number of points to transform.
+         * @throws TransformException if a point cannot be transformed.
+         */
+        void transform(int srcOff, int dstOff, int numPts) throws TransformException;
+    }
+
+    /**
+     * A task splitting the range of points in two halves until the range fits in a chunk.
+     */
+    @SuppressWarnings("serial")
+    private static final class Task extends RecursiveAction {
+        /** The action to apply on each chunk. */
+        private final Kernel kernel;
+
+        /** Index of the first coordinate to read or write. */
+        private final int srcOff, dstOff;
+
+        /** Number of source and target dimensions. */
+        private final int srcDim, dstDim;
+
+        /** Number of points to transform by this task. */
+        private final int numPts;
+
+        /** Maximal number of points in a chunk. */
+        private final int chunk;
+
+        /**
+         * Creates a new task.
+         *
+         * @param kernel  the action to apply on each chunk.
+         * @param srcOff  index of the first coordinate to read.
+         * @param srcDim  number of source dimensions.
+         * @param dstOff  index of the first coordinate to write.
+         * @param dstDim  number of target dimensions.
+         * @param numPts  number of points to transform by this task.
+         * @param chunk   maximal number of points in a chunk.
+         */
+        Task(final Kernel kernel, final int srcOff, final int srcDim, final int dstOff, final int dstDim,
+                final int numPts, final int chunk)
+        {
+            this.kernel = kernel;
+            this.srcOff = srcOff;
+            this.srcDim = srcDim;
+            this.dstOff = dstOff;
+            this.dstDim = dstDim;
+            this.numPts = numPts;
+            this.chunk  = chunk;
+        }
+
+        /**
+         * Transforms the points directly if they fit in a chunk, or split the work in two tasks otherwise.
+         * Checked exceptions are wrapped in {@link CompletionException}.
+         */
+        @Override
+        protected void compute() {
+            if (numPts <= chunk) {
+                try {
+                    kernel.transform(srcOff, dstOff, numPts);
+                } catch (TransformException e) {
+                    throw new CompletionException(e);       // Checked exception not allowed here.
+                }
+            } else {
+                final int half = numPts >>> 1;
+                invokeAll(new Task(kernel, srcOff, srcDim, dstOff, dstDim, half, chunk),
+                          new Task(kernel, srcOff + half*srcDim, srcDim, dstOff + half*dstDim, dstDim, numPts - half, chunk));
+            }
+        }
+    }
+
+    /**
+     * Returns the maximal number of points in a chunk.
+     *
+     * @return maximal number of points to transform in a single task.
+     */
+    private int chunkSize() {
+        return Math.max(1, CHUNK_LENGTH / Math.max(1, Math.max(getSourceDimensions(), getTargetDimensions())));
+    }
+
+    /**
+     * Returns {@code true} if the source array needs to be copied before to transform chunks in parallel.
+     * This is the case when the source and destination regions overlap in the same array, unless each
+     * point is transformed in-place (in which case chunks are independent).
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  numPts  number of coordinate tuples to transform.
+     * @return whether the source coordinates need to be copied.
+     */
+    private boolean needsCopy(final Object srcPts, final int srcOff, final Object dstPts, final int dstOff, final int numPts) {
+        if (srcPts != dstPts) {
+            return false;
+        }
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (srcOff == dstOff && srcDim == dstDim) {
+            return false;
+        }
+        return dstOff < srcOff + numPts * (long) srcDim && srcOff < dstOff + numPts * (long) dstDim;
+    }
+
+    /**
+     * Executes the given kernel on all chunks in the pool, then unwraps the {@link TransformException} if any.
+     *
+     * @param  kernel  the action to apply on each chunk.
+     * @param  srcOff  index of the first coordinate to read.
+     * @param  dstOff  index of the first coordinate to write.
+     * @param  numPts  number of points to transform.
+     * @throws TransformException if a point cannot be transformed.
+     */
+    private void execute(final Kernel kernel, final int srcOff, final int dstOff, final int numPts) throws TransformException {
+        final int chunk = chunkSize();
+        if (numPts <= chunk) {
+            kernel.transform(srcOff, dstOff, numPts);
+            return;
+        }
+        try {
+            pool.invoke(new Task(kernel, srcOff, getSourceDimensions(), dstOff, getTargetDimensions(), numPts, chunk));
+        } catch (CompletionException e) {
+            /*
+             * The fork-join framework may wrap the exception in a new instance when it crossed thread boundaries.
+             * Search the original TransformException in the chain of causes.
+             */
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof TransformException) {
+                    throw (TransformException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples, splitting large arrays in chunks transformed in parallel.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        if (needsCopy(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts * getSourceDimensions());
+            srcOff = 0;
+        }
+        final double[] source = srcPts;
+        execute((s, d, n) -> transform.transform(source, s, dstPts, d, n), srcOff, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples, splitting large arrays in chunks transformed in parallel.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        if (needsCopy(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts * getSourceDimensions());
+            srcOff = 0;
+        }
+        final float[] source = srcPts;
+        execute((s, d, n) -> transform.transform(source, s, dstPts, d, n), srcOff, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples, splitting large arrays in chunks transformed in parallel.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        execute((s, d, n) -> transform.transform(srcPts, s, dstPts, d, n), srcOff, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples, splitting large arrays in chunks transformed in parallel.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        execute((s, d, n) -> transform.transform(srcPts, s, dstPts, d, n), srcOff, dstOff, numPts);
+    }
+
+    /**
+     * Returns the derivative computed by the wrapped transform.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws MismatchedDimensionException, TransformException {
+        return transform.derivative(point);
+    }
+
+    /**
+     * Returns the inverse of the wrapped transform, also executed in parallel.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            inverse = new ParallelTransform(transform.inverse(), pool);
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns whether the wrapped transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        return transform.isIdentity();
+    }
+
+    /**
+     * Returns the <abbr>WKT</abbr> of the wrapped transform.
+     */
+    @Override
+    public String toWKT() {
+        return transform.toWKT();
+    }
+
+    /**
+     * Compares this transform with the given object for equality.
+     *
+     * @param  object  the object to compare with this transform.
+     * @return whether the given object wraps an equal transform.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object != null && object.getClass() == getClass()) {
+            return transform.equals(((ParallelTransform) object).transform);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return transform.hashCode() ^ 0x5A3C1E7B;
+    }
+
+    /**
+     * Returns a string representation of this transform.
+     */
+    @Override
+    public String toString() {
+        return "Parallel[" + transform + ']';
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+import org.opengis.example.geometry.SimpleDirectPosition;
+
+
+/**
+ * A transform which passes through a subset of coordinates to another transform.
+ * The leading and trailing coordinates are copied unchanged.
+ * Instances of this class are created by {@link SimpleTransformFactory#createPassThroughTransform
+ * SimpleTransformFactory.createPassThroughTransform(…)} when the sub-transform is not linear.
+ *
+ * <p>The {@code transform} methods expecting array arguments gather the affected coordinates
+ * of a chunk of points in a temporary buffer, transform the whole buffer with the sub-transform,
+ * then scatter the results in the destination array.</p>
+ */
+final class PassThroughTransform extends SimpleTransform {
+    /**
+     * Maximal number of coordinate values in the temporary buffer.
+     * Larger arrays are processed in many chunks of this size.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * Index of the first affected coordinate.
+     */
+    private final int firstAffectedCoordinate;
+
+    /**
+     * The sub-transform to apply on the affected coordinates.
+     */
+    private final MathTransform subTransform;
+
+    /**
+     * Number of unaffected coordinates after the affected ones.
+     */
+    private final int numTrailingCoordinates;
+
+    /**
+     * Creates a new pass-through transform.
+     *
+     * @param firstAffectedCoordinate  index of the first affected coordinate.
+     * @param subTransform             the sub-transform to apply on affected coordinates.
+     * @param numTrailingCoordinates   number of trailing coordinates to pass through.
+     */
+    PassThroughTransform(final int firstAffectedCoordinate, final MathTransform subTransform, final int numTrailingCoordinates) {
+        super(SimpleTransformFactory.VENDOR, "Pass through transform", null, null);
+        this.firstAffectedCoordinate = firstAffectedCoordinate;
+        this.subTransform            = subTransform;
+        this.numTrailingCoordinates  = numTrailingCoordinates;
+    }
+
+    /**
+     * Returns the number of source dimensions, including the pass-through dimensions.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return firstAffectedCoordinate + subTransform.getSourceDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Returns the number of target dimensions, including the pass-through dimensions.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return firstAffectedCoordinate + subTransform.getTargetDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Returns the number of points that can be transformed in each chunk.
+     *
+     * @param  numPts  total number of points to transform.
+     * @return number of points in a chunk.
+     */
+    private int chunkSize(final int numPts) {
+        final int dim = Math.max(subTransform.getSourceDimensions(), subTransform.getTargetDimensions());
+        return Math.max(1, Math.min(numPts, BUFFER_LENGTH / Math.max(1, dim)));
+    }
+
+    /**
+     * Returns whether the source and destination regions overlap in the same array.
+     * In such case, the source coordinates need to be copied before to be transformed,
+     * because the pass-through coordinates are copied after the sub-transform results
+     * have been written. The only exception is the transformation in place with equal
+     * source and target dimensions: the pass-through coordinates are copied to the slot
+     * they come from, and the affected coordinates of a chunk are copied in the buffer
+     * before any of them is written.
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  numPts  number of coordinate tuples to transform.
+     * @return whether the source coordinates need to be copied.
+     */
+    private boolean overlaps(final Object srcPts, final int srcOff, final Object dstPts, final int dstOff, final int numPts) {
+        if (srcPts != dstPts) {
+            return false;
+        }
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (srcOff == dstOff && srcDim == dstDim) {
+            return false;
+        }
+        return dstOff < srcOff + numPts * (long) srcDim && srcOff < dstOff + numPts * (long) dstDim;
+    }
+
+    /**
+     * Transforms the given point by applying the sub-transform on the affected coordinates.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, DirectPosition ptDst)
+            throws MismatchedDimensionException, TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (ptSrc.getDimension() != srcDim) {
+            throw new MismatchedDimensionException("Wrong number of source dimensions.");
+        }
+        final double[] source = ptSrc.getCoordinates();
+        final var target = new SimpleDirectPosition(dstDim);
+        transform(source, 0, target.coordinates, 0, 1);
+        if (ptDst == null) {
+            return target;
+        }
+        if (ptDst.getDimension() != dstDim) {
+            throw new MismatchedDimensionException("Wrong number of target dimensions.");
+        }
+        for (int i=0; i<dstDim; i++) {
+            ptDst.setCoordinate(i, target.coordinates[i]);
+        }
+        return ptDst;
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying the sub-transform on chunks of coordinates.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        if (overlaps(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+            srcOff = 0;
+        }
+        final double[] buffer = new double[chunkSize(numPts) * Math.max(subSrc, subDst)];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            for (int i=0; i<n; i++) {
+                System.arraycopy(srcPts, srcOff + i*srcDim + firstAffectedCoordinate, buffer, i*subSrc, subSrc);
+            }
+            subTransform.transform(buffer, 0, buffer, 0, n);
+            for (int i=0; i<n; i++) {
+                System.arraycopy(srcPts, srcOff, dstPts, dstOff, firstAffectedCoordinate);
+                System.arraycopy(buffer, i*subDst, dstPts, dstOff + firstAffectedCoordinate, subDst);
+                System.arraycopy(srcPts, srcOff + firstAffectedCoordinate + subSrc,
+                                 dstPts, dstOff + firstAffectedCoordinate + subDst, numTrailingCoordinates);
+                srcOff += srcDim;
+                dstOff += dstDim;
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying the sub-transform on chunks of coordinates.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        if (overlaps(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+            srcOff = 0;
+        }
+        final float[] buffer = new float[chunkSize(numPts) * Math.max(subSrc, subDst)];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            for (int i=0; i<n; i++) {
+                System.arraycopy(srcPts, srcOff + i*srcDim + firstAffectedCoordinate, buffer, i*subSrc, subSrc);
+            }
+            subTransform.transform(buffer, 0, buffer, 0, n);
+            for (int i=0; i<n; i++) {
+                System.arraycopy(srcPts, srcOff, dstPts, dstOff, firstAffectedCoordinate);
+                System.arraycopy(buffer, i*subDst, dstPts, dstOff + firstAffectedCoordinate, subDst);
+                System.arraycopy(srcPts, srcOff + firstAffectedCoordinate + subSrc,
+                                 dstPts, dstOff + firstAffectedCoordinate + subDst, numTrailingCoordinates);
+                srcOff += srcDim;
+                dstOff += dstDim;
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying the sub-transform on chunks of coordinates.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        final double[] buffer = new double[chunkSize(numPts) * Math.max(subSrc, subDst)];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            for (int i=0; i<n; i++) {
+                for (int k=0; k<subSrc; k++) {
+                    buffer[i*subSrc + k] = srcPts[srcOff + i*srcDim + firstAffectedCoordinate + k];
+                }
+            }
+            subTransform.transform(buffer, 0, buffer, 0, n);
+            for (int i=0; i<n; i++) {
+                for (int k=0; k<firstAffectedCoordinate; k++) {
+                    dstPts[dstOff + k] = srcPts[srcOff + k];
+                }
+                System.arraycopy(buffer, i*subDst, dstPts, dstOff + firstAffectedCoordinate, subDst);
+                for (int k=0; k<numTrailingCoordinates; k++) {
+                    dstPts[dstOff + firstAffectedCoordinate + subDst + k] = srcPts[srcOff + firstAffectedCoordinate + subSrc + k];
+                }
+                srcOff += srcDim;
+                dstOff += dstDim;
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples by applying the sub-transform on chunks of coordinates.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        final double[] buffer = new double[chunkSize(numPts) * Math.max(subSrc, subDst)];
+        while (numPts > 0) {
+            final int n = chunkSize(numPts);
+            for (int i=0; i<n; i++) {
+                System.arraycopy(srcPts, srcOff + i*srcDim + firstAffectedCoordinate, buffer, i*subSrc, subSrc);
+            }
+            subTransform.transform(buffer, 0, buffer, 0, n);
+            for (int i=0; i<n; i++) {
+                for (int k=0; k<firstAffectedCoordinate; k++) {
+                    dstPts[dstOff + k] = (float) srcPts[srcOff + k];
+                }
+                for (int k=0; k<subDst; k++) {
+                    dstPts[dstOff + firstAffectedCoordinate + k] = (float) buffer[i*subDst + k];
+                }
+                for (int k=0; k<numTrailingCoordinates; k++) {
+                    dstPts[dstOff + firstAffectedCoordinate + subDst + k] = (float) srcPts[srcOff + firstAffectedCoordinate + subSrc + k];
+                }
+                srcOff += srcDim;
+                dstOff += dstDim;
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. This is a block diagonal matrix
+     * with the derivative of the sub-transform between identity blocks.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative cannot be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        final int subSrc = subTransform.getSourceDimensions();
+        final var subPoint = new SimpleDirectPosition(subSrc);
+        for (int i=0; i<subSrc; i++) {
+            subPoint.coordinates[i] = point.getCoordinate(firstAffectedCoordinate + i);
+        }
+        final Matrix sub = subTransform.derivative(subPoint);
+        final int subDst = sub.getNumRow();
+        final var m = new SimpleMatrix(getTargetDimensions(), getSourceDimensions());
+        m.setZero();
+        for (int i=0; i<firstAffectedCoordinate; i++) {
+            m.setElement(i, i, 1);
+        }
+        for (int j=0; j<subDst; j++) {
+            for (int i=0; i<subSrc; i++) {
+                m.setElement(firstAffectedCoordinate + j, firstAffectedCoordinate + i, sub.getElement(j, i));
+            }
+        }
+        for (int i=0; i<numTrailingCoordinates; i++) {
+            m.setElement(firstAffectedCoordinate + subDst + i, firstAffectedCoordinate + subSrc + i, 1);
+        }
+        return m;
+    }
+
+    /**
+     * Returns a pass-through transform for the inverse of the sub-transform.
+     *
+     * @throws NoninvertibleTransformException if the sub-transform cannot be inverted.
+     */
+    @Override
+    public MathTransform inverse() throws NoninvertibleTransformException {
+        return new PassThroughTransform(firstAffectedCoordinate, subTransform.inverse(), numTrailingCoordinates);
+    }
+
+    /**
+     * Returns {@code true} if the sub-transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        return subTransform.isIdentity();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            final var other = (PassThroughTransform) object;
+            return firstAffectedCoordinate == other.firstAffectedCoordinate &&
+                   numTrailingCoordinates  == other.numTrailingCoordinates  &&
+                   subTransform.equals(other.subTransform);
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + 31 * Objects.hash(firstAffectedCoordinate, subTransform, numTrailingCoordinates);
+    }
+}
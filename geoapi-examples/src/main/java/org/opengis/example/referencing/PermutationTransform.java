@@ -0,0 +1,222 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Arrays;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * A {@link ProjectiveTransform} backed by an affine matrix where each row contains exactly one non-zero
+ * element in the columns of source dimensions. This is the case of axis swaps and of axis selections
+ * (dropping dimensions), optionally combined with scales and translations. Each target coordinate
+ * is computed by a single multiply-add operation:
+ *
+ * <blockquote>
+ * <var>x′</var><sub>j</sub> = <var>x</var><sub>index[j]</sub> × scale<sub>j</sub> + offset<sub>j</sub>
+ * </blockquote>
+ *
+ * @see SimpleTransformFactory#createAffineTransform(org.opengis.referencing.operation.Matrix)
+ */
+final class PermutationTransform extends ProjectiveTransform {
+    /**
+     * The number of source dimensions.
+     */
+    private final int srcDim;
+
+    /**
+     * For each target dimension, the index of the source dimension where to read the coordinate.
+     */
+    private final int[] index;
+
+    /**
+     * For each target dimension, the factor by which to multiply the source coordinate.
+     */
+    private final double[] scale;
+
+    /**
+     * For each target dimension, the value to add after the multiplication.
+     */
+    private final double[] offset;
+
+    /**
+     * Creates a new operation for the given name, CRS and matrix.
+     * The matrix shape is not verified by this constructor since it was
+     * already verified by {@link SimpleTransformFactory}.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new CRS.
+     * @param sourceCRS  the source CRS to be returned by {@link #getSourceCRS()}, or {@code null}.
+     * @param targetCRS  the target CRS to be returned by {@link #getTargetCRS()}, or {@code null}.
+     * @param matrix     an affine matrix with exactly one non-zero element per row in source dimension columns.
+     */
+    PermutationTransform(final Citation authority, final String name,
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final SimpleMatrix matrix)
+    {
+        super(authority, name, sourceCRS, targetCRS, matrix);
+        srcDim = matrix.getNumCol() - 1;
+        final int dstDim = matrix.getNumRow() - 1;
+        index  = new int   [dstDim];
+        scale  = new double[dstDim];
+        offset = new double[dstDim];
+        for (int j=0; j<dstDim; j++) {
+            for (int i=0; i<srcDim; i++) {
+                final double e = matrix.getElement(j, i);
+                if (e != 0) {
+                    index[j] = i;
+                    scale[j] = e;
+                }
+            }
+            offset[j] = matrix.getElement(j, srcDim);
+        }
+    }
+
+    /**
+     * Returns whether the source and destination regions overlap in the same array.
+     *
+     * @param  srcPts  the source array.
+     * @param  srcOff  index of the first coordinate to read in the source array.
+     * @param  dstPts  the destination array.
+     * @param  dstOff  index of the first coordinate to write in the destination array.
+     * @param  numPts  number of coordinate tuples to transform.
+     * @return whether coordinate tuples need to be copied in a buffer before to be transformed.
+     */
+    private boolean overlaps(final Object srcPts, final int srcOff, final Object dstPts, final int dstOff, final int numPts) {
+        return srcPts == dstPts && dstOff < srcOff + numPts * (long) srcDim
+                                && srcOff < dstOff + numPts * (long) index.length;
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     * If the source and destination regions overlap, each source tuple is copied in a buffer
+     * before to be transformed.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final int[]    index  = this.index;
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dstDim = index.length;
+        if (!overlaps(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            while (--numPts >= 0) {
+                for (int j=0; j<dstDim; j++) {
+                    dstPts[dstOff++] = srcPts[srcOff + index[j]] * scale[j] + offset[j];
+                }
+                srcOff += srcDim;
+            }
+            return;
+        }
+        int srcInc = srcDim;
+        int dstInc = dstDim;
+        switch (iterationStrategy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+            case DESCENDING: {
+                srcOff += (numPts - 1) * srcDim;
+                dstOff += (numPts - 1) * dstDim;
+                srcInc = -srcDim;
+                dstInc = -dstDim;
+                break;
+            }
+            case BUFFER_SOURCE: {
+                srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+                srcOff = 0;
+                break;
+            }
+        }
+        final double[] buffer = new double[srcDim];
+        while (--numPts >= 0) {
+            System.arraycopy(srcPts, srcOff, buffer, 0, srcDim);
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff + j] = buffer[index[j]] * scale[j] + offset[j];
+            }
+            srcOff += srcInc;
+            dstOff += dstInc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     * If the source and destination regions overlap, each source tuple is copied in a buffer
+     * before to be transformed.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final int[]    index  = this.index;
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dstDim = index.length;
+        if (!overlaps(srcPts, srcOff, dstPts, dstOff, numPts)) {
+            while (--numPts >= 0) {
+                for (int j=0; j<dstDim; j++) {
+                    dstPts[dstOff++] = (float) (srcPts[srcOff + index[j]] * scale[j] + offset[j]);
+                }
+                srcOff += srcDim;
+            }
+            return;
+        }
+        int srcInc = srcDim;
+        int dstInc = dstDim;
+        switch (iterationStrategy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+            case DESCENDING: {
+                srcOff += (numPts - 1) * srcDim;
+                dstOff += (numPts - 1) * dstDim;
+                srcInc = -srcDim;
+                dstInc = -dstDim;
+                break;
+            }
+            case BUFFER_SOURCE: {
+                srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+                srcOff = 0;
+                break;
+            }
+        }
+        final float[] buffer = new float[srcDim];
+        while (--numPts >= 0) {
+            System.arraycopy(srcPts, srcOff, buffer, 0, srcDim);
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff + j] = (float) (buffer[index[j]] * scale[j] + offset[j]);
+            }
+            srcOff += srcInc;
+            dstOff += dstInc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final int[]    index  = this.index;
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dstDim = index.length;
+        while (--numPts >= 0) {
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff++] = srcPts[srcOff + index[j]] * scale[j] + offset[j];
+            }
+            srcOff += srcDim;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples with one multiply-add operation per coordinate.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final int[]    index  = this.index;
+        final double[] scale  = this.scale;
+        final double[] offset = this.offset;
+        final int dstDim = index.length;
+        while (--numPts >= 0) {
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff++] = (float) (srcPts[srcOff + index[j]] * scale[j] + offset[j]);
+            }
+            srcOff += srcDim;
+        }
+    }
+}
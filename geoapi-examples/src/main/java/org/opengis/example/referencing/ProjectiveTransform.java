@@ -5,6 +5,7 @@
  */
 package org.opengis.example.referencing;
 
+import java.util.Arrays;
 import java.util.Objects;
 import javax.vecmath.GMatrix;
 
@@ -32,18 +33,32 @@ import org.opengis.example.geometry.SimpleDirectPosition;
  * </ul>
  *
  * <b>Performance note:</b>
- * This implementation is known to be slow. However, the intent is to be pedagogic, not to be efficient.
- * Performance enhancements are left to implementers
- * (<i>Tip:</i> override all {@code transform} methods expecting array arguments).
+ * The {@link #transform(DirectPosition, DirectPosition)} method is known to be slow, because the intent
+ * is to be pedagogic. The {@code transform} methods expecting array arguments are overridden with a more
+ * efficient implementation, which performs the matrix multiplication directly on the matrix elements
+ * without allocating any object for each transformed point.
  *
  * @see SimpleTransformFactory#createAffineTransform(Matrix)
  */
 public class ProjectiveTransform extends SimpleTransform {
     /**
      * The matrix used for performing the coordinate conversions.
+     * This matrix shall not be modified after construction, because the {@code transform} methods
+     * working on arrays use a copy of the matrix elements taken by the constructor.
      */
     protected final SimpleMatrix matrix;
 
+    /**
+     * A copy of {@link #matrix} elements in a flat array, in row-major order.
+     * Used by the {@code transform} methods working on arrays of coordinate values.
+     */
+    private final double[] elements;
+
+    /**
+     * Whether the last matrix row is [0 0 … 0 1]. In such case, the division by <var>w</var> is omitted.
+     */
+    private final boolean affine;
+
     /**
      * The inverse of this transform, computed when first needed.
      */
@@ -56,7 +71,8 @@ public class ProjectiveTransform extends SimpleTransform {
      * @param name       the name of the new CRS.
      * @param sourceCRS  the source CRS to be returned by {@link #getSourceCRS()}, or {@code null}.
      * @param targetCRS  the target CRS to be returned by {@link #getTargetCRS()}, or {@code null}.
-     * @param matrix     the matrix. See class javadoc for constraints on the matrix size.
+     * @param matrix     the matrix (<strong>not</strong> cloned). See class javadoc for constraints
+     *                   on the matrix size. This matrix shall not be modified after construction.
      */
     public ProjectiveTransform(final Citation authority, final String name,
             final CoordinateReferenceSystem sourceCRS,
@@ -71,6 +87,32 @@ public class ProjectiveTransform extends SimpleTransform {
         if (targetCRS != null && targetCRS.getCoordinateSystem().getDimension() != matrix.getNumRow() - 1) {
             throw new MismatchedDimensionException("Wrong number of target dimensions.");
         }
+        final int numRow = matrix.getNumRow();
+        final int numCol = matrix.getNumCol();
+        elements = new double[numRow * numCol];
+        for (int j=0; j<numRow; j++) {
+            for (int i=0; i<numCol; i++) {
+                elements[j*numCol + i] = matrix.getElement(j, i);
+            }
+        }
+        affine = isAffine(matrix);
+    }
+
+    /**
+     * Returns whether the given matrix has a last row of the form [0 0 … 0 1].
+     *
+     * @param  matrix  the matrix to test.
+     * @return whether the transform represented by the given matrix is affine.
+     */
+    static boolean isAffine(final Matrix matrix) {
+        final int j = matrix.getNumRow() - 1;
+        final int n = matrix.getNumCol() - 1;
+        for (int i=0; i<n; i++) {
+            if (matrix.getElement(j, i) != 0) {
+                return false;
+            }
+        }
+        return matrix.getElement(j, n) == 1;
     }
 
     /**
@@ -143,6 +185,241 @@ public class ProjectiveTransform extends SimpleTransform {
         return ptDst;
     }
 
+    /**
+     * Transforms a single coordinate tuple using the flat {@linkplain #elements} array.
+     * The source coordinates must have been copied in the {@code buffer} array first,
+     * which allows the source and destination arrays to overlap. The target coordinates
+     * are written in {@code dstPts} starting at index {@code dstOff}.
+     *
+     * @param buffer  the source coordinates, of length {@code srcDim}.
+     * @param dstPts  the array where to write the target coordinates.
+     * @param dstOff  index of the first target coordinate to write.
+     * @param dstDim  number of target dimensions.
+     */
+    private void transform(final double[] buffer, final double[] dstPts, final int dstOff, final int dstDim) {
+        final double[] elt = elements;
+        final int srcDim = buffer.length;
+        int k = 0;
+        if (affine) {
+            for (int j=0; j<dstDim; j++) {
+                double sum = 0;
+                for (int i=0; i<srcDim; i++) {
+                    sum += elt[k++] * buffer[i];
+                }
+                dstPts[dstOff + j] = sum + elt[k++];
+            }
+        } else {
+            int kw = dstDim * (srcDim + 1);
+            double w = 0;
+            for (int i=0; i<srcDim; i++) {
+                w += elt[kw++] * buffer[i];
+            }
+            w += elt[kw];
+            for (int j=0; j<dstDim; j++) {
+                double sum = 0;
+                for (int i=0; i<srcDim; i++) {
+                    sum += elt[k++] * buffer[i];
+                }
+                sum += elt[k++];
+                dstPts[dstOff + j] = sum / w;
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples. This method reads each source coordinate tuple in a
+     * temporary buffer before to write the target coordinate tuple. If the source and destination
+     * regions overlap in the same array, the coordinates are processed in reverse order when needed
+     * or, as a last resort, the source coordinates are copied.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same as {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        int srcInc = srcDim;
+        int dstInc = dstDim;
+        if (srcPts == dstPts) {
+            switch (iterationStrategy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+                case DESCENDING: {
+                    srcOff += (numPts - 1) * srcDim;
+                    dstOff += (numPts - 1) * dstDim;
+                    srcInc = -srcDim;
+                    dstInc = -dstDim;
+                    break;
+                }
+                case BUFFER_SOURCE: {
+                    srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+                    srcOff = 0;
+                    break;
+                }
+            }
+        }
+        final double[] buffer = new double[srcDim];
+        while (--numPts >= 0) {
+            System.arraycopy(srcPts, srcOff, buffer, 0, srcDim);
+            transform(buffer, dstPts, dstOff, dstDim);
+            srcOff += srcInc;
+            dstOff += dstInc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples. See {@link #transform(double[], int, double[], int, int)}
+     * for a description of how overlapping source and destination regions are handled.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same as {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        int srcInc = srcDim;
+        int dstInc = dstDim;
+        if (srcPts == dstPts) {
+            switch (iterationStrategy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+                case DESCENDING: {
+                    srcOff += (numPts - 1) * srcDim;
+                    dstOff += (numPts - 1) * dstDim;
+                    srcInc = -srcDim;
+                    dstInc = -dstDim;
+                    break;
+                }
+                case BUFFER_SOURCE: {
+                    srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
+                    srcOff = 0;
+                    break;
+                }
+            }
+        }
+        final double[] buffer = new double[srcDim];
+        final double[] target = new double[dstDim];
+        while (--numPts >= 0) {
+            for (int i=0; i<srcDim; i++) {
+                buffer[i] = srcPts[srcOff + i];
+            }
+            transform(buffer, target, 0, dstDim);
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff + j] = (float) target[j];
+            }
+            srcOff += srcInc;
+            dstOff += dstInc;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples.
+     * The source and destination arrays cannot overlap since they are of different types.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts) {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final double[] buffer = new double[srcDim];
+        while (--numPts >= 0) {
+            for (int i=0; i<srcDim; i++) {
+                buffer[i] = srcPts[srcOff++];
+            }
+            transform(buffer, dstPts, dstOff, dstDim);
+            dstOff += dstDim;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples.
+     * The source and destination arrays cannot overlap since they are of different types.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts) {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final double[] buffer = new double[srcDim];
+        final double[] target = new double[dstDim];
+        while (--numPts >= 0) {
+            System.arraycopy(srcPts, srcOff, buffer, 0, srcDim);
+            transform(buffer, target, 0, dstDim);
+            for (int j=0; j<dstDim; j++) {
+                dstPts[dstOff++] = (float) target[j];
+            }
+            srcOff += srcDim;
+        }
+    }
+
+    /**
+     * The order in which to iterate over coordinate tuples when the source and destination arrays are the same.
+     * Each source tuple is assumed fully read before the corresponding destination tuple is written.
+     *
+     * @see #iterationStrategy(int, int, int, int, int)
+     */
+    enum IterationStrategy {
+        /** Iterate from the first tuple to the last one. */
+        ASCENDING,
+
+        /** Iterate from the last tuple to the first one. */
+        DESCENDING,
+
+        /** Copy the source coordinates in a temporary array before to iterate in ascending order. */
+        BUFFER_SOURCE
+    }
+
+    /**
+     * Determines in which order to iterate over coordinate tuples when the source and destination regions
+     * are in the same array. Writing the destination tuple <var>i</var> shall not overwrite a source tuple
+     * which has not yet been read.
+     *
+     * @param  srcOff  the offset in the source coordinate array.
+     * @param  srcDim  the dimension of input points.
+     * @param  dstOff  the offset in the destination coordinate array.
+     * @param  dstDim  the dimension of output points.
+     * @param  numPts  the number of points to transform.
+     * @return the order in which to process coordinate tuples.
+     */
+    static IterationStrategy iterationStrategy(final int srcOff, final int srcDim,
+            final int dstOff, final int dstDim, final int numPts)
+    {
+        if (numPts <= 1) {
+            return IterationStrategy.ASCENDING;
+        }
+        /*
+         * Ascending order is safe if, for every tuple i, the end of destination tuple i does not go
+         * after the start of source tuple i+1. The condition is linear in i, so only the two extremums
+         * need to be tested. Same reasoning for descending order with the start of destination tuple i
+         * compared to the end of source tuple i-1. Tests are done with `long` for avoiding overflow.
+         */
+        final long n = numPts - 1;
+        if (dstOff + 1L*dstDim <= srcOff + 1L*srcDim && dstOff + n*dstDim <= srcOff + n*srcDim) {
+            return IterationStrategy.ASCENDING;
+        }
+        if (dstOff + 1L*dstDim >= srcOff + 1L*srcDim && dstOff + n*dstDim >= srcOff + n*srcDim) {
+            return IterationStrategy.DESCENDING;
+        }
+        if (dstOff >= srcOff + numPts*(long) srcDim || dstOff + numPts*(long) dstDim <= srcOff) {
+            return IterationStrategy.ASCENDING;                 // Disjoint regions.
+        }
+        return IterationStrategy.BUFFER_SOURCE;
+    }
+
     /**
      * Gets the derivative of this transform. In the particular case of linear transforms,
      * the derivative is the same at every points. Consequently, the {@code point} argument
@@ -163,7 +440,10 @@ public class ProjectiveTransform extends SimpleTransform {
     /**
      * Returns the inverse transform of this object. The default implementation
      * {@linkplain SimpleMatrix#invert() invert} the {@linkplain #matrix} and
-     * build a new {@code ProjectiveTransform} from it.
+     * build a new {@code ProjectiveTransform} from it. The inverse may be
+     * a specialized subclass if the inverse matrix has a simpler shape.
+     *
+     * @see SimpleTransformFactory#createAffineTransform(Matrix)
      */
     @Override
     public synchronized ProjectiveTransform inverse() throws NoninvertibleTransformException {
@@ -174,7 +454,7 @@ public class ProjectiveTransform extends SimpleTransform {
             } catch (RuntimeException e) {      // SingularMatrixException & MismatchedSizeException
                 throw new NoninvertibleTransformException("Cannot invert \"" + code + '"', e);
             }
-            inverse = new ProjectiveTransform(authority, "Inverse of " + code, targetCRS, sourceCRS, invert);
+            inverse = SimpleTransformFactory.createProjective(authority, "Inverse of " + code, targetCRS, sourceCRS, invert);
             inverse.inverse = this;
         }
         return inverse;
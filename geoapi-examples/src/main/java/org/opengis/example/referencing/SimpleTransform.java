@@ -108,8 +108,9 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
 
     /**
      * Changes coordinates from source <abbr>CRS</abbr> to target <abbr>CRS</abbr>.
-     * The default implementation transform the coordinate tuples immediately and stores the result.
-     * This is okay for small coordinate set, but inefficient for large ones.
+     * The default implementation returns a view which transforms the coordinate tuples lazily,
+     * by chunks, each time that the returned set is iterated. Failures to transform a chunk
+     * are reported by {@link UncheckedTransformException} during the iteration.
      *
      * @param  data  the coordinates to change.
      * @return the result of changing coordinates.
@@ -365,13 +366,13 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
 
     /**
      * Tests whether this transform does not move any points. The default implementation
-     * tests if the source and target CRS are equals.
+     * tests if the source and target CRS are non-null and equal.
      *
      * @return {@code true} if this {@code MathTransform} is an identity transform; {@code false} otherwise.
      */
     @Override
     public boolean isIdentity() {
-        return Objects.equals(sourceCRS, targetCRS);
+        return sourceCRS != null && sourceCRS.equals(targetCRS);
     }
 
     /**
@@ -6,6 +6,8 @@
 package org.opengis.example.referencing;
 
 import java.util.Set;
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Collections;
 
 import org.opengis.util.FactoryException;
@@ -18,6 +20,7 @@ import org.opengis.referencing.cs.CoordinateSystem;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.SingleOperation;
 
@@ -30,7 +33,9 @@ import org.opengis.referencing.operation.SingleOperation;
  *   <li>{@link #getVendor()}</li>
  *   <li>{@link #getAvailableMethods(Class)}, which returns an empty set.</li>
  *   <li>{@link #getLastMethodUsed()}, which returns {@code null}.</li>
- *   <li>{@link #createAffineTransform(Matrix)}</li>
+ *   <li>{@link #createAffineTransform(Matrix)}, which returns an implementation specialized for the matrix shape.</li>
+ *   <li>{@link #createConcatenatedTransform(MathTransform, MathTransform)}, which fuses consecutive linear steps.</li>
+ *   <li>{@link #createPassThroughTransform(int, MathTransform, int)}</li>
  * </ul>
  */
 public class SimpleTransformFactory implements MathTransformFactory {
@@ -38,7 +43,7 @@ public class SimpleTransformFactory implements MathTransformFactory {
      * The value to be returned by {@link #getVendor()}.
      * Implementations should replace {@code "GeoAPI-example"} by their name.
      */
-    private static final Citation VENDOR = new SimpleCitation("GeoAPI-example");
+    static final Citation VENDOR = new SimpleCitation("GeoAPI-example");
 
     /**
      * Creates a new factory.
@@ -123,6 +128,11 @@ public class SimpleTransformFactory implements MathTransformFactory {
      * origin. The {@code [i][N]} element of the matrix will be 0 for <var>i</var> less than
      * {@code M}, and 1 for <var>i</var> equals {@code M}.
      *
+     * <p>The returned transform is specialized according the matrix shape.
+     * Two-dimensional affine transforms are backed by Java2D {@link AffineTransform2D}.
+     * For other number of dimensions, identity, translations, scales, axis swaps and three-dimensional
+     * affine transforms are implemented by subclasses of {@link ProjectiveTransform} with simpler loops.</p>
+     *
      * @param  matrix  the matrix used to define the affine transform.
      * @return the affine transform.
      * @throws FactoryException if the object creation failed.
@@ -132,36 +142,235 @@ public class SimpleTransformFactory implements MathTransformFactory {
      */
     @Override
     public MathTransform createAffineTransform(final Matrix matrix) throws FactoryException {
-        if (matrix.getNumCol()     == 3 &&
-            matrix.getNumRow()     == 3 &&
-            matrix.getElement(2,0) == 0 &&
-            matrix.getElement(2,1) == 0 &&
-            matrix.getElement(2,2) == 1)
-        {
+        if (matrix.getNumCol() == 3 && matrix.getNumRow() == 3 && ProjectiveTransform.isAffine(matrix)) {
             return new AffineTransform2D(matrix);
         }
-        return new ProjectiveTransform(VENDOR, "Projective transform", null, null,
-                (matrix instanceof SimpleMatrix) ? (SimpleMatrix) matrix : new SimpleMatrix(matrix));
+        return createProjective(VENDOR, "Projective transform", null, null,
+                (matrix instanceof SimpleMatrix) ? ((SimpleMatrix) matrix).clone() : new SimpleMatrix(matrix));
+    }
+
+    /**
+     * Creates a projective transform specialized according the shape of the given matrix.
+     * This method does not create {@link AffineTransform2D} instances because the result
+     * needs to be a {@link ProjectiveTransform}.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new transform.
+     * @param sourceCRS  the source CRS, or {@code null}.
+     * @param targetCRS  the target CRS, or {@code null}.
+     * @param matrix     the matrix of the transform to create.
+     * @return the projective transform for the given matrix.
+     */
+    static ProjectiveTransform createProjective(final Citation authority, final String name,
+            final CoordinateReferenceSystem sourceCRS,
+            final CoordinateReferenceSystem targetCRS,
+            final SimpleMatrix matrix)
+    {
+        if (ProjectiveTransform.isAffine(matrix)) {
+            final int srcDim = matrix.getNumCol() - 1;
+            final int dstDim = matrix.getNumRow() - 1;
+            boolean diagonal = (srcDim == dstDim);
+            boolean permutation = true;
+            for (int j=0; j<dstDim; j++) {
+                int count = 0;
+                for (int i=0; i<srcDim; i++) {
+                    if (matrix.getElement(j, i) != 0) {
+                        diagonal &= (i == j);
+                        count++;
+                    }
+                }
+                diagonal &= (count == 1);
+                permutation &= (count == 1);
+            }
+            if (diagonal) {
+                if (matrix.isIdentity()) {
+                    return new IdentityTransform(authority, name, sourceCRS, targetCRS, matrix);
+                }
+                return new DiagonalTransform(authority, name, sourceCRS, targetCRS, matrix);
+            }
+            if (permutation) {
+                return new PermutationTransform(authority, name, sourceCRS, targetCRS, matrix);
+            }
+            if (srcDim == 3 && dstDim == 3) {
+                return new AffineTransform3D(authority, name, sourceCRS, targetCRS, matrix);
+            }
+        }
+        return new ProjectiveTransform(authority, name, sourceCRS, targetCRS, matrix);
+    }
+
+    /**
+     * Creates an identity transform of the given number of dimensions.
+     *
+     * @param  dimension  number of source and target dimensions.
+     * @return the identity transform.
+     * @throws FactoryException if the object creation failed.
+     */
+    private MathTransform createIdentity(final int dimension) throws FactoryException {
+        return createAffineTransform(new SimpleMatrix(dimension + 1, dimension + 1));
+    }
+
+    /**
+     * Returns the matrix of the given transform if it is linear, or {@code null} otherwise.
+     * The returned matrix shall not be modified.
+     *
+     * @param  transform  the transform for which to get the matrix.
+     * @return the matrix of the given transform, or {@code null} if not linear.
+     */
+    private static SimpleMatrix getMatrix(final MathTransform transform) {
+        if (transform instanceof ProjectiveTransform) {
+            return ((ProjectiveTransform) transform).matrix;
+        }
+        if (transform instanceof AffineTransform2D) {
+            final var tr = (AffineTransform2D) transform;
+            final var m = new SimpleMatrix(3, 3);
+            m.setElement(0, 0, tr.getScaleX());
+            m.setElement(0, 1, tr.getShearX());
+            m.setElement(0, 2, tr.getTranslateX());
+            m.setElement(1, 0, tr.getShearY());
+            m.setElement(1, 1, tr.getScaleY());
+            m.setElement(1, 2, tr.getTranslateY());
+            return m;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the second transform is the inverse of the first one.
+     *
+     * @param  tr1  the first transform.
+     * @param  tr2  the transform to test as a candidate inverse of the first transform.
+     * @return whether {@code tr2} is known to be the inverse of {@code tr1}.
+     */
+    private static boolean isInverse(final MathTransform tr1, final MathTransform tr2) {
+        final MathTransform inverse;
+        try {
+            inverse = tr1.inverse();
+        } catch (NoninvertibleTransformException e) {
+            return false;
+        }
+        return inverse == tr2 || inverse.equals(tr2);
     }
 
     /**
-     * Creates a transform by concatenating two existing transforms. The default implementation
-     * throws an exception in all cases since concatenated transforms are not implemented by this
-     * simple factory.
+     * Appends the given transform at the end of the given list of steps, simplifying when possible.
+     * Concatenated transforms are flattened, identity transforms are omitted, a transform followed
+     * by its inverse is removed, and consecutive linear transforms are replaced by a single transform
+     * with the product of their matrices.
+     *
+     * @param  steps      the steps where to add the given transform.
+     * @param  transform  the transform to add.
+     * @throws FactoryException if the creation of a fused transform failed.
+     */
+    private void append(final List<MathTransform> steps, final MathTransform transform) throws FactoryException {
+        if (transform instanceof ConcatenatedTransform) {
+            for (final MathTransform step : ((ConcatenatedTransform) transform).getSteps()) {
+                append(steps, step);
+            }
+            return;
+        }
+        if (transform.isIdentity()) {
+            return;
+        }
+        final int last = steps.size() - 1;
+        if (last >= 0) {
+            final MathTransform previous = steps.get(last);
+            if (isInverse(previous, transform)) {
+                steps.remove(last);
+                return;
+            }
+            final SimpleMatrix m1 = getMatrix(previous);
+            if (m1 != null) {
+                final SimpleMatrix m2 = getMatrix(transform);
+                if (m2 != null) {
+                    final var product = new SimpleMatrix(m2.getNumRow(), m1.getNumCol());
+                    product.mul(m2, m1);
+                    steps.remove(last);
+                    append(steps, createAffineTransform(product));
+                    return;
+                }
+            }
+        }
+        steps.add(transform);
+    }
+
+    /**
+     * Creates a transform by concatenating two existing transforms.
+     * This method simplifies the chain of transforms before to create the concatenated transform:
+     * consecutive linear transforms are fused in a single matrix, and a transform followed by its
+     * inverse is removed. If the result contains only one step, then that step is returned directly.
+     *
+     * @param  transform1  the first transform to apply to points.
+     * @param  transform2  the second transform to apply to points.
+     * @return the concatenated transform.
+     * @throws FactoryException if the object creation failed.
+     *
+     * @see ConcatenatedTransform
      */
     @Override
-    public MathTransform createConcatenatedTransform(MathTransform transform1, MathTransform transform2) throws FactoryException {
-        throw new FactoryException("Concatenated transforms are not implemented.");
+    public MathTransform createConcatenatedTransform(final MathTransform transform1, final MathTransform transform2)
+            throws FactoryException
+    {
+        if (transform1.getTargetDimensions() != transform2.getSourceDimensions()) {
+            throw new FactoryException("Target dimensions of the first transform do not match source dimensions of the second transform.");
+        }
+        final var steps = new ArrayList<MathTransform>();
+        append(steps, transform1);
+        append(steps, transform2);
+        switch (steps.size()) {
+            case 0:  return createIdentity(transform1.getSourceDimensions());
+            case 1:  return steps.get(0);
+            default: return new ConcatenatedTransform(steps.toArray(new MathTransform[steps.size()]));
+        }
     }
 
     /**
      * Creates a transform which passes through a subset of coordinates to another transform.
-     * The default implementation throws an exception in all cases since pass through transforms
-     * are not implemented by this simple factory.
+     * If the sub-transform is linear, then this method returns an affine transform with an
+     * expanded matrix. Otherwise the sub-transform is wrapped in a {@link PassThroughTransform}.
+     *
+     * @param  firstAffectedCoordinate  index of the first affected coordinate.
+     * @param  subTransform             the sub-transform to apply on affected coordinates.
+     * @param  numTrailingCoordinates   number of trailing coordinates to pass through.
+     * @return the pass-through transform.
+     * @throws FactoryException if the object creation failed.
      */
     @Override
-    public MathTransform createPassThroughTransform(int firstAffectedCoordinate, MathTransform subTransform, int numTrailingCoordinates) throws FactoryException {
-        throw new FactoryException("Pass through transforms are not implemented.");
+    public MathTransform createPassThroughTransform(final int firstAffectedCoordinate,
+            final MathTransform subTransform, final int numTrailingCoordinates) throws FactoryException
+    {
+        if (firstAffectedCoordinate < 0 || numTrailingCoordinates < 0) {
+            throw new FactoryException("Number of pass-through coordinates cannot be negative.");
+        }
+        if (firstAffectedCoordinate == 0 && numTrailingCoordinates == 0) {
+            return subTransform;
+        }
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        if (subTransform.isIdentity()) {
+            return createIdentity(firstAffectedCoordinate + subSrc + numTrailingCoordinates);
+        }
+        final SimpleMatrix sub = getMatrix(subTransform);
+        if (sub == null) {
+            return new PassThroughTransform(firstAffectedCoordinate, subTransform, numTrailingCoordinates);
+        }
+        final int srcDim = firstAffectedCoordinate + subSrc + numTrailingCoordinates;
+        final int dstDim = firstAffectedCoordinate + subDst + numTrailingCoordinates;
+        final var m = new SimpleMatrix(dstDim + 1, srcDim + 1);
+        m.setZero();
+        for (int i=0; i<firstAffectedCoordinate; i++) {
+            m.setElement(i, i, 1);
+        }
+        for (int j=0; j<=subDst; j++) {
+            final int row = (j == subDst) ? dstDim : firstAffectedCoordinate + j;
+            for (int i=0; i<=subSrc; i++) {
+                final int col = (i == subSrc) ? srcDim : firstAffectedCoordinate + i;
+                m.setElement(row, col, sub.getElement(j, i));
+            }
+        }
+        for (int i=0; i<numTrailingCoordinates; i++) {
+            m.setElement(firstAffectedCoordinate + subDst + i, firstAffectedCoordinate + subSrc + i, 1);
+        }
+        return createAffineTransform(m);
     }
 
     /**
@@ -9,7 +9,11 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.Iterator;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.time.temporal.Temporal;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.coordinate.CoordinateSet;
@@ -18,18 +22,29 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.CoordinateOperation;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
+import org.opengis.example.geometry.SimpleDirectPosition;
 
 
 /**
  * The result of transforming coordinate tuples using the math transform of a given coordinate operation.
  * This class is used for the default implementation of {@link SimpleTransform#transform(CoordinateSet)}.
- * This default implementation is okay for small set but should not be used for large ones.
+ * Coordinate tuples are transformed lazily, by chunks, each time that this set is iterated.
+ * Each chunk is transformed by a single call to an array-based {@code transform} method,
+ * and the memory used by this set does not depend on the number of points.
+ *
+ * <p>Because iterators and streams cannot throw checked exceptions, failures to transform
+ * a chunk of points are reported by {@link UncheckedTransformException}.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @version 3.1
  * @since   3.1
  */
 final class TransformedCoordinateSet implements CoordinateSet, CoordinateMetadata {
+    /**
+     * Maximal number of coordinate values in the temporary buffer of each iterator.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
     /**
      * The <abbr>CRS</abbr> of the transformed coordinate tuples.
      *
@@ -45,15 +60,20 @@ final class TransformedCoordinateSet implements CoordinateSet, CoordinateMetadat
     private final Temporal epoch;
 
     /**
-     * The transformed coordinate tuples.
+     * The transform to apply on the coordinate tuples.
+     */
+    private final MathTransform transform;
+
+    /**
+     * The coordinate tuples to transform.
      *
-     * @see #iterator()
-     * @see #stream()
+     * @see #spliterator()
      */
-    private final DirectPosition[] positions;
+    private final CoordinateSet data;
 
     /**
      * Creates a new transformed coordinate set.
+     * No coordinate tuple is transformed by this constructor.
      *
      * @param  operation  the coordinate operation to apply.
      * @param  data       the coordinate tuples to transform.
@@ -61,30 +81,16 @@ final class TransformedCoordinateSet implements CoordinateSet, CoordinateMetadat
      */
     TransformedCoordinateSet(final CoordinateOperation operation, final CoordinateSet data) throws TransformException {
         final CoordinateMetadata md = data.getCoordinateMetadata();
-        crs = Objects.requireNonNull(operation.getTargetCRS(), "Missing target CRS.");
-        if (!crs.equals(md.getCoordinateReferenceSystem())) {
+        if (!Objects.equals(operation.getSourceCRS(), md.getCoordinateReferenceSystem())) {
             throw new TransformException("Unexpected data CRS.");
         }
-        epoch = operation.getTargetEpoch().orElse(null);
-        if (!Objects.equals(epoch, md.getCoordinateEpoch())) {
+        if (!operation.getSourceEpoch().equals(md.getCoordinateEpoch())) {
             throw new TransformException("Missing or unexpected data epoch.");
         }
-        final MathTransform mt = operation.getMathTransform();
-        try {
-            positions = data.stream().sequential().map((p) -> {
-                try {
-                    return mt.transform(p, null);
-                } catch (TransformException e) {
-                    throw new RuntimeException(e);      // Checked exception not allowed here.
-                }
-            }).toArray(DirectPosition[]::new);
-        } catch (RuntimeException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof TransformException) {
-                throw (TransformException) cause;       // The checked exception that we couldn't throw in above lambda.
-            }
-            throw e;
-        }
+        crs   = Objects.requireNonNull(operation.getTargetCRS(), "Missing target CRS.");
+        epoch = operation.getTargetEpoch().orElse(null);
+        transform = operation.getMathTransform();
+        this.data = data;
     }
 
     /**
@@ -113,17 +119,184 @@ final class TransformedCoordinateSet implements CoordinateSet, CoordinateMetadat
 
     /**
      * Returns the transformed positions described by coordinate tuples.
+     *
+     * @throws UncheckedTransformException if a chunk of coordinate tuples cannot be transformed.
      */
     @Override
     public Iterator<DirectPosition> iterator() {
-        return Arrays.asList(positions).iterator();
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a spliterator over the transformed coordinate tuples.
+     * The spliterator can be split if the spliterator of the source data can be split.
+     */
+    @Override
+    public Spliterator<DirectPosition> spliterator() {
+        return new Chunks(data.spliterator(), 0);
     }
 
     /**
-     * Returns a stream of transformed coordinate tuples.
+     * Returns a sequential stream of transformed coordinate tuples.
+     * Invoking {@link Stream#parallel()} on the returned stream will transform chunks in parallel.
+     *
+     * @throws UncheckedTransformException if a chunk of coordinate tuples cannot be transformed.
      */
     @Override
     public Stream<DirectPosition> stream() {
-        return Arrays.stream(positions);
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * A spliterator which reads coordinate tuples from the source by chunks and transforms each chunk
+     * in a single call to {@link MathTransform#transform(double[], int, double[], int, int)}.
+     * The same buffer is used for the source and transformed coordinates of each chunk.
+     */
+    private final class Chunks implements Spliterator<DirectPosition>, Consumer<DirectPosition> {
+        /**
+         * The spliterator over the coordinate tuples to transform.
+         */
+        private final Spliterator<DirectPosition> source;
+
+        /**
+         * Index of the next point to read from the source, or -1 if unknown.
+         */
+        private long index;
+
+        /**
+         * Number of source and target dimensions.
+         */
+        private final int srcDim, dstDim;
+
+        /**
+         * Maximal number of points in a chunk.
+         */
+        private final int chunk;
+
+        /**
+         * The coordinates of the current chunk, created when first needed.
+         */
+        private double[] buffer;
+
+        /**
+         * Index of the next transformed point to return from the buffer, and number of points in the buffer.
+         */
+        private int position, count;
+
+        /**
+         * Creates a new spliterator.
+         *
+         * @param source  the spliterator over the coordinate tuples to transform.
+         * @param index   index of the first point to read from the source, or -1 if unknown.
+         */
+        Chunks(final Spliterator<DirectPosition> source, final long index) {
+            this.source = source;
+            this.index  = index;
+            srcDim = transform.getSourceDimensions();
+            dstDim = transform.getTargetDimensions();
+            chunk  = Math.max(1, BUFFER_LENGTH / Math.max(1, Math.max(srcDim, dstDim)));
+        }
+
+        /**
+         * Copies the coordinates of the given source point in the buffer.
+         * This method is invoked by {@link #fill()} for each source point.
+         *
+         * @param  point  the source point to add in the current chunk.
+         */
+        @Override
+        public void accept(final DirectPosition point) {
+            int offset = count * srcDim;
+            for (int i=0; i<srcDim; i++) {
+                buffer[offset++] = point.getCoordinate(i);
+            }
+            count++;
+        }
+
+        /**
+         * Reads the next chunk of source points and transforms them.
+         *
+         * @return {@code false} if there is no more point to read.
+         * @throws UncheckedTransformException if the chunk cannot be transformed.
+         */
+        private boolean fill() {
+            if (buffer == null) {
+                buffer = new double[chunk * Math.max(srcDim, dstDim)];
+            }
+            position = 0;
+            count    = 0;
+            while (count < chunk && source.tryAdvance(this)) {
+                // Coordinates are copied by the `accept(…)` method.
+            }
+            if (count == 0) {
+                return false;
+            }
+            final long first = index;
+            if (index >= 0) {
+                index += count;
+            }
+            try {
+                transform.transform(buffer, 0, buffer, 0, count);
+            } catch (TransformException e) {
+                final int n = count;
+                count = 0;                          // Skip this chunk if the caller continues the iteration.
+                throw new UncheckedTransformException(first, n, e);
+            }
+            return true;
+        }
+
+        /**
+         * Gives the next transformed point to the given action.
+         *
+         * @param  action  the action to execute on the next transformed point.
+         * @return {@code false} if there is no more point.
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super DirectPosition> action) {
+            if (position >= count && !fill()) {
+                return false;
+            }
+            final int offset = position++ * dstDim;
+            action.accept(new SimpleDirectPosition(crs, Arrays.copyOfRange(buffer, offset, offset + dstDim)));
+            return true;
+        }
+
+        /**
+         * Splits the source data if the current chunk has been fully consumed.
+         *
+         * @return a spliterator over a prefix of the remaining points, or {@code null} if none.
+         */
+        @Override
+        public Spliterator<DirectPosition> trySplit() {
+            if (position < count) {
+                return null;
+            }
+            final boolean exact = source.hasCharacteristics(SUBSIZED);
+            final Spliterator<DirectPosition> prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            final long start = index;
+            if (index >= 0) {
+                index = exact ? index + prefix.estimateSize() : -1;
+            }
+            return new Chunks(prefix, start);
+        }
+
+        /**
+         * Returns an estimation of the number of remaining points.
+         */
+        @Override
+        public long estimateSize() {
+            final long n = source.estimateSize();
+            return (n != Long.MAX_VALUE) ? n + (count - position) : n;
+        }
+
+        /**
+         * Returns the characteristics of the source which are still valid after the transformation.
+         */
+        @Override
+        public int characteristics() {
+            return (source.characteristics() & (ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT)) | NONNULL;
+        }
     }
 }
@@ -0,0 +1,79 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Objects;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Wraps a {@link TransformException} thrown while iterating over lazily transformed coordinate tuples.
+ * This exception is thrown by the iterators and streams of coordinate sets returned by
+ * {@link SimpleTransform#transform(org.opengis.coordinate.CoordinateSet)}, because those methods
+ * cannot throw checked exceptions. Coordinates are transformed by chunks, so this exception
+ * identifies the chunk which failed.
+ */
+public class UncheckedTransformException extends RuntimeException {
+    /**
+     * Serial number for inter-operability with different versions.
+     */
+    private static final long serialVersionUID = 4395781546253867209L;
+
+    /**
+     * Index of the first point of the chunk which failed, or -1 if unknown.
+     */
+    private final long firstPoint;
+
+    /**
+     * Number of points in the chunk which failed.
+     */
+    private final int numPoints;
+
+    /**
+     * Creates an exception for a chunk of points which cannot be transformed.
+     *
+     * @param firstPoint  index of the first point of the chunk which failed, or -1 if unknown.
+     * @param numPoints   number of points in the chunk which failed.
+     * @param cause       the exception thrown by the math transform.
+     */
+    public UncheckedTransformException(final long firstPoint, final int numPoints, final TransformException cause) {
+        super("Cannot transform the " + numPoints + " points" + (firstPoint >= 0 ? " starting at index " + firstPoint : "")
+                + ": " + cause.getMessage(), Objects.requireNonNull(cause));
+        this.firstPoint = firstPoint;
+        this.numPoints  = numPoints;
+    }
+
+    /**
+     * Returns the index of the first point of the chunk which failed.
+     * The index is relative to the iteration order of the source coordinate set.
+     * It may be unknown if the failure happened in a parallel stream split in parts of unknown size.
+     *
+     * @return index of the first point of the chunk which failed, or -1 if unknown.
+     */
+    public long getFirstPoint() {
+        return firstPoint;
+    }
+
+    /**
+     * Returns the number of points in the chunk which failed.
+     * Some points in that chunk may have been transformed successfully.
+     *
+     * @return number of points in the chunk which failed.
+     */
+    public int getNumPoints() {
+        return numPoints;
+    }
+
+    /**
+     * Returns the exception thrown by the math transform.
+     *
+     * @return the exception thrown by the math transform.
+     */
+    @Override
+    public synchronized TransformException getCause() {
+        return (TransformException) super.getCause();
+    }
+}
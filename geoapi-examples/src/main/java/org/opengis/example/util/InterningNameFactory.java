@@ -0,0 +1,224 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.util;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import javax.naming.Name;
+
+import org.opengis.util.NameSpace;
+import org.opengis.util.LocalName;
+import org.opengis.util.MemberName;
+import org.opengis.util.TypeName;
+import org.opengis.util.GenericName;
+
+
+/**
+ * A {@link SimpleNameFactory} which returns the same instance when the same name is requested many times.
+ * Names are interned in a canonical table keyed by the name class, the scope, the parsed names and,
+ * for type and member names, the Java type or attribute type. The table is concurrent and references
+ * the names weakly, so names which are no longer used elsewhere can be garbage-collected.
+ *
+ * <p>Since equal names created by the same interning factory are the same instance,
+ * applications can compare those names by identity. This is useful for schemas
+ * which repeat the same names many times.</p>
+ *
+ * <p>Names created by this factory in a {@linkplain #createNameSpace namespace} created by this factory
+ * are also interned when they are obtained from methods such as {@link GenericName#getParsedNames()}.</p>
+ */
+public class InterningNameFactory extends SimpleNameFactory {
+    /**
+     * The canonical names, as weak references.
+     */
+    private final ConcurrentHashMap<Key,Ref> table;
+
+    /**
+     * The queue of references to names which have been garbage-collected.
+     */
+    private final ReferenceQueue<SimpleName> queue;
+
+    /**
+     * Creates a new factory initialized to the default {@linkplain #syntax}.
+     */
+    public InterningNameFactory() {
+        table = new ConcurrentHashMap<>();
+        queue = new ReferenceQueue<>();
+    }
+
+    /**
+     * The key of a name in the canonical table. The key shall not reference the name,
+     * otherwise the name would never be garbage-collected.
+     */
+    private static final class Key {
+        /** The class of the name. */
+        private final Class<?> type;
+
+        /** The scope of the name, or {@code null} for the global namespace. */
+        private final SimpleNameSpace scope;
+
+        /** The parsed names. */
+        private final Name name;
+
+        /** The Java type of a type name, or the attribute type of a member name, or {@code null}. */
+        private final Object extra;
+
+        /** The hash code, computed at construction time. */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         *
+         * @param type   the class of the name.
+         * @param scope  the scope of the name, or {@code null} for the global namespace.
+         * @param name   the parsed names.
+         * @param extra  the Java type or attribute type, or {@code null}.
+         */
+        Key(final Class<?> type, final SimpleNameSpace scope, final Name name, final Object extra) {
+            this.type  = type;
+            this.scope = scope;
+            this.name  = name;
+            this.extra = extra;
+            hash = type.hashCode() + 31*(name.hashCode() + 31*(Objects.hashCode(scope) + 31*Objects.hashCode(extra)));
+        }
+
+        /** Returns the hash code computed at construction time. */
+        @Override public int hashCode() {
+            return hash;
+        }
+
+        /** Compares all components of the keys. */
+        @Override public boolean equals(final Object other) {
+            if (other instanceof Key) {
+                final var that = (Key) other;
+                return hash == that.hash && type == that.type && name.equals(that.name)
+                        && Objects.equals(scope, that.scope) && Objects.equals(extra, that.extra);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A weak reference to a canonical name, which remembers its key for removal from the table.
+     */
+    private static final class Ref extends WeakReference<SimpleName> {
+        /** The key of the name in the table. */
+        final Key key;
+
+        /**
+         * Creates a new reference.
+         *
+         * @param name   the canonical name.
+         * @param key    the key of the name in the table.
+         * @param queue  the queue where to register the reference.
+         */
+        Ref(final SimpleName name, final Key key, final ReferenceQueue<SimpleName> queue) {
+            super(name, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Returns the canonical instance of the given name.
+     * If there is no canonical instance yet, then the given name becomes the canonical instance.
+     *
+     * @param  <N>    the type of the name.
+     * @param  name   the name to intern.
+     * @param  extra  the Java type of a type name, or the attribute type of a member name, or {@code null}.
+     * @return the canonical instance of the given name.
+     */
+    @SuppressWarnings("unchecked")                  // Safe because the key contains the class.
+    private <N extends SimpleName> N intern(final N name, final Object extra) {
+        Ref removed;
+        while ((removed = (Ref) queue.poll()) != null) {
+            table.remove(removed.key, removed);
+        }
+        final var key = new Key(name.getClass(), name.scope, name.name, extra);
+        final var ref = new Ref(name, key, queue);
+        while (true) {
+            final Ref existing = table.putIfAbsent(key, ref);
+            if (existing == null) {
+                return name;
+            }
+            final SimpleName canonical = existing.get();
+            if (canonical != null) {
+                ref.clear();
+                return (N) canonical;
+            }
+            table.remove(key, existing);            // Collected but not yet polled: retry.
+        }
+    }
+
+    /**
+     * Returns the canonical type name for the given character sequence and explicit Java type.
+     *
+     * @param  scope     the {@linkplain GenericName#scope() scope} of the type name to create,
+     *                   or {@code null} for a global namespace.
+     * @param  name      the type name as a string or an international string.
+     * @param  javaType  the Java type represented by the name, or {@code null} if none.
+     * @return the type name for the given scope, character sequence and Java type.
+     */
+    @Override
+    public TypeName createTypeName(final NameSpace scope, final CharSequence name, final Type javaType) {
+        return intern((SimpleName.Type) super.createTypeName(scope, name, javaType), javaType);
+    }
+
+    /**
+     * Returns the canonical member name for the given character sequence and attribute type.
+     *
+     * @param  scope          the {@linkplain GenericName#scope() scope} of the member name to be created,
+     *                        or {@code null} for a global namespace.
+     * @param  name           the member name as a string or an international string.
+     * @param  attributeType  the type of the data associated with the record member.
+     * @return the member name for the given character sequence.
+     */
+    @Override
+    public MemberName createMemberName(final NameSpace scope, final CharSequence name, final TypeName attributeType) {
+        return intern((SimpleName.Member) super.createMemberName(scope, name, attributeType), attributeType);
+    }
+
+    /**
+     * Returns the canonical local name for the given character sequence.
+     *
+     * @param  scope  the {@linkplain GenericName#scope() scope} of the local name to be created,
+     *                or {@code null} for a global namespace.
+     * @param  name   the local name as a string or an international string.
+     * @return the local name for the given character sequence.
+     */
+    @Override
+    public LocalName createLocalName(final NameSpace scope, final CharSequence name) {
+        return intern((SimpleName.Local) super.createLocalName(scope, name), null);
+    }
+
+    /**
+     * Returns the canonical local or scoped name for the given array of parsed names.
+     *
+     * @param  scope        the {@linkplain GenericName#scope() scope} of the generic name
+     *                      to be created, or {@code null} for a global namespace.
+     * @param  parsedNames  the local names as an array of strings or international strings.
+     *                      This array must contains at least one element.
+     * @return the generic name for the given parsed names.
+     */
+    @Override
+    public GenericName createGenericName(final NameSpace scope, final CharSequence... parsedNames) {
+        return intern(SimpleName.castOrCopy(super.createGenericName(scope, parsedNames)), null);
+    }
+
+    /**
+     * Returns the canonical generic name for the given qualified name.
+     *
+     * @param  scope  the {@linkplain GenericName#scope() scope} of the generic name to be created,
+     *                or {@code null} for a global namespace.
+     * @param  name   the qualified name, as a sequence of names separated by a scope-dependent separator.
+     * @return a name parsed from the given string.
+     */
+    @Override
+    public GenericName parseGenericName(final NameSpace scope, final CharSequence name) {
+        return intern(SimpleName.castOrCopy(super.parseGenericName(scope, name)), null);
+    }
+}
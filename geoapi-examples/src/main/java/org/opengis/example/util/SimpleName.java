@@ -6,7 +6,7 @@
 package org.opengis.example.util;
 
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Objects;
@@ -29,10 +29,12 @@ import org.opengis.example.metadata.SimpleCitation;
  * of {@link LocalName} or {@link ScopedName} implementations, depending on whether the
  * {@linkplain Name#size() size} of the wrapped JNDI name is 1 or more, respectively.
  *
- * <p>This implementation is a <em>view</em>: any change applied on the wrapped JNDI object
- * will be immediately reflected in the {@code SimpleName} wrapper. Note however that
- * {@code GenericName} are usually expected to be immutable, so users are advised to not
- * modify the wrapped JNDI name.</p>
+ * <p>The components of the JNDI name are copied at construction time in an immutable array,
+ * which is shared with the names derived from this name when possible. The
+ * {@linkplain #getParsedNames() parsed names}, the string representation, the hash code and the
+ * {@linkplain #toFullyQualifiedName() fully qualified name} are computed when first requested,
+ * then cached. Consequently, changes applied on the wrapped JNDI object after construction are
+ * not reflected in the {@code SimpleName}, and users are advised to not modify that object.</p>
  *
  * @see #jndiName()
  */
@@ -178,11 +180,10 @@ public class SimpleName implements GenericName {
          */
         @Override
         public List<LocalName> getParsedNames() {
-            switch (super.depth()) {
-                case 0:  return Collections.emptyList();                    // Only for the root namespace.
-                case 1:  return Collections.<LocalName>singletonList(this);
-                default: return super.getParsedNames();
+            if (super.depth() == 0) {
+                return Collections.emptyList();                             // Only for the root namespace.
             }
+            return Collections.<LocalName>singletonList(this);
         }
 
         /**
@@ -192,11 +193,7 @@ public class SimpleName implements GenericName {
          */
         @Override
         public LocalName head() {
-            switch (super.depth()) {
-                case 0:  return null;               // Only for the root namespace; prevent never-ending loop.
-                case 1:  return this;               // The normal case, which should always be selected.
-                default: return super.head();       // Only if user modified the JNDI Name.
-            }
+            return (super.depth() != 0) ? this : null;      // Null only for the root namespace.
         }
 
         /**
@@ -206,11 +203,7 @@ public class SimpleName implements GenericName {
          */
         @Override
         public LocalName tip() {
-            switch (super.depth()) {
-                case 0:  return null;               // Only for the root namespace; prevent never-ending loop.
-                case 1:  return this;               // The normal case, which should always be selected.
-                default: return super.tip();        // Only if user modified the JNDI Name.
-            }
+            return (super.depth() != 0) ? this : null;      // Null only for the root namespace.
         }
     }
 
@@ -235,20 +228,28 @@ public class SimpleName implements GenericName {
             }
         }
 
+        /**
+         * Creates a new instance with components and parsed names computed by the caller.
+         *
+         * @param  scope       the scope (name space) in which the given name is local, or {@code null}.
+         * @param  name        the JNDI name wrapped by this {@code SimpleName} (<strong>not</strong> cloned).
+         * @param  components  the components of the JNDI name (<strong>not</strong> cloned).
+         * @param  seed        the parsed names, with {@code null} elements for the ones to compute later.
+         */
+        Scoped(final SimpleNameSpace scope, final Name name, final String[] components, final LocalName[] seed) {
+            super(scope, name, components, seed);
+        }
+
         /**
          * Returns every elements of the {@linkplain #getParsedNames() parsed names list} except for
          * the {@linkplain #head() head}. This implementation creates a new generic name from the
-         * JNDI name {@linkplain Name#getSuffix(int) suffix}.
+         * JNDI name {@linkplain Name#getSuffix(int) suffix}, in the scope of the second parsed name.
          *
          * @see Name#getSuffix(int)
          */
         @Override
         public GenericName tail() {
-            try {
-                return create(new SimpleNameSpace(scope, name.get(0)), name.getSuffix(1));
-            } catch (InvalidNameException e) {
-                throw new IllegalStateException(e);
-            }
+            return create(castOrCopy(locals()[1]).scope, name.getSuffix(1));
         }
 
         /**
@@ -260,7 +261,7 @@ public class SimpleName implements GenericName {
          */
         @Override
         public GenericName path() {
-            return create(scope, name.getPrefix(name.size() - 1));
+            return create(scope, name.getPrefix(super.depth() - 1));
         }
     }
 
@@ -283,17 +284,94 @@ public class SimpleName implements GenericName {
      */
     protected final Name name;
 
+    /**
+     * The components of the JNDI name, copied at construction time. This array shall not be modified,
+     * since it may be shared with other names.
+     */
+    private final String[] components;
+
+    /**
+     * Parsed names shared with other names, with {@code null} elements for the names to create.
+     * This array is non-null only for names created by {@link #push(GenericName)}.
+     */
+    private final LocalName[] seed;
+
+    /**
+     * The parsed names, created when first needed.
+     *
+     * @see #locals()
+     */
+    private volatile LocalName[] locals;
+
+    /**
+     * The unmodifiable list of parsed names, created when first needed.
+     *
+     * @see #getParsedNames()
+     */
+    private volatile List<LocalName> parsedNames;
+
+    /**
+     * The fully qualified name, created when first needed.
+     *
+     * @see #toFullyQualifiedName()
+     */
+    private volatile GenericName fullyQualified;
+
+    /**
+     * The string representation, created when first needed.
+     *
+     * @see #toString()
+     */
+    private String string;
+
+    /**
+     * The hash code value, or 0 if not yet computed.
+     *
+     * @see #hashCode()
+     */
+    private int hash;
+
     /**
      * Creates a new instance backed by the given JNDI name. This constructor does not clone the
-     * given JNDI name. While this implementation is robust to change in the wrapped object, it is
-     * a better practice to keep the JNDI name unmodified after {@code SimpleName} construction.
+     * given JNDI name, but copies its components. The JNDI name should not be modified after
+     * {@code SimpleName} construction.
      *
      * @param scope  the scope (name space) in which the given name is local, or {@code null}.
      * @param name   the JNDI name wrapped by this {@code SimpleName} (<strong>not</strong> cloned).
      */
     protected SimpleName(final SimpleNameSpace scope, final Name name) {
-        this.scope = (scope != SimpleNameSpace.ROOT) ? scope : null;
-        this.name  = Objects.requireNonNull(name, "A JNDI name must be provided.");
+        this(scope, Objects.requireNonNull(name, "A JNDI name must be provided."), components(name), null);
+    }
+
+    /**
+     * Creates a new instance with components and parsed names computed by the caller.
+     *
+     * @param scope       the scope (name space) in which the given name is local, or {@code null}.
+     * @param name        the JNDI name wrapped by this {@code SimpleName} (<strong>not</strong> cloned).
+     * @param components  the components of the JNDI name (<strong>not</strong> cloned).
+     * @param seed        the parsed names with {@code null} elements for the ones to compute later,
+     *                    or {@code null} if none.
+     */
+    SimpleName(final SimpleNameSpace scope, final Name name, final String[] components, final LocalName[] seed) {
+        this.scope      = (scope != SimpleNameSpace.ROOT) ? scope : null;
+        this.name       = name;
+        this.components = components;
+        this.seed       = seed;
+    }
+
+    /**
+     * Returns the components of the given JNDI name in a new array.
+     *
+     * @param  name  the JNDI name.
+     * @return the components of the given name.
+     */
+    private static String[] components(final Name name) {
+        final var array = new String[name.size()];
+        final Enumeration<String> it = name.getAll();
+        for (int i=0; i<array.length; i++) {
+            array[i] = it.nextElement();
+        }
+        return array;
     }
 
     /**
@@ -353,39 +431,59 @@ public class SimpleName implements GenericName {
 
     /**
      * Returns the number of levels specified by this name. The default implementation
-     * returns the {@linkplain Name#size() size} of the wrapped JNDI name.
+     * returns the {@linkplain Name#size() size} of the wrapped JNDI name at construction time.
      *
      * @see Name#size()
      */
     @Override
     public int depth() {
-        return name.size();
+        return components.length;
     }
 
     /**
      * Returns the sequence of {@linkplain LocalName local names} making this generic name.
      * The length of this sequence is the {@linkplain #depth() depth}. It does not include
-     * the {@linkplain #scope() scope}.
+     * the {@linkplain #scope() scope}. The list is computed when first requested, then cached.
      *
      * @see Name#getAll()
      */
     @Override
     public List<LocalName> getParsedNames() {
-        SimpleNameSpace parent = scope;
-        final List<LocalName> names = new ArrayList<>(name.size());
-        final Enumeration<String> it = name.getAll();
-        if (it.hasMoreElements()) try {
+        List<LocalName> names = parsedNames;
+        if (names == null) {
+            parsedNames = names = Collections.unmodifiableList(Arrays.asList(locals()));
+        }
+        return names;
+    }
+
+    /**
+     * Returns the parsed names as an array, computed when first needed.
+     * The returned array shall not be modified, since it is cached.
+     *
+     * @return the parsed names.
+     */
+    final LocalName[] locals() {
+        LocalName[] names = locals;
+        if (names == null) {
+            names = (seed != null) ? seed.clone() : new LocalName[components.length];
+            int last = names.length;
+            while (--last >= 0 && names[last] != null);         // Index of the last name to create.
+            SimpleNameSpace parent = scope;
             final SimpleNameFactory factory = nonNull(parent).factory;
-            while (true) {
-                final String n = it.nextElement();
-                names.add(factory.createLocalName(parent, n));
-                if (!it.hasMoreElements()) {
-                    break;
+            try {
+                for (int i=0; i<=last; i++) {
+                    final String n = components[i];
+                    if (names[i] == null) {
+                        names[i] = factory.createLocalName(parent, n);
+                    }
+                    if (i != last) {
+                        parent = new SimpleNameSpace(parent, n);
+                    }
                 }
-                parent = new SimpleNameSpace(parent, n);
+            } catch (InvalidNameException e) {
+                throw new IllegalStateException(e);
             }
-        } catch (InvalidNameException e) {
-            throw new IllegalStateException(e);
+            locals = names;
         }
         return names;
     }
@@ -397,7 +495,7 @@ public class SimpleName implements GenericName {
      */
     @Override
     public LocalName head() {
-        return nonNull(scope).factory.createLocalName(scope, name.get(0));
+        return locals()[0];
     }
 
     /**
@@ -407,20 +505,15 @@ public class SimpleName implements GenericName {
      */
     @Override
     public LocalName tip() {
-        final int n = name.size() - 1;
-        final SimpleNameSpace parent;
-        try {
-            parent = new SimpleNameSpace(scope, name.getPrefix(n));
-        } catch (InvalidNameException e) {
-            throw new IllegalStateException(e);
-        }
-        return nonNull(scope).factory.createLocalName(parent, name.get(n));
+        final LocalName[] names = locals();
+        return names[names.length - 1];
     }
 
     /**
      * Returns a view of this name as a fully-qualified name. The {@linkplain #scope() scope}
      * of a fully qualified name will be {@linkplain NameSpace#isGlobal() global}. If the scope
-     * of this name is already global, then this method returns {@code this}.
+     * of this name is already global, then this method returns {@code this}. Otherwise the
+     * fully-qualified name is computed when first requested, then cached.
      *
      * @return the fully-qualified name (never {@code null}).
      */
@@ -429,18 +522,25 @@ public class SimpleName implements GenericName {
         if (scope == null || scope.isGlobal()) {
             return this;
         }
-        Name n = scope.name.jndiName();
-        try {
-            n = n.addAll(name);
-        } catch (InvalidNameException e) {
-            throw new IllegalStateException(e);
+        GenericName fq = fullyQualified;
+        if (fq == null) {
+            Name n = scope.name.jndiName();
+            try {
+                n = n.addAll(name);
+            } catch (InvalidNameException e) {
+                throw new IllegalStateException(e);
+            }
+            fullyQualified = fq = create(scope.name.scope, n);
         }
-        return create(scope.name.scope, n);
+        return fq;
     }
 
     /**
      * Returns this name expanded with the specified scope. One may represent this operation
-     * as a concatenation of the specified {@code scope} with {@code this}.
+     * as a concatenation of the specified {@code scope} with {@code this}. The parsed names
+     * already computed for the given scope are shared with the returned name, and so are the
+     * parsed names of this name if the scope of this name is the namespace identified by the
+     * fully-qualified form of the given scope.
      *
      * @param scope The name to use as prefix.
      * @return a concatenation of the given name with this name.
@@ -456,7 +556,28 @@ public class SimpleName implements GenericName {
         } catch (InvalidNameException e) {
             throw new IllegalStateException(e);
         }
-        return new Scoped(sc.scope, n);
+        final int prefix = sc.components.length;
+        final String[] concat = Arrays.copyOf(sc.components, prefix + components.length);
+        System.arraycopy(components, 0, concat, prefix, components.length);
+        final var shared = new LocalName[concat.length];
+        final LocalName[] head = sc.locals;
+        if (head != null) {
+            System.arraycopy(head, 0, shared, 0, prefix);
+        }
+        final LocalName[] tail = locals;
+        if (tail != null) {
+            final String[] outer = nonNull(sc.scope).name.components;
+            final String[] inner = nonNull(this.scope).name.components;
+            final int split = outer.length;
+            if (nonNull(this.scope).factory == nonNull(sc.scope).factory
+                    && inner.length == split + prefix
+                    && Arrays.equals(inner, 0, split, outer, 0, split)
+                    && Arrays.equals(inner, split, inner.length, sc.components, 0, prefix))
+            {
+                System.arraycopy(tail, 0, shared, prefix, tail.length);
+            }
+        }
+        return new Scoped(sc.scope, n, concat, shared);
     }
 
     /**
@@ -467,7 +588,11 @@ public class SimpleName implements GenericName {
      */
     @Override
     public String toString() {
-        return name.toString();
+        String s = string;
+        if (s == null) {
+            string = s = name.toString();
+        }
+        return s;
     }
 
     /**
@@ -484,6 +609,8 @@ public class SimpleName implements GenericName {
     /**
      * Compares this name with the given object for lexicographical order.
      * Note that the {@linkplain #scope() scope} is not part of this comparison.
+     * The comparison is delegated to the JNDI names, which honor the
+     * {@linkplain SimpleNameFactory#syntax syntax} rules about case and blanks.
      *
      * @param  other  the other object to compare to this name.
      */
@@ -495,27 +622,37 @@ public class SimpleName implements GenericName {
     /**
      * Compares the given object to this name for equality. This method compares
      * both the {@linkplain #scope() scope} and the {@linkplain #name} given to
-     * the constructor.
+     * the constructor. Names having different hash codes are rejected without
+     * comparing their components.
      *
      * @param  other  the other object to compare to this name.
      */
     @Override
     public boolean equals(final Object other) {
+        if (other == this) {
+            return true;                    // Common case with names from InterningNameFactory.
+        }
         if (other != null && getClass().equals(other.getClass())) {
             final SimpleName that = (SimpleName) other;
-            return name.equals(that.name) && Objects.equals(scope, that.scope);
+            return hashCode() == that.hashCode()
+                    && (Arrays.equals(components, that.components) || name.equals(that.name))
+                    && Objects.equals(scope, that.scope);
         }
         return false;
     }
 
     /**
-     * Returns a hash code value for this name.
+     * Returns a hash code value for this name. The value is computed when first requested, then cached.
      */
     @Override
     public int hashCode() {
-        int code = name.hashCode() ^ 69918493;
-        if (scope != null) {
-            code += 31*scope.hashCode();
+        int code = hash;
+        if (code == 0) {
+            code = name.hashCode() ^ 69918493;
+            if (scope != null) {
+                code += 31*scope.hashCode();
+            }
+            hash = code;
         }
         return code;
     }
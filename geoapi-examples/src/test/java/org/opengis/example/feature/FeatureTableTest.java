@@ -0,0 +1,287 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.List;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import java.io.UncheckedIOException;
+import java.io.NotSerializableException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.opengis.filter.Filter;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.opengis.feature.Feature;
+import org.opengis.feature.Attribute;
+import org.opengis.feature.PropertyNotFoundException;
+import org.opengis.example.filter.FilterCompiler;
+import org.opengis.example.filter.BatchEvaluator;
+import org.opengis.example.filter.QueryPipeline;
+import org.opengis.example.filter.SortEngine;
+import org.opengis.example.filter.SimpleFilterFactory;
+import org.opengis.example.util.SimpleNameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link FeatureTable}, {@link SimpleFeature} and {@link SimpleFeatureType}.
+ */
+public class FeatureTableTest {
+    /**
+     * The type of features used in the tests: a city with a name, a population and an area.
+     */
+    private final SimpleFeatureType city;
+
+    /**
+     * Creates a new test case.
+     */
+    public FeatureTableTest() {
+        city = new SimpleFeatureType("City",
+                new SimpleAttributeType<>("name", String.class),
+                new SimpleAttributeType<>("population", Integer.class),
+                new SimpleAttributeType<>("area", Double.class));
+    }
+
+    /**
+     * Creates a table of cities.
+     *
+     * @return a table of three cities.
+     */
+    private FeatureTable cities() {
+        final var table = new FeatureTable(city, 2);
+        final Object[][] values = {
+            {"Paris",    2161000, 105.4},
+            {"Montréal", 1762949, 431.5},
+            {"Lima",     null,    null}
+        };
+        for (final Object[] row : values) {
+            final SimpleFeature feature = table.add();
+            for (int i=0; i<row.length; i++) {
+                feature.setPropertyValue(i, row[i]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Tests the property indexes, including inherited properties.
+     */
+    @Test
+    public void testIndexes() {
+        assertEquals(3, city.getPropertyCount());
+        assertEquals(1, city.indexOf("population"));
+        assertEquals(-1, city.indexOf("country"));
+        assertSame(city.getProperty(2), city.getProperty("area"));
+        assertThrows(PropertyNotFoundException.class, () -> city.getProperty("country"));
+        assertTrue(city.isSimple());
+
+        final var capital = new SimpleFeatureType(SimpleNameFactory.DEFAULT.createLocalName(null, "Capital"),
+                false, Set.of(city), List.of(new SimpleAttributeType<>("country", String.class),
+                                             new SimpleAttributeType<>("area", Float.class)));
+        assertEquals(4, capital.getPropertyCount());
+        assertEquals(2, capital.indexOf("area"));
+        assertEquals(3, capital.indexOf("country"));
+        assertEquals(Float.class, ((SimpleAttributeType<?>) capital.getProperty("area")).getValueClass());
+        assertEquals(2, capital.getProperties(false).size());
+        assertTrue (city.isAssignableFrom(capital));
+        assertFalse(capital.isAssignableFrom(city));
+    }
+
+    /**
+     * Tests getting and setting values by name and by index.
+     */
+    @Test
+    public void testValues() {
+        final FeatureTable table = cities();
+        assertEquals(3, table.size());
+        final SimpleFeature feature = table.get(0);
+        assertEquals("Paris", feature.getPropertyValue("name"));
+        assertEquals(2161000, feature.getPropertyValue("population"));
+        assertEquals(105.4,   feature.getDouble(2));
+        assertEquals(2161000, feature.getDouble(1));
+
+        feature.moveTo(2);
+        assertEquals("Lima", feature.getPropertyValue(0));
+        assertNull(feature.getPropertyValue("population"));
+        assertNull(feature.getPropertyValue("area"));
+        assertTrue(Double.isNaN(feature.getDouble(1)));
+        feature.setDouble(2, 2672.3);
+        assertEquals(2672.3, feature.getPropertyValue("area"));
+        assertEquals("fallback", feature.getValueOrFallback("country", "fallback"));
+
+        assertThrows(ClassCastException.class, () -> feature.setPropertyValue("population", "many"));
+        assertThrows(PropertyNotFoundException.class, () -> feature.setPropertyValue("country", "Peru"));
+        assertThrows(IndexOutOfBoundsException.class, () -> feature.moveTo(3));
+
+        @SuppressWarnings("unchecked")
+        final var name = (Attribute<String>) feature.getProperty("name");
+        name.setValue("Lima Metropolitana");
+        assertEquals("Lima Metropolitana", feature.getPropertyValue("name"));
+        assertEquals(List.of("Lima Metropolitana"), name.getValues());
+        assertEquals(table.get(2), feature);
+    }
+
+    /**
+     * Tests the storage of {@link Float} and {@link Long} values in primitive arrays.
+     */
+    @Test
+    public void testPrimitiveColumns() {
+        final var type = new SimpleFeatureType("Measure",
+                new SimpleAttributeType<>("id", Long.class),
+                new SimpleAttributeType<>("ratio", Float.class));
+        final var table = new FeatureTable(type, 2);
+        final long id = (1L << 53) + 1;
+        final SimpleFeature feature = table.add();
+        feature.setPropertyValue("id", id);
+        feature.setDouble(1, 0.1);
+        assertEquals(id,   feature.getPropertyValue("id"));
+        assertEquals(0.1f, feature.getPropertyValue("ratio"));
+        assertEquals((double) 0.1f, feature.getDouble(1));
+        table.add().setPropertyValue("id", 7L);
+
+        final var factory = new SimpleFilterFactory<Feature>(Feature.class, (f, name) -> f.getValueOrFallback(name, null));
+        final Filter<Feature> filter = factory.less(factory.property("id"), factory.literal(10));
+        final var expected = new BitSet();
+        expected.set(1);
+        assertEquals(expected, new BatchEvaluator<>(filter).test(table.toColumnBatch()));
+    }
+
+    /**
+     * Tests a multi-valued attribute.
+     */
+    @Test
+    public void testMultiValued() {
+        final var type = new SimpleFeatureType("River",
+                new SimpleAttributeType<>(SimpleNameFactory.DEFAULT.createLocalName(null, "countries"), String.class, 0, 10, null));
+        final Feature feature = type.newInstance();
+        assertEquals(List.of(), feature.getPropertyValue("countries"));
+        feature.setPropertyValue("countries", List.of("Brazil", "Peru"));
+        assertEquals(List.of("Brazil", "Peru"), feature.getPropertyValue("countries"));
+        assertFalse(type.isSimple());
+    }
+
+    /**
+     * Tests the evaluation of filters on the table, with index-based accessors and with columns.
+     */
+    @Test
+    public void testFilters() {
+        final FeatureTable table = cities();
+        final var factory = new SimpleFilterFactory<Feature>(Feature.class, (f, name) -> f.getValueOrFallback(name, null));
+        final Filter<Feature> filter = factory.and(
+                factory.greater(factory.property("area"), factory.literal(100)),
+                factory.like(factory.property("name"), "%is"));
+
+        final Predicate<Feature> predicate = new FilterCompiler<Feature>((ref) -> city.accessor(ref.getXPath())).compile(filter);
+        assertTrue (predicate.test(table.get(0)));
+        assertFalse(predicate.test(table.get(1)));
+        assertFalse(predicate.test(table.get(2)));
+
+        final var expected = new BitSet();
+        expected.set(0);
+        assertEquals(expected, new BatchEvaluator<>(filter).test(table.toColumnBatch()));
+    }
+
+    /**
+     * Tests the memoization of operations, including an operation depending on another operation.
+     */
+    @Test
+    public void testMemoize() {
+        final var count   = new AtomicInteger();
+        final var density = new SimpleOperation<>("density", new SimpleAttributeType<>("density", Double.class),
+                Set.of("population", "area"), (f) -> {
+                    count.incrementAndGet();
+                    return ((Number) f.getPropertyValue("population")).doubleValue() / (Double) f.getPropertyValue("area");
+                });
+        final var label = new SimpleOperation<>("label", new SimpleAttributeType<>("label", String.class),
+                Set.of("density"), (f) -> "density=" + f.getPropertyValue("density"));
+        final var type = new SimpleFeatureType(SimpleNameFactory.DEFAULT.createLocalName(null, "DenseCity"),
+                false, Set.of(city), List.of(density, label));
+        final var table = new FeatureTable(type, 1);
+        final SimpleFeature feature = table.add();
+        feature.setPropertyValue("population", 1000);
+        feature.setPropertyValue("area", 10.0);
+        /*
+         * Without memoization, the value is computed on each access.
+         */
+        assertEquals(100.0, feature.getPropertyValue("density"));
+        assertEquals(100.0, feature.getPropertyValue("density"));
+        assertEquals(2, count.get());
+
+        table.memoize("density", "label");
+        assertEquals("density=100.0", feature.getPropertyValue("label"));
+        assertEquals(100.0, feature.getDouble(type.indexOf("density")));
+        assertEquals(100.0, feature.getProperty("density").getValue());
+        assertEquals(3, count.get());
+        /*
+         * Changing a property used by the operation invalidates the cache, directly or indirectly.
+         * Changing a property not used by the operation does not.
+         */
+        feature.setPropertyValue("name", "Somewhere");
+        assertEquals(100.0, feature.getPropertyValue("density"));
+        assertEquals(3, count.get());
+        feature.setDouble(type.indexOf("area"), 20);
+        assertEquals("density=50.0", feature.getPropertyValue("label"));
+        assertEquals(50.0, feature.getPropertyValue("density"));
+        assertEquals(4, count.get());
+        /*
+         * Caches are per feature.
+         */
+        final SimpleFeature other = table.add();
+        other.setPropertyValue("population", 30);
+        other.setPropertyValue("area", 3.0);
+        assertEquals(10.0, other.getPropertyValue("density"));
+        assertEquals(50.0, feature.getPropertyValue("density"));
+        assertEquals(5, count.get());
+        assertThrows(IllegalArgumentException.class, () -> table.memoize("area"));
+        assertThrows(IllegalArgumentException.class, () -> feature.setPropertyValue("density", 4.0));
+    }
+
+    /**
+     * Tests sorting features with temporary files. The features are not serializable,
+     * so they are written as row indexes.
+     */
+    @Test
+    public void testSortWithTemporaryFiles() {
+        final var table = new FeatureTable(city, 1000);
+        for (int i=0; i<1000; i++) {
+            final SimpleFeature feature = table.add();
+            feature.setPropertyValue("name", "City " + i);
+            feature.setPropertyValue("population", (i * 7919) % 1000);
+        }
+        final var factory = new SimpleFilterFactory<Feature>(Feature.class, (f, name) -> f.getValueOrFallback(name, null));
+        final List<SortProperty<Feature>> sortBy = List.of(factory.sort(factory.property("population"), SortOrder.DESCENDING));
+        final List<Object> expected = table.features().stream().sorted(sortBy.get(0))
+                .map((f) -> f.getPropertyValue("name")).collect(Collectors.toList());
+
+        final var engine = new SortEngine<Feature>(sortBy, (ref) -> city.accessor(ref.getXPath()));
+        engine.setRowSize((f) -> 100);
+        engine.setMemoryBudget(10_000);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> {
+            try (Stream<Feature> sorted = engine.sort(table.features().stream())) {
+                sorted.count();
+            }
+        });
+        assertInstanceOf(NotSerializableException.class, e.getCause());
+
+        engine.setExternalForm((f) -> ((SimpleFeature) f).getRow(), (row) -> table.get((Integer) row));
+        try (Stream<Feature> sorted = engine.sort(table.features().stream())) {
+            assertEquals(expected, sorted.map((f) -> f.getPropertyValue("name")).collect(Collectors.toList()));
+        }
+
+        final var query = new QueryPipeline<Feature>((ref) -> city.accessor(ref.getXPath()));
+        query.setSortBy(sortBy);
+        query.setMemoryBudget(10_000);
+        query.setExternalForm((f) -> ((SimpleFeature) f).getRow(), (row) -> table.get((Integer) row));
+        try (Stream<Object[]> rows = query.execute(table.features().stream())) {
+            assertEquals(expected, rows.map((row) -> ((Feature) row[0]).getPropertyValue("name")).collect(Collectors.toList()));
+        }
+    }
+}
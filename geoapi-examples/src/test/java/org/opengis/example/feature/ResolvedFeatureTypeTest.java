@@ -0,0 +1,176 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.feature;
+
+import java.util.List;
+import java.util.Set;
+import org.opengis.util.GenericName;
+import org.opengis.util.InternationalString;
+import org.opengis.feature.FeatureType;
+import org.opengis.feature.FeatureAssociation;
+import org.opengis.feature.FeatureAssociationRole;
+import org.opengis.feature.PropertyNotFoundException;
+import org.opengis.example.util.SimpleNameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link ResolvedFeatureType}.
+ */
+public class ResolvedFeatureTypeTest {
+    /**
+     * Creates a new test case.
+     */
+    public ResolvedFeatureTypeTest() {
+    }
+
+    /**
+     * An association role for testing purpose.
+     */
+    private static final class Role implements FeatureAssociationRole {
+        /** The role name. */
+        private final GenericName name;
+
+        /** The type of associated features. */
+        private final FeatureType valueType;
+
+        /**
+         * Creates a new role.
+         *
+         * @param name       the role name.
+         * @param valueType  the type of associated features.
+         */
+        Role(final String name, final FeatureType valueType) {
+            this.name      = SimpleNameFactory.DEFAULT.createLocalName(null, name);
+            this.valueType = valueType;
+        }
+
+        /** Returns the role name. */
+        @Override public GenericName getName() {return name;}
+
+        /** Returns the role name as the definition. */
+        @Override public InternationalString getDefinition() {return name.toInternationalString();}
+
+        /** Returns the type of associated features. */
+        @Override public FeatureType getValueType() {return valueType;}
+
+        /** Returns the minimum number of associated features. */
+        @Override public int getMinimumOccurs() {return 0;}
+
+        /** Returns the maximum number of associated features. */
+        @Override public int getMaximumOccurs() {return 1;}
+
+        /** Not needed for this test. */
+        @Override public FeatureAssociation newInstance() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Creates a feature type.
+     *
+     * @param  name        the type name.
+     * @param  isAbstract  whether the type is abstract.
+     * @param  parents     the super-types.
+     * @param  properties  the properties declared in the type.
+     * @return the feature type.
+     */
+    private static SimpleFeatureType type(final String name, final boolean isAbstract,
+            final Set<FeatureType> parents, final SimpleAttributeType<?>... properties)
+    {
+        return new SimpleFeatureType(SimpleNameFactory.DEFAULT.createLocalName(null, name),
+                                     isAbstract, parents, List.of(properties));
+    }
+
+    /**
+     * Tests the flattening of a hierarchy with diamond inheritance and qualified names.
+     */
+    @Test
+    public void testFlattening() {
+        final var qualified = new SimpleAttributeType<>(
+                SimpleNameFactory.DEFAULT.createGenericName(null, "gml", "name"), String.class, 1, 1, null);
+        final SimpleFeatureType root   = type("Root",  true, Set.of(), qualified);
+        final SimpleFeatureType left   = type("Left",  true, Set.of(root), new SimpleAttributeType<>("width", Double.class));
+        final SimpleFeatureType right  = type("Right", true, Set.of(root), new SimpleAttributeType<>("height", Double.class));
+        final SimpleFeatureType parent = type("Box",   true, Set.of(left, right));
+        final var role = new Role("content", root);
+        final var child = new SimpleFeatureType(SimpleNameFactory.DEFAULT.createLocalName(null, "Crate"),
+                false, Set.of(parent), List.of(role));
+
+        final var resolved = new ResolvedFeatureType(child);
+        assertEquals(4, resolved.getPropertyCount());
+        assertEquals(child.getProperties(true), resolved.getProperties(true));
+        for (int i=0; i<4; i++) {
+            assertEquals(i, resolved.indexOf(resolved.getProperty(i).getName().toString()));
+            assertEquals(child.indexOf(child.getProperty(i).getName().toString()), i);
+        }
+        assertSame(qualified, resolved.getProperty("gml:name"));
+        assertSame(qualified, resolved.getProperty("name"));
+        assertSame(role, resolved.getProperty("content"));
+        assertEquals(List.of(role), resolved.getAssociationRoles());
+        assertEquals(List.of(), resolved.getOperations());
+        assertThrows(PropertyNotFoundException.class, () -> resolved.getProperty("depth"));
+        assertTrue (resolved.isSingleValued("name"));
+        assertTrue (resolved.isSingleValued("content"));
+        assertFalse(resolved.isSingleValued("depth"));
+        assertTrue (child.isSingleValued("width"));
+        assertFalse(child.isSingleValued("name"));      // Tip is not recognized by SimpleFeatureType.
+        /*
+         * Assignability in both directions, with resolved and non-resolved types.
+         */
+        assertTrue (resolved.isSubtypeOf(root));
+        assertTrue (resolved.isSubtypeOf(right));
+        assertTrue (new ResolvedFeatureType(left).isAssignableFrom(resolved));
+        assertTrue (new ResolvedFeatureType(left).isAssignableFrom(child));
+        assertFalse(new ResolvedFeatureType(left).isAssignableFrom(right));
+        assertFalse(resolved.isAssignableFrom(root));
+        assertTrue (root.isAssignableFrom(resolved));
+        assertTrue (root.isAssignableFrom(child));
+        assertFalse(left.isAssignableFrom(right));
+    }
+
+    /**
+     * Tests that the property indexes follow the order in which super-types are given,
+     * and that they are the same in the resolved type.
+     */
+    @Test
+    public void testSuperTypesOrder() {
+        final SimpleFeatureType left  = type("Left",  true, Set.of(), new SimpleAttributeType<>("width", Double.class));
+        final SimpleFeatureType right = type("Right", true, Set.of(), new SimpleAttributeType<>("height", Double.class));
+        for (final List<FeatureType> parents : List.of(List.<FeatureType>of(left, right), List.<FeatureType>of(right, left))) {
+            final var child = new SimpleFeatureType(SimpleNameFactory.DEFAULT.createLocalName(null, "Box"),
+                    false, parents, List.of(new SimpleAttributeType<>("depth", Double.class)));
+            assertEquals(parents, List.copyOf(child.getSuperTypes()));
+            assertEquals(parents.indexOf(left),  child.indexOf("width"));
+            assertEquals(parents.indexOf(right), child.indexOf("height"));
+            assertEquals(2, child.indexOf("depth"));
+
+            final var resolved = new ResolvedFeatureType(child);
+            for (int i=0; i<3; i++) {
+                final String name = child.getProperty(i).getName().toString();
+                assertEquals(i, resolved.indexOf(name), name);
+            }
+            assertTrue (resolved.isAssignableFrom(child));
+            assertTrue (new ResolvedFeatureType(left).isAssignableFrom(child));
+            assertFalse(resolved.isAssignableFrom(left));
+        }
+    }
+
+    /**
+     * Tests that an ambiguous tip name is not used as an alias.
+     */
+    @Test
+    public void testAmbiguousTip() {
+        final SimpleFeatureType type = type("Place", false, Set.of(),
+                new SimpleAttributeType<>(SimpleNameFactory.DEFAULT.createGenericName(null, "gml", "name"), String.class, 1, 1, null),
+                new SimpleAttributeType<>(SimpleNameFactory.DEFAULT.createGenericName(null, "xal", "name"), String.class, 1, 1, null));
+        final var resolved = new ResolvedFeatureType(type);
+        assertEquals(1, resolved.indexOf("xal:name"));
+        assertEquals(-1, resolved.indexOf("name"));
+    }
+}
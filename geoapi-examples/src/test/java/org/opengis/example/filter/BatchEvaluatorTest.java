@@ -0,0 +1,158 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.BitSet;
+import org.opengis.geometry.Envelope;
+import org.opengis.filter.Filter;
+import org.opengis.filter.ValueReference;
+import org.opengis.example.geometry.SimpleEnvelope;
+import org.opengis.example.geometry.SimpleDirectPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link BatchEvaluator} by comparing the results with the filters evaluated on each resource.
+ */
+public class BatchEvaluatorTest {
+    /**
+     * Number of resources in the batch. Intentionally not a multiple of 64.
+     */
+    private static final int SIZE = 1000;
+
+    /**
+     * The factory to use for creating the filters to test.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The resources on which to test the filters.
+     */
+    private final List<Map<String,Object>> resources;
+
+    /**
+     * The same values as {@link #resources}, but stored in columns.
+     */
+    private final double[] x, xmin, ymin, xmax, ymax;
+
+    /**
+     * The names, or {@code null} for missing values.
+     */
+    private final String[] names;
+
+    /**
+     * Creates a new test case with resources having an optional {@code "x"} value and a bounding box,
+     * and copies the values in columns.
+     */
+    public BatchEvaluatorTest() {
+        factory   = RandomResources.FACTORY;
+        resources = RandomResources.create(714596382, SIZE, (random, resource) -> {
+            if (random.nextInt(20) != 0) {
+                resource.put("x", random.nextInt(100));
+            }
+            final double xmin = random.nextDouble() * 90;
+            final double ymin = random.nextDouble() * 90;
+            resource.put("bounds", envelope(xmin, ymin, xmin + random.nextDouble() * 10,
+                                                        ymin + random.nextDouble() * 10));
+        });
+        x     = new double[SIZE];
+        xmin  = new double[SIZE];
+        ymin  = new double[SIZE];
+        xmax  = new double[SIZE];
+        ymax  = new double[SIZE];
+        names = new String[SIZE];
+        for (int i=0; i<SIZE; i++) {
+            final Map<String,Object> resource = resources.get(i);
+            final var value  = (Integer)  resource.get("x");
+            final var bounds = (Envelope) resource.get("bounds");
+            x[i]     = (value != null) ? value : Double.NaN;
+            xmin[i]  = bounds.getMinimum(0);
+            ymin[i]  = bounds.getMinimum(1);
+            xmax[i]  = bounds.getMaximum(0);
+            ymax[i]  = bounds.getMaximum(1);
+            names[i] = (String) resource.get("name");
+        }
+    }
+
+    /**
+     * Creates a two-dimensional envelope.
+     *
+     * @param  xmin  minimal coordinate value in the first dimension.
+     * @param  ymin  minimal coordinate value in the second dimension.
+     * @param  xmax  maximal coordinate value in the first dimension.
+     * @param  ymax  maximal coordinate value in the second dimension.
+     * @return the envelope.
+     */
+    private static Envelope envelope(final double xmin, final double ymin, final double xmax, final double ymax) {
+        return new SimpleEnvelope(new SimpleDirectPosition(null, xmin, ymin),
+                                  new SimpleDirectPosition(null, xmax, ymax));
+    }
+
+    /**
+     * Verifies that the batch evaluation of the given filter gives the same results as the filter,
+     * both on the list of resources and on columns.
+     *
+     * @param  filter  the filter to verify.
+     * @return number of resources accepted by the filter.
+     */
+    private int verify(final Filter<Map<String,Object>> filter) {
+        final var expected = new BitSet();
+        for (int i=0; i<SIZE; i++) {
+            if (filter.test(resources.get(i))) {
+                expected.set(i);
+            }
+        }
+        final var evaluator = new BatchEvaluator<>(filter);
+        assertEquals(expected, evaluator.test(resources), filter::toString);
+
+        final var batch = new ColumnBatch<Map<String,Object>>(resources);
+        assertEquals(expected, evaluator.test(batch), filter::toString);    // Evaluated on resources.
+        batch.setValues("x", x);
+        batch.setValues("name", names);
+        batch.setBounds("bounds", xmin, ymin, xmax, ymax);
+        assertEquals(expected, evaluator.test(batch), filter::toString);    // Evaluated on columns.
+        return expected.cardinality();
+    }
+
+    /**
+     * Tests comparison operators.
+     */
+    @Test
+    public void testComparisons() {
+        final ValueReference<Map<String,Object>,?> p = factory.property("x");
+        assertTrue(verify(factory.less(p, factory.literal(30))) > 0);
+        assertTrue(verify(factory.greaterOrEqual(factory.literal(30), p)) > 0);
+        assertTrue(verify(factory.notEqual(p, factory.literal(30))) > 0);
+        assertTrue(verify(factory.equal(p, factory.literal("30"))) > 0);
+        assertTrue(verify(factory.between(p, factory.literal(20), factory.literal(40))) > 0);
+        assertTrue(verify(factory.isNull(p)) > 0);
+        assertTrue(verify(factory.isNull(factory.property("name"))) > 0);
+        assertTrue(verify(factory.like(factory.property("name"), "%o%")) > 0);
+        assertTrue(verify(factory.bbox(factory.property("bounds"), envelope(20, 30, 40, 35))) > 0);
+    }
+
+    /**
+     * Tests logical operators.
+     */
+    @Test
+    public void testLogicalOperators() {
+        final ValueReference<Map<String,Object>,?> p = factory.property("x");
+        final var f1 = factory.less(p, factory.literal(50));
+        final var f2 = factory.equal(factory.property("name"), factory.literal("Tokyo"));
+        final var f3 = factory.bbox(factory.property("bounds"), envelope(20, 30, 40, 35));
+        final var f4 = factory.less(p, factory.multiply(factory.property("x", Number.class), factory.literal(0.5)));
+        assertTrue(verify(factory.and(List.of(f1, f2, f3))) > 0);
+        assertTrue(verify(factory.or(List.of(f1, f2, f3))) > 0);
+        assertTrue(verify(factory.and(f1, factory.not(f2))) > 0);
+        assertTrue(verify(factory.or(factory.not(f1), f4)) > 0);
+        assertEquals(0, verify(factory.and(factory.greater(p, factory.literal(1000)), f2)));
+        assertEquals(SIZE, verify(factory.or(Filter.include(), f2)));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.function.Predicate;
+import org.opengis.filter.Filter;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.ValueReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link FilterCompiler} by comparing the results of compiled predicates
+ * with the results of the filters created by {@link SimpleFilterFactory}.
+ */
+public class FilterCompilerTest {
+    /**
+     * The factory to use for creating the filters to test.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The resources on which to test the filters.
+     */
+    private final List<Map<String,Object>> resources;
+
+    /**
+     * Creates a new test case with populations, areas (sometimes as strings), lower-case names
+     * and multi-valued codes, for testing conversions, case-insensitive matches and match actions.
+     */
+    public FilterCompilerTest() {
+        factory = RandomResources.FACTORY;
+        resources = RandomResources.create(418792056, 500, (random, resource) -> {
+            if (random.nextInt(10) != 0) resource.put("population", random.nextInt(20000));
+            if (random.nextInt(10) != 0) resource.put("area", random.nextDouble() * 100);
+            if (random.nextInt(20) == 0) resource.put("area", "12.5");
+            if (random.nextInt(6)  == 0) resource.put("name", "paris");
+            if (random.nextBoolean()) resource.put("codes", List.of(random.nextInt(10), random.nextInt(10)));
+        });
+    }
+
+    /**
+     * Verifies that the compiled predicate gives the same results than the filter on all resources.
+     *
+     * @param  filter  the filter to verify.
+     * @return number of resources accepted by the filter.
+     */
+    private int verify(final Filter<Map<String,Object>> filter) {
+        final Predicate<Map<String,Object>> predicate = new FilterCompiler<Map<String,Object>>().compile(filter);
+        int count = 0;
+        for (final Map<String,Object> resource : resources) {
+            final boolean expected = filter.test(resource);
+            assertEquals(expected, predicate.test(resource), () -> filter + " on " + resource);
+            if (expected) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Tests comparisons with numeric literals, which are compiled to operations on {@code double} values.
+     */
+    @Test
+    public void testNumericComparisons() {
+        final ValueReference<Map<String,Object>,?> population = factory.property("population");
+        final ValueReference<Map<String,Object>,Number> area = factory.property("area", Number.class);
+        assertTrue(verify(factory.less(population, factory.literal(10000))) > 0);
+        assertTrue(verify(factory.greaterOrEqual(factory.literal(10000), population)) > 0);
+        assertTrue(verify(factory.notEqual(area, factory.literal(12.5))) > 0);
+        assertTrue(verify(factory.equal(area, factory.literal(12.5))) > 0);
+        assertTrue(verify(factory.between(area, factory.literal(20), factory.literal(40.5f))) > 0);
+        assertTrue(verify(factory.less(population, factory.multiply(area, factory.literal(100)))) > 0);
+        assertTrue(verify(factory.equal(factory.property("codes"), factory.literal(3), true, MatchAction.ANY)) > 0);
+        verify(factory.equal(factory.property("codes"), factory.literal(3), true, MatchAction.ALL));
+        verify(factory.equal(factory.property("codes"), factory.literal(3), true, MatchAction.ONE));
+    }
+
+    /**
+     * Tests comparisons on character strings.
+     */
+    @Test
+    public void testStringComparisons() {
+        final ValueReference<Map<String,Object>,?> name = factory.property("name");
+        final int caseSensitive = verify(factory.equal(name, factory.literal("paris")));
+        final int ignoringCase  = verify(factory.equal(name, factory.literal("paris"), false, MatchAction.ANY));
+        assertTrue(caseSensitive > 0 && caseSensitive < ignoringCase);
+        assertTrue(verify(factory.like(name, "%r_s")) > 0);
+        assertTrue(verify(factory.like(name, "MONT%", '%', '_', '\\', false)) > 0);
+        assertTrue(verify(factory.isNull(name)) > 0);
+    }
+
+    /**
+     * Tests logical operators.
+     */
+    @Test
+    public void testLogicalOperators() {
+        final var f1 = factory.less(factory.property("population"), factory.literal(10000));
+        final var f2 = factory.like(factory.property("name"), "%a%");
+        final var f3 = factory.isNull(factory.property("area"));
+        verify(factory.and(f1, f2));
+        verify(factory.or(f1, f2));
+        verify(factory.not(f3));
+        verify(factory.and(List.of(f1, f2, factory.not(f3))));
+        verify(factory.or(List.of(f3, factory.and(f1, f2), Filter.exclude())));
+        assertEquals(resources.size(), verify(factory.or(List.of(f1, Filter.include()))));
+    }
+
+    /**
+     * Tests the use of a resolver for fetching property values.
+     */
+    @Test
+    public void testResolver() {
+        final var compiler = new FilterCompiler<Map<String,Object>>((reference) -> {
+            assertEquals("population", reference.getXPath());
+            return (resource) -> 5000;
+        });
+        final Predicate<Map<String,Object>> predicate = compiler.compile(
+                factory.less(factory.property("population"), factory.literal(10000)));
+        assertTrue(predicate.test(Map.of()));
+    }
+}
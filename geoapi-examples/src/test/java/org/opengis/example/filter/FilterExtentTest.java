@@ -0,0 +1,305 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.time.Instant;
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import tech.uom.seshat.Units;
+import tech.uom.seshat.Quantities;
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.Geometry;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Expression;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.DistanceOperator;
+import org.opengis.filter.DistanceOperatorName;
+import org.opengis.filter.TemporalOperator;
+import org.opengis.filter.TemporalOperatorName;
+import org.opengis.filter.SpatialOperatorName;
+import org.opengis.filter.BinarySpatialOperator;
+import org.opengis.referencing.cs.AxisDirection;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.GeodeticCRS;
+import org.opengis.example.geometry.SimpleEnvelope;
+import org.opengis.example.geometry.SimpleDirectPosition;
+import org.opengis.example.referencing.SimpleAxis;
+import org.opengis.example.referencing.SimpleCRS;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link FilterExtent}.
+ */
+public class FilterExtentTest {
+    /**
+     * The factory to use for creating the filters to test.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The geometric property used in the tests.
+     */
+    private final ValueReference<Map<String,Object>,?> geometry;
+
+    /**
+     * The temporal property used in the tests.
+     */
+    private final ValueReference<Map<String,Object>,?> time;
+
+    /**
+     * Creates a new test case.
+     */
+    public FilterExtentTest() {
+        factory  = RandomResources.FACTORY;
+        geometry = factory.property("geometry");
+        time     = factory.property("time");
+    }
+
+    /**
+     * Base class of the spatial, distance and temporal operators used in this test.
+     * Those operators are not implemented by {@link SimpleFilterFactory}.
+     */
+    private abstract static class Operator implements Filter<Map<String,Object>> {
+        /** The operands. */
+        private final List<Expression<Map<String,Object>,?>> expressions;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param expressions  the operands.
+         */
+        Operator(final List<Expression<Map<String,Object>,?>> expressions) {
+            this.expressions = expressions;
+        }
+
+        /** Returns the class of resources expected by this filter. */
+        @Override public Class<? super Map<String,Object>> getResourceClass() {
+            return Map.class;
+        }
+
+        /** Returns the operands. */
+        @Override public List<Expression<Map<String,Object>,?>> getExpressions() {
+            return expressions;
+        }
+
+        /** Not needed for this test. */
+        @Override public boolean test(final Map<String,Object> resource) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A binary spatial operator.
+     */
+    private static final class Spatial extends Operator implements BinarySpatialOperator<Map<String,Object>> {
+        /** The operator type. */
+        private final SpatialOperatorName type;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param type         the operator type.
+         * @param expressions  the operands.
+         */
+        Spatial(final SpatialOperatorName type, final List<Expression<Map<String,Object>,?>> expressions) {
+            super(expressions);
+            this.type = type;
+        }
+
+        /** Returns the operator type. */
+        @Override public SpatialOperatorName getOperatorType() {
+            return type;
+        }
+    }
+
+    /**
+     * A distance operator.
+     */
+    private static final class Distance extends Operator implements DistanceOperator<Map<String,Object>> {
+        /** The operator type. */
+        private final DistanceOperatorName type;
+
+        /** The distance. */
+        private final Quantity<Length> distance;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param type         the operator type.
+         * @param expressions  the operands.
+         * @param distance     the distance.
+         */
+        Distance(final DistanceOperatorName type, final List<Expression<Map<String,Object>,?>> expressions,
+                 final Quantity<Length> distance)
+        {
+            super(expressions);
+            this.type     = type;
+            this.distance = distance;
+        }
+
+        /** Returns the operator type. */
+        @Override public DistanceOperatorName getOperatorType() {
+            return type;
+        }
+
+        /** Returns {@code null} since the geometry is provided as an expression. */
+        @Override public Geometry getGeometry() {
+            return null;
+        }
+
+        /** Returns the distance. */
+        @Override public Quantity<Length> getDistance() {
+            return distance;
+        }
+    }
+
+    /**
+     * A temporal operator.
+     */
+    private static final class Temporal extends Operator implements TemporalOperator<Map<String,Object>> {
+        /** The operator type. */
+        private final TemporalOperatorName type;
+
+        /**
+         * Creates a new operator.
+         *
+         * @param type         the operator type.
+         * @param expressions  the operands.
+         */
+        Temporal(final TemporalOperatorName type, final List<Expression<Map<String,Object>,?>> expressions) {
+            super(expressions);
+            this.type = type;
+        }
+
+        /** Returns the operator type. */
+        @Override public TemporalOperatorName getOperatorType() {
+            return type;
+        }
+    }
+
+    /**
+     * Creates a two-dimensional envelope.
+     *
+     * @param  crs   the coordinate reference system, or {@code null}.
+     * @param  xmin  minimal coordinate value in the first dimension.
+     * @param  ymin  minimal coordinate value in the second dimension.
+     * @param  xmax  maximal coordinate value in the first dimension.
+     * @param  ymax  maximal coordinate value in the second dimension.
+     * @return the envelope.
+     */
+    private static Envelope envelope(final CoordinateReferenceSystem crs,
+            final double xmin, final double ymin, final double xmax, final double ymax)
+    {
+        return new SimpleEnvelope(new SimpleDirectPosition(crs, xmin, ymin),
+                                  new SimpleDirectPosition(crs, xmax, ymax));
+    }
+
+    /**
+     * Creates a temporal operator between the time property and the given instant.
+     *
+     * @param  type  the operator type.
+     * @param  t     the time as an ISO 8601 string.
+     * @return the temporal operator.
+     */
+    private Temporal temporal(final TemporalOperatorName type, final String t) {
+        return new Temporal(type, List.of(time, factory.literal(Instant.parse(t))));
+    }
+
+    /**
+     * Tests the extent of spatial operators combined by logical operators.
+     */
+    @Test
+    public void testSpatial() {
+        final var f1 = factory.bbox(geometry, envelope(null, 10, 20, 30, 40));
+        final var f2 = new Spatial(SpatialOperatorName.INTERSECTS, List.of(factory.literal(envelope(null, 25, 35, 50, 60)), geometry));
+        final var f3 = new Spatial(SpatialOperatorName.DISJOINT, List.of(geometry, factory.literal(envelope(null, 0, 0, 1, 1))));
+        FilterExtent extent = FilterExtent.analyze(f1, null, null);
+        assertEquals(envelope(null, 10, 20, 30, 40), extent.getEnvelope().orElseThrow());
+        assertFalse(extent.getStartTime().isPresent());
+
+        extent = FilterExtent.analyze(factory.and(List.of(f1, f2, f3)), "geometry", null);
+        assertEquals(envelope(null, 25, 35, 30, 40), extent.getEnvelope().orElseThrow());
+
+        extent = FilterExtent.analyze(factory.or(f1, f2), "geometry", null);
+        assertEquals(envelope(null, 10, 20, 50, 60), extent.getEnvelope().orElseThrow());
+
+        assertFalse(FilterExtent.analyze(factory.or(f1, f3), null, null).getEnvelope().isPresent());
+        assertFalse(FilterExtent.analyze(factory.not(f1), null, null).getEnvelope().isPresent());
+        assertFalse(FilterExtent.analyze(f1, "other", null).getEnvelope().isPresent());
+        /*
+         * Disjoint envelopes: no resource can be accepted.
+         */
+        final var f4 = factory.bbox(geometry, envelope(null, 40, 20, 50, 40));
+        assertTrue(FilterExtent.analyze(factory.and(f1, f4), null, null).isEmpty());
+        assertFalse(FilterExtent.analyze(factory.or(f1, f4), null, null).isEmpty());
+        assertTrue(FilterExtent.analyze(Filter.exclude(), null, null).isEmpty());
+        assertEquals(FilterExtent.analyze(f1, null, null),
+                     FilterExtent.analyze(factory.or(f1, Filter.exclude()), null, null));
+    }
+
+    /**
+     * Tests the extent of a distance operator. The envelope is expanded by the distance
+     * converted to the units of the coordinate system axes.
+     */
+    @Test
+    public void testDistance() {
+        final GeodeticCRS crs = new SimpleCRS.Geographic(null, "Local grid",
+                SimpleCRS.Geographic.WGS84.getDatum(),
+                new SimpleAxis(null, "Easting",  'E', AxisDirection.EAST,  Units.KILOMETRE),
+                new SimpleAxis(null, "Northing", 'N', AxisDirection.NORTH, Units.KILOMETRE));
+        final var f = new Distance(DistanceOperatorName.WITHIN,
+                List.of(geometry, factory.literal(envelope(crs, 10, 20, 30, 40)), factory.literal(null)),
+                Quantities.create(500, Units.METRE));
+        FilterExtent extent = FilterExtent.analyze(f, "geometry", null);
+        assertEquals(envelope(crs, 9.5, 19.5, 30.5, 40.5), extent.getEnvelope().orElseThrow());
+        /*
+         * Metres are not convertible to the degrees of a geographic CRS.
+         */
+        final var g = new Distance(DistanceOperatorName.WITHIN,
+                List.of(geometry, factory.literal(envelope(SimpleCRS.Geographic.WGS84, 10, 20, 30, 40)), factory.literal(null)),
+                Quantities.create(500, Units.METRE));
+        assertFalse(FilterExtent.analyze(g, "geometry", null).getEnvelope().isPresent());
+    }
+
+    /**
+     * Tests the extent of temporal operators combined by logical operators.
+     */
+    @Test
+    public void testTemporal() {
+        final var after  = temporal(TemporalOperatorName.AFTER,  "2020-01-01T00:00:00Z");
+        final var before = temporal(TemporalOperatorName.BEFORE, "2020-03-01T00:00:00Z");
+        FilterExtent extent = FilterExtent.analyze(factory.and(after, before), null, "time");
+        assertEquals(Instant.parse("2020-01-01T00:00:00Z"), extent.getStartTime().orElseThrow());
+        assertEquals(Instant.parse("2020-03-01T00:00:00Z"), extent.getEndTime().orElseThrow());
+        assertFalse(extent.getEnvelope().isPresent());
+
+        extent = FilterExtent.analyze(factory.or(after, before), null, "time");
+        assertFalse(extent.getStartTime().isPresent());
+        assertFalse(extent.getEndTime().isPresent());
+        /*
+         * Literal as the first operand: "2020-01-01 after time" means "time before 2020-01-01".
+         */
+        extent = FilterExtent.analyze(new Temporal(TemporalOperatorName.AFTER,
+                List.of(factory.literal(Instant.parse("2020-01-01T00:00:00Z")), time)), null, null);
+        assertFalse(extent.getStartTime().isPresent());
+        assertEquals(Instant.parse("2020-01-01T00:00:00Z"), extent.getEndTime().orElseThrow());
+        /*
+         * Empty intersection, and combination with a spatial filter.
+         */
+        final var early = temporal(TemporalOperatorName.BEFORE, "2019-06-01T00:00:00Z");
+        assertTrue(FilterExtent.analyze(factory.and(after, early), null, null).isEmpty());
+
+        final var bbox = factory.bbox(geometry, envelope(null, 10, 20, 30, 40));
+        extent = FilterExtent.analyze(factory.and(List.of(bbox, temporal(TemporalOperatorName.EQUALS, "2021-05-05T10:00:00Z"))), null, null);
+        assertEquals(envelope(null, 10, 20, 30, 40), extent.getEnvelope().orElseThrow());
+        assertEquals(extent.getStartTime(), extent.getEndTime());
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Literal;
+import org.opengis.filter.MatchAction;
+import org.opengis.filter.ValueReference;
+import org.opengis.filter.LogicalOperator;
+import org.opengis.filter.LogicalOperatorName;
+import org.opengis.filter.BetweenComparisonOperator;
+import org.opengis.example.util.SimpleNameFactory;
+import org.opengis.example.feature.SimpleFeatureType;
+import org.opengis.example.feature.SimpleAttributeType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link FilterOptimizer}.
+ */
+public class FilterOptimizerTest {
+    /**
+     * The factory to use for creating the filters to test.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The optimizer to test.
+     */
+    private final FilterOptimizer<Map<String,Object>> optimizer;
+
+    /**
+     * The property used in the tests.
+     */
+    private final ValueReference<Map<String,Object>,?> x;
+
+    /**
+     * Creates a new test case.
+     */
+    public FilterOptimizerTest() {
+        factory   = RandomResources.FACTORY;
+        optimizer = new FilterOptimizer<>(factory);
+        x         = factory.property("x");
+    }
+
+    /**
+     * Verifies that the optimized filter gives the same results as the original filter for random values.
+     *
+     * @param  filter     the original filter.
+     * @param  optimized  the optimized filter.
+     */
+    private static void assertEquivalent(final Filter<Map<String,Object>> filter, final Filter<Map<String,Object>> optimized) {
+        final List<Map<String,Object>> resources = RandomResources.create(31843209, 200, (random, resource) -> {
+            resource.put("x", random.nextInt(12));
+            resource.put("y", (random.nextInt(10) == 0) ? null : random.nextInt(12));
+        });
+        for (final Map<String,Object> resource : resources) {
+            assertEquals(filter.test(resource), optimized.test(resource), () -> filter + " on " + resource);
+        }
+    }
+
+    /**
+     * Tests the removal of {@code include} and {@code exclude} operands and of double negations.
+     */
+    @Test
+    public void testConstants() {
+        final var f = factory.less(x, factory.literal(5));
+        assertSame(f, optimizer.optimize(factory.and(f, Filter.include())));
+        assertSame(f, optimizer.optimize(factory.or(Filter.exclude(), f)));
+        assertSame(Filter.exclude(), optimizer.optimize(factory.and(f, Filter.exclude())));
+        assertSame(Filter.include(), optimizer.optimize(factory.or(List.of(f, factory.not(Filter.exclude())))));
+        assertSame(f, optimizer.optimize(factory.not(factory.not(f))));
+        assertSame(f, optimizer.optimize(factory.and(f, f)));
+        assertSame(f, optimizer.optimize(f));
+    }
+
+    /**
+     * Tests the flattening of nested operators and the ordering of operands by cost.
+     */
+    @Test
+    public void testFlattenAndSort() {
+        final var like = factory.like(factory.property("name"), "P%");
+        final var f1   = factory.less(x, factory.literal(5));
+        final var f2   = factory.isNull(factory.property("y"));
+        final var filter = factory.or(like, factory.or(f1, factory.or(f2, Filter.exclude())));
+        final Filter<Map<String,Object>> optimized = optimizer.optimize(filter);
+        assertEquals(factory.or(List.of(f2, f1, like)), optimized);
+        assertEquivalent(filter, optimized);
+
+        final var alreadyOptimized = factory.and(f1, like);
+        assertSame(alreadyOptimized, optimizer.optimize(alreadyOptimized));
+    }
+
+    /**
+     * Returns a literal for the given value.
+     *
+     * @param  value  the literal value.
+     * @return a literal for the given value.
+     */
+    private Literal<Map<String,Object>,?> literal(final int value) {
+        return factory.literal(value);
+    }
+
+    /**
+     * Tests the merge of comparisons on the same property into a range.
+     */
+    @Test
+    public void testMergeRanges() {
+        final var all = MatchAction.ALL;
+        final var y = factory.property("y");
+        Filter<Map<String,Object>> filter = factory.and(List.of(
+                factory.greaterOrEqual(x, literal(2), true, all),
+                factory.less(y, literal(7)),
+                factory.lessOrEqual(x, literal(8), true, all),
+                factory.greaterOrEqual(literal(9), x, true, all),
+                factory.lessOrEqual(literal(4), x, true, all)));
+        Filter<Map<String,Object>> optimized = optimizer.optimize(filter);
+        assertEquals(factory.and(List.of(factory.greaterOrEqual(x, literal(4), true, all),
+                                         factory.lessOrEqual(x, literal(8), true, all),
+                                         factory.less(y, literal(7)))), optimized);
+        assertEquivalent(filter, optimized);
+        /*
+         * Merge with a "between" operator.
+         */
+        filter = factory.and(factory.between(x, literal(2), literal(8)),
+                             factory.greaterOrEqual(x, literal(4), true, all));
+        optimized = optimizer.optimize(filter);
+        assertEquals(factory.between(x, literal(4), literal(8)), optimized);
+        assertEquivalent(filter, optimized);
+        /*
+         * Strict bounds cannot be represented by a "between" operator.
+         */
+        filter = factory.and(List.of(
+                factory.greater(x, literal(2), true, all),
+                factory.greaterOrEqual(x, literal(2), true, all),
+                factory.less(x, literal(8), true, all)));
+        optimized = optimizer.optimize(filter);
+        assertEquals(2, ((LogicalOperator<?>) optimized).getOperands().size());
+        assertEquals(LogicalOperatorName.AND, ((LogicalOperator<?>) optimized).getOperatorType());
+        assertEquivalent(filter, optimized);
+        /*
+         * Empty range.
+         */
+        filter = factory.and(factory.greater(x, literal(6), true, all), factory.less(x, literal(6), true, all));
+        assertSame(Filter.exclude(), optimizer.optimize(filter));
+        assertEquivalent(filter, Filter.exclude());
+    }
+
+    /**
+     * Tests that comparisons on a multi-valued property are merged only for {@link MatchAction#ALL}.
+     */
+    @Test
+    public void testMergeMultiValued() {
+        final var values = factory.property("values");
+        final var resource = new HashMap<String,Object>();
+        resource.put("values", List.of(1, 9));
+        /*
+         * With "ANY", each comparison is true for a different element.
+         * The comparisons shall not be merged.
+         */
+        Filter<Map<String,Object>> filter = factory.and(factory.greaterOrEqual(values, literal(5)),
+                                                        factory.lessOrEqual(values, literal(3)));
+        Filter<Map<String,Object>> optimized = optimizer.optimize(filter);
+        assertTrue(filter.test(resource));
+        assertTrue(optimized.test(resource));
+        assertNotSame(Filter.exclude(), optimized);
+        /*
+         * With "ALL", the comparisons can be merged.
+         */
+        filter = factory.and(List.of(factory.greaterOrEqual(values, literal(0), true, MatchAction.ALL),
+                                     factory.lessOrEqual   (values, literal(9), true, MatchAction.ALL),
+                                     factory.greaterOrEqual(values, literal(1), true, MatchAction.ALL)));
+        optimized = optimizer.optimize(filter);
+        assertEquals(2, ((LogicalOperator<?>) optimized).getOperands().size());
+        assertTrue(filter.test(resource));
+        assertTrue(optimized.test(resource));
+        resource.put("values", List.of(0, 9));
+        assertFalse(filter.test(resource));
+        assertFalse(optimized.test(resource));
+        /*
+         * A "between" operand is false for multi-valued properties,
+         * and shall stay false after the merge.
+         */
+        filter = factory.and(factory.between(values, literal(0), literal(9)),
+                             factory.greater(values, literal(0), true, MatchAction.ALL));
+        optimized = optimizer.optimize(filter);
+        resource.put("values", List.of(1, 9));
+        assertFalse(filter.test(resource));
+        assertFalse(optimized.test(resource));
+        resource.put("values", 5);
+        assertTrue(filter.test(resource));
+        assertTrue(optimized.test(resource));
+    }
+
+    /**
+     * Tests the merge of comparisons using the default match action on properties declared single-valued.
+     * The knowledge about which properties are single-valued is provided by a feature type.
+     */
+    @Test
+    public void testMergeSingleValued() {
+        final var type = new SimpleFeatureType("Test",
+                new SimpleAttributeType<>("x", Integer.class),
+                new SimpleAttributeType<>(SimpleNameFactory.DEFAULT.createLocalName(null, "values"), Integer.class, 0, Integer.MAX_VALUE, null));
+        final var optimizer = new FilterOptimizer<>(factory, (property) -> type.isSingleValued(property.getXPath()));
+        Filter<Map<String,Object>> filter = factory.and(List.of(
+                factory.greaterOrEqual(x, literal(2)),
+                factory.lessOrEqual(x, literal(8)),
+                factory.greaterOrEqual(literal(9), x)));
+        Filter<Map<String,Object>> optimized = optimizer.optimize(filter);
+        assertInstanceOf(BetweenComparisonOperator.class, optimized);
+        assertEquals(factory.between(x, literal(2), literal(8)), optimized);
+        assertEquivalent(filter, optimized);
+        /*
+         * Strict bounds and mixed match actions.
+         */
+        filter = factory.and(List.of(
+                factory.greater(x, literal(2)),
+                factory.between(x, literal(0), literal(9)),
+                factory.less(x, literal(8), true, MatchAction.ALL)));
+        optimized = optimizer.optimize(filter);
+        assertEquals(factory.and(factory.greater(x, literal(2), true, MatchAction.ALL),
+                                 factory.less   (x, literal(8), true, MatchAction.ALL)), optimized);
+        assertEquivalent(filter, optimized);
+        filter = factory.and(factory.greater(x, literal(6)), factory.less(x, literal(6)));
+        assertSame(Filter.exclude(), optimizer.optimize(filter));
+        /*
+         * Multi-valued properties are still merged only for "ALL".
+         */
+        final var values = factory.property("values");
+        filter = factory.and(factory.greaterOrEqual(values, literal(5)), factory.lessOrEqual(values, literal(3)));
+        assertNotSame(Filter.exclude(), optimizer.optimize(filter));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link LikeMatcher}.
+ */
+public class LikeMatcherTest {
+    /**
+     * The texts on which to test the patterns.
+     */
+    private static final String[] TEXTS = {
+        "", "P", "Paris", "paris", "PARIS", "Montréal", "Saint-Malo", "Sainte-Foy", "Villeneuve-Saint-Georges",
+        "Tokyo", "Lima", "a%b", "100%", "x_y"
+    };
+
+    /**
+     * Creates a new test case.
+     */
+    public LikeMatcherTest() {
+    }
+
+    /**
+     * Returns the matcher for the given pattern with the default wildcard characters.
+     *
+     * @param  pattern    the pattern.
+     * @param  matchCase  whether comparisons are case-sensitive.
+     * @return the matcher.
+     */
+    private static LikeMatcher compile(final String pattern, final boolean matchCase) {
+        return LikeMatcher.compile(pattern, '%', '_', '\\', matchCase);
+    }
+
+    /**
+     * Verifies that the given pattern is matched by the expected strategy,
+     * and that the results are the same as a matching based on regular expression.
+     *
+     * @param  pattern   the pattern to test.
+     * @param  strategy  expected name of the class implementing the matcher.
+     */
+    private static void verify(final String pattern, final String strategy) {
+        for (final boolean matchCase : new boolean[] {true, false}) {
+            final LikeMatcher matcher = compile(pattern, matchCase);
+            assertTrue(matcher.toString().startsWith(strategy), matcher::toString);
+            final var regex = new StringBuilder();
+            for (int i=0; i<pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                switch (c) {
+                    case '%':  regex.append(".*"); break;
+                    case '_':  regex.append('.');  break;
+                    case '\\': regex.append(java.util.regex.Pattern.quote(String.valueOf(pattern.charAt(++i)))); break;
+                    default:   regex.append(java.util.regex.Pattern.quote(String.valueOf(c)));
+                }
+            }
+            final String expression = (matchCase ? "" : "(?iu)") + regex;
+            for (final String text : TEXTS) {
+                assertEquals(text.matches(expression), matcher.matches(text), () -> pattern + " on " + text);
+            }
+        }
+    }
+
+    /**
+     * Tests the patterns matched without regular expression.
+     */
+    @Test
+    public void testSimplePatterns() {
+        verify("Paris",    "Exact");
+        verify("",         "Exact");
+        verify("%",        "Any");
+        verify("%%",       "Any");
+        verify("Pa%",      "Prefix");
+        verify("%o",       "Suffix");
+        verify("%saint%",  "Contains");
+        verify("%%-%",     "Contains");
+        verify("a\\%%",    "Prefix");
+        verify("%\\%",     "Suffix");
+    }
+
+    /**
+     * Tests the patterns that require regular expressions.
+     */
+    @Test
+    public void testRegex() {
+        verify("P_ris",    "Regex");
+        verify("%a%o",     "Regex");
+        verify("S%-%",     "Regex");
+        verify("x\\__",    "Regex");
+        verify("_%",       "Regex");
+    }
+
+    /**
+     * Tests the cache and the integration with the filters.
+     */
+    @Test
+    public void testCache() {
+        final LikeMatcher matcher = compile("Pa%", false);
+        assertSame(matcher, compile("Pa%", false));
+        assertNotSame(matcher, compile("Pa%", true));
+
+        final var factory = RandomResources.FACTORY;
+        final var filter  = factory.like(factory.property("name"), "Pa%", '%', '_', '\\', false);
+        assertSame(matcher, LikeMatcher.compile(filter));
+        assertTrue (filter.test(Map.of("name", "paris")));
+        assertFalse(filter.test(Map.of("name", "Lima")));
+        assertFalse(filter.test(Map.of()));
+        assertFalse(matcher.matches((Object) null));
+    }
+}
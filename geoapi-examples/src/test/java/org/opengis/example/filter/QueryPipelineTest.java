@@ -0,0 +1,154 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opengis.filter.Filter;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.opengis.filter.ValueReference;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link QueryPipeline} by comparing its results with the results of a sort in memory.
+ */
+public class QueryPipelineTest {
+    /**
+     * The factory to use for creating the filters and sort criteria.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The resources on which to execute the queries.
+     */
+    private final List<Map<String,Object>> resources;
+
+    /**
+     * Creates a new test case with resources having an optional population.
+     */
+    public QueryPipelineTest() {
+        factory = RandomResources.FACTORY;
+        resources = RandomResources.create(7214305598L, 1000, (random, resource) -> {
+            if (random.nextInt(10) != 0) resource.put("population", random.nextInt(50));
+        });
+    }
+
+    /**
+     * Creates a query with a filter on population, a projection and sort criteria.
+     *
+     * @return the query to test.
+     */
+    private QueryPipeline<Map<String,Object>> query() {
+        final ValueReference<Map<String,Object>,?> population = factory.property("population");
+        final var query = new QueryPipeline<Map<String,Object>>();
+        query.setFilter(factory.greater(population, factory.literal(10)));
+        query.setProjection(List.of(factory.property("id"), population));
+        query.setSortBy(sortBy());
+        return query;
+    }
+
+    /**
+     * Returns the sort criteria used by the tests: population in descending order, then name.
+     *
+     * @return the sort criteria.
+     */
+    private List<SortProperty<Map<String,Object>>> sortBy() {
+        return List.of(factory.sort(factory.property("population"), SortOrder.DESCENDING),
+                       factory.sort(factory.property("name"), SortOrder.ASCENDING));
+    }
+
+    /**
+     * Computes the expected result by sorting all resources in memory.
+     *
+     * @param  offset  number of rows to skip.
+     * @param  limit   maximum number of rows.
+     * @return the expected rows, as lists of values.
+     */
+    private List<List<Object>> expected(final int offset, final int limit) {
+        final Filter<Map<String,Object>> filter = factory.greater(factory.property("population"), factory.literal(10));
+        final List<SortProperty<Map<String,Object>>> sortBy = sortBy();
+        return resources.stream().filter(filter).sorted(sortBy.get(0).thenComparing(sortBy.get(1)))
+                .skip(offset).limit(limit).map((r) -> Arrays.asList(r.get("id"), r.get("population")))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Executes the given query and returns the rows as lists.
+     *
+     * @param  query  the query to execute.
+     * @return the rows, as lists of values.
+     */
+    private List<List<Object>> execute(final QueryPipeline<Map<String,Object>> query) {
+        try (Stream<Object[]> rows = query.execute(resources.stream())) {
+            return rows.map(Arrays::asList).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Tests a query without sort criteria. The source shall be read only until the limit is reached.
+     */
+    @Test
+    public void testLimitWithoutSort() {
+        final QueryPipeline<Map<String,Object>> query = query();
+        query.setSortBy(List.of());
+        query.setLimit(5);
+        final var count = new AtomicInteger();
+        final List<Object[]> rows;
+        try (Stream<Object[]> stream = query.execute(resources.stream().peek((r) -> count.incrementAndGet()))) {
+            rows = stream.collect(Collectors.toList());
+        }
+        assertEquals(5, rows.size());
+        assertTrue(count.get() < 20, "Source should be read lazily.");
+        for (final Object[] row : rows) {
+            assertTrue((Integer) row[1] > 10);
+        }
+    }
+
+    /**
+     * Tests a sort with an offset and a limit, which uses a bounded heap.
+     */
+    @Test
+    public void testTopN() {
+        final QueryPipeline<Map<String,Object>> query = query();
+        query.setOffset(3);
+        query.setLimit(25);
+        assertEquals(expected(3, 25), execute(query));
+        query.setLimit(0);
+        assertEquals(List.of(), execute(query));
+    }
+
+    /**
+     * Tests a sort of more rows than the memory budget, which uses temporary files.
+     */
+    @Test
+    public void testExternalSort() {
+        final QueryPipeline<Map<String,Object>> query = query();
+        query.setMemoryBudget(37 * 100);
+        assertEquals(expected(0, Integer.MAX_VALUE), execute(query));
+        query.setOffset(100);
+        query.setLimit(50);
+        assertEquals(expected(100, 50), execute(query));
+    }
+
+    /**
+     * Tests a query without projection, in which case each row contains the resource.
+     */
+    @Test
+    public void testWithoutProjection() {
+        final var query = new QueryPipeline<Map<String,Object>>();
+        query.setLimit(3);
+        final List<List<Object>> rows = execute(query);
+        assertEquals(List.of(List.of(resources.get(0)), List.of(resources.get(1)), List.of(resources.get(2))), rows);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Random resources shared by the tests of this package. Resources are maps of property values
+ * with an {@code "id"} property, which is the index of the resource in the list, and a {@code "name"}
+ * property, which is a city name or {@code null}. Other properties are added by each test.
+ */
+final class RandomResources {
+    /**
+     * The factory to use for creating the filters and sort criteria on the resources.
+     */
+    static final SimpleFilterFactory<Map<String,Object>> FACTORY = new SimpleFilterFactory<>(Map.class, Map::get);
+
+    /**
+     * The values of the {@code "name"} property other than {@code null}.
+     */
+    private static final String[] NAMES = {"Paris", "Montréal", "Tokyo", "Lima"};
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private RandomResources() {
+    }
+
+    /**
+     * Creates resources with random values. The same seed produces the same resources.
+     *
+     * @param  seed        the seed of the random number generator.
+     * @param  count       number of resources to create.
+     * @param  properties  adds the test-specific properties to a resource, using the given random number generator.
+     * @return the resources.
+     */
+    static List<Map<String,Object>> create(final long seed, final int count,
+            final BiConsumer<Random, Map<String,Object>> properties)
+    {
+        final var resources = new ArrayList<Map<String,Object>>(count);
+        final var random = new Random(seed);
+        for (int i=0; i<count; i++) {
+            final var resource = new HashMap<String,Object>();
+            resource.put("id", i);
+            resource.put("name", (random.nextInt(5) == 0) ? null : NAMES[random.nextInt(NAMES.length)]);
+            properties.accept(random, resource);
+            resources.add(resource);
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.filter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+import org.opengis.filter.SortOrder;
+import org.opengis.filter.SortProperty;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link SortEngine} by comparing its results with a sort using {@link SortProperty} as comparators.
+ */
+public class SortEngineTest {
+    /**
+     * The factory to use for creating the sort criteria.
+     */
+    private final SimpleFilterFactory<Map<String,Object>> factory;
+
+    /**
+     * The resources to sort.
+     */
+    private final List<Map<String,Object>> resources;
+
+    /**
+     * The sort criteria: value in descending order, then name.
+     */
+    private final List<SortProperty<Map<String,Object>>> sortBy;
+
+    /**
+     * Creates a new test case with resources having a value to sort. The values are a mix of integers,
+     * longs, floating point numbers (including NaN) and null values.
+     */
+    public SortEngineTest() {
+        factory = RandomResources.FACTORY;
+        resources = RandomResources.create(902341857L, 2000, (random, resource) -> {
+            final Object value;
+            switch (random.nextInt(8)) {
+                case 0:  value = null; break;
+                case 1:  value = Double.NaN; break;
+                case 2:  value = (long) random.nextInt(40); break;
+                case 3:  value = random.nextInt(40) + 0.5; break;
+                default: value = random.nextInt(40); break;
+            }
+            resource.put("value", value);
+        });
+        sortBy = List.of(factory.sort(factory.property("value"), SortOrder.DESCENDING),
+                         factory.sort(factory.property("name"), SortOrder.ASCENDING));
+    }
+
+    /**
+     * Returns the identifiers of the resources sorted with the comparators.
+     *
+     * @param  count  maximum number of resources.
+     * @return identifiers of the expected resources.
+     */
+    private List<Object> expected(final long count) {
+        final Comparator<Map<String,Object>> order = sortBy.get(0).thenComparing(sortBy.get(1));
+        return resources.stream().sorted(order).limit(count).map((r) -> r.get("id")).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the identifiers of the resources sorted by the given engine.
+     *
+     * @param  engine  the engine to use for sorting.
+     * @param  count   maximum number of resources.
+     * @return identifiers of the sorted resources.
+     */
+    private List<Object> sort(final SortEngine<Map<String,Object>> engine, final long count) {
+        try (Stream<Map<String,Object>> sorted = engine.sort(resources.stream(), count)) {
+            return sorted.map((r) -> r.get("id")).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Tests a sort done entirely in memory.
+     */
+    @Test
+    public void testInMemory() {
+        final var engine = new SortEngine<>(sortBy);
+        assertEquals(expected(Long.MAX_VALUE), sort(engine, Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests a sort with a small count, which uses a bounded heap.
+     */
+    @Test
+    public void testBoundedHeap() {
+        final var engine = new SortEngine<>(sortBy);
+        assertEquals(expected(17), sort(engine, 17));
+        assertEquals(List.of(), sort(engine, 0));
+    }
+
+    /**
+     * Tests a sort exceeding the memory budget, which uses memory-mapped temporary files.
+     */
+    @Test
+    public void testExternalMerge() {
+        final var engine = new SortEngine<>(sortBy);
+        engine.setRowSize((r) -> 1000);
+        engine.setMemoryBudget(100_000);
+        assertEquals(expected(Long.MAX_VALUE), sort(engine, Long.MAX_VALUE));
+        assertEquals(expected(500), sort(engine, 500));
+    }
+
+    /**
+     * Tests a sort of long integers having the same {@code double} approximation.
+     * Those values are typical of 64 bits identifiers.
+     */
+    @Test
+    public void testLargeIntegers() {
+        final long base = 1L << 53;
+        final long[] values = {base + 1, base, base + 3, base + 2, base - 1, base + 5, base + 4};
+        final List<Map<String,Object>> resources = new ArrayList<>();
+        for (int i=0; i<values.length; i++) {
+            resources.add(Map.of("id", i, "value", values[i]));
+        }
+        final List<Object> expected = List.of(4, 1, 0, 3, 2, 6, 5);
+        final List<SortProperty<Map<String,Object>>> ascending =
+                List.of(factory.sort(factory.property("value"), SortOrder.ASCENDING));
+        assertEquals(expected, resources.stream().sorted(ascending.get(0)).map((r) -> r.get("id")).collect(Collectors.toList()));
+
+        final var engine = new SortEngine<>(ascending);
+        for (final long count : new long[] {Long.MAX_VALUE, values.length}) {
+            try (Stream<Map<String,Object>> sorted = engine.sort(resources.stream(), count)) {
+                assertEquals(expected, sorted.map((r) -> r.get("id")).collect(Collectors.toList()));
+            }
+        }
+        engine.setRowSize((r) -> 1000);
+        engine.setMemoryBudget(2500);
+        try (Stream<Map<String,Object>> sorted = engine.sort(resources.stream())) {
+            assertEquals(expected, sorted.map((r) -> r.get("id")).collect(Collectors.toList()));
+        }
+    }
+}
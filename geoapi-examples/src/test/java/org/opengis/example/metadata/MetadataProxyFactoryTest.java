@@ -10,9 +10,11 @@ import java.util.HashMap;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.lang.reflect.Proxy;
 import org.opengis.metadata.Metadata;
 import org.opengis.metadata.citation.Party;
 import org.opengis.metadata.citation.Responsibility;
+import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,6 +58,44 @@ public class MetadataProxyFactoryTest {
         assertEquals("MD_Metadata{contact=[CI_Responsibility{party=[CI_Party{name=Aristotle}]}]}", md.toString());
     }
 
+    /**
+     * Tests the creation of metadata implemented by generated classes.
+     */
+    @Test
+    public void testCreateImmutable() {
+        final MetadataProxyFactory factory = new MetadataProxyFactory();
+        Map<String,Object> attributes = new HashMap<>();
+        assertNull(attributes.put("name", new SimpleCitation("Aristotle")));
+        final Party party = factory.createImmutable(Party.class, attributes);
+        assertFalse(Proxy.isProxyClass(party.getClass()));
+        assertEquals("Aristotle", party.getName().toString());
+        assertTrue(party.getContactInfo().isEmpty(), "Null value should have been replaced by empty collection.");
+        assertEquals(party, factory.createImmutable(Party.class, attributes));
+        assertSame(party.getClass(), factory.createImmutable(Party.class, Map.of()).getClass());
+        attributes.clear();
+        assertEquals("Aristotle", party.getName().toString(), "Values should have been copied.");
+
+        assertNull(attributes.put("party", Collections.singleton(party)));
+        final Responsibility responsibility = factory.createImmutable(Responsibility.class, attributes);
+        attributes = new HashMap<>();
+        assertNull(attributes.put("contact", Collections.singleton(responsibility)));
+        final Metadata md = factory.createImmutable(Metadata.class, attributes);
+        assertEquals("Aristotle", getSingleton(getSingleton(md.getContacts()).getParties()).getName().toString());
+        assertEquals("MD_Metadata{contact=[CI_Responsibility{party=[CI_Party{name=Aristotle}]}]}", md.toString());
+        /*
+         * Primitive values and default methods.
+         */
+        attributes = new HashMap<>();
+        assertNull(attributes.put("westBoundLongitude", -10.0));
+        assertNull(attributes.put("extentTypeCode", Boolean.TRUE));
+        final GeographicBoundingBox box = factory.createImmutable(GeographicBoundingBox.class, attributes);
+        assertEquals(-10, box.getWestBoundLongitude());
+        assertTrue(Double.isNaN(box.getEastBoundLongitude()));
+        assertEquals(Boolean.TRUE, box.getInclusion());
+        assertThrows(ClassCastException.class, () -> factory.createImmutable(GeographicBoundingBox.class,
+                Map.of("westBoundLongitude", "-10")));
+    }
+
     /**
      * Verifies that the given collection contains exactly one element, then returns that element.
      *
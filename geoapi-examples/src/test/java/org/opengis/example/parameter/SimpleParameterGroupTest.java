@@ -5,7 +5,10 @@
  */
 package org.opengis.example.parameter;
 
+import java.util.Set;
+import org.opengis.metadata.Identifier;
 import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.parameter.ParameterNotFoundException;
 import org.opengis.metadata.citation.Citation;
 import org.opengis.example.metadata.SimpleCitation;
 import tech.uom.seshat.Units;
@@ -49,4 +52,59 @@ public class SimpleParameterGroupTest {
         assertEquals(30.0, group.parameter("Latitude of natural origin").doubleValue());
         assertNotEquals(group, clone, "Group should not anymore be equal to the clone.");
     }
+
+    /**
+     * A parameter with an EPSG identifier, for testing the index of identifiers.
+     */
+    private static final class IdentifiedParameter extends SimpleParameter {
+        /** The EPSG code of this parameter. */
+        private final String epsg;
+
+        /**
+         * Creates a new parameter.
+         *
+         * @param authority  the authority of the parameter name.
+         * @param name       the parameter name.
+         * @param epsg       the EPSG code of this parameter.
+         */
+        IdentifiedParameter(final Citation authority, final String name, final String epsg) {
+            super(authority, name, SimpleParameter.Type.LINEAR);
+            this.epsg = epsg;
+        }
+
+        /** Returns the EPSG identifier of this parameter. */
+        @Override public Set<Identifier> getIdentifiers() {
+            return Set.of(new SimpleParameter(authority, epsg, SimpleParameter.Type.LINEAR));
+        }
+    }
+
+    /**
+     * Tests the search of parameters by case-insensitive name and by identifier,
+     * including after modifications of the parameter list.
+     */
+    @Test
+    public void testIndex() {
+        final Citation authority = new SimpleCitation("EPSG");
+        final var easting  = new IdentifiedParameter(authority, "False easting",  "8806");
+        final var northing = new IdentifiedParameter(authority, "False northing", "8807");
+        final var group = new SimpleParameterGroup(authority, "Mercator (variant A)", easting);
+        assertSame(easting, group.parameter("FALSE EASTING"));
+        assertSame(easting, group.parameter("FAL\u017FE EASTING"));      // Long s, equal to 's' ignoring case.
+        assertSame(easting, group.parameter("8806"));
+        assertSame(easting, group.descriptor("EPSG:8806"));
+        assertThrows(ParameterNotFoundException.class, () -> group.parameter("False northing"));
+
+        group.parameters.add(northing);
+        assertSame(northing, group.parameter("false northing"));
+        assertSame(northing, group.parameter("EPSG:8807"));
+
+        group.parameters.remove(easting);
+        assertThrows(ParameterNotFoundException.class, () -> group.parameter("False easting"));
+        assertThrows(ParameterNotFoundException.class, () -> group.parameter("8806"));
+
+        final ParameterValueGroup clone = group.clone();
+        assertEquals  (northing, clone.parameter("8807"));
+        assertNotSame (northing, clone.parameter("8807"));
+        assertSame    (northing, group.parameter("8807"));
+    }
 }
@@ -5,6 +5,7 @@
  */
 package org.opengis.example.parameter;
 
+import javax.measure.IncommensurableException;
 import tech.uom.seshat.Units;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -49,4 +50,21 @@ public class SimpleParameterTest {
         assertEquals     (20.0,                 param.doubleValue(Units.GRAD),     EPS, "Unit conversion");
         assertArrayEquals(new double[] {20.0},  param.doubleValueList(Units.GRAD), EPS, "Unit conversion");
     }
+
+    /**
+     * Tests conversions between the parameter unit and other units, including the cache of converters.
+     *
+     * @throws IncommensurableException if a unit conversion failed.
+     */
+    @Test
+    public void testUnitConversions() throws IncommensurableException {
+        final SimpleParameter param = new SimpleParameter(null, "false easting", SimpleParameter.Type.LINEAR);
+        param.setValue(2.5, Units.KILOMETRE);
+        assertEquals(2500.0, param.doubleValue(),                EPS);
+        assertEquals(2500.0, param.doubleValue(Units.METRE),     EPS);
+        assertEquals(2.5,    param.doubleValue(Units.KILOMETRE), EPS);
+        assertSame(SimpleParameter.Type.LINEAR.converterTo(Units.KILOMETRE),
+                   SimpleParameter.Type.LINEAR.converterTo(Units.KILOMETRE));
+        assertThrows(IllegalArgumentException.class, () -> param.doubleValue(Units.SECOND));
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.BufferOverflowException;
+
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link CoordinateBuffers}.
+ */
+public final class CoordinateBuffersTest {
+    /**
+     * The transform to use for the tests: {@code x' = 2x + 1}, {@code y' = 3y - 2}.
+     */
+    private final MathTransform transform;
+
+    /**
+     * Creates a new test case.
+     */
+    public CoordinateBuffersTest() {
+        final var matrix = new SimpleMatrix(3, 3);
+        matrix.setElement(0, 0,  2);
+        matrix.setElement(0, 2,  1);
+        matrix.setElement(1, 1,  3);
+        matrix.setElement(1, 2, -2);
+        transform = new ProjectiveTransform(SimpleTransformFactory.VENDOR, "Test", null, null, matrix);
+    }
+
+    /**
+     * Tests in-place transformation in a heap buffer with packed coordinates.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testHeapBuffer() throws TransformException {
+        final double[] array = {9, 1, 2, 3, 4};
+        final DoubleBuffer buffer = DoubleBuffer.wrap(array);
+        buffer.position(1);
+        CoordinateBuffers.transform(transform, buffer, 2);
+        assertArrayEquals(new double[] {9, 3, 4, 7, 10}, array);
+        assertEquals(1, buffer.position());
+    }
+
+    /**
+     * Tests in-place transformation in a direct buffer with an attribute interleaved after each point.
+     * The number of points is large enough for requiring many chunks.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testDirectBufferWithStride() throws TransformException {
+        final int numPts = 5000;
+        final DoubleBuffer buffer = ByteBuffer.allocateDirect(numPts * 3 * Double.BYTES).asDoubleBuffer();
+        for (int i=0; i<numPts; i++) {
+            buffer.put(i).put(-i).put(100 + i);
+        }
+        buffer.flip();
+        CoordinateBuffers.transform(transform, buffer, 3);
+        for (int i=0; i<numPts; i++) {
+            assertEquals(2*i + 1,   buffer.get(i*3    ));
+            assertEquals(-3*i - 2,  buffer.get(i*3 + 1));
+            assertEquals(100 + i,   buffer.get(i*3 + 2));      // Attribute shall be unchanged.
+        }
+    }
+
+    /**
+     * Tests transformation from a strided float buffer to a packed buffer.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testFloatBuffer() throws TransformException {
+        final FloatBuffer source = FloatBuffer.wrap(new float[] {1, 2, 0, 3, 4, 0, 5, 6}).asReadOnlyBuffer();
+        final FloatBuffer target = ByteBuffer.allocateDirect(6 * Float.BYTES).asFloatBuffer();
+        CoordinateBuffers.transform(transform, source, 3, target, 2, 3);
+        final float[] actual = new float[6];
+        target.get(actual);
+        assertArrayEquals(new float[] {3, 4, 7, 10, 11, 16}, actual);
+    }
+
+    /**
+     * Tests that a target buffer too small is detected before any transformation.
+     */
+    @Test
+    public void testOverflow() {
+        final DoubleBuffer source = DoubleBuffer.allocate(6);
+        final DoubleBuffer target = DoubleBuffer.allocate(5);
+        assertThrows(BufferOverflowException.class,
+                () -> CoordinateBuffers.transform(transform, source, 2, target, 2, 3));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Iterator;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.example.geometry.SimpleDirectPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link PackedCoordinateSet}.
+ */
+public final class PackedCoordinateSetTest {
+    /**
+     * Creates a new test case.
+     */
+    public PackedCoordinateSetTest() {
+    }
+
+    /**
+     * Tests the iteration over a set backed by an array of {@code double} values.
+     */
+    @Test
+    public void testIterator() {
+        final var set = new PackedCoordinateSet.Double(SimpleCRS.Geographic.WGS84, null, 1, 2, 3, 4, 5, 6);
+        assertEquals(3, set.size());
+        assertEquals(2, set.getDimension());
+        final Iterator<DirectPosition> it = set.iterator();
+        DirectPosition p = it.next();
+        assertEquals(new SimpleDirectPosition(SimpleCRS.Geographic.WGS84, 1, 2), p);
+        assertSame(p, it.next());
+        assertArrayEquals(new double[] {3, 4}, p.getCoordinates());
+        p.setCoordinate(1, 10);
+        assertEquals(10, set.coordinates[3]);
+        assertEquals("POINT(3.0 10.0)", p.toString());
+        assertSame(p, it.next());
+        assertEquals(new SimpleDirectPosition(SimpleCRS.Geographic.WGS84, 5, 6), p);
+        assertFalse(it.hasNext());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PackedCoordinateSet.Float(SimpleCRS.Geographic.WGS84, null, 1, 2, 3));
+    }
+
+    /**
+     * Tests a parallel stream over many points.
+     */
+    @Test
+    public void testParallelStream() {
+        final float[] coordinates = new float[20000];
+        for (int i=0; i<coordinates.length; i++) {
+            coordinates[i] = i;
+        }
+        final var set = new PackedCoordinateSet.Float(SimpleCRS.Geographic.WGS84, null, coordinates);
+        final double sum = set.stream().parallel().mapToDouble((p) -> p.getCoordinate(0)).sum();
+        assertEquals(99990000, sum);
+    }
+
+    /**
+     * Tests the transformation of all points in a single call to a math transform.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testTransform() throws TransformException {
+        final var matrix = new SimpleMatrix(3, 3);
+        matrix.setElement(0, 0, 2);
+        matrix.setElement(1, 2, 1);
+        final var op = new ProjectiveTransform(SimpleTransformFactory.VENDOR, "Test",
+                SimpleCRS.Geographic.WGS84, SimpleCRS.Geographic.SPHERE, matrix);
+        final var set = new PackedCoordinateSet.Double(SimpleCRS.Geographic.WGS84, null, 1, 2, 3, 4);
+        final PackedCoordinateSet.Double result = set.transform(op);
+        assertEquals(SimpleCRS.Geographic.SPHERE, result.getCoordinateReferenceSystem());
+        assertArrayEquals(new double[] {2, 3, 6, 5}, result.coordinates);
+        assertThrows(TransformException.class, () -> result.transform(op));
+    }
+}
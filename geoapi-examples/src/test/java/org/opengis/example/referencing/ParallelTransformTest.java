@@ -0,0 +1,99 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Random;
+import java.awt.geom.Point2D;
+
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.test.referencing.TransformTestCase;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link ParallelTransform}. The arrays used in this test are large enough
+ * for being split in many chunks.
+ */
+public class ParallelTransformTest extends TransformTestCase {
+    /**
+     * The transform executed sequentially, used as a reference.
+     */
+    private final MathTransform sequential;
+
+    /**
+     * Creates a new test case wrapping a non-linear transform.
+     */
+    public ParallelTransformTest() {
+        sequential = new SimpleTransform2D(null, "Test", null, null) {
+            @Override
+            public Point2D transform(final Point2D ptSrc, Point2D ptDst) throws TransformException {
+                final double x = ptSrc.getX();
+                if (Double.isInfinite(x)) {
+                    throw new TransformException("Infinite coordinate.");
+                }
+                if (ptDst == null) {
+                    ptDst = new Point2D.Double();
+                }
+                ptDst.setLocation(x * 2 + 1, ptSrc.getY() + x*x/1000);
+                return ptDst;
+            }
+        };
+        transform = new ParallelTransform(sequential);
+        tolerance = 1E-10;
+        isDerivativeSupported = false;
+        isInverseTransformSupported = false;
+    }
+
+    /**
+     * Tests the consistency of various {@code transform} methods on arrays split in many chunks,
+     * including overlapping arrays.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testConsistency() throws TransformException {
+        verifyInDomain(new double[] {-100, -100},
+                       new double[] {+100, +100},
+                       new int[]    { 300,  300},
+                       new Random(860493712));
+    }
+
+    /**
+     * Compares the parallel execution with the sequential execution.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testCompareWithSequential() throws TransformException {
+        final int numPts = 100000;
+        final var random = new Random(5429871);
+        final double[] source = new double[numPts * 2];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 200 - 100;
+        }
+        final double[] expected = new double[source.length];
+        final double[] actual   = new double[source.length];
+        sequential.transform(source, 0, expected, 0, numPts);
+        transform .transform(source, 0, actual,   0, numPts);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests the propagation of a {@link TransformException} thrown in a worker thread.
+     */
+    @Test
+    public void testException() {
+        final int numPts = 100000;
+        final double[] source = new double[numPts * 2];
+        source[numPts] = Double.POSITIVE_INFINITY;          // x coordinate of a point in the middle.
+        final TransformException e = assertThrows(TransformException.class,
+                () -> transform.transform(source, 0, source, 0, numPts));
+        assertEquals("Infinite coordinate.", e.getMessage());
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Random;
+import java.util.Arrays;
+import java.awt.geom.Point2D;
+
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.test.referencing.AffineTransformTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests the transforms created by {@link SimpleTransformFactory}, which are specialized
+ * according the matrix shape. In addition to the tests inherited from the
+ * <code><a href="http://www.geoapi.org/conformance/index.html">geoapi-conformance</a></code>
+ * module, this class compares the specialized implementations against {@link ProjectiveTransform}.
+ */
+public class SimpleTransformFactoryTest extends AffineTransformTest {
+    /**
+     * Creates a new test case.
+     */
+    public SimpleTransformFactoryTest() {
+        super(new SimpleTransformFactory());
+    }
+
+    /**
+     * Declares that our implementation cannot invert such transform, then delegate to the parent class.
+     */
+    @Test
+    @Override
+    public void testDimensionReduction() throws FactoryException, TransformException {
+        isInverseTransformSupported = false;
+        super.testDimensionReduction();
+        assertInstanceOf(PermutationTransform.class, transform);
+    }
+
+    /**
+     * Creates a matrix of the given size initialized to the given elements.
+     *
+     * @param  numRow    number of rows in the matrix.
+     * @param  numCol    number of columns in the matrix.
+     * @param  elements  matrix element values in row-major order.
+     * @return the matrix.
+     */
+    private static SimpleMatrix matrix(final int numRow, final int numCol, final double... elements) {
+        final var m = new SimpleMatrix(numRow, numCol);
+        for (int j=0; j<numRow; j++) {
+            for (int i=0; i<numCol; i++) {
+                m.setElement(j, i, elements[j*numCol + i]);
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Creates a transform for the given matrix, verifies its class, then compares its results
+     * with the results of the generic {@link ProjectiveTransform} on random coordinates.
+     *
+     * @param  expected  the expected transform class.
+     * @param  numRow    number of rows in the matrix.
+     * @param  numCol    number of columns in the matrix.
+     * @param  elements  matrix element values.
+     * @throws FactoryException if the transform cannot be created.
+     * @throws TransformException if an error occurred while testing the transform.
+     */
+    private void runTest(final Class<? extends MathTransform> expected,
+            final int numRow, final int numCol, final double... elements)
+            throws FactoryException, TransformException
+    {
+        final SimpleMatrix m = matrix(numRow, numCol, elements);
+        transform = mtFactory.createAffineTransform(m);
+        assertEquals(expected, transform.getClass(), "Unexpected transform instance.");
+        final var reference = new ProjectiveTransform(null, "Reference", null, null, m);
+        final int srcDim = numCol - 1;
+        final int numPts = 500;
+        final var random = new Random(Arrays.hashCode(elements));
+        final double[] source = new double[numPts * srcDim];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 2000 - 1000;
+        }
+        final double[] target = new double[numPts * (numRow - 1)];
+        reference.transform(source, 0, target, 0, numPts);
+        tolerance = 1E-9;
+        verifyTransform(source, target);
+        final double[] min = new double[srcDim];
+        final double[] max = new double[srcDim];
+        final int[]    num = new int   [srcDim];
+        Arrays.fill(min, -1000);
+        Arrays.fill(max, +1000);
+        Arrays.fill(num, 8);
+        derivativeDeltas = new double[srcDim];
+        Arrays.fill(derivativeDeltas, 1);
+        isInverseTransformSupported = (numRow == numCol);
+        verifyInDomain(min, max, num, random);
+    }
+
+    /**
+     * Tests a scale and translation in a three-dimensional space.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testDiagonal3D() throws FactoryException, TransformException {
+        runTest(DiagonalTransform.class, 4, 4,
+                2, 0,   0, -5,
+                0, 3,   0,  0,
+                0, 0, 0.3,  7,
+                0, 0,   0,  1);
+    }
+
+    /**
+     * Tests an axis swapping combined with a unit conversion in a three-dimensional space.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testAxisSwapping3D() throws FactoryException, TransformException {
+        runTest(PermutationTransform.class, 4, 4,
+                0, 1, 0,    0,
+                1, 0, 0,    0,
+                0, 0, 1000, 0,
+                0, 0, 0,    1);
+    }
+
+    /**
+     * Tests a general affine transform in a three-dimensional space.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testAffine3D() throws FactoryException, TransformException {
+        runTest(AffineTransform3D.class, 4, 4,
+                0.5, 0.2, 0.1,  4,
+               -0.2, 0.5, 0.3, -2,
+                0.1, 0.3, 0.8,  1,
+                0,   0,   0,    1);
+    }
+
+    /**
+     * A non-linear two-dimensional transform used for testing concatenations.
+     * This transform computes (<var>x</var>, <var>y</var> + <var>x</var>²/1000).
+     */
+    private static final class Parabolic extends SimpleTransform2D {
+        /** Creates a new transform. */
+        Parabolic() {
+            super(null, "Parabolic", null, null);
+        }
+
+        /** Transforms the given point. */
+        @Override
+        public Point2D transform(final Point2D ptSrc, Point2D ptDst) {
+            if (ptDst == null) {
+                ptDst = new Point2D.Double();
+            }
+            final double x = ptSrc.getX();
+            ptDst.setLocation(x, ptSrc.getY() + x*x/1000);
+            return ptDst;
+        }
+    }
+
+    /**
+     * Tests the concatenation of linear transforms, which shall be fused in a single matrix.
+     *
+     * @throws FactoryException should never happen.
+     */
+    @Test
+    public void testConcatenateLinear() throws FactoryException {
+        final MathTransform tr1 = mtFactory.createAffineTransform(matrix(4, 4,
+                2, 0, 0, 1,
+                0, 3, 0, 2,
+                0, 0, 4, 3,
+                0, 0, 0, 1));
+        final MathTransform tr2 = mtFactory.createAffineTransform(matrix(4, 4,
+                0.5, 0,   0, -1,
+                0,   0.5, 0,  0,
+                0,   0,   1,  1,
+                0,   0,   0,  1));
+        final MathTransform tr = mtFactory.createConcatenatedTransform(tr1, tr2);
+        assertInstanceOf(DiagonalTransform.class, tr);
+        assertEquals(matrix(4, 4,
+                1, 0,   0, -0.5,
+                0, 1.5, 0,  1,
+                0, 0,   4,  4,
+                0, 0,   0,  1), ((ProjectiveTransform) tr).matrix);
+    }
+
+    /**
+     * Tests the concatenation of a transform with its inverse, which shall give the identity transform.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testConcatenateInverse() throws FactoryException, TransformException {
+        final MathTransform affine = mtFactory.createAffineTransform(matrix(4, 4,
+                0.5, 0.2, 0.1,  4,
+               -0.2, 0.5, 0.3, -2,
+                0.1, 0.3, 0.8,  1,
+                0,   0,   0,    1));
+        final MathTransform tr = mtFactory.createConcatenatedTransform(affine, affine.inverse());
+        assertInstanceOf(IdentityTransform.class, tr);
+        assertTrue(tr.isIdentity());
+        /*
+         * Same test with a non-linear transform between the linear ones.
+         */
+        final var parabolic = new Parabolic();
+        final MathTransform scale = mtFactory.createAffineTransform(matrix(3, 3,
+                2, 0, 0,
+                0, 3, 0,
+                0, 0, 1));
+        final MathTransform step = mtFactory.createConcatenatedTransform(scale, parabolic);
+        assertSame(parabolic, mtFactory.createConcatenatedTransform(scale.inverse(), step));
+    }
+
+    /**
+     * Tests the concatenation of linear and non-linear transforms.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testConcatenateNonLinear() throws FactoryException, TransformException {
+        final var parabolic = new Parabolic();
+        final MathTransform scale = mtFactory.createAffineTransform(matrix(3, 3,
+                2, 0, 0,
+                0, 3, 0,
+                0, 0, 1));
+        final MathTransform swap = mtFactory.createAffineTransform(matrix(3, 3,
+                0, 1, 0,
+                1, 0, 5,
+                0, 0, 1));
+        transform = mtFactory.createConcatenatedTransform(scale, parabolic);
+        transform = mtFactory.createConcatenatedTransform(transform, swap);
+        transform = mtFactory.createConcatenatedTransform(transform, scale);
+        assertInstanceOf(ConcatenatedTransform.class, transform);
+        final MathTransform[] steps = ((ConcatenatedTransform) transform).getSteps();
+        assertEquals(3, steps.length);
+        assertSame(parabolic, steps[1]);
+        /*
+         * Compare with the transforms applied one after the other.
+         */
+        final var random = new Random(3275439);
+        final double[] source = new double[2 * 10000];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 2000 - 1000;
+        }
+        final double[] expected = source.clone();
+        scale    .transform(expected, 0, expected, 0, 10000);
+        parabolic.transform(expected, 0, expected, 0, 10000);
+        swap     .transform(expected, 0, expected, 0, 10000);
+        scale    .transform(expected, 0, expected, 0, 10000);
+        tolerance = 1E-9;
+        isInverseTransformSupported = false;
+        isDerivativeSupported = false;
+        verifyTransform(source, expected);
+        verifyInDomain(new double[] {-100, -100}, new double[] {100, 100}, new int[] {50, 50}, random);
+    }
+
+    /**
+     * Tests a pass-through transform with a non-linear sub-transform.
+     *
+     * @throws FactoryException should never happen.
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testPassThrough() throws FactoryException, TransformException {
+        transform = mtFactory.createPassThroughTransform(1, new Parabolic(), 1);
+        assertInstanceOf(PassThroughTransform.class, transform);
+        assertEquals(4, transform.getSourceDimensions());
+        assertEquals(4, transform.getTargetDimensions());
+        tolerance = 1E-9;
+        isInverseTransformSupported = false;
+        isDerivativeSupported = false;
+        verifyTransform(new double[] {7, 10, 20, 9,   -3, 100, 1, 8},
+                        new double[] {7, 10, 20.1, 9, -3, 100, 11, 8});
+        verifyInDomain(new double[] {-10, -100, -100, -10}, new double[] {10, 100, 100, 10},
+                       new int[] {5, 10, 10, 5}, new Random(8204518));
+        /*
+         * Transformation in place over many chunks shall give the same result as in a separated array.
+         */
+        final Random random = new Random(5728362);
+        final double[] coordinates = new double[4 * 3000];
+        for (int i=0; i<coordinates.length; i++) {
+            coordinates[i] = random.nextDouble() * 200 - 100;
+        }
+        final double[] expected = new double[coordinates.length];
+        transform.transform(coordinates, 0, expected, 0, 3000);
+        transform.transform(coordinates, 0, coordinates, 0, 3000);
+        assertArrayEquals(expected, coordinates);
+        /*
+         * Linear sub-transform shall be expanded to a larger matrix.
+         */
+        final MathTransform scale = mtFactory.createAffineTransform(matrix(2, 2,
+                3, 1,
+                0, 1));
+        final MathTransform tr = mtFactory.createPassThroughTransform(1, scale, 1);
+        assertEquals(matrix(4, 4,
+                1, 0, 0, 0,
+                0, 3, 0, 1,
+                0, 0, 1, 0,
+                0, 0, 0, 1), ((ProjectiveTransform) tr).matrix);
+    }
+}
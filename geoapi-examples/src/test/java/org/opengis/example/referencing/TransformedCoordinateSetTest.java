@@ -0,0 +1,163 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.List;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.time.temporal.Temporal;
+import java.awt.geom.Point2D;
+
+import org.opengis.geometry.DirectPosition;
+import org.opengis.coordinate.CoordinateSet;
+import org.opengis.coordinate.CoordinateMetadata;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.example.geometry.SimpleDirectPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link TransformedCoordinateSet}. The number of points is large enough for requiring many chunks.
+ */
+public final class TransformedCoordinateSetTest {
+    /**
+     * Number of points in the source coordinate set.
+     */
+    private static final int NUM_POINTS = 10000;
+
+    /**
+     * Index of a point which cannot be transformed, or -1 if none.
+     */
+    private int invalidPoint = -1;
+
+    /**
+     * The transform to test: {@code x' = x + 1}, {@code y' = 2y}, failing on the invalid point.
+     */
+    private final SimpleTransform transform;
+
+    /**
+     * The source coordinate tuples, in {@link SimpleCRS.Geographic#WGS84}.
+     */
+    private final List<DirectPosition> points;
+
+    /**
+     * Creates a new test case.
+     */
+    public TransformedCoordinateSetTest() {
+        transform = new SimpleTransform2D(SimpleTransformFactory.VENDOR, "Test",
+                SimpleCRS.Geographic.WGS84, SimpleCRS.Geographic.SPHERE)
+        {
+            @Override
+            public Point2D transform(final Point2D ptSrc, Point2D ptDst) throws TransformException {
+                if (ptSrc.getX() == invalidPoint) {
+                    throw new TransformException("Invalid point.");
+                }
+                if (ptDst == null) {
+                    ptDst = new Point2D.Double();
+                }
+                ptDst.setLocation(ptSrc.getX() + 1, ptSrc.getY() * 2);
+                return ptDst;
+            }
+        };
+        points = new ArrayList<>(NUM_POINTS);
+        for (int i=0; i<NUM_POINTS; i++) {
+            points.add(new SimpleDirectPosition(SimpleCRS.Geographic.WGS84, i, -i));
+        }
+    }
+
+    /**
+     * Returns the source points as a coordinate set.
+     *
+     * @return a coordinate set over the source points.
+     */
+    private CoordinateSet source() {
+        return new CoordinateSet() {
+            @Override public CoordinateMetadata getCoordinateMetadata() {
+                return new CoordinateMetadata() {
+                    @Override public CoordinateReferenceSystem getCoordinateReferenceSystem() {
+                        return SimpleCRS.Geographic.WGS84;
+                    }
+
+                    @Override public Optional<Temporal> getCoordinateEpoch() {
+                        return Optional.empty();
+                    }
+                };
+            }
+
+            @Override public Iterator<DirectPosition> iterator() {
+                return points.iterator();
+            }
+
+            @Override public Spliterator<DirectPosition> spliterator() {
+                return points.spliterator();
+            }
+        };
+    }
+
+    /**
+     * Verifies that the given position is the transformed point at the given index.
+     *
+     * @param  index     index of the source point.
+     * @param  position  the transformed position to verify.
+     */
+    private static void verify(final int index, final DirectPosition position) {
+        assertEquals(SimpleCRS.Geographic.SPHERE, position.getCoordinateReferenceSystem());
+        assertArrayEquals(new double[] {index + 1, -2*index}, position.getCoordinates());
+    }
+
+    /**
+     * Tests a sequential iteration.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testIterator() throws TransformException {
+        final CoordinateSet result = transform.transform(source());
+        assertEquals(SimpleCRS.Geographic.SPHERE, result.getCoordinateMetadata().getCoordinateReferenceSystem());
+        int index = 0;
+        for (final DirectPosition position : result) {
+            verify(index++, position);
+        }
+        assertEquals(NUM_POINTS, index);
+    }
+
+    /**
+     * Tests a parallel stream.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testParallelStream() throws TransformException {
+        final CoordinateSet result = transform.transform(source());
+        final List<DirectPosition> positions = result.stream().parallel().collect(Collectors.toList());
+        assertEquals(NUM_POINTS, positions.size());
+        for (int i=0; i<NUM_POINTS; i++) {
+            verify(i, positions.get(i));
+        }
+    }
+
+    /**
+     * Tests the report of a failure, including the index of the chunk which failed.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testFailure() throws TransformException {
+        invalidPoint = 5000;
+        final CoordinateSet result = transform.transform(source());
+        final UncheckedTransformException e = assertThrows(UncheckedTransformException.class,
+                () -> result.stream().parallel().forEach((p) -> {}));
+        assertEquals("Invalid point.", e.getCause().getMessage());
+        assertTrue(e.getFirstPoint() <= invalidPoint);
+        assertTrue(e.getFirstPoint() + e.getNumPoints() > invalidPoint);
+    }
+}
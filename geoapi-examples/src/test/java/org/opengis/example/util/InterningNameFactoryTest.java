@@ -0,0 +1,56 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.util;
+
+import org.opengis.util.NameSpace;
+import org.opengis.util.TypeName;
+import org.opengis.util.GenericName;
+import org.opengis.test.util.NameTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests the {@link InterningNameFactory}.
+ * This class inherits tests from the {@code geoapi-conformance} module,
+ * and adds tests of the canonical instances.
+ */
+public class InterningNameFactoryTest extends NameTest {
+    /**
+     * Initializes a new test case using a new interning factory.
+     */
+    public InterningNameFactoryTest() {
+        super(new InterningNameFactory());
+        isMultiLocaleSupported = false;
+        isMixedNameSyntaxSupported = false;
+    }
+
+    /**
+     * Verifies that equal names are the same instance.
+     */
+    @Test
+    public void testCanonicalInstances() {
+        final GenericName gml = factory.createLocalName(null, "gml");
+        assertSame(gml, factory.createLocalName(null, "gml"));
+        assertSame(gml, factory.createGenericName(null, "gml"));
+        assertSame(gml, factory.parseGenericName(null, "gml"));
+
+        final GenericName scoped = factory.parseGenericName(null, "gml:name");
+        assertSame(scoped, factory.createGenericName(null, "gml", "name"));
+        assertNotSame(scoped.tip(), factory.createLocalName(null, "name"), "Different scopes.");
+
+        final NameSpace ns = factory.createNameSpace(gml, null);
+        assertSame(factory.createLocalName(ns, "name"), factory.createLocalName(ns, "name"));
+        assertSame(factory.createLocalName(ns, "name"), factory.createGenericName(ns, "name", "x").head());
+
+        final TypeName real = factory.createTypeName(null, "Real", Double.class);
+        assertSame(real, factory.createTypeName(null, "Real", Double.class));
+        assertNotSame(real, factory.createTypeName(null, "Real", Float.class));
+        assertNotSame(real, factory.createLocalName(null, "Real"));
+        assertSame(factory.createMemberName(null, "x", real), factory.createMemberName(null, "x", real));
+    }
+}
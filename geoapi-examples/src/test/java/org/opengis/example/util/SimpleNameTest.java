@@ -5,12 +5,21 @@
  */
 package org.opengis.example.util;
 
+import java.util.List;
+import org.opengis.util.NameSpace;
+import org.opengis.util.LocalName;
+import org.opengis.util.ScopedName;
+import org.opengis.util.GenericName;
 import org.opengis.test.util.NameTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
  * Tests the {@link SimpleName} implementations.
- * This class inherits its the tests from the {@code geoapi-conformance} module.
+ * This class inherits its the tests from the {@code geoapi-conformance} module,
+ * and adds tests of the cached parsed names.
  */
 public class SimpleNameTest extends NameTest {
     /**
@@ -21,4 +30,70 @@ public class SimpleNameTest extends NameTest {
         isMultiLocaleSupported = false;
         isMixedNameSyntaxSupported = false;
     }
+
+    /**
+     * Verifies that the parsed names, head and tip are computed once and shared.
+     */
+    @Test
+    public void testCachedParsedNames() {
+        final GenericName name = factory.parseGenericName(null, "urn:ogc:def");
+        final List<? extends LocalName> parsed = name.getParsedNames();
+        assertSame(parsed, name.getParsedNames());
+        assertSame(parsed.get(0), name.head());
+        assertSame(parsed.get(2), name.tip());
+        assertSame(name.toString(), name.toString());
+        assertThrows(UnsupportedOperationException.class, () -> name.getParsedNames().clear());
+    }
+
+    /**
+     * Verifies that {@link SimpleName#push(GenericName)} shares the parsed names of its operands.
+     */
+    @Test
+    public void testPush() {
+        final GenericName ogc = factory.parseGenericName(null, "urn:ogc");
+        final NameSpace ns = factory.createNameSpace(ogc, null);
+        final GenericName def = factory.parseGenericName(ns, "def:crs");
+        final List<? extends LocalName> prefix = ogc.getParsedNames();
+        final List<? extends LocalName> suffix = def.getParsedNames();
+        final ScopedName name = def.push(ogc);
+        assertEquals("urn:ogc:def:crs", name.toString());
+        assertEquals(4, name.depth());
+        assertEquals(factory.parseGenericName(null, "urn:ogc:def:crs"), name);
+        assertSame(prefix.get(0), name.head());
+        assertSame(prefix.get(1), name.getParsedNames().get(1));
+        assertSame(suffix.get(0), name.getParsedNames().get(2));
+        assertSame(suffix.get(1), name.tip());
+        assertEquals(def.toFullyQualifiedName(), name);
+    }
+
+    /**
+     * Tests the lexicographical order of names.
+     */
+    @Test
+    public void testCompareTo() {
+        final GenericName a  = factory.parseGenericName(null, "ogc:crs");
+        final GenericName b  = factory.parseGenericName(null, "ogc:crs:84");
+        final GenericName c  = factory.parseGenericName(null, "ogc:def");
+        assertEquals(0, a.compareTo(factory.parseGenericName(null, "ogc:crs")));
+        assertTrue(a.compareTo(b) < 0);
+        assertTrue(b.compareTo(c) < 0);
+        assertTrue(c.compareTo(a) > 0);
+    }
+
+    /**
+     * Verifies that comparisons honor the case and blank rules of the factory syntax.
+     */
+    @Test
+    public void testSyntaxInsensitiveComparison() {
+        final var lenient = new SimpleNameFactory(SimpleNameFactory.DEFAULT) {{
+            syntax.setProperty("jndi.syntax.ignorecase", "true");
+            syntax.setProperty("jndi.syntax.trimblanks", "true");
+        }};
+        final GenericName a = lenient.parseGenericName(null, "OGC:crs");
+        final GenericName b = lenient.parseGenericName(null, "ogc: CRS");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(0, a.compareTo(b));
+        assertNotEquals(a, lenient.parseGenericName(null, "ogc:def"));
+    }
 }
@@ -23,11 +23,12 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.InaccessibleObjectException;
-import java.util.ArrayList;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.opengis.annotation.UML;
@@ -91,20 +92,43 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
 
     /**
      * The values for each code list.
-     * Map keys are the {@code CodeList} classes for which elements are listed, and map values are those elements.
+     * Keys are the {@code CodeList} classes for which elements are listed, and values are those elements.
      * Each code list element shall be stored in the list at the index corresponding to its {@link #ordinal} value.
      * Elements are stored as {@code CodeList} instances if available, or by their {@code String} names otherwise.
      * Names are sometime used instead of instances because assigning {@code this} at construction time is unsafe.
      * Those names will be replaced by the actual instances by the {@code valueOf(String)} method or by reflection.
      *
      * <h4>Class unloading</h4>
-     * The use of {@link WeakHashMap} allows class unloading, but can work only as long as the list
-     * associated to a class contains only {@code String} elements. After storing at least one instance,
-     * the indirect references to the class prevent the {@code Class} key from being garbage-collected.
+     * The use of {@link ClassValue} allows class unloading, because the list is referenced by the {@code Class}
+     * key itself. Getting the list of an existing code list class does not require synchronization.
      *
      * @see #values(Class)
      */
-    private static final Map<Class<? extends CodeList<?>>, Elements> VALUES = new WeakHashMap<>();
+    private static final ClassValue<Elements> VALUES = new ElementsByClass();
+
+    /**
+     * Provides the {@link Elements} list associated to each {@code CodeList} class.
+     * This is the type of the {@link #VALUES} map.
+     */
+    private static final class ElementsByClass extends ClassValue<Elements> {
+        /**
+         * Creates the {@link #VALUES} map.
+         */
+        ElementsByClass() {
+        }
+
+        /**
+         * Creates the list of elements for the given code list class.
+         *
+         * @param  type  the {@code CodeList} class for which to create a list of elements.
+         * @return an initially empty list of elements for the given class.
+         */
+        @Override
+        @SuppressWarnings("unchecked")      // The cast is safe because only `CodeList` subclasses are used as keys.
+        protected Elements computeValue(final Class<?> type) {
+            return new Elements((Class<? extends CodeList<?>>) type);
+        }
+    }
 
     /**
      * Elements stored in the {@link #VALUES} map for a given {@code CodeList} class.
@@ -112,9 +136,30 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
      * or only their names when storing the instance would be unsafe ("this-escape").
      * The {@link #get(int)} method may return a {@link String} or a {@link CodeList}.
      * If a {@code CodeList} is desired, use {@link #resolve(Class, int)} instead.
+     *
+     * <p>In addition to the list, this class maintains an index of elements by names, ignoring case.
+     * The index can be read without synchronization, but is modified only in blocks synchronized on
+     * {@code this} list.</p>
      */
     @SuppressWarnings("serial")     // Not intended to be serialized.
     private static final class Elements extends ArrayList<Object> {
+        /**
+         * Code list elements, or their ordinal values if not yet resolved, indexed by {@linkplain #key keys}
+         * derived from their names. If many elements have names that are equal ignoring case, only the first
+         * one (in declaration order) is indexed.
+         *
+         * @see #lookup(String)
+         */
+        private final ConcurrentHashMap<String,Object> index;
+
+        /**
+         * Public static fields annotated with {@link UML}, indexed by field names.
+         * This map is computed when first needed in a single reflective pass over the fields.
+         *
+         * @see #annotatedField(Class, String)
+         */
+        private volatile Map<String,Field> annotatedFields;
+
         /**
          * Whether all code list names in this list have been replaced by the actual instances.
          * This is used for faster {@link #toArray(Class)} execution when there is no longer a
@@ -124,6 +169,12 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
          */
         boolean resolved;
 
+        /**
+         * Whether {@link #valueList(Class)} has already verified that the code list class is initialized.
+         * This is used for avoiding to force class initialization again for code lists without constants.
+         */
+        volatile boolean initialized;
+
         /**
          * Creates a new, initially empty, list.
          *
@@ -131,6 +182,62 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
          */
         Elements(final Class<? extends CodeList<?>> type) {
             super(capacity(type));
+            index = new ConcurrentHashMap<>(capacity(type));
+        }
+
+        /**
+         * Returns the key to use in the index for the given name. Two names have the same key if and only if
+         * they are {@linkplain String#equalsIgnoreCase(String) equal, ignoring case}. This is achieved by
+         * applying the same case conversions as {@code equalsIgnoreCase(String)} on each character.
+         *
+         * @param  name  the code list name.
+         * @return the key to use in the index for the given name.
+         */
+        private static String key(final String name) {
+            final char[] chars = name.toCharArray();
+            for (int i=0; i<chars.length; i++) {
+                chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+            }
+            return new String(chars);
+        }
+
+        /**
+         * Adds a code list name in the list and in the index.
+         * Callers must invoke this method in a block synchronized on {@code this} list.
+         *
+         * @param  code  the code list name or instance to add.
+         * @param  name  the code list name.
+         * @return the ordinal value of the added code.
+         */
+        final int register(final Object code, final String name) {
+            final int ordinal = size();
+            add(code);
+            index.putIfAbsent(key(name), ordinal);
+            resolved = false;
+            return ordinal;
+        }
+
+        /**
+         * Replaces a code list name by the actual instance in the list and in the index.
+         * Callers must invoke this method in a block synchronized on {@code this} list.
+         *
+         * @param  element  the code list element to store.
+         */
+        final void store(final CodeList<?> element) {
+            final int ordinal = element.ordinal();
+            set(ordinal, element);
+            index.replace(key(element.name()), ordinal, element);
+        }
+
+        /**
+         * Returns the indexed element for the given name, ignoring case.
+         * This method can be invoked without synchronization.
+         *
+         * @param  name  the code list name.
+         * @return the code list element if resolved, its ordinal value if not resolved, or {@code null} if none.
+         */
+        final Object lookup(final String name) {
+            return index.get(key(name));
         }
 
         /** Workaround while waiting for JEP 447: Statements before super(…). */
@@ -164,7 +271,7 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
                 }
                 element = codeType.cast(field.get(null));
                 if (element.ordinal() == index && element.name().equals(code)) {
-                    set(index, element);
+                    store(element);
                 } else {
                     throw new IllegalStateException("Conflict between " + element + " and " + code + '.');
                 }
@@ -183,6 +290,29 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
             return element;
         }
 
+        /**
+         * Returns the public static field of the given name if that field has a {@link UML} annotation.
+         * All fields of the code list class are inspected on the first invocation of this method,
+         * then the result is cached. This method does not need to be invoked in a synchronized block.
+         *
+         * @param  codeType  the type of the code list.
+         * @param  name      name of the desired field.
+         * @return the annotated field of the given name, or {@code null} if none.
+         */
+        final Field annotatedField(final Class<?> codeType, final String name) {
+            Map<String,Field> fields = annotatedFields;
+            if (fields == null) {
+                fields = new HashMap<>();
+                for (final Field field : codeType.getFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) && field.isAnnotationPresent(UML.class)) {
+                        fields.putIfAbsent(field.getName(), field);
+                    }
+                }
+                annotatedFields = fields = Map.copyOf(fields);
+            }
+            return fields.get(name);
+        }
+
         /**
          * Produces the message for a field that cannot be read by reflection.
          * Used for exception messages or for log record messages.
@@ -248,6 +378,12 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
      */
     private transient String identifier;
 
+    /**
+     * All names of this code, computed when first needed.
+     * A copy of this array is returned by {@link #names()}.
+     */
+    private transient volatile String[] names;
+
     /**
      * Creates a new code list element. If this constructor is invoked for initializing a static field,
      * then the given name <em>shall</em> be the case-sensitive name of the static field.
@@ -267,25 +403,9 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
         }
         @SuppressWarnings("unchecked")      // The following cast should never fail.
         var codeType = (Class<? extends CodeList<?>>) type;
-        final Elements values = getOrCreateList(codeType);
+        final Elements values = VALUES.get(codeType);
         synchronized (values) {
-            ordinal = values.size();
-            values.add(name);           // Needed for incrementing the list size.
-            values.resolved = false;
-        }
-    }
-
-    /**
-     * Returns the list associated to the specified type of code list, creating the list if needed.
-     * This method should be invoked only when the {@code codeType} class is known to be initialized.
-     * If the class may be uninitialized, use {@link #valueList(Class)} instead.
-     *
-     * @param  codeType  the type of code list for which to get the code list values.
-     * @return all values for the given type. Never {@code null} but potentially empty.
-     */
-    private static Elements getOrCreateList(final Class<? extends CodeList<?>> codeType) {
-        synchronized (VALUES) {
-            return VALUES.computeIfAbsent(codeType, Elements::new);
+            ordinal = values.register(name, name);      // Store the name because `this` is not fully constructed.
         }
     }
 
@@ -310,6 +430,10 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
      * Being case-insensitive allows to recognize some UML identifiers as equivalent to the names
      * of constants declared in {@code CodeList} subclasses.
      *
+     * <h4>Concurrency</h4>
+     * Elements are found in an index by names without synchronization.
+     * A lock is taken only when an element needs to be resolved by reflection or created.
+     *
      * @param  <E>          the compile-time type given as the {@code codeType} parameter.
      * @param  codeType     the type of the code list for which to get an element.
      * @param  name         the name of the code to obtain (case-insensitive), or {@code null}.
@@ -325,29 +449,26 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
     {
         if (name != null && !(name = name.trim()).isBlank()) {
             final Elements values = valueList(codeType);
+            final Object code = values.lookup(name);
+            if (code instanceof CodeList<?>) {
+                return Optional.of(codeType.cast(code));            // Most common case, without synchronization.
+            }
             /*
-             * The search and, eventually, the code creation are done in the same synchronized
-             * block for making sure that the same code is not created twice concurrently.
+             * The search is done again in a synchronized block for making sure that the same code
+             * is not created twice concurrently. It may also need to resolve the code by reflection.
              */
             synchronized (values) {
-                final int size = values.size();
-                for (int i=0; i<size; i++) {
-                    final E element;
-                    final Object code = values.get(i);
-                    if (code instanceof String) {
-                        if (!name.equalsIgnoreCase((String) code)) continue;
-                        element = values.resolve(codeType, i);
-                    } else {
-                        element = codeType.cast(code);
-                    }
-                    if (name.equalsIgnoreCase(element.name())) {
-                        return Optional.of(element);
-                    }
+                final Object ordinal = values.lookup(name);
+                if (ordinal instanceof Integer) {
+                    return Optional.of(values.resolve(codeType, (Integer) ordinal));
+                }
+                if (ordinal != null) {
+                    return Optional.of(codeType.cast(ordinal));     // Created concurrently in another thread.
                 }
                 if (constructor != null) {
                     final E element = constructor.apply(name);
                     if (element != null) {
-                        values.set(element.ordinal(), element);
+                        values.store(element);
                         return Optional.of(element);
                     }
                 }
@@ -358,29 +479,29 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
 
     /**
      * Returns the list of code list names or instances for the specified type of code list.
-     * Callers shall use the returned list in a block synchronized on the list instance.
+     * Callers shall use the returned list in a block synchronized on the list instance,
+     * except for the {@link Elements#lookup(String)} method.
      *
      * @param  codeType  the type of code list for which to get the current code list values.
      * @return all current values for the given type (never {@code null}).
      */
     private static Elements valueList(final Class<? extends CodeList<?>> codeType) {
-        Elements values;
-        synchronized (VALUES) {
-            values = VALUES.get(codeType);
-        }
-        if (values == null) {
-            /*
-             * If no list has been found for the given type, maybe the class was not yet initialized.
-             * Try to force initialization of the given class in order to register its list of static
-             * final constants, then check again.
-             */
-            final String classname = Objects.requireNonNull(codeType, "The codeType argument shall not be null.").getName();
-            try {
-                Class.forName(classname, true, codeType.getClassLoader());
-            } catch (ClassNotFoundException e) {
-                throw new TypeNotPresentException(classname, e);             // Should never happen.
+        final Elements values = VALUES.get(Objects.requireNonNull(codeType, "The codeType argument shall not be null."));
+        if (!values.initialized) {
+            if (values.index.isEmpty()) {
+                /*
+                 * If the list is empty, maybe the class was not yet initialized. Try to force initialization
+                 * of the given class in order to register its list of static final constants. The same list
+                 * instance will be filled by the constructors.
+                 */
+                final String classname = codeType.getName();
+                try {
+                    Class.forName(classname, true, codeType.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    throw new TypeNotPresentException(classname, e);         // Should never happen.
+                }
             }
-            values = getOrCreateList(codeType);
+            values.initialized = true;
         }
         return values;
     }
@@ -428,17 +549,23 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
      *
      * Those names are typically equal except for the case (programmatic names are upper case
      * while UML names are lower case) and special characters like {@code '-'}.
+     * The names are computed once, then this method returns a copy of the cached array.
      *
      * @return all names of this code constant. This array is never null and never empty.
      */
     @Override
     public String[] names() {
-        final String id = identifier();
-        if (id != null && !id.equals(name)) {
-            return new String[] {name, id};
-        } else {
-            return new String[] {name};
+        String[] n = names;
+        if (n == null) {
+            final String id = identifier();
+            if (id != null && !id.equals(name)) {
+                n = new String[] {name, id};
+            } else {
+                n = new String[] {name};
+            }
+            names = n;      // No need to synchronize: it is okay if computed twice.
         }
+        return n.clone();
     }
 
     /**
@@ -471,36 +598,30 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
         String id = identifier;
         if (id == null) {
             id = "";
-            try {
-                final Field field = getClass().getField(name);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    boolean valid;
-                    try {
-                        valid = equals(field.get(null));
-                    } catch (IllegalAccessException e) {
-                        /*
-                         * Should never happen with accessible packages because `getField(String)` returns
-                         * only public fields. However, it may happen if the code list is defined in a user
-                         * module and that module does not export the package containing the code list.
-                         * In such case, we have to trust the name provided in this code list instance.
-                         */
-                        valid = true;
-                        System.getLogger(Errors.LOGGER).log(System.Logger.Level.DEBUG, this::cannotReadField, e);
-                    }
-                    if (valid) {
-                        // Fetching annotations is allowed even with non-exported packages.
-                        final UML annotation = field.getAnnotation(UML.class);
-                        if (annotation != null) {
-                            id = annotation.identifier().intern();
-                        }
-                    }
+            /*
+             * The field may not exist. It may be normal, because the user may have
+             * created a custom `CodeList` without declaring it as a constant.
+             */
+            final Class<?> codeType = getClass();
+            final Field field = VALUES.get(codeType).annotatedField(codeType, name);
+            if (field != null) {
+                boolean valid;
+                try {
+                    valid = equals(field.get(null));
+                } catch (IllegalAccessException e) {
+                    /*
+                     * Should never happen with accessible packages because `getFields()` returns
+                     * only public fields. However, it may happen if the code list is defined in a user
+                     * module and that module does not export the package containing the code list.
+                     * In such case, we have to trust the name provided in this code list instance.
+                     */
+                    valid = true;
+                    System.getLogger(Errors.LOGGER).log(System.Logger.Level.DEBUG, this::cannotReadField, e);
+                }
+                if (valid) {
+                    // Fetching annotations is allowed even with non-exported packages.
+                    id = field.getAnnotation(UML.class).identifier().intern();
                 }
-            } catch (NoSuchFieldException e) {
-                /*
-                 * There is no field for a code of this name. It may be normal, because the user
-                 * may have created a custom `CodeList` without declaring it as a constant.
-                 */
-                System.getLogger(Errors.LOGGER).log(System.Logger.Level.TRACE, this::cannotReadField, e);
             }
             identifier = id;
         }
@@ -597,10 +718,10 @@ public abstract class CodeList<E extends CodeList<E>> implements ControlledVocab
         if (element != null) {
             return element;
         }
-        final Elements values = getOrCreateList(codeType);
+        final Elements values = VALUES.get(codeType);
         synchronized (values) {
-            ordinal = values.size();
-            values.add(this);
+            ordinal = values.register(this, name);
+            values.store(this);
         }
         return this;
     }
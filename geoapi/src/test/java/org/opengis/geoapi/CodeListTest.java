@@ -21,10 +21,13 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 import org.opengis.util.CodeList;
 import org.opengis.util.ControlledVocabulary;
 import org.opengis.metadata.constraint.Restriction;
 import org.opengis.metadata.identification.CharacterSet;
+import org.opengis.metadata.identification.KeywordType;
 import org.opengis.geoapi.internal.Vocabulary;
 import org.opengis.annotation.UML;
 import org.junit.jupiter.api.Test;
@@ -151,4 +154,76 @@ public final class CodeListTest {
         assertSame(Restriction.LICENCE,   Restriction.valueOf("LICENCE"));
         assertSame(Restriction.LICENCE,   Restriction.valueOf("LICENSE"));
     }
+
+    /**
+     * Tests {@link CodeList#identifier()} and {@link CodeList#names()} on codes with and without UML annotation.
+     */
+    @Test
+    public void testNames() {
+        final CodeList<?> code = KeywordType.THEME;
+        assertEquals("theme", code.identifier());
+        final String[] names = code.names();
+        assertArrayEquals(new String[] {"THEME", "theme"}, names);
+        names[0] = null;
+        assertArrayEquals(new String[] {"THEME", "theme"}, code.names());
+        assertNull(TestCode.FIRST.identifier());
+        assertArrayEquals(new String[] {"FIRST"}, TestCode.FIRST.names());
+    }
+
+    /**
+     * A code list used for testing the creation of new codes without modifying the GeoAPI code lists.
+     */
+    @SuppressWarnings("serial")
+    public static final class TestCode extends CodeList<TestCode> {
+        /** A predefined code. */
+        public static final TestCode FIRST = new TestCode("FIRST");
+
+        /**
+         * Creates a new code of the given name.
+         *
+         * @param  name  the name of the new code.
+         */
+        private TestCode(final String name) {
+            super(name);
+        }
+
+        /**
+         * Returns the code of the given name, creating it if needed.
+         *
+         * @param  name  the name of the code to obtain or to create.
+         * @return a code matching the given name.
+         */
+        static TestCode valueOf(final String name) {
+            return valueOf(TestCode.class, name, TestCode::new).get();
+        }
+
+        /** Returns all codes of this type. */
+        @Override
+        public TestCode[] family() {
+            return values(TestCode.class);
+        }
+    }
+
+    /**
+     * Tests {@link CodeList#valueOf(Class, String, java.util.function.Function)} with names differing by case,
+     * and the creation of the same new code from many threads.
+     */
+    @Test
+    public void testValueOf() {
+        assertSame(Restriction.COPYRIGHT, Restriction.valueOf("copyright"));
+        assertSame(TestCode.FIRST, TestCode.valueOf(" First "));
+        final TestCode[] created = IntStream.range(0, 1000).parallel()
+                .mapToObj((i) -> TestCode.valueOf("CONCURRENTLY_CREATED_" + (i & 7)))
+                .toArray(TestCode[]::new);
+        for (int i=0; i<created.length; i++) {
+            assertSame(created[i & 7], created[i]);
+            assertSame(created[i], TestCode.valueOf("concurrently_created_" + (i & 7)));
+        }
+        final TestCode[] values = TestCode.FIRST.family();
+        assertEquals(9, values.length);
+        for (int i=0; i<values.length; i++) {
+            assertEquals(i, values[i].ordinal());
+        }
+        assertTrue(Arrays.asList(values).contains(created[0]));
+    }
 }